@@ -89,4 +89,44 @@ public interface OgmProperties {
 	 * database will have the name defined with {@link #DATABASE}. Accepts "true" or "false".
 	 */
 	String CREATE_DATABASE = "hibernate.org.datastore.createdatabase";
+
+	/**
+	 * Property for enabling the collection of metrics about the datastore operations executed by the grid dialect:
+	 * counts, latencies and sizes per operation and table. They can be obtained from the
+	 * {@link org.hibernate.ogm.dialect.metrics.GridDialectMetrics} service. Accepts "true" or "false", defaults to
+	 * false. If disabled, the grid dialect is not instrumented at all.
+	 */
+	String DIALECT_METRICS = "hibernate.ogm.datastore.dialect_metrics";
+
+	/**
+	 * Property for publishing the grid dialect metrics as MBean via JMX. Enables the collection of metrics. Accepts
+	 * "true" or "false", defaults to false.
+	 */
+	String DIALECT_METRICS_JMX = "hibernate.ogm.datastore.dialect_metrics.jmx_enabled";
+
+	/**
+	 * Property for specifying a {@link org.hibernate.ogm.dialect.metrics.GridDialectMetricsListener} to be notified
+	 * about each operation executed by the grid dialect. Enables the collection of metrics. Supported value types are:
+	 * <ul>
+	 * <li>{@link String}: the fully qualified name of a {@code GridDialectMetricsListener} type</li>
+	 * <li>{@link Class}: the class object representing a {@code GridDialectMetricsListener} type</li>
+	 * <li>{@code GridDialectMetricsListener}: a listener instance</li>
+	 * </ul>
+	 */
+	String DIALECT_METRICS_LISTENER = "hibernate.ogm.datastore.dialect_metrics.listener";
+
+	/**
+	 * Property for setting the number of threads executing the operations of a flush concurrently, for the grid
+	 * dialects executing them in batches. The operations writing to different tables are dispatched to these threads,
+	 * the ones of the first table being executed by the flushing thread. Accepts {@code int}, defaults to the number of
+	 * available processors. A value of 0 executes all the operations from the flushing thread.
+	 */
+	String BATCH_DISPATCH_THREADS = "hibernate.ogm.datastore.batch_dispatch_threads";
+
+	/**
+	 * Property for setting the maximum number of parsed queries kept per session factory by the query parser services
+	 * supporting it, so that executing the same query again doesn't require it to be parsed again. The least recently
+	 * used queries are evicted first. Accepts {@code int}, defaults to 2048. A value of 0 disables the cache.
+	 */
+	String QUERY_PLAN_CACHE_MAX_SIZE = "hibernate.ogm.query.plan_cache_max_size";
 }
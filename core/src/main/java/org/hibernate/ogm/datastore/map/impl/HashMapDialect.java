@@ -37,20 +37,26 @@
 import org.hibernate.ogm.datastore.spi.AssociationContext;
 import org.hibernate.ogm.datastore.spi.Tuple;
 import org.hibernate.ogm.datastore.spi.TupleContext;
-import org.hibernate.ogm.dialect.GridDialect;
+import org.hibernate.ogm.dialect.DuplicateInsertAwareGridDialect;
+import org.hibernate.ogm.dialect.OptimisticLockingAwareGridDialect;
+import org.hibernate.ogm.dialect.impl.GridDialects;
 import org.hibernate.ogm.grid.AssociationKey;
 import org.hibernate.ogm.grid.EntityKey;
 import org.hibernate.ogm.grid.EntityKeyMetadata;
 import org.hibernate.ogm.grid.RowKey;
 import org.hibernate.ogm.massindex.batchindexing.Consumer;
 import org.hibernate.ogm.type.GridType;
+import org.hibernate.ogm.util.impl.Log;
+import org.hibernate.ogm.util.impl.LoggerFactory;
 import org.hibernate.persister.entity.Lockable;
 import org.hibernate.type.Type;
 
 /**
  * @author Sanne Grinovero <sanne@hibernate.org> (C) 2011 Red Hat Inc.
  */
-public class HashMapDialect implements GridDialect {
+public class HashMapDialect implements DuplicateInsertAwareGridDialect, OptimisticLockingAwareGridDialect {
+
+	private static final Log log = LoggerFactory.make();
 
 	private final MapDatastoreProvider provider;
 
@@ -86,7 +92,7 @@ public Tuple getTuple(EntityKey key, TupleContext tupleContext) {
 			return null;
 		}
 		else {
-			return new Tuple( new MapTupleSnapshot( entityMap ) );
+			return new Tuple( new MapTupleSnapshot( entityMap ), tupleContext.getColumnIndex() );
 		}
 	}
 
@@ -97,12 +103,36 @@ public Tuple createTuple(EntityKey key) {
 		return new Tuple( new MapTupleSnapshot( tuple ) );
 	}
 
+	@Override
+	public Tuple createTupleForInsert(EntityKey key, TupleContext tupleContext) {
+		HashMap<String,Object> tuple = new HashMap<String,Object>();
+		if ( !provider.putEntityIfAbsent( key, tuple ) ) {
+			throw log.entityAlreadyExists( key );
+		}
+		return new Tuple( new MapTupleSnapshot( tuple ), tupleContext.getColumnIndex() );
+	}
+
 	@Override
 	public void updateTuple(Tuple tuple, EntityKey key) {
 		Map<String,Object> entityRecord = ( (MapTupleSnapshot) tuple.getSnapshot() ).getMap();
 		MapHelpers.applyTupleOpsOnMap( tuple, entityRecord );
 	}
 
+	@Override
+	public boolean updateTupleWithOptimisticLock(EntityKey key, Tuple oldLockState, Tuple tuple, TupleContext tupleContext) {
+		Map<String, Object> entityRecord = provider.getEntityTuple( key );
+		if ( entityRecord == null ) {
+			return false;
+		}
+		synchronized ( entityRecord ) {
+			if ( !GridDialects.matches( oldLockState, new Tuple( new MapTupleSnapshot( entityRecord ) ) ) ) {
+				return false;
+			}
+			MapHelpers.applyTupleOpsOnMap( tuple, entityRecord );
+			return true;
+		}
+	}
+
 	@Override
 	public void removeTuple(EntityKey key) {
 		provider.removeEntityTuple( key );
@@ -20,17 +20,14 @@
  */
 package org.hibernate.ogm.datastore.map.impl;
 
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import javax.persistence.PessimisticLockException;
 
@@ -62,16 +59,17 @@ public final class MapDatastoreProvider implements DatastoreProvider, Startable,
 	private final ConcurrentMap<EntityKey,Map<String, Object>> entitiesKeyValueStorage = new ConcurrentHashMap<EntityKey,Map<String, Object>>();
 	private final ConcurrentMap<AssociationKey, Map<RowKey, Map<String, Object>>> associationsKeyValueStorage = new ConcurrentHashMap<AssociationKey, Map<RowKey, Map<String, Object>>>();
 	private final ConcurrentMap<RowKey, AtomicInteger> sequencesStorage = new ConcurrentHashMap<RowKey, AtomicInteger>();
-	private final ConcurrentMap<Object, ReadWriteLock> dataLocks = new ConcurrentHashMap<Object, ReadWriteLock>();
 
 	/**
-	 * This simplistic data store only supports thread-bound transactions:
+	 * Locks currently held or waited for; an entry is removed as soon as no owner references it anymore
 	 */
-	private final ThreadLocal<Set<Lock>> acquiredLocksPerThread = new ThreadLocal<Set<Lock>>() {
-		@Override protected Set<Lock> initialValue() {
-			return new HashSet<Lock>();
-		}
-	};
+	private final ConcurrentMap<EntityKey, KeyLock> dataLocks = new ConcurrentHashMap<EntityKey, KeyLock>();
+
+	/**
+	 * The locks held by each owner, typically a session; they are not bound to a thread, so that the transaction of
+	 * the owner may complete on any thread
+	 */
+	private final ConcurrentMap<Object, List<AcquiredLock>> acquiredLocksPerOwner = new ConcurrentHashMap<Object, List<AcquiredLock>>();
 
 	@Override
 	public Class<? extends GridDialect> getDefaultDialect() {
@@ -86,6 +84,8 @@ public Class<? extends QueryParserService> getDefaultQueryParserServiceType() {
 	@Override
 	public void stop() {
 		entitiesKeyValueStorage.clear();
+		dataLocks.clear();
+		acquiredLocksPerOwner.clear();
 		log.debug( "Stopped and cleared MapDatastoreProvider" );
 	}
 
@@ -96,57 +96,123 @@ public void start() {
 
 	/**
 	 * Acquires a write lock on a specific key.
+	 * The lock is held until {@link #releaseLocks(Object)} is invoked for the same owner, from any thread.
 	 * @param key The key to lock
 	 * @param timeout in milliseconds; -1 means wait indefinitely, 0 means no wait.
+	 * @param owner The owner of the lock, typically a session
 	 */
-	public void writeLock(EntityKey key, int timeout) {
-		ReadWriteLock lock = getLock( key );
-		Lock writeLock = lock.writeLock();
-		acquireLock( key, timeout, writeLock );
+	public void writeLock(EntityKey key, int timeout, Object owner) {
+		KeyLock lock = retainLock( key );
+		acquireLock( key, timeout, lock, true, owner );
 	}
 
 	/**
 	 * Acquires a read lock on a specific key.
+	 * The lock is held until {@link #releaseLocks(Object)} is invoked for the same owner, from any thread.
 	 * @param key The key to lock
 	 * @param timeout in milliseconds; -1 means wait indefinitely, 0 means no wait.
+	 * @param owner The owner of the lock, typically a session
 	 */
-	public void readLock(EntityKey key, int timeout) {
-		ReadWriteLock lock = getLock( key );
-		Lock readLock = lock.readLock();
-		acquireLock( key, timeout, readLock );
+	public void readLock(EntityKey key, int timeout, Object owner) {
+		KeyLock lock = retainLock( key );
+		acquireLock( key, timeout, lock, false, owner );
 	}
 
-	private ReadWriteLock getLock(EntityKey key) {
-		ReadWriteLock newLock = new ReentrantReadWriteLock();
-		ReadWriteLock previous = dataLocks.putIfAbsent( key, newLock );
-		return previous != null ? previous : newLock;
+	/**
+	 * Whether the given owner holds any lock.
+	 */
+	public boolean holdsLocks(Object owner) {
+		return acquiredLocksPerOwner.containsKey( owner );
 	}
 
-	private void acquireLock(EntityKey key, int timeout, Lock writeLock) {
-		try {
-			if ( timeout == -1 ) {
-				writeLock.lockInterruptibly();
+	/**
+	 * Releases all the locks acquired by the given owner, typically on transaction completion.
+	 */
+	public void releaseLocks(Object owner) {
+		List<AcquiredLock> acquiredLocks = acquiredLocksPerOwner.remove( owner );
+		if ( acquiredLocks == null ) {
+			return;
+		}
+		synchronized ( acquiredLocks ) {
+			for ( int i = acquiredLocks.size() - 1; i >= 0; i-- ) {
+				AcquiredLock acquiredLock = acquiredLocks.get( i );
+				acquiredLock.keyLock.unlock( owner, acquiredLock.write );
+				releaseLock( acquiredLock.key, acquiredLock.keyLock );
 			}
-			else if ( timeout == 0 ) {
-				boolean locked = writeLock.tryLock();
-				if ( ! locked ) {
-					throw new PessimisticLockException( "lock on key " + key + " was not available" );
+		}
+	}
+
+	private KeyLock retainLock(EntityKey key) {
+		while ( true ) {
+			KeyLock lock = dataLocks.get( key );
+			if ( lock == null ) {
+				KeyLock newLock = new KeyLock();
+				lock = dataLocks.putIfAbsent( key, newLock );
+				if ( lock == null ) {
+					return newLock;
 				}
 			}
-			else {
-				writeLock.tryLock( timeout, TimeUnit.MILLISECONDS );
+			if ( lock.retain() ) {
+				return lock;
+			}
+			// the lock is being discarded by another thread, try again
+		}
+	}
+
+	private void releaseLock(EntityKey key, KeyLock lock) {
+		if ( lock.release() ) {
+			dataLocks.remove( key, lock );
+		}
+	}
+
+	private void acquireLock(EntityKey key, int timeout, KeyLock keyLock, boolean write, Object owner) {
+		boolean locked = false;
+		try {
+			locked = keyLock.tryLock( owner, write, timeout );
+			if ( ! locked ) {
+				if ( timeout == 0 ) {
+					throw new PessimisticLockException( "lock on key " + key + " was not available" );
+				}
+				throw new PessimisticLockException( "timed out waiting for lock on key " + key );
 			}
 		}
 		catch ( InterruptedException e ) {
+			Thread.currentThread().interrupt();
 			throw new PessimisticLockException( "timed out waiting for lock on key " + key, e );
 		}
-		acquiredLocksPerThread.get().add( writeLock );
+		finally {
+			if ( ! locked ) {
+				releaseLock( key, keyLock );
+			}
+		}
+		getAcquiredLocks( owner ).add( new AcquiredLock( key, keyLock, write ) );
+	}
+
+	private List<AcquiredLock> getAcquiredLocks(Object owner) {
+		List<AcquiredLock> acquiredLocks = acquiredLocksPerOwner.get( owner );
+		if ( acquiredLocks == null ) {
+			List<AcquiredLock> newAcquiredLocks = Collections.synchronizedList( new ArrayList<AcquiredLock>() );
+			acquiredLocks = acquiredLocksPerOwner.putIfAbsent( owner, newAcquiredLocks );
+			if ( acquiredLocks == null ) {
+				acquiredLocks = newAcquiredLocks;
+			}
+		}
+		return acquiredLocks;
 	}
 
 	public void putEntity(EntityKey key, Map<String, Object> tuple) {
 		entitiesKeyValueStorage.put( key, tuple );
 	}
 
+	/**
+	 * Stores the given tuple unless there is a tuple for the given key already.
+	 *
+	 * @return {@code true} if the tuple has been stored, {@code false} if the key is in use already
+	 */
+	public boolean putEntityIfAbsent(EntityKey key, Map<String, Object> tuple) {
+		return entitiesKeyValueStorage.putIfAbsent( key, tuple ) == null;
+	}
+
 	public Map<String, Object> getEntityTuple(EntityKey key) {
 		return entitiesKeyValueStorage.get( key );
 	}
@@ -188,4 +254,111 @@ public Map<EntityKey,Map<String, Object>> getEntityMap() {
 	public Map<AssociationKey, Map<RowKey, Map<String, Object>>> getAssociationsMap() {
 		return Collections.unmodifiableMap( associationsKeyValueStorage );
 	}
+
+	/**
+	 * Meant to execute assertions in tests only
+	 * @return the number of keys for which a lock is currently held or waited for
+	 */
+	public int getLockCount() {
+		return dataLocks.size();
+	}
+
+	/**
+	 * A reentrant read-write lock held by owners rather than by threads, so that it can be released from any thread.
+	 * It counts the owners referencing it and can't be used anymore once that count dropped to 0.
+	 */
+	private static final class KeyLock {
+
+		private final AtomicInteger references = new AtomicInteger( 1 );
+
+		private final Map<Object, Integer> readers = new IdentityHashMap<Object, Integer>();
+		private Object writer;
+		private int writeCount;
+
+		/**
+		 * @param timeout in milliseconds; -1 means wait indefinitely, 0 means no wait.
+		 * @return {@code true} if the lock has been acquired, {@code false} if the timeout elapsed
+		 */
+		synchronized boolean tryLock(Object owner, boolean write, int timeout) throws InterruptedException {
+			long deadline = System.currentTimeMillis() + timeout;
+			while ( !isAvailable( owner, write ) ) {
+				if ( timeout == -1 ) {
+					wait();
+				}
+				else {
+					long remaining = deadline - System.currentTimeMillis();
+					if ( remaining <= 0 ) {
+						return false;
+					}
+					wait( remaining );
+				}
+			}
+			if ( write ) {
+				writer = owner;
+				writeCount++;
+			}
+			else {
+				Integer count = readers.get( owner );
+				readers.put( owner, count == null ? 1 : count + 1 );
+			}
+			return true;
+		}
+
+		synchronized void unlock(Object owner, boolean write) {
+			if ( write ) {
+				if ( --writeCount == 0 ) {
+					writer = null;
+				}
+			}
+			else {
+				int count = readers.remove( owner );
+				if ( count > 1 ) {
+					readers.put( owner, count - 1 );
+				}
+			}
+			notifyAll();
+		}
+
+		/**
+		 * Another owner's write lock excludes any lock, other owners' read locks exclude a write lock.
+		 */
+		private boolean isAvailable(Object owner, boolean write) {
+			if ( writer != null && writer != owner ) {
+				return false;
+			}
+			return !write || readers.isEmpty() || ( readers.size() == 1 && readers.containsKey( owner ) );
+		}
+
+		boolean retain() {
+			while ( true ) {
+				int current = references.get();
+				if ( current == 0 ) {
+					return false;
+				}
+				if ( references.compareAndSet( current, current + 1 ) ) {
+					return true;
+				}
+			}
+		}
+
+		/**
+		 * @return {@code true} if this lock is not referenced anymore
+		 */
+		boolean release() {
+			return references.decrementAndGet() == 0;
+		}
+	}
+
+	private static final class AcquiredLock {
+
+		private final EntityKey key;
+		private final KeyLock keyLock;
+		private final boolean write;
+
+		AcquiredLock(EntityKey key, KeyLock keyLock, boolean write) {
+			this.key = key;
+			this.keyLock = keyLock;
+			this.write = write;
+		}
+	}
 }
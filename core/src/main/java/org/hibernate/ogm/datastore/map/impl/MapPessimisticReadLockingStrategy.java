@@ -50,6 +50,10 @@ public void lock(Serializable id, Object version, Object object, int timeout, Se
 				identifierGridType,
 				id,
 				session );
-		dataStore.readLock( key, timeout );
+		boolean firstLock = !dataStore.holdsLocks( session );
+		dataStore.readLock( key, timeout, session );
+		if ( firstLock ) {
+			releaseLocksOnTransactionCompletion( dataStore, session );
+		}
 	}
 }
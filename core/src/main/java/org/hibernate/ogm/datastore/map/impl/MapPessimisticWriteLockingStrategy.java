@@ -25,8 +25,10 @@
 import org.hibernate.JDBCException;
 import org.hibernate.LockMode;
 import org.hibernate.StaleObjectStateException;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
 import org.hibernate.dialect.lock.LockingStrategy;
 import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.event.spi.EventSource;
 import org.hibernate.ogm.datastore.spi.DatastoreProvider;
 import org.hibernate.ogm.grid.EntityKey;
 import org.hibernate.ogm.persister.EntityKeyBuilder;
@@ -66,11 +68,32 @@ public void lock(Serializable id, Object version, Object object, int timeout, Se
 				identifierGridType,
 				id,
 				session );
-		dataStore.writeLock( key, timeout );
+		boolean firstLock = !dataStore.holdsLocks( session );
+		dataStore.writeLock( key, timeout, session );
+		if ( firstLock ) {
+			releaseLocksOnTransactionCompletion( dataStore, session );
+		}
 		// FIXME check the version number as well and raise an optimistic lock exception if there is an issue JPA 2 spec: 3.4.4.2
 		// (Comment by Emmanuel)
 	}
 
+	/**
+	 * Makes sure the locks acquired by the session are released once its transaction completes, whatever the thread
+	 * completing it. To be invoked once per transaction, when the session acquires its first lock.
+	 */
+	protected final void releaseLocksOnTransactionCompletion(final MapDatastoreProvider dataStore, final SessionImplementor session) {
+		if ( session instanceof EventSource ) {
+			( (EventSource) session ).getActionQueue().registerProcess( new AfterTransactionCompletionProcess() {
+
+				@Override
+				public void doAfterTransactionCompletion(boolean success, SessionImplementor completedSession) {
+					// the locks are owned by the session they were acquired with, which may wrap the completed one
+					dataStore.releaseLocks( session );
+				}
+			} );
+		}
+	}
+
 	protected final MapDatastoreProvider getProvider(SessionImplementor session) {
 		if ( provider == null ) {
 			DatastoreProvider service = session.getFactory().getServiceRegistry().getService( DatastoreProvider.class );
@@ -0,0 +1,73 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.datastore.spi;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable dictionary assigning a position to each of the columns a persister may write to a {@link Tuple}.
+ * <p>
+ * A tuple created with a column index keeps the values and the dirty state of those columns in arrays rather than
+ * in one {@link TupleOperation} per column; columns unknown to the index are still supported.
+ *
+ * @see TupleContext#getColumnIndex()
+ */
+public final class ColumnIndex {
+
+	private final Map<String, Integer> positions;
+	private final String[] columnNames;
+
+	public ColumnIndex(Collection<String> columnNames) {
+		this.positions = new HashMap<String, Integer>( columnNames.size() );
+		for ( String columnName : columnNames ) {
+			if ( !positions.containsKey( columnName ) ) {
+				positions.put( columnName, positions.size() );
+			}
+		}
+		this.columnNames = new String[positions.size()];
+		for ( Map.Entry<String, Integer> entry : positions.entrySet() ) {
+			this.columnNames[entry.getValue()] = entry.getKey();
+		}
+	}
+
+	/**
+	 * @return the position of the given column or -1 if the column is not part of this index
+	 */
+	public int indexOf(String columnName) {
+		Integer position = positions.get( columnName );
+		return position == null ? -1 : position;
+	}
+
+	public String getColumnName(int index) {
+		return columnNames[index];
+	}
+
+	public int size() {
+		return columnNames.length;
+	}
+
+	@Override
+	public String toString() {
+		return "ColumnIndex" + positions.keySet();
+	}
+}
@@ -24,9 +24,11 @@
 import static org.hibernate.ogm.datastore.spi.TupleOperationType.PUT_NULL;
 import static org.hibernate.ogm.datastore.spi.TupleOperationType.REMOVE;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -43,6 +45,10 @@
  * list of TupleOperation. It is intended that GridDialects retrieve to these actions and
  * reproduce them to the datastore. The list of changes is computed based off the snapshot.
  *
+ * When created with a {@link ColumnIndex}, the tuple keeps the changes of the indexed columns in an array of values
+ * and two bitsets (changed columns and removed columns) instead of allocating a TupleOperation per change; the
+ * operations are only materialized when {@link #getOperations()} is invoked.
+ *
  * @author Emmanuel Bernard <emmanuel@hibernate.org>
  * @author Sanne Grinovero  <sanne@hibernate.org>
  */
@@ -51,15 +57,37 @@ public class Tuple {
 	private final TupleSnapshot snapshot;
 	private Map<String, TupleOperation> currentState = null; //lazy initialize the Map as it costs quite some memory
 
+	//compact mode, only used for the columns known to the column index
+	private final ColumnIndex columnIndex;
+	private Object[] values;
+	private long[] changedColumns;
+	private long[] removedColumns;
+
 	public Tuple() {
-		this.snapshot = EmptyTupleSnapshot.INSTANCE;
+		this( EmptyTupleSnapshot.INSTANCE, null );
 	}
 
 	public Tuple(TupleSnapshot snapshot) {
+		this( snapshot, null );
+	}
+
+	/**
+	 * @param snapshot the state of the tuple at creation time
+	 * @param columnIndex the columns to keep in compact form; may be {@code null}
+	 */
+	public Tuple(TupleSnapshot snapshot, ColumnIndex columnIndex) {
 		this.snapshot = snapshot;
+		this.columnIndex = columnIndex;
 	}
 
 	public Object get(String column) {
+		int index = indexOf( column );
+		if ( index >= 0 ) {
+			if ( !isSet( changedColumns, index ) ) {
+				return snapshot.get( column );
+			}
+			return isSet( removedColumns, index ) ? null : values[index];
+		}
 		if ( currentState == null ) {
 			return snapshot.get( column );
 		}
@@ -76,6 +104,14 @@ else if ( result.getType() == PUT_NULL || result.getType() == REMOVE ) {
 	}
 
 	public void put(String column, Object value) {
+		int index = indexOf( column );
+		if ( index >= 0 ) {
+			initCompactState();
+			values[index] = value;
+			set( changedColumns, index );
+			clear( removedColumns, index );
+			return;
+		}
 		if ( currentState == null ) {
 			currentState = new HashMap<String, TupleOperation>();
 		}
@@ -88,6 +124,14 @@ public void put(String column, Object value) {
 	}
 
 	public void remove(String column) {
+		int index = indexOf( column );
+		if ( index >= 0 ) {
+			initCompactState();
+			values[index] = null;
+			set( changedColumns, index );
+			set( removedColumns, index );
+			return;
+		}
 		if ( currentState == null ) {
 			currentState = new HashMap<String, TupleOperation>();
 		}
@@ -99,12 +143,47 @@ public void remove(String column) {
 	 * Inherently deduplicated operations
 	 */
 	public Set<TupleOperation> getOperations() {
-		if ( currentState == null ) {
-			return Collections.emptySet();
+		if ( values == null ) {
+			if ( currentState == null ) {
+				return Collections.emptySet();
+			}
+			else {
+				return new SetFromCollection<TupleOperation>( currentState.values() );
+			}
 		}
-		else {
-			return new SetFromCollection<TupleOperation>( currentState.values() );
+		List<TupleOperation> operations = new ArrayList<TupleOperation>();
+		for ( int index = 0; index < values.length; index++ ) {
+			if ( isSet( changedColumns, index ) ) {
+				operations.add( getOperation( index ) );
+			}
+		}
+		if ( currentState != null ) {
+			operations.addAll( currentState.values() );
+		}
+		return new SetFromCollection<TupleOperation>( operations );
+	}
+
+	/**
+	 * Returns a tuple with the snapshot and the changes of this tuple which keeps the changes of the columns of the
+	 * given index in compact form, e.g. to apply the column index of a persister to a tuple created by a dialect.
+	 *
+	 * @param columnIndex the columns to keep in compact form; may be {@code null}
+	 * @return this tuple if there is no index to apply, a new tuple otherwise
+	 */
+	public Tuple withColumnIndex(ColumnIndex columnIndex) {
+		if ( columnIndex == null || columnIndex == this.columnIndex ) {
+			return this;
+		}
+		Tuple tuple = new Tuple( snapshot, columnIndex );
+		for ( TupleOperation operation : getOperations() ) {
+			if ( operation.getType() == REMOVE ) {
+				tuple.remove( operation.getColumn() );
+			}
+			else {
+				tuple.put( operation.getColumn(), operation.getValue() );
+			}
 		}
+		return tuple;
 	}
 
 	public TupleSnapshot getSnapshot() {
@@ -112,10 +191,23 @@ public TupleSnapshot getSnapshot() {
 	}
 
 	public Set<String> getColumnNames() {
-		if ( currentState == null ) {
+		if ( currentState == null && values == null ) {
 			return snapshot.getColumnNames();
 		}
 		Set<String> columnNames = new HashSet<String>( snapshot.getColumnNames() );
+		if ( values != null ) {
+			for ( int index = 0; index < values.length; index++ ) {
+				if ( isSet( removedColumns, index ) ) {
+					columnNames.remove( columnIndex.getColumnName( index ) );
+				}
+				else if ( isSet( changedColumns, index ) ) {
+					columnNames.add( columnIndex.getColumnName( index ) );
+				}
+			}
+		}
+		if ( currentState == null ) {
+			return columnNames;
+		}
 		for ( TupleOperation op : currentState.values() ) {
 			switch ( op.getType() ) {
 				case PUT :
@@ -129,4 +221,42 @@ public Set<String> getColumnNames() {
 		}
 		return columnNames;
 	}
+
+	private TupleOperation getOperation(int index) {
+		String column = columnIndex.getColumnName( index );
+		if ( isSet( removedColumns, index ) ) {
+			return new TupleOperation( column, null, REMOVE );
+		}
+		else if ( values[index] == null ) {
+			return new TupleOperation( column, null, PUT_NULL );
+		}
+		else {
+			return new TupleOperation( column, values[index], PUT );
+		}
+	}
+
+	private int indexOf(String column) {
+		return columnIndex == null ? -1 : columnIndex.indexOf( column );
+	}
+
+	private void initCompactState() {
+		if ( values == null ) {
+			int size = columnIndex.size();
+			values = new Object[size];
+			changedColumns = new long[( size + 63 ) >>> 6];
+			removedColumns = new long[changedColumns.length];
+		}
+	}
+
+	private static boolean isSet(long[] bits, int index) {
+		return bits != null && ( bits[index >>> 6] & ( 1L << index ) ) != 0;
+	}
+
+	private static void set(long[] bits, int index) {
+		bits[index >>> 6] |= 1L << index;
+	}
+
+	private static void clear(long[] bits, int index) {
+		bits[index >>> 6] &= ~( 1L << index );
+	}
 }
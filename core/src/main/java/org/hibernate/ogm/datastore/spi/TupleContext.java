@@ -33,16 +33,31 @@
  */
 public class TupleContext {
 	private final List<String> selectableColumns;
+	private final ColumnIndex columnIndex;
 	private OperationsQueue operationsQueue;
 
 	public TupleContext(List<String> selectableColumns) {
+		this( selectableColumns, null );
+	}
+
+	public TupleContext(List<String> selectableColumns, ColumnIndex columnIndex) {
 		this.selectableColumns = selectableColumns;
+		this.columnIndex = columnIndex;
 	}
 
 	public List<String> getSelectableColumns() {
 		return selectableColumns;
 	}
 
+	/**
+	 * The columns the tuples of this context are written with; dialects should pass it to the tuples they create.
+	 *
+	 * @return the column index or {@code null} if the tuples should not be kept in compact form
+	 */
+	public ColumnIndex getColumnIndex() {
+		return columnIndex;
+	}
+
 	public OperationsQueue getOperationsQueue() {
 		return operationsQueue;
 	}
@@ -20,7 +20,17 @@
  */
 package org.hibernate.ogm.dialect;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.hibernate.LockMode;
 import org.hibernate.dialect.lock.LockingStrategy;
@@ -30,11 +40,14 @@
 import org.hibernate.ogm.datastore.spi.AssociationContext;
 import org.hibernate.ogm.datastore.spi.Tuple;
 import org.hibernate.ogm.datastore.spi.TupleContext;
+import org.hibernate.ogm.datastore.spi.TupleSnapshot;
+import org.hibernate.ogm.dialect.batch.Operation;
 import org.hibernate.ogm.dialect.batch.OperationsQueue;
 import org.hibernate.ogm.dialect.batch.RemoveAssociationOperation;
 import org.hibernate.ogm.dialect.batch.RemoveTupleOperation;
 import org.hibernate.ogm.dialect.batch.UpdateAssociationOperation;
 import org.hibernate.ogm.dialect.batch.UpdateTupleOperation;
+import org.hibernate.ogm.dialect.impl.GridDialects;
 import org.hibernate.ogm.grid.AssociationKey;
 import org.hibernate.ogm.grid.EntityKey;
 import org.hibernate.ogm.grid.EntityKeyMetadata;
@@ -42,6 +55,7 @@
 import org.hibernate.ogm.massindex.batchindexing.Consumer;
 import org.hibernate.ogm.type.GridType;
 import org.hibernate.persister.entity.Lockable;
+import org.hibernate.service.spi.Stoppable;
 import org.hibernate.type.Type;
 
 /**
@@ -51,17 +65,48 @@
  * The {@link TupleContext} and {@link AssociationContext} are also populated with the {@link OperationsQueue}
  * before looking for element in the db. This way the underlying datastore can make assumptions about elements
  * that are in the queue but not in the db.
+ * <p>
+ * When the batch is executed, the operations are split by the table they write to; the operations of different tables
+ * are independent and are dispatched concurrently to a dedicated thread pool, while the operations of a given table are
+ * executed in order. The pool is shut down when this service is stopped.
  *
  * @author Davide D'Alto <davide@hibernate.org>
  */
-public class BatchOperationsDelegator implements BatchableGridDialect {
+public class BatchOperationsDelegator implements BatchableGridDialect, MultigetGridDialect, DeltaUpdateGridDialect, DuplicateInsertAwareGridDialect, OptimisticLockingAwareGridDialect, Stoppable {
+
+	private static final long IDLE_THREAD_TIMEOUT_SECONDS = 60;
 
 	private final ThreadLocal<OperationsQueue> operationQueueLocal = new ThreadLocal<OperationsQueue>();
 
 	private final BatchableGridDialect dialect;
 
+	/**
+	 * The pool executing the partitions of a batch besides the first one; {@code null} if all the operations are
+	 * executed by the flushing thread
+	 */
+	private final ThreadPoolExecutor executor;
+
 	public BatchOperationsDelegator(BatchableGridDialect dialect) {
+		this( dialect, Runtime.getRuntime().availableProcessors() );
+	}
+
+	/**
+	 * @param dialect the dialect executing the operations
+	 * @param dispatchThreads the number of threads executing the operations of different tables concurrently; 0 to
+	 * execute all the operations from the flushing thread
+	 */
+	public BatchOperationsDelegator(BatchableGridDialect dialect, int dispatchThreads) {
 		this.dialect = dialect;
+		if ( dispatchThreads > 0 ) {
+			// the flushing thread waits for its partitions, so the queue doesn't need to be bounded
+			this.executor = new ThreadPoolExecutor( dispatchThreads, dispatchThreads, IDLE_THREAD_TIMEOUT_SECONDS, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<Runnable>(), new DispatcherThreadFactory() );
+			// flushes are short: don't keep idle threads around in between
+			this.executor.allowCoreThreadTimeOut( true );
+		}
+		else {
+			this.executor = null;
+		}
 	}
 
 	public void prepareBatch() {
@@ -92,7 +137,114 @@ public void executeBatch() {
 
 	@Override
 	public void executeBatch(OperationsQueue queue) {
-		dialect.executeBatch( getOperationQueue() );
+		if ( executor == null || queue.isClosed() || queue.size() == 0 ) {
+			dialect.executeBatch( queue );
+			return;
+		}
+
+		List<OperationsQueue> partitions = partitionByTargetTable( queue );
+		List<Future<Void>> futures = new ArrayList<Future<Void>>( partitions.size() - 1 );
+		for ( OperationsQueue partition : partitions.subList( 1, partitions.size() ) ) {
+			futures.add( GridDialects.executeBatchAsync( dialect, partition, executor ) );
+		}
+
+		// the calling thread takes care of the first partition; all of them are completed before returning, even if
+		// one fails, so that no operation is executed after the flush
+		RuntimeException failure = null;
+		try {
+			dialect.executeBatch( partitions.get( 0 ) );
+		}
+		catch (RuntimeException e) {
+			failure = e;
+		}
+		for ( Future<Void> future : futures ) {
+			try {
+				GridDialects.getResult( future );
+			}
+			catch (RuntimeException e) {
+				if ( failure == null ) {
+					failure = e;
+				}
+			}
+		}
+		queue.close();
+
+		if ( failure != null ) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * Drains the given queue into one queue per table written to, in the order of the operations. All the operations
+	 * end up in a single queue if the target of one of them is unknown.
+	 */
+	private List<OperationsQueue> partitionByTargetTable(OperationsQueue queue) {
+		Map<String, OperationsQueue> partitions = new LinkedHashMap<String, OperationsQueue>();
+		List<Operation> operations = new ArrayList<Operation>( queue.size() );
+		boolean independent = true;
+		Operation operation = queue.poll();
+		while ( operation != null ) {
+			operations.add( operation );
+			String table = getTargetTable( operation );
+			if ( table == null ) {
+				independent = false;
+			}
+			else if ( independent ) {
+				OperationsQueue partition = partitions.get( table );
+				if ( partition == null ) {
+					partition = new OperationsQueue();
+					partitions.put( table, partition );
+				}
+				partition.add( operation );
+			}
+			operation = queue.poll();
+		}
+
+		if ( independent ) {
+			return new ArrayList<OperationsQueue>( partitions.values() );
+		}
+
+		OperationsQueue sequential = new OperationsQueue();
+		for ( Operation sequentialOperation : operations ) {
+			sequential.add( sequentialOperation );
+		}
+		List<OperationsQueue> single = new ArrayList<OperationsQueue>( 1 );
+		single.add( sequential );
+		return single;
+	}
+
+	private static String getTargetTable(Operation operation) {
+		if ( operation instanceof UpdateTupleOperation ) {
+			return ( (UpdateTupleOperation) operation ).getEntityKey().getTable();
+		}
+		else if ( operation instanceof RemoveTupleOperation ) {
+			return ( (RemoveTupleOperation) operation ).getEntityKey().getTable();
+		}
+		else if ( operation instanceof UpdateAssociationOperation ) {
+			return getTargetTable( ( (UpdateAssociationOperation) operation ).getAssociationKey() );
+		}
+		else if ( operation instanceof RemoveAssociationOperation ) {
+			return getTargetTable( ( (RemoveAssociationOperation) operation ).getAssociationKey() );
+		}
+		return null;
+	}
+
+	/**
+	 * Associations may be stored within the document of their owning entity, so their operations are kept together
+	 * with the ones of that entity.
+	 */
+	private static String getTargetTable(AssociationKey key) {
+		return key.getEntityKey() != null ? key.getEntityKey().getTable() : key.getTable();
+	}
+
+	@Override
+	public void stop() {
+		if ( executor != null ) {
+			executor.shutdown();
+		}
+		if ( dialect instanceof Stoppable ) {
+			( (Stoppable) dialect ).stop();
+		}
 	}
 
 	@Override
@@ -107,11 +259,32 @@ public Tuple getTuple(EntityKey key, TupleContext tupleContext) {
 		return dialect.getTuple( key, tupleContext );
 	}
 
+	@Override
+	public List<Tuple> getTuples(EntityKey[] keys, TupleContext tupleContext) {
+		OperationsQueue queue = getOperationQueue();
+		tupleContext.setOperationsQueue( queue );
+		return GridDialects.getTuples( dialect, keys, tupleContext );
+	}
+
 	@Override
 	public Tuple createTuple(EntityKey key) {
 		return dialect.createTuple( key );
 	}
 
+	@Override
+	public Tuple createTupleForInsert(EntityKey key, TupleContext tupleContext) {
+		OperationsQueue queue = getOperationQueue();
+		tupleContext.setOperationsQueue( queue );
+		return GridDialects.createTupleForInsert( dialect, key, tupleContext );
+	}
+
+	@Override
+	public Tuple createTupleForUpdate(EntityKey key, TupleSnapshot loadedState, TupleContext tupleContext) {
+		OperationsQueue queue = getOperationQueue();
+		tupleContext.setOperationsQueue( queue );
+		return GridDialects.createTupleForUpdate( dialect, key, loadedState, tupleContext );
+	}
+
 	@Override
 	public void updateTuple(Tuple tuple, EntityKey key) {
 		if ( isBatchDisabled() ) {
@@ -122,6 +295,23 @@ public void updateTuple(Tuple tuple, EntityKey key) {
 		}
 	}
 
+	/**
+	 * The update is queued together with the expected lock state, the dialect checking it when executing the batch;
+	 * a mismatch is then reported by a {@link org.hibernate.StaleStateException} rather than by the returned value.
+	 */
+	@Override
+	public boolean updateTupleWithOptimisticLock(EntityKey key, Tuple oldLockState, Tuple tuple, TupleContext tupleContext) {
+		if ( isBatchDisabled() ) {
+			return GridDialects.updateTupleWithOptimisticLock( dialect, key, oldLockState, tuple, tupleContext );
+		}
+		else {
+			OperationsQueue queue = getOperationQueue();
+			tupleContext.setOperationsQueue( queue );
+			queue.add( new UpdateTupleOperation( tuple, key, oldLockState, tupleContext ) );
+			return true;
+		}
+	}
+
 	@Override
 	public void removeTuple(EntityKey key) {
 		if ( isBatchDisabled() ) {
@@ -140,6 +330,7 @@ public Association getAssociation(AssociationKey key, AssociationContext associa
 
 	@Override
 	public Association createAssociation(AssociationKey key, AssociationContext associationContext) {
+		associationContext.setOperationsQueue( getOperationQueue() );
 		return dialect.createAssociation( key, associationContext );
 	}
 
@@ -188,4 +379,20 @@ public Iterator<Tuple> executeBackendQuery(CustomQuery customQuery, EntityKeyMet
 		return dialect.executeBackendQuery( customQuery, metadatas );
 	}
 
+
+	/**
+	 * Creates daemon threads named after the dispatcher, so that they neither prevent the JVM from exiting nor get
+	 * mixed up with the threads of other pools.
+	 */
+	private static class DispatcherThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger threadNumber = new AtomicInteger( 1 );
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread( runnable, "Hibernate OGM: batch dispatcher-" + threadNumber.getAndIncrement() );
+			thread.setDaemon( true );
+			return thread;
+		}
+	}
 }
@@ -33,6 +33,10 @@ public interface BatchableGridDialect extends GridDialect {
 
 	/**
 	 * Executes the batched operations using the mechanism provided by the db
+	 *
+	 * @throws org.hibernate.StaleStateException if the stored tuple of an
+	 * {@link org.hibernate.ogm.dialect.batch.UpdateTupleOperation} doesn't have the lock state expected by the
+	 * operation
 	 */
 	void executeBatch(OperationsQueue queue);
 
@@ -0,0 +1,50 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.dialect;
+
+import org.hibernate.ogm.datastore.spi.Tuple;
+import org.hibernate.ogm.datastore.spi.TupleContext;
+import org.hibernate.ogm.datastore.spi.TupleSnapshot;
+import org.hibernate.ogm.grid.EntityKey;
+
+/**
+ * A {@link GridDialect} that can update a tuple without reading it first, based on the state the session loaded it
+ * with. Only the operations applied to the returned tuple are expected to be written to the datastore, e.g. as a
+ * partial update of the stored document.
+ * <p>
+ * Dialects not implementing this contract read the tuple via {@link GridDialect#getTuple(EntityKey, TupleContext)}
+ * before updating it (see
+ * {@link org.hibernate.ogm.dialect.impl.GridDialects#createTupleForUpdate(GridDialect, EntityKey, TupleSnapshot, TupleContext)}).
+ */
+public interface DeltaUpdateGridDialect extends GridDialect {
+
+	/**
+	 * Return a tuple representing an existing entity, without accessing the datastore. The tuple will be passed to
+	 * {@link GridDialect#updateTuple(Tuple, EntityKey)} once the changed columns have been applied to it.
+	 *
+	 * @param key the key of the tuple to update
+	 * @param loadedState the columns of the tuple as loaded by the session, including the identifier columns
+	 * @param tupleContext the context of the tuple to update
+	 * @return a tuple whose snapshot reflects the given state
+	 */
+	Tuple createTupleForUpdate(EntityKey key, TupleSnapshot loadedState, TupleContext tupleContext);
+
+}
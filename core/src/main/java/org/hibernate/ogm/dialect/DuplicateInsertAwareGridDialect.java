@@ -0,0 +1,52 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.dialect;
+
+import org.hibernate.ogm.datastore.spi.Tuple;
+import org.hibernate.ogm.datastore.spi.TupleContext;
+import org.hibernate.ogm.grid.EntityKey;
+
+/**
+ * A {@link GridDialect} that can create the tuple of a new entity without checking beforehand whether an entity with
+ * the same key exists. Such a duplicate is expected to be detected by the datastore itself, when the tuple is created
+ * or written, e.g. through a unique key constraint or an atomic "put if absent" operation.
+ * <p>
+ * Used when inserting entities whose identifier has been generated, e.g. by a table generator. Dialects not
+ * implementing this contract read the tuple via {@link GridDialect#getTuple(EntityKey, TupleContext)} before creating
+ * it (see
+ * {@link org.hibernate.ogm.dialect.impl.GridDialects#createTupleForInsert(GridDialect, EntityKey, TupleContext)}).
+ */
+public interface DuplicateInsertAwareGridDialect extends GridDialect {
+
+	/**
+	 * Return a new tuple for the given key, without checking whether it exists in the datastore. The tuple will be
+	 * passed to {@link GridDialect#updateTuple(Tuple, EntityKey)} once the columns of the entity have been applied to
+	 * it.
+	 *
+	 * @param key the key of the tuple to create
+	 * @param tupleContext the context of the tuple to create
+	 * @return the new tuple
+	 * @throws org.hibernate.HibernateException if the datastore reports that a tuple with the given key exists already;
+	 * this may only happen when the tuple is written
+	 */
+	Tuple createTupleForInsert(EntityKey key, TupleContext tupleContext);
+
+}
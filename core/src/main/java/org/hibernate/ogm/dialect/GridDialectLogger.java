@@ -20,7 +20,9 @@
  */
 package org.hibernate.ogm.dialect;
 
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 import org.hibernate.LockMode;
@@ -31,6 +33,8 @@
 import org.hibernate.ogm.datastore.spi.AssociationContext;
 import org.hibernate.ogm.datastore.spi.Tuple;
 import org.hibernate.ogm.datastore.spi.TupleContext;
+import org.hibernate.ogm.datastore.spi.TupleSnapshot;
+import org.hibernate.ogm.dialect.impl.GridDialects;
 import org.hibernate.ogm.grid.AssociationKey;
 import org.hibernate.ogm.grid.EntityKey;
 import org.hibernate.ogm.grid.EntityKeyMetadata;
@@ -43,6 +47,7 @@
 import org.hibernate.service.spi.Configurable;
 import org.hibernate.service.spi.ServiceRegistryAwareService;
 import org.hibernate.service.spi.ServiceRegistryImplementor;
+import org.hibernate.service.spi.Stoppable;
 import org.hibernate.type.Type;
 import org.jboss.logging.Logger;
 
@@ -54,7 +59,7 @@
  * @author Emmanuel Bernard <emmanuel@hibernate.org>
  * @see org.hibernate.ogm.dialect.impl.GridDialectFactoryImpl#buildGridDialect(java.util.Map, org.hibernate.service.ServiceRegistry)
  */
-public class GridDialectLogger implements GridDialect, Configurable, ServiceRegistryAwareService {
+public class GridDialectLogger implements MultigetGridDialect, DeltaUpdateGridDialect, DuplicateInsertAwareGridDialect, OptimisticLockingAwareGridDialect, Configurable, ServiceRegistryAwareService, Stoppable {
 
 	private static final Log log = Logger.getMessageLogger( Log.class, CoreLogCategories.DATASTORE_ACCESS.toString() );
 
@@ -87,12 +92,30 @@ public Tuple getTuple(EntityKey key, TupleContext tupleContext) {
 		return gridDialect.getTuple( key, tupleContext );
 	}
 
+	@Override
+	public List<Tuple> getTuples(EntityKey[] keys, TupleContext tupleContext) {
+		log.tracef( "Reading Tuples with keys %1$s and context %2$s", Arrays.toString( keys ), tupleContext.toString() );
+		return GridDialects.getTuples( gridDialect, keys, tupleContext );
+	}
+
 	@Override
 	public Tuple createTuple(EntityKey key) {
 		log.tracef( "Build Tuple object with key %1$s (does not trigger access to the datastore)", key );
 		return gridDialect.createTuple( key );
 	}
 
+	@Override
+	public Tuple createTupleForInsert(EntityKey key, TupleContext tupleContext) {
+		log.tracef( "Build Tuple object for inserting key %1$s (does not trigger access to the datastore if supported by the dialect)", key );
+		return GridDialects.createTupleForInsert( gridDialect, key, tupleContext );
+	}
+
+	@Override
+	public Tuple createTupleForUpdate(EntityKey key, TupleSnapshot loadedState, TupleContext tupleContext) {
+		log.tracef( "Build Tuple object for updating key %1$s (does not trigger access to the datastore if supported by the dialect)", key );
+		return GridDialects.createTupleForUpdate( gridDialect, key, loadedState, tupleContext );
+	}
+
 	@Override
 	public void updateTuple(Tuple tuple, EntityKey key) {
 		if ( tuple.getSnapshot().isEmpty() ) {
@@ -104,6 +127,12 @@ public void updateTuple(Tuple tuple, EntityKey key) {
 		gridDialect.updateTuple( tuple, key );
 	}
 
+	@Override
+	public boolean updateTupleWithOptimisticLock(EntityKey key, Tuple oldLockState, Tuple tuple, TupleContext tupleContext) {
+		log.tracef( "Updating Tuple with key %1$s in datastore if its lock state is %2$s", key, oldLockState );
+		return GridDialects.updateTupleWithOptimisticLock( gridDialect, key, oldLockState, tuple, tupleContext );
+	}
+
 	@Override
 	public void removeTuple(EntityKey key) {
 		log.tracef( "Removing Tuple with key %1$s from datastore", key );
@@ -186,4 +215,12 @@ public void injectServices(ServiceRegistryImplementor serviceRegistry) {
 			( (ServiceRegistryAwareService) gridDialect ).injectServices( serviceRegistry );
 		}
 	}
+
+	@Override
+	public void stop() {
+		if ( gridDialect instanceof Stoppable ) {
+			log.tracef( "Stopping service" );
+			( (Stoppable) gridDialect ).stop();
+		}
+	}
 }
@@ -0,0 +1,47 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.dialect;
+
+import java.util.List;
+
+import org.hibernate.ogm.datastore.spi.Tuple;
+import org.hibernate.ogm.datastore.spi.TupleContext;
+import org.hibernate.ogm.grid.EntityKey;
+
+/**
+ * A {@link GridDialect} that can retrieve several tuples with a single round trip to the datastore.
+ * <p>
+ * Dialects not implementing this contract get the tuples one by one via {@link GridDialect#getTuple(EntityKey, TupleContext)}
+ * (see {@link org.hibernate.ogm.dialect.impl.GridDialects#getTuples(GridDialect, EntityKey[], TupleContext)}).
+ */
+public interface MultigetGridDialect extends GridDialect {
+
+	/**
+	 * Return the tuples with the given keys, all belonging to the same table.
+	 *
+	 * @param keys the keys of the tuples to retrieve
+	 * @param tupleContext the context of the tuples to retrieve
+	 * @return a list with one element per key, in the order of the given keys; an element is {@code null} if there is
+	 * no tuple for the corresponding key
+	 */
+	List<Tuple> getTuples(EntityKey[] keys, TupleContext tupleContext);
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.dialect;
+
+import org.hibernate.ogm.datastore.spi.Tuple;
+import org.hibernate.ogm.datastore.spi.TupleContext;
+import org.hibernate.ogm.grid.EntityKey;
+
+/**
+ * A {@link GridDialect} that can update a tuple only if its version still has a given value, checking and writing
+ * the tuple in a single atomic operation of the datastore.
+ * <p>
+ * Dialects not implementing this contract read the tuple and compare its version before updating it (see
+ * {@link org.hibernate.ogm.dialect.impl.GridDialects#updateTupleWithOptimisticLock(GridDialect, EntityKey, Tuple, Tuple, TupleContext)}),
+ * which doesn't prevent concurrent updates between the two steps.
+ */
+public interface OptimisticLockingAwareGridDialect extends GridDialect {
+
+	/**
+	 * Update the given tuple if the columns of the given lock state, usually the version column, still have the
+	 * given values in the datastore.
+	 *
+	 * @param key the key of the tuple to update
+	 * @param oldLockState the expected values of the columns used for optimistic locking
+	 * @param tuple the tuple to update
+	 * @param tupleContext the context of the tuple to update
+	 * @return {@code true} if the tuple has been updated, {@code false} if it doesn't exist or its lock state didn't
+	 * match the given one
+	 */
+	boolean updateTupleWithOptimisticLock(EntityKey key, Tuple oldLockState, Tuple tuple, TupleContext tupleContext);
+
+}
@@ -20,11 +20,14 @@
  */
 package org.hibernate.ogm.dialect.batch;
 
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import java.util.Queue;
-import java.util.Set;
 
+import org.hibernate.ogm.grid.AssociationKey;
 import org.hibernate.ogm.grid.EntityKey;
 import org.hibernate.ogm.util.impl.Log;
 import org.hibernate.ogm.util.impl.LoggerFactory;
@@ -32,7 +35,9 @@
 /**
  * A queue for {@link Operation}.
  * <p>
- * It keeps track of the element that are going to be affected by an {@link UpdateTupleOperation}.
+ * It keeps an index of the pending operations by the {@link EntityKey} or {@link AssociationKey} they affect, so that
+ * dialects can answer reads from the queue or merge its operations with what they read from the datastore instead of
+ * executing the queue early.
  * The queue can be closed, in that case it will throw an exception when trying to add or poll an operation.
  *
  * @author Guillaume Scheibel <guillaume.scheibel@gmail.com>
@@ -54,18 +59,19 @@ public boolean isClosed() {
 
 	private final Queue<Operation> operations = new LinkedList<Operation>();
 
-	private final Set<EntityKey> entityKeys = new HashSet<EntityKey>();
+	private final Map<EntityKey, List<Operation>> tupleOperations = new HashMap<EntityKey, List<Operation>>();
+
+	private final Map<AssociationKey, List<Operation>> associationOperations = new HashMap<AssociationKey, List<Operation>>();
 
 	private boolean closed = false;
 
 	public void add(UpdateTupleOperation operation) {
-		validate();
-		entityKeys.add( operation.getEntityKey() );
-		addOperation( operation );
+		add( (Operation) operation );
 	}
 
 	public void add(Operation operation) {
 		validate();
+		index( operation );
 		addOperation( operation );
 	}
 
@@ -80,15 +86,67 @@ private void addOperation(Operation operation) {
 		operations.add( operation );
 	}
 
+	private void index(Operation operation) {
+		if ( operation instanceof UpdateTupleOperation ) {
+			index( tupleOperations, ( (UpdateTupleOperation) operation ).getEntityKey(), operation );
+		}
+		else if ( operation instanceof RemoveTupleOperation ) {
+			index( tupleOperations, ( (RemoveTupleOperation) operation ).getEntityKey(), operation );
+		}
+		else if ( operation instanceof UpdateAssociationOperation ) {
+			index( associationOperations, ( (UpdateAssociationOperation) operation ).getAssociationKey(), operation );
+		}
+		else if ( operation instanceof RemoveAssociationOperation ) {
+			index( associationOperations, ( (RemoveAssociationOperation) operation ).getAssociationKey(), operation );
+		}
+	}
+
+	private static <K> void index(Map<K, List<Operation>> index, K key, Operation operation) {
+		List<Operation> operations = index.get( key );
+		if ( operations == null ) {
+			operations = new LinkedList<Operation>();
+			index.put( key, operations );
+		}
+		operations.add( operation );
+	}
+
+	private void unindex(Operation operation) {
+		if ( operation instanceof UpdateTupleOperation ) {
+			unindex( tupleOperations, ( (UpdateTupleOperation) operation ).getEntityKey(), operation );
+		}
+		else if ( operation instanceof RemoveTupleOperation ) {
+			unindex( tupleOperations, ( (RemoveTupleOperation) operation ).getEntityKey(), operation );
+		}
+		else if ( operation instanceof UpdateAssociationOperation ) {
+			unindex( associationOperations, ( (UpdateAssociationOperation) operation ).getAssociationKey(), operation );
+		}
+		else if ( operation instanceof RemoveAssociationOperation ) {
+			unindex( associationOperations, ( (RemoveAssociationOperation) operation ).getAssociationKey(), operation );
+		}
+	}
+
+	private static <K> void unindex(Map<K, List<Operation>> index, K key, Operation operation) {
+		List<Operation> operations = index.get( key );
+		if ( operations != null ) {
+			operations.remove( operation );
+			if ( operations.isEmpty() ) {
+				index.remove( key );
+			}
+		}
+	}
+
 	public Operation poll() {
 		validate();
 		Operation operation = operations.poll();
-		entityKeys.remove( operation );
+		if ( operation != null ) {
+			unindex( operation );
+		}
 		return operation;
 	}
 
 	public void close() {
-		entityKeys.clear();
+		tupleOperations.clear();
+		associationOperations.clear();
 		operations.clear();
 		closed = true;
 	}
@@ -102,7 +160,38 @@ public boolean isClosed() {
 	 * @return true if an {@link UpdateTupleOperation} is bound to the key, false otherwise
 	 */
 	public boolean contains(EntityKey key) {
-		return entityKeys.contains( key );
+		for ( Operation operation : getOperations( key ) ) {
+			if ( operation instanceof UpdateTupleOperation ) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @param key the {@link EntityKey} that identify the element
+	 * @return the pending {@link UpdateTupleOperation}s and {@link RemoveTupleOperation}s bound to the key, in the
+	 * order they have been added
+	 */
+	public List<Operation> getOperations(EntityKey key) {
+		return getOperations( tupleOperations, key );
+	}
+
+	/**
+	 * @param key the {@link AssociationKey} that identify the association
+	 * @return the pending {@link UpdateAssociationOperation}s and {@link RemoveAssociationOperation}s bound to the
+	 * key, in the order they have been added
+	 */
+	public List<Operation> getOperations(AssociationKey key) {
+		return getOperations( associationOperations, key );
+	}
+
+	private static <K> List<Operation> getOperations(Map<K, List<Operation>> index, K key) {
+		List<Operation> operations = index.get( key );
+		if ( operations == null ) {
+			return Collections.emptyList();
+		}
+		return Collections.unmodifiableList( operations );
 	}
 
 	/**
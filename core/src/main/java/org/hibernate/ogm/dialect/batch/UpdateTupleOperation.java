@@ -21,10 +21,15 @@
 package org.hibernate.ogm.dialect.batch;
 
 import org.hibernate.ogm.datastore.spi.Tuple;
+import org.hibernate.ogm.datastore.spi.TupleContext;
 import org.hibernate.ogm.grid.EntityKey;
 
 /**
  * Contains the data required to update a tuple
+ * <p>
+ * An update may be guarded by the lock state the tuple is expected to have in the datastore, usually its version. Such
+ * an update must only be applied if the stored tuple still has that lock state; the dialect executing the batch raises
+ * a {@link org.hibernate.StaleStateException} otherwise.
  *
  * @author Davide D'Alto <davide@hibernate.org>
  */
@@ -32,10 +37,26 @@ public class UpdateTupleOperation implements Operation {
 
 	private final Tuple tuple;
 	private final EntityKey entityKey;
+	private final Tuple oldLockState;
+	private final TupleContext tupleContext;
 
 	public UpdateTupleOperation(Tuple tuple, EntityKey entityKey) {
+		this( tuple, entityKey, null, null );
+	}
+
+	/**
+	 * @param tuple the tuple to update
+	 * @param entityKey the key of the tuple to update
+	 * @param oldLockState the expected values of the columns used for optimistic locking, {@code null} if the update
+	 * isn't guarded
+	 * @param tupleContext the context of the tuple to update, needed to read the stored tuple when checking its lock
+	 * state
+	 */
+	public UpdateTupleOperation(Tuple tuple, EntityKey entityKey, Tuple oldLockState, TupleContext tupleContext) {
 		this.tuple = tuple;
 		this.entityKey = entityKey;
+		this.oldLockState = oldLockState;
+		this.tupleContext = tupleContext;
 	}
 
 	public Tuple getTuple() {
@@ -46,4 +67,15 @@ public EntityKey getEntityKey() {
 		return entityKey;
 	}
 
+	/**
+	 * @return the expected values of the columns used for optimistic locking, {@code null} if the update isn't guarded
+	 */
+	public Tuple getOldLockState() {
+		return oldLockState;
+	}
+
+	public TupleContext getTupleContext() {
+		return tupleContext;
+	}
+
 }
@@ -34,6 +34,9 @@
 import org.hibernate.ogm.dialect.BatchableGridDialect;
 import org.hibernate.ogm.dialect.GridDialect;
 import org.hibernate.ogm.dialect.GridDialectLogger;
+import org.hibernate.ogm.dialect.metrics.GridDialectMetrics;
+import org.hibernate.ogm.dialect.metrics.InstrumentedBatchableGridDialect;
+import org.hibernate.ogm.dialect.metrics.InstrumentedGridDialect;
 import org.hibernate.ogm.service.impl.AutoFlushBatchManagerEventListener;
 import org.hibernate.ogm.service.impl.FlushBatchManagerEventListener;
 import org.hibernate.ogm.util.configurationreader.impl.ConfigurationPropertyReader;
@@ -65,12 +68,15 @@ public Class<GridDialect> getServiceInitiated() {
 	public GridDialect initiateService(SessionFactoryImplementor sessionFactory, Configuration configuration, ServiceRegistryImplementor registry) {
 		DatastoreProvider datastore = registry.getService( DatastoreProvider.class );
 		ConfigurationPropertyReader propertyReader = new ConfigurationPropertyReader( configuration );
+		int batchDispatchThreads = propertyReader.property( OgmProperties.BATCH_DISPATCH_THREADS, int.class )
+				.withDefault( Runtime.getRuntime().availableProcessors() )
+				.getValue();
 
 		return propertyReader.property( OgmProperties.GRID_DIALECT, GridDialect.class )
 				.instantiate()
 				.withClassLoaderService( registry.getService( ClassLoaderService.class ) )
 				.withDefaultImplementation( registry.getService( DatastoreProvider.class ).getDefaultDialect() )
-				.withInstantiator( new GridDialectInstantiator( datastore, registry.getService( EventListenerRegistry.class ) ) )
+				.withInstantiator( new GridDialectInstantiator( datastore, registry.getService( EventListenerRegistry.class ), registry.getService( GridDialectMetrics.class ), batchDispatchThreads ) )
 				.getValue();
 	}
 
@@ -83,10 +89,14 @@ private static class GridDialectInstantiator implements Instantiator<GridDialect
 
 		private final DatastoreProvider datastore;
 		private EventListenerRegistry eventListenerRegistry;
+		private final GridDialectMetrics metrics;
+		private final int batchDispatchThreads;
 
-		public GridDialectInstantiator(DatastoreProvider datastore, EventListenerRegistry eventListenerRegistry) {
+		public GridDialectInstantiator(DatastoreProvider datastore, EventListenerRegistry eventListenerRegistry, GridDialectMetrics metrics, int batchDispatchThreads) {
 			this.datastore = datastore;
 			this.eventListenerRegistry = eventListenerRegistry;
+			this.metrics = metrics;
+			this.batchDispatchThreads = batchDispatchThreads;
 		}
 
 		@Override
@@ -109,10 +119,18 @@ public GridDialect newInstance(Class<? extends GridDialect> clazz) {
 				GridDialect gridDialect = (GridDialect) injector.newInstance( datastore );
 
 				if ( gridDialect instanceof BatchableGridDialect ) {
-					BatchOperationsDelegator delegator = new BatchOperationsDelegator( (BatchableGridDialect) gridDialect );
+					BatchableGridDialect batchableGridDialect = (BatchableGridDialect) gridDialect;
+					// the metrics are recorded beneath the delegator in order to see the executed batches
+					if ( metrics.isEnabled() ) {
+						batchableGridDialect = new InstrumentedBatchableGridDialect( batchableGridDialect, metrics );
+					}
+					BatchOperationsDelegator delegator = new BatchOperationsDelegator( batchableGridDialect, batchDispatchThreads );
 					addListeners( delegator );
 					gridDialect = delegator;
 				}
+				else if ( metrics.isEnabled() ) {
+					gridDialect = new InstrumentedGridDialect( gridDialect, metrics );
+				}
 
 				log.useGridDialect( gridDialect.getClass().getName() );
 				if ( GridDialectLogger.activationNeeded() ) {
@@ -122,6 +140,9 @@ public GridDialect newInstance(Class<? extends GridDialect> clazz) {
 				else {
 					log.info( "Grid dialect logs are disabled" );
 				}
+				if ( metrics.isEnabled() ) {
+					log.info( "Grid dialect metrics are enabled" );
+				}
 				return gridDialect;
 			}
 			catch ( Exception e ) {
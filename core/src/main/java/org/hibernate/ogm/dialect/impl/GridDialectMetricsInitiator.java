@@ -0,0 +1,80 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.dialect.impl;
+
+import org.hibernate.boot.registry.classloading.spi.ClassLoaderService;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.metamodel.source.MetadataImplementor;
+import org.hibernate.ogm.cfg.OgmProperties;
+import org.hibernate.ogm.dialect.metrics.GridDialectMetrics;
+import org.hibernate.ogm.dialect.metrics.GridDialectMetricsListener;
+import org.hibernate.ogm.util.configurationreader.impl.ConfigurationPropertyReader;
+import org.hibernate.service.spi.ServiceRegistryImplementor;
+import org.hibernate.service.spi.SessionFactoryServiceInitiator;
+
+/**
+ * Contributes the {@link GridDialectMetrics} service, based on the configuration via
+ * {@link OgmProperties#DIALECT_METRICS}, {@link OgmProperties#DIALECT_METRICS_JMX} and
+ * {@link OgmProperties#DIALECT_METRICS_LISTENER}.
+ */
+public class GridDialectMetricsInitiator implements SessionFactoryServiceInitiator<GridDialectMetrics> {
+
+	public static final SessionFactoryServiceInitiator<GridDialectMetrics> INSTANCE = new GridDialectMetricsInitiator();
+
+	@Override
+	public Class<GridDialectMetrics> getServiceInitiated() {
+		return GridDialectMetrics.class;
+	}
+
+	@Override
+	public GridDialectMetrics initiateService(SessionFactoryImplementor sessionFactory, Configuration configuration, ServiceRegistryImplementor registry) {
+		ConfigurationPropertyReader propertyReader = new ConfigurationPropertyReader( configuration );
+
+		GridDialectMetricsListener listener = propertyReader.property( OgmProperties.DIALECT_METRICS_LISTENER, GridDialectMetricsListener.class )
+				.instantiate()
+				.withClassLoaderService( registry.getService( ClassLoaderService.class ) )
+				.getValue();
+		boolean jmxEnabled = propertyReader.property( OgmProperties.DIALECT_METRICS_JMX, boolean.class )
+				.withDefault( false )
+				.getValue();
+		boolean enabled = jmxEnabled || listener != null || propertyReader.property( OgmProperties.DIALECT_METRICS, boolean.class )
+				.withDefault( false )
+				.getValue();
+
+		GridDialectMetrics metrics = new GridDialectMetrics( enabled, listener );
+		if ( jmxEnabled ) {
+			metrics.registerMBean( getSessionFactoryName( sessionFactory, configuration ) );
+		}
+		return metrics;
+	}
+
+	@Override
+	public GridDialectMetrics initiateService(SessionFactoryImplementor sessionFactory, MetadataImplementor metadata, ServiceRegistryImplementor registry) {
+		throw new UnsupportedOperationException( "Cannot create " + GridDialectMetrics.class.getName() + " service using metadata" );
+	}
+
+	private String getSessionFactoryName(SessionFactoryImplementor sessionFactory, Configuration configuration) {
+		String name = configuration.getProperty( AvailableSettings.SESSION_FACTORY_NAME );
+		return name != null ? name : "SessionFactory@" + Integer.toHexString( System.identityHashCode( sessionFactory ) );
+	}
+}
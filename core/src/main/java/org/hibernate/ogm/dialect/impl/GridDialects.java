@@ -0,0 +1,226 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.dialect.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.hibernate.ogm.datastore.spi.Tuple;
+import org.hibernate.ogm.datastore.spi.TupleContext;
+import org.hibernate.ogm.datastore.spi.TupleSnapshot;
+import org.hibernate.ogm.dialect.AsynchronousBatchableGridDialect;
+import org.hibernate.ogm.dialect.BatchableGridDialect;
+import org.hibernate.ogm.dialect.DeltaUpdateGridDialect;
+import org.hibernate.ogm.dialect.DuplicateInsertAwareGridDialect;
+import org.hibernate.ogm.dialect.GridDialect;
+import org.hibernate.ogm.dialect.MultigetGridDialect;
+import org.hibernate.ogm.dialect.OptimisticLockingAwareGridDialect;
+import org.hibernate.ogm.dialect.batch.OperationsQueue;
+import org.hibernate.ogm.grid.EntityKey;
+import org.hibernate.ogm.util.impl.Log;
+import org.hibernate.ogm.util.impl.LoggerFactory;
+
+/**
+ * Helper methods for invoking optional capabilities of a {@link GridDialect}, falling back to the basic contract if
+ * the dialect doesn't implement them.
+ */
+public class GridDialects {
+
+	private static final Log log = LoggerFactory.make();
+
+	private GridDialects() {
+	}
+
+	/**
+	 * Return the tuples with the given keys, using a single round trip if the dialect is a {@link MultigetGridDialect}
+	 * and one {@link GridDialect#getTuple(EntityKey, TupleContext)} call per key otherwise.
+	 *
+	 * @param gridDialect the dialect to read the tuples from
+	 * @param keys the keys of the tuples to retrieve
+	 * @param tupleContext the context of the tuples to retrieve
+	 * @return a list with one element per key, {@code null} if there is no tuple for the corresponding key
+	 */
+	public static List<Tuple> getTuples(GridDialect gridDialect, EntityKey[] keys, TupleContext tupleContext) {
+		if ( gridDialect instanceof MultigetGridDialect ) {
+			return ( (MultigetGridDialect) gridDialect ).getTuples( keys, tupleContext );
+		}
+
+		List<Tuple> tuples = new ArrayList<Tuple>( keys.length );
+		for ( EntityKey key : keys ) {
+			tuples.add( gridDialect.getTuple( key, tupleContext ) );
+		}
+		return tuples;
+	}
+
+	/**
+	 * Return the tuple to apply the changes of an update to, built from the given loaded state if the dialect is a
+	 * {@link DeltaUpdateGridDialect} and read via {@link GridDialect#getTuple(EntityKey, TupleContext)} otherwise.
+	 *
+	 * @param gridDialect the dialect to update the tuple with
+	 * @param key the key of the tuple to update
+	 * @param loadedState the columns of the tuple as loaded by the session
+	 * @param tupleContext the context of the tuple to update
+	 * @return the tuple to update, {@code null} if the dialect read it and there is no tuple for the given key
+	 */
+	public static Tuple createTupleForUpdate(GridDialect gridDialect, EntityKey key, TupleSnapshot loadedState, TupleContext tupleContext) {
+		if ( gridDialect instanceof DeltaUpdateGridDialect ) {
+			return ( (DeltaUpdateGridDialect) gridDialect ).createTupleForUpdate( key, loadedState, tupleContext );
+		}
+		return gridDialect.getTuple( key, tupleContext );
+	}
+
+	/**
+	 * Return a new tuple for an entity to insert, without accessing the datastore if the dialect is a
+	 * {@link DuplicateInsertAwareGridDialect} and after checking via {@link GridDialect#getTuple(EntityKey, TupleContext)}
+	 * that no tuple exists for the given key otherwise.
+	 *
+	 * @param gridDialect the dialect to insert the tuple with
+	 * @param key the key of the tuple to create
+	 * @param tupleContext the context of the tuple to create
+	 * @return the new tuple
+	 * @throws org.hibernate.HibernateException if a tuple with the given key exists already
+	 */
+	public static Tuple createTupleForInsert(GridDialect gridDialect, EntityKey key, TupleContext tupleContext) {
+		if ( gridDialect instanceof DuplicateInsertAwareGridDialect ) {
+			return ( (DuplicateInsertAwareGridDialect) gridDialect ).createTupleForInsert( key, tupleContext );
+		}
+
+		if ( gridDialect.getTuple( key, tupleContext ) != null ) {
+			throw log.entityAlreadyExists( key );
+		}
+		return createTuple( gridDialect, key, tupleContext );
+	}
+
+	/**
+	 * Creates a new tuple for the given key using {@link GridDialect#createTuple(EntityKey)}, keeping its changes in
+	 * compact form as per the column index of the given context.
+	 */
+	public static Tuple createTuple(GridDialect gridDialect, EntityKey key, TupleContext tupleContext) {
+		return gridDialect.createTuple( key ).withColumnIndex( tupleContext.getColumnIndex() );
+	}
+
+	/**
+	 * Update a tuple if its lock state matches the given one, atomically if the dialect is an
+	 * {@link OptimisticLockingAwareGridDialect} and by reading the tuple and comparing its lock state before invoking
+	 * {@link GridDialect#updateTuple(Tuple, EntityKey)} otherwise.
+	 *
+	 * @param gridDialect the dialect to update the tuple with
+	 * @param key the key of the tuple to update
+	 * @param oldLockState the expected values of the columns used for optimistic locking
+	 * @param tuple the tuple to update
+	 * @param tupleContext the context of the tuple to update
+	 * @return {@code true} if the tuple has been updated, {@code false} if it doesn't exist or its lock state didn't
+	 * match the given one
+	 */
+	public static boolean updateTupleWithOptimisticLock(GridDialect gridDialect, EntityKey key, Tuple oldLockState, Tuple tuple, TupleContext tupleContext) {
+		if ( gridDialect instanceof OptimisticLockingAwareGridDialect ) {
+			return ( (OptimisticLockingAwareGridDialect) gridDialect ).updateTupleWithOptimisticLock( key, oldLockState, tuple, tupleContext );
+		}
+
+		Tuple current = gridDialect.getTuple( key, tupleContext );
+		if ( current == null || !matches( oldLockState, current ) ) {
+			return false;
+		}
+		gridDialect.updateTuple( tuple, key );
+		return true;
+	}
+
+	/**
+	 * Whether the given tuple has the values of all the columns of the given lock state. Numbers are compared by
+	 * value, as datastores may not return them with the type they have been written with.
+	 *
+	 * @param lockState the expected values of the columns used for optimistic locking
+	 * @param tuple the tuple to check
+	 * @return {@code true} if all the columns of the lock state have the same value in the tuple
+	 */
+	public static boolean matches(Tuple lockState, Tuple tuple) {
+		for ( String column : lockState.getColumnNames() ) {
+			if ( !matches( lockState.get( column ), tuple.get( column ) ) ) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean matches(Object expected, Object actual) {
+		if ( expected == null || actual == null ) {
+			return expected == actual;
+		}
+		if ( expected instanceof Number && actual instanceof Number ) {
+			return expected.toString().equals( actual.toString() );
+		}
+		return expected.equals( actual );
+	}
+
+	/**
+	 * Execute a batch of operations without blocking, natively if the dialect is an
+	 * {@link AsynchronousBatchableGridDialect} and by invoking {@link BatchableGridDialect#executeBatch(OperationsQueue)}
+	 * from the given executor otherwise.
+	 *
+	 * @param gridDialect the dialect executing the operations
+	 * @param queue the operations to execute
+	 * @param executor the executor running the blocking operation if needed
+	 * @return a future completed once all the operations have been executed
+	 */
+	public static Future<Void> executeBatchAsync(final BatchableGridDialect gridDialect, final OperationsQueue queue, ExecutorService executor) {
+		if ( gridDialect instanceof AsynchronousBatchableGridDialect ) {
+			return ( (AsynchronousBatchableGridDialect) gridDialect ).executeBatchAsync( queue );
+		}
+
+		return executor.submit( new Callable<Void>() {
+			@Override
+			public Void call() {
+				gridDialect.executeBatch( queue );
+				return null;
+			}
+		} );
+	}
+
+	/**
+	 * Wait for the result of an asynchronous operation, propagating the exception it failed with if any.
+	 *
+	 * @param future the result of the asynchronous operation
+	 * @return the result of the operation
+	 */
+	public static <T> T getResult(Future<T> future) {
+		try {
+			return future.get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw log.interruptedWhileWaitingForAsynchronousOperation( e );
+		}
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if ( cause instanceof RuntimeException ) {
+				throw (RuntimeException) cause;
+			}
+			if ( cause instanceof Error ) {
+				throw (Error) cause;
+			}
+			throw log.asynchronousOperationFailed( cause );
+		}
+	}
+}
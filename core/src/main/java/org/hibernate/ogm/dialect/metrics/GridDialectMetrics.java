@@ -0,0 +1,234 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.dialect.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.ObjectName;
+
+import org.hibernate.ogm.util.impl.Log;
+import org.hibernate.ogm.util.impl.LoggerFactory;
+import org.hibernate.service.Service;
+import org.hibernate.service.spi.Stoppable;
+
+/**
+ * Collects metrics about the operations executed by the grid dialect: counts, latencies and sizes per
+ * {@link GridDialectOperation}, both overall and per table.
+ * <p>
+ * Metrics are only recorded if enabled via {@link org.hibernate.ogm.cfg.OgmProperties#DIALECT_METRICS}; otherwise the
+ * grid dialect is not instrumented at all. Each recorded operation is passed on to the configured
+ * {@link GridDialectMetricsListener}, if any.
+ */
+public class GridDialectMetrics implements GridDialectMetricsMBean, Service, Stoppable {
+
+	private static final Log log = LoggerFactory.make();
+
+	private final boolean enabled;
+	private final GridDialectMetricsListener listener;
+	private volatile Statistics statistics = new Statistics();
+	private ObjectName objectName;
+
+	public GridDialectMetrics(boolean enabled, GridDialectMetricsListener listener) {
+		this.enabled = enabled;
+		this.listener = listener;
+	}
+
+	/**
+	 * Whether metrics are collected or not.
+	 *
+	 * @return {@code true} if the grid dialect is to be instrumented, {@code false} otherwise
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Records the execution of the given operation.
+	 *
+	 * @param operation the executed operation
+	 * @param table the accessed table, may be {@code null}
+	 * @param durationInNanos the time spent executing the operation
+	 * @param size the number of elements read or written
+	 * @see GridDialectMetricsListener#operationExecuted(GridDialectOperation, String, long, int)
+	 */
+	public void record(GridDialectOperation operation, String table, long durationInNanos, int size) {
+		Statistics current = statistics;
+		current.totals.get( operation ).record( durationInNanos, size );
+		if ( table != null ) {
+			current.getOrCreate( operation, table ).record( durationInNanos, size );
+		}
+		if ( listener != null ) {
+			listener.operationExecuted( operation, table, durationInNanos, size );
+		}
+	}
+
+	/**
+	 * @param operation the operation of interest
+	 * @return the statistics of the given operation across all tables
+	 */
+	public OperationStatistics getStatistics(GridDialectOperation operation) {
+		return statistics.totals.get( operation );
+	}
+
+	/**
+	 * @param operation the operation of interest
+	 * @param table the table of interest
+	 * @return the statistics of the given operation on the given table
+	 */
+	public OperationStatistics getStatistics(GridDialectOperation operation, String table) {
+		OperationStatistics operationStatistics = statistics.byTable.get( operation ).get( table );
+		return operationStatistics != null ? operationStatistics : new OperationStatistics();
+	}
+
+	/**
+	 * Registers this object as MBean with the platform MBean server.
+	 *
+	 * @param name the name distinguishing this MBean from those of other session factories
+	 */
+	public void registerMBean(String name) {
+		try {
+			ObjectName mbeanName = new ObjectName( JMX_DOMAIN + ":type=GridDialectMetrics,name=" + ObjectName.quote( name ) );
+			ManagementFactory.getPlatformMBeanServer().registerMBean( this, mbeanName );
+			objectName = mbeanName;
+		}
+		catch (Exception e) {
+			log.unableToRegisterGridDialectMetricsMBean( name, e );
+		}
+	}
+
+	@Override
+	public void stop() {
+		if ( objectName != null ) {
+			try {
+				ManagementFactory.getPlatformMBeanServer().unregisterMBean( objectName );
+			}
+			catch (Exception e) {
+				log.unableToUnregisterGridDialectMetricsMBean( objectName.toString(), e );
+			}
+			objectName = null;
+		}
+	}
+
+	@Override
+	public String[] getOperations() {
+		GridDialectOperation[] operations = GridDialectOperation.values();
+		String[] names = new String[operations.length];
+		for ( int i = 0; i < operations.length; i++ ) {
+			names[i] = operations[i].name();
+		}
+		return names;
+	}
+
+	@Override
+	public String[] getTables() {
+		Set<String> tables = new TreeSet<String>();
+		for ( Map<String, OperationStatistics> statisticsByTable : statistics.byTable.values() ) {
+			tables.addAll( statisticsByTable.keySet() );
+		}
+		return tables.toArray( new String[tables.size()] );
+	}
+
+	@Override
+	public long getCount(String operation) {
+		return getStatistics( GridDialectOperation.valueOf( operation ) ).getCount();
+	}
+
+	@Override
+	public long getCount(String operation, String table) {
+		return getStatistics( GridDialectOperation.valueOf( operation ), table ).getCount();
+	}
+
+	@Override
+	public long getAverageTimeInMicros(String operation) {
+		return TimeUnit.NANOSECONDS.toMicros( getStatistics( GridDialectOperation.valueOf( operation ) ).getAverageTimeInNanos() );
+	}
+
+	@Override
+	public long getAverageTimeInMicros(String operation, String table) {
+		return TimeUnit.NANOSECONDS.toMicros( getStatistics( GridDialectOperation.valueOf( operation ), table ).getAverageTimeInNanos() );
+	}
+
+	@Override
+	public long getMaxTimeInMicros(String operation) {
+		return TimeUnit.NANOSECONDS.toMicros( getStatistics( GridDialectOperation.valueOf( operation ) ).getMaxTimeInNanos() );
+	}
+
+	@Override
+	public long[] getLatencyHistogram(String operation) {
+		return getStatistics( GridDialectOperation.valueOf( operation ) ).getLatencyHistogram();
+	}
+
+	@Override
+	public double getAverageSize(String operation) {
+		return getStatistics( GridDialectOperation.valueOf( operation ) ).getAverageSize();
+	}
+
+	@Override
+	public double getAverageSize(String operation, String table) {
+		return getStatistics( GridDialectOperation.valueOf( operation ), table ).getAverageSize();
+	}
+
+	@Override
+	public long getMaxSize(String operation) {
+		return getStatistics( GridDialectOperation.valueOf( operation ) ).getMaxSize();
+	}
+
+	@Override
+	public void clear() {
+		statistics = new Statistics();
+	}
+
+	/**
+	 * The statistics collected since the last reset; replaced as a whole upon reset.
+	 */
+	private static class Statistics {
+
+		private final Map<GridDialectOperation, OperationStatistics> totals = new EnumMap<GridDialectOperation, OperationStatistics>( GridDialectOperation.class );
+		private final Map<GridDialectOperation, ConcurrentMap<String, OperationStatistics>> byTable = new EnumMap<GridDialectOperation, ConcurrentMap<String, OperationStatistics>>( GridDialectOperation.class );
+
+		private Statistics() {
+			for ( GridDialectOperation operation : GridDialectOperation.values() ) {
+				totals.put( operation, new OperationStatistics() );
+				byTable.put( operation, new ConcurrentHashMap<String, OperationStatistics>() );
+			}
+		}
+
+		private OperationStatistics getOrCreate(GridDialectOperation operation, String table) {
+			ConcurrentMap<String, OperationStatistics> statisticsByTable = byTable.get( operation );
+			OperationStatistics operationStatistics = statisticsByTable.get( table );
+			if ( operationStatistics == null ) {
+				operationStatistics = new OperationStatistics();
+				OperationStatistics existing = statisticsByTable.putIfAbsent( table, operationStatistics );
+				if ( existing != null ) {
+					operationStatistics = existing;
+				}
+			}
+			return operationStatistics;
+		}
+	}
+}
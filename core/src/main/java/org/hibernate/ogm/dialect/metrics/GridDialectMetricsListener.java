@@ -0,0 +1,43 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.dialect.metrics;
+
+/**
+ * Gets notified about each operation executed by the grid dialect while metrics are enabled, e.g. to forward them to
+ * an external monitoring system. Can be configured via {@link org.hibernate.ogm.cfg.OgmProperties#DIALECT_METRICS_LISTENER}.
+ * <p>
+ * Implementations are invoked synchronously by the thread executing the operation and thus must be thread-safe and
+ * should return quickly.
+ */
+public interface GridDialectMetricsListener {
+
+	/**
+	 * Invoked after an operation has been executed by the grid dialect.
+	 *
+	 * @param operation the executed operation
+	 * @param table the table of the accessed entity, association or sequence; {@code null} if the operation is not
+	 * related to a single table, e.g. when executing a batch
+	 * @param durationInNanos the time spent executing the operation, in nanoseconds
+	 * @param size the number of elements read or written by the operation: the columns of a tuple, the rows of an
+	 * association, the keys of a multi-get, the tuples of an iteration or the operations of a batch
+	 */
+	void operationExecuted(GridDialectOperation operation, String table, long durationInNanos, int size);
+}
@@ -0,0 +1,71 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.dialect.metrics;
+
+/**
+ * Publishes the metrics of the grid dialect via JMX. Operations are identified by the names of the
+ * {@link GridDialectOperation} constants.
+ */
+public interface GridDialectMetricsMBean {
+
+	/**
+	 * The name of the MBean domain
+	 */
+	String JMX_DOMAIN = "org.hibernate.ogm";
+
+	/**
+	 * @return the names of all operations metrics are collected for
+	 */
+	String[] getOperations();
+
+	/**
+	 * @return the tables accessed by the recorded operations
+	 */
+	String[] getTables();
+
+	long getCount(String operation);
+
+	long getCount(String operation, String table);
+
+	long getAverageTimeInMicros(String operation);
+
+	long getAverageTimeInMicros(String operation, String table);
+
+	long getMaxTimeInMicros(String operation);
+
+	/**
+	 * @param operation the name of the operation
+	 * @return the latency histogram of the given operation
+	 * @see OperationStatistics#getHistogramBucketUpperBoundInMicros(int)
+	 */
+	long[] getLatencyHistogram(String operation);
+
+	double getAverageSize(String operation);
+
+	double getAverageSize(String operation, String table);
+
+	long getMaxSize(String operation);
+
+	/**
+	 * Resets all the collected metrics.
+	 */
+	void clear();
+}
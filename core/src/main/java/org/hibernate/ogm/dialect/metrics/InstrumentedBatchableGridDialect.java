@@ -0,0 +1,52 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.dialect.metrics;
+
+import org.hibernate.ogm.dialect.BatchableGridDialect;
+import org.hibernate.ogm.dialect.batch.OperationsQueue;
+
+/**
+ * A wrapper dialect recording the metrics of a {@link BatchableGridDialect}, including the number of operations per
+ * executed batch. It is wrapped by the {@link org.hibernate.ogm.dialect.BatchOperationsDelegator}, so batched
+ * operations are recorded once when the batch is executed.
+ */
+public class InstrumentedBatchableGridDialect extends InstrumentedGridDialect implements BatchableGridDialect {
+
+	private final BatchableGridDialect gridDialect;
+
+	public InstrumentedBatchableGridDialect(BatchableGridDialect gridDialect, GridDialectMetrics metrics) {
+		super( gridDialect, metrics );
+		this.gridDialect = gridDialect;
+	}
+
+	@Override
+	public void executeBatch(OperationsQueue queue) {
+		int size = queue.isClosed() ? 0 : queue.size();
+		if ( size == 0 ) {
+			gridDialect.executeBatch( queue );
+		}
+		else {
+			long start = System.nanoTime();
+			gridDialect.executeBatch( queue );
+			getMetrics().record( GridDialectOperation.EXECUTE_BATCH, null, System.nanoTime() - start, size );
+		}
+	}
+}
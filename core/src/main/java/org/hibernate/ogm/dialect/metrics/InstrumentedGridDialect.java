@@ -0,0 +1,233 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.dialect.metrics;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hibernate.LockMode;
+import org.hibernate.dialect.lock.LockingStrategy;
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.loader.custom.CustomQuery;
+import org.hibernate.ogm.datastore.spi.Association;
+import org.hibernate.ogm.datastore.spi.AssociationContext;
+import org.hibernate.ogm.datastore.spi.Tuple;
+import org.hibernate.ogm.datastore.spi.TupleContext;
+import org.hibernate.ogm.datastore.spi.TupleSnapshot;
+import org.hibernate.ogm.dialect.GridDialect;
+import org.hibernate.ogm.dialect.DeltaUpdateGridDialect;
+import org.hibernate.ogm.dialect.DuplicateInsertAwareGridDialect;
+import org.hibernate.ogm.dialect.MultigetGridDialect;
+import org.hibernate.ogm.dialect.OptimisticLockingAwareGridDialect;
+import org.hibernate.ogm.dialect.impl.GridDialects;
+import org.hibernate.ogm.grid.AssociationKey;
+import org.hibernate.ogm.grid.EntityKey;
+import org.hibernate.ogm.grid.EntityKeyMetadata;
+import org.hibernate.ogm.grid.RowKey;
+import org.hibernate.ogm.massindex.batchindexing.Consumer;
+import org.hibernate.ogm.type.GridType;
+import org.hibernate.persister.entity.Lockable;
+import org.hibernate.service.spi.Configurable;
+import org.hibernate.service.spi.ServiceRegistryAwareService;
+import org.hibernate.service.spi.ServiceRegistryImplementor;
+import org.hibernate.type.Type;
+
+/**
+ * A wrapper dialect that records the metrics of the operations performed on the real dialect with
+ * {@link GridDialectMetrics}. It is only used when metrics are enabled.
+ */
+public class InstrumentedGridDialect implements MultigetGridDialect, DeltaUpdateGridDialect, DuplicateInsertAwareGridDialect, OptimisticLockingAwareGridDialect, Configurable, ServiceRegistryAwareService {
+
+	private final GridDialect gridDialect;
+	private final GridDialectMetrics metrics;
+
+	public InstrumentedGridDialect(GridDialect gridDialect, GridDialectMetrics metrics) {
+		if ( gridDialect == null ) {
+			throw new IllegalArgumentException( "GridDialect should never be null" );
+		}
+		this.gridDialect = gridDialect;
+		this.metrics = metrics;
+	}
+
+	protected GridDialectMetrics getMetrics() {
+		return metrics;
+	}
+
+	@Override
+	public LockingStrategy getLockingStrategy(Lockable lockable, LockMode lockMode) {
+		return gridDialect.getLockingStrategy( lockable, lockMode );
+	}
+
+	@Override
+	public Tuple getTuple(EntityKey key, TupleContext tupleContext) {
+		long start = System.nanoTime();
+		Tuple tuple = gridDialect.getTuple( key, tupleContext );
+		int size = tuple != null ? tuple.getSnapshot().getColumnNames().size() : 0;
+		metrics.record( GridDialectOperation.GET_TUPLE, key.getTable(), System.nanoTime() - start, size );
+		return tuple;
+	}
+
+	@Override
+	public List<Tuple> getTuples(EntityKey[] keys, TupleContext tupleContext) {
+		long start = System.nanoTime();
+		List<Tuple> tuples = GridDialects.getTuples( gridDialect, keys, tupleContext );
+		String table = keys.length > 0 ? keys[0].getTable() : null;
+		metrics.record( GridDialectOperation.GET_TUPLES, table, System.nanoTime() - start, keys.length );
+		return tuples;
+	}
+
+	@Override
+	public Tuple createTuple(EntityKey key) {
+		return gridDialect.createTuple( key );
+	}
+
+	@Override
+	public Tuple createTupleForInsert(EntityKey key, TupleContext tupleContext) {
+		return GridDialects.createTupleForInsert( gridDialect, key, tupleContext );
+	}
+
+	@Override
+	public Tuple createTupleForUpdate(EntityKey key, TupleSnapshot loadedState, TupleContext tupleContext) {
+		return GridDialects.createTupleForUpdate( gridDialect, key, loadedState, tupleContext );
+	}
+
+	@Override
+	public void updateTuple(Tuple tuple, EntityKey key) {
+		long start = System.nanoTime();
+		gridDialect.updateTuple( tuple, key );
+		metrics.record( GridDialectOperation.UPDATE_TUPLE, key.getTable(), System.nanoTime() - start, tuple.getOperations().size() );
+	}
+
+	@Override
+	public boolean updateTupleWithOptimisticLock(EntityKey key, Tuple oldLockState, Tuple tuple, TupleContext tupleContext) {
+		long start = System.nanoTime();
+		boolean updated = GridDialects.updateTupleWithOptimisticLock( gridDialect, key, oldLockState, tuple, tupleContext );
+		metrics.record( GridDialectOperation.UPDATE_TUPLE, key.getTable(), System.nanoTime() - start, tuple.getOperations().size() );
+		return updated;
+	}
+
+	@Override
+	public void removeTuple(EntityKey key) {
+		long start = System.nanoTime();
+		gridDialect.removeTuple( key );
+		metrics.record( GridDialectOperation.REMOVE_TUPLE, key.getTable(), System.nanoTime() - start, 0 );
+	}
+
+	@Override
+	public Association getAssociation(AssociationKey key, AssociationContext associationContext) {
+		long start = System.nanoTime();
+		Association association = gridDialect.getAssociation( key, associationContext );
+		int size = association != null ? association.getSnapshot().size() : 0;
+		metrics.record( GridDialectOperation.GET_ASSOCIATION, key.getTable(), System.nanoTime() - start, size );
+		return association;
+	}
+
+	@Override
+	public Association createAssociation(AssociationKey key, AssociationContext associationContext) {
+		return gridDialect.createAssociation( key, associationContext );
+	}
+
+	@Override
+	public void updateAssociation(Association association, AssociationKey key, AssociationContext associationContext) {
+		long start = System.nanoTime();
+		gridDialect.updateAssociation( association, key, associationContext );
+		metrics.record( GridDialectOperation.UPDATE_ASSOCIATION, key.getTable(), System.nanoTime() - start, association.getOperations().size() );
+	}
+
+	@Override
+	public void removeAssociation(AssociationKey key, AssociationContext associationContext) {
+		long start = System.nanoTime();
+		gridDialect.removeAssociation( key, associationContext );
+		metrics.record( GridDialectOperation.REMOVE_ASSOCIATION, key.getTable(), System.nanoTime() - start, 0 );
+	}
+
+	@Override
+	public Tuple createTupleAssociation(AssociationKey associationKey, RowKey rowKey) {
+		return gridDialect.createTupleAssociation( associationKey, rowKey );
+	}
+
+	@Override
+	public void nextValue(RowKey key, IntegralDataTypeHolder value, int increment, int initialValue) {
+		long start = System.nanoTime();
+		gridDialect.nextValue( key, value, increment, initialValue );
+		metrics.record( GridDialectOperation.NEXT_VALUE, key.getTable(), System.nanoTime() - start, 1 );
+	}
+
+	@Override
+	public GridType overrideType(Type type) {
+		return gridDialect.overrideType( type );
+	}
+
+	@Override
+	public void forEachTuple(Consumer consumer, EntityKeyMetadata... entityKeyMetadatas) {
+		CountingConsumer countingConsumer = new CountingConsumer( consumer );
+		long start = System.nanoTime();
+		gridDialect.forEachTuple( countingConsumer, entityKeyMetadatas );
+		metrics.record( GridDialectOperation.FOR_EACH_TUPLE, getTable( entityKeyMetadatas ), System.nanoTime() - start, countingConsumer.count.get() );
+	}
+
+	@Override
+	public Iterator<Tuple> executeBackendQuery(CustomQuery customQuery, EntityKeyMetadata[] metadatas) {
+		long start = System.nanoTime();
+		Iterator<Tuple> result = gridDialect.executeBackendQuery( customQuery, metadatas );
+		metrics.record( GridDialectOperation.EXECUTE_BACKEND_QUERY, getTable( metadatas ), System.nanoTime() - start, 0 );
+		return result;
+	}
+
+	private String getTable(EntityKeyMetadata[] entityKeyMetadatas) {
+		return entityKeyMetadatas != null && entityKeyMetadatas.length == 1 ? entityKeyMetadatas[0].getTable() : null;
+	}
+
+	@Override
+	public void configure(Map configurationValues) {
+		if ( gridDialect instanceof Configurable ) {
+			( (Configurable) gridDialect ).configure( configurationValues );
+		}
+	}
+
+	@Override
+	public void injectServices(ServiceRegistryImplementor serviceRegistry) {
+		if ( gridDialect instanceof ServiceRegistryAwareService ) {
+			( (ServiceRegistryAwareService) gridDialect ).injectServices( serviceRegistry );
+		}
+	}
+
+	/**
+	 * Counts the tuples passed on to the actual consumer; dialects may invoke it from several threads.
+	 */
+	private static class CountingConsumer implements Consumer {
+
+		private final Consumer delegate;
+		private final AtomicInteger count = new AtomicInteger();
+
+		private CountingConsumer(Consumer delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public void consume(Tuple tuple) {
+			delegate.consume( tuple );
+			count.incrementAndGet();
+		}
+	}
+}
@@ -0,0 +1,128 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.dialect.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Statistics about the executions of one {@link GridDialectOperation}, either across all tables or for a single one.
+ * <p>
+ * The latencies are kept in a histogram with exponentially growing buckets: bucket 0 counts the executions taking less
+ * than one microsecond, bucket {@code i} the ones taking from 2<sup>i-1</sup> up to 2<sup>i</sup> microseconds. The last
+ * bucket also counts all longer executions.
+ */
+public final class OperationStatistics {
+
+	/**
+	 * The number of buckets of the latency histogram
+	 */
+	public static final int HISTOGRAM_BUCKETS = 32;
+
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong totalTime = new AtomicLong();
+	private final AtomicLong maxTime = new AtomicLong();
+	private final AtomicLong totalSize = new AtomicLong();
+	private final AtomicLong maxSize = new AtomicLong();
+	private final AtomicLongArray latencyHistogram = new AtomicLongArray( HISTOGRAM_BUCKETS );
+
+	void record(long durationInNanos, int size) {
+		count.incrementAndGet();
+		totalTime.addAndGet( durationInNanos );
+		updateMax( maxTime, durationInNanos );
+		totalSize.addAndGet( size );
+		updateMax( maxSize, size );
+		latencyHistogram.incrementAndGet( getHistogramBucket( durationInNanos ) );
+	}
+
+	private static void updateMax(AtomicLong max, long value) {
+		long current = max.get();
+		while ( value > current && !max.compareAndSet( current, value ) ) {
+			current = max.get();
+		}
+	}
+
+	private static int getHistogramBucket(long durationInNanos) {
+		long micros = TimeUnit.NANOSECONDS.toMicros( durationInNanos );
+		return Math.min( Long.SIZE - Long.numberOfLeadingZeros( micros ), HISTOGRAM_BUCKETS - 1 );
+	}
+
+	/**
+	 * Returns the exclusive upper bound of the given bucket of the latency histogram.
+	 *
+	 * @param bucket the index of the bucket
+	 * @return the upper bound of the bucket in microseconds, {@link Long#MAX_VALUE} for the last bucket
+	 */
+	public static long getHistogramBucketUpperBoundInMicros(int bucket) {
+		return bucket < HISTOGRAM_BUCKETS - 1 ? 1L << bucket : Long.MAX_VALUE;
+	}
+
+	public long getCount() {
+		return count.get();
+	}
+
+	public long getTotalTimeInNanos() {
+		return totalTime.get();
+	}
+
+	public long getMaxTimeInNanos() {
+		return maxTime.get();
+	}
+
+	public long getAverageTimeInNanos() {
+		long executions = count.get();
+		return executions == 0 ? 0 : totalTime.get() / executions;
+	}
+
+	public long getTotalSize() {
+		return totalSize.get();
+	}
+
+	public long getMaxSize() {
+		return maxSize.get();
+	}
+
+	public double getAverageSize() {
+		long executions = count.get();
+		return executions == 0 ? 0 : (double) totalSize.get() / executions;
+	}
+
+	/**
+	 * Returns a copy of the latency histogram.
+	 *
+	 * @return the number of executions per bucket
+	 * @see #getHistogramBucketUpperBoundInMicros(int)
+	 */
+	public long[] getLatencyHistogram() {
+		long[] histogram = new long[HISTOGRAM_BUCKETS];
+		for ( int i = 0; i < HISTOGRAM_BUCKETS; i++ ) {
+			histogram[i] = latencyHistogram.get( i );
+		}
+		return histogram;
+	}
+
+	@Override
+	public String toString() {
+		return "OperationStatistics [count=" + getCount() + ", averageTimeInNanos=" + getAverageTimeInNanos() + ", maxTimeInNanos="
+				+ getMaxTimeInNanos() + ", averageSize=" + getAverageSize() + ", maxSize=" + getMaxSize() + "]";
+	}
+}
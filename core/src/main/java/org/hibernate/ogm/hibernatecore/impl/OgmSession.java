@@ -103,6 +103,16 @@ public OgmSessionFactory getSessionFactory() {
 		return factory;
 	}
 
+	/**
+	 * Returns the session wrapped by this session. Entities loaded by queries must be bound to it, as it is the session
+	 * owning the persistence context.
+	 *
+	 * @return the wrapped session
+	 */
+	public EventSource getDelegate() {
+		return delegate;
+	}
+
 	@Override
 	public Criteria createCriteria(Class persistentClass) {
 		//TODO plug the Lucene engine
@@ -135,9 +145,8 @@ public Query createQuery(String queryString) throws HibernateException {
 		// I think we have the same details in our AST already, but I keep this for now to not
 		// diverge too much from ORM code.
 		try {
-			HQLQueryPlan plan = new HQLQueryPlan( queryString, false, enabledFilters, factory );
+			HQLQueryPlan plan = factory.getQueryPlanCache().getHQLQueryPlan( queryString, false, enabledFilters );
 			ParameterMetadata parameterMetadata = plan.getParameterMetadata();
-			//TODO make sure the HQLQueryPlan et al are cached at some level
 			OgmQuery query = new OgmQuery( queryString, getFlushMode(), this, parameterMetadata, getQueryParserService() );
 			query.setComment( queryString );
 			return query;
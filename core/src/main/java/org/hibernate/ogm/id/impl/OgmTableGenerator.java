@@ -29,6 +29,7 @@
 import java.util.Collections;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.hibernate.HibernateException;
 import org.hibernate.LockMode;
@@ -181,7 +182,8 @@ public class OgmTableGenerator implements PersistentIdentifierGenerator, Configu
 	private String updateQuery;
 
 	private Optimizer optimizer;
-	private long accessCount = 0;
+	private PooledBlockAllocator blockAllocator;
+	private final AtomicLong accessCount = new AtomicLong();
 	private volatile GridType identifierValueGridType;
 	private final GridType segmentGridType = StringType.INSTANCE;
 	private volatile GridDialect gridDialect;
@@ -291,7 +293,7 @@ public final Optimizer getOptimizer() {
 	 * @return Value for property 'tableAccessCount'.
 	 */
 	public final long getTableAccessCount() {
-		return accessCount;
+		return accessCount.get();
 	}
 
 	/**
@@ -324,12 +326,25 @@ public void configure(Type type, Properties params, Dialect dialect) throws Mapp
 				: OptimizerFactory.POOL;
 		final String defaultOptimizerStrategy = incrementSize <= 1 ? OptimizerFactory.NONE : defaultPooledOptimizerStrategy;
 		final String optimizationStrategy = ConfigurationHelper.getString( OPT_PARAM, params, defaultOptimizerStrategy );
+		final int optimizerInitialValue = ConfigurationHelper.getInt( INITIAL_PARAM, params, -1 );
 		optimizer = OptimizerFactory.buildOptimizer(
 				optimizationStrategy,
 				identifierType.getReturnedClass(),
 				incrementSize,
-				ConfigurationHelper.getInt( INITIAL_PARAM, params, -1 )
+				optimizerInitialValue
 		);
+		// the values of the pooled optimizers can be handed out concurrently, reserving one block per datastore access
+		if ( incrementSize > 1 && ( OptimizerFactory.POOL.equals( optimizationStrategy ) || OptimizerFactory.POOL_LO.equals( optimizationStrategy ) ) ) {
+			blockAllocator = new PooledBlockAllocator(
+					identifierType.getReturnedClass(),
+					incrementSize,
+					optimizerInitialValue,
+					OptimizerFactory.POOL_LO.equals( optimizationStrategy )
+			);
+		}
+		else {
+			blockAllocator = null;
+		}
 	}
 
 	/**
@@ -486,20 +501,25 @@ protected String buildInsertQuery() {
 	 * {@inheritDoc}
 	 */
 	@Override
-	public synchronized Serializable generate(final SessionImplementor session, Object obj) {
-		return optimizer.generate(
-				new AccessCallback() {
-					@Override
-					public IntegralDataTypeHolder getNextValue() {
-						return (IntegralDataTypeHolder) doWorkInIsolationTransaction( session );
-					}
-
-					@Override
-					public String getTenantIdentifier() {
-						return session.getTenantIdentifier();
-					}
-				}
-		);
+	public Serializable generate(final SessionImplementor session, Object obj) {
+		AccessCallback callback = new AccessCallback() {
+			@Override
+			public IntegralDataTypeHolder getNextValue() {
+				return (IntegralDataTypeHolder) doWorkInIsolationTransaction( session );
+			}
+
+			@Override
+			public String getTenantIdentifier() {
+				return session.getTenantIdentifier();
+			}
+		};
+
+		if ( blockAllocator != null ) {
+			return blockAllocator.generate( callback );
+		}
+		synchronized ( this ) {
+			return optimizer.generate( callback );
+		}
 	}
 
 	//copied and altered from TransactionHelper
@@ -540,7 +560,7 @@ public IntegralDataTypeHolder doWorkInCurrentTransactionIfAny(SessionImplementor
 		IntegralDataTypeHolder value = IdentifierGeneratorHelper.getIntegralDataTypeHolder( identifierType.getReturnedClass() );
 		dialect.nextValue( key, value, optimizer.applyIncrementSizeToSourceValues() ? incrementSize : 1, initialValue );
 
-		accessCount++;
+		accessCount.incrementAndGet();
 
 		return value;
 	}
@@ -0,0 +1,107 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.id.impl;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.id.IdentifierGeneratorHelper;
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.id.enhanced.AccessCallback;
+
+/**
+ * Hands out identifier values from blocks reserved with one call to the datastore each.
+ * <p>
+ * The values of the current block are handed out without locking; only the reservation of the next block, once the
+ * current one is exhausted, is serialized. The generated values are the same as the ones of the "pooled" and
+ * "pooled-lo" optimizers, so the values stored in the datastore are compatible with these.
+ */
+public class PooledBlockAllocator {
+
+	private final Class<?> returnClass;
+	private final int incrementSize;
+	private final long initialValue;
+	private final boolean lowValueBased;
+
+	private volatile Block block;
+
+	/**
+	 * @param returnClass the type of the generated values
+	 * @param incrementSize the number of values reserved with each call to the datastore
+	 * @param initialValue the configured initial value or -1 if none was configured
+	 * @param lowValueBased whether the values returned by the datastore are the lower bound of a block ("pooled-lo")
+	 * or its upper bound ("pooled")
+	 */
+	public PooledBlockAllocator(Class<?> returnClass, int incrementSize, long initialValue, boolean lowValueBased) {
+		this.returnClass = returnClass;
+		this.incrementSize = incrementSize;
+		this.initialValue = initialValue;
+		this.lowValueBased = lowValueBased;
+	}
+
+	public Serializable generate(AccessCallback callback) {
+		while ( true ) {
+			Block current = block;
+			if ( current != null ) {
+				long value = current.next.getAndIncrement();
+				if ( value < current.upperBound ) {
+					return makeValue( value );
+				}
+			}
+			synchronized ( this ) {
+				if ( block == current ) {
+					block = reserveBlock( callback );
+				}
+			}
+		}
+	}
+
+	private Block reserveBlock(AccessCallback callback) {
+		long value = callback.getNextValue().makeValue().longValue();
+		if ( lowValueBased ) {
+			return new Block( value, value + incrementSize );
+		}
+		else if ( ( initialValue == -1 && value < incrementSize ) || value == initialValue ) {
+			// the very first value of the sequence, the pooled optimizer hands it out before reserving the next block
+			return new Block( value, value + 1 );
+		}
+		else {
+			return new Block( value - incrementSize + 1, value + 1 );
+		}
+	}
+
+	private Serializable makeValue(long value) {
+		IntegralDataTypeHolder holder = IdentifierGeneratorHelper.getIntegralDataTypeHolder( returnClass );
+		holder.initialize( value );
+		return holder.makeValue();
+	}
+
+	private static final class Block {
+
+		private final AtomicLong next;
+		private final long upperBound;
+
+		Block(long lowerBound, long upperBound) {
+			this.next = new AtomicLong( lowerBound );
+			this.upperBound = upperBound;
+		}
+	}
+}
@@ -47,6 +47,7 @@
 import org.hibernate.ogm.datastore.spi.Association;
 import org.hibernate.ogm.datastore.spi.Tuple;
 import org.hibernate.ogm.dialect.GridDialect;
+import org.hibernate.ogm.dialect.impl.GridDialects;
 import org.hibernate.ogm.grid.EntityKey;
 import org.hibernate.ogm.grid.RowKey;
 import org.hibernate.ogm.jdbc.TupleAsMapResultSet;
@@ -144,6 +145,11 @@ public Object load(Serializable id, Object optionalObject, SessionImplementor se
 	 */
 	@Override
 	public Object load(Serializable id, Object optionalObject, SessionImplementor session, LockOptions lockOptions) {
+		Serializable[] batch = getEntityBatch( id, optionalObject, session );
+		if ( batch.length > 1 ) {
+			return loadEntityBatch( id, batch, session, lockOptions );
+		}
+
 		List results = loadEntity( id, optionalObject, session, lockOptions, OgmLoadingContext.EMPTY_CONTEXT );
 		if ( results.size() == 1 ) {
 			return results.get( 0 );
@@ -159,6 +165,58 @@ else if ( results.size() == 0 ) {
 		}
 	}
 
+	/**
+	 * Returns the ids of the entities to load together with the given one: the given id followed by the ids of the
+	 * proxies waiting in the batch fetch queue, up to the batch size of the persister. Irrespective of the batch fetch
+	 * style, all the corresponding tuples are retrieved with one call to the datastore if the dialect supports it.
+	 */
+	private Serializable[] getEntityBatch(Serializable id, Object optionalObject, SessionImplementor session) {
+		final OgmEntityPersister persister = entityPersisters[0];
+		if ( optionalObject != null || !persister.isBatchLoadable() ) {
+			return new Serializable[] { id };
+		}
+
+		Serializable[] candidates = session.getPersistenceContext()
+				.getBatchFetchQueue()
+				.getEntityBatch( persister, id, persister.getBatchSize(), persister.getEntityMode() );
+
+		List<Serializable> ids = new ArrayList<Serializable>( candidates.length );
+		for ( Serializable candidate : candidates ) {
+			if ( candidate != null ) {
+				ids.add( candidate );
+			}
+		}
+		return ids.toArray( new Serializable[ids.size()] );
+	}
+
+	/**
+	 * Load the entities with the given ids fetching their tuples all at once and return the one with the given id.
+	 */
+	private Object loadEntityBatch(Serializable id, Serializable[] ids, SessionImplementor session, LockOptions lockOptions) {
+		final OgmEntityPersister persister = entityPersisters[0];
+		if ( log.isDebugEnabled() ) {
+			log.debug( "batch loading entity: " + MessageHelper.infoString( persister, ids, getFactory() ) );
+		}
+
+		EntityKey[] keys = new EntityKey[ids.length];
+		for ( int i = 0; i < ids.length; i++ ) {
+			keys[i] = EntityKeyBuilder.fromPersister( persister, ids[i], session );
+		}
+
+		List<Tuple> tuples = new ArrayList<Tuple>( ids.length );
+		for ( Tuple tuple : GridDialects.getTuples( gridDialect, keys, persister.getTupleContext() ) ) {
+			if ( tuple != null ) {
+				tuples.add( tuple );
+			}
+		}
+
+		OgmLoadingContext ogmLoadingContext = new OgmLoadingContext();
+		ogmLoadingContext.setTuples( tuples );
+		loadEntities( session, lockOptions, ogmLoadingContext );
+
+		return session.getPersistenceContext().getEntity( session.generateEntityKey( id, persister ) );
+	}
+
 	private List<Object> loadEntity(
 			Serializable id,
 			Object optionalObject,
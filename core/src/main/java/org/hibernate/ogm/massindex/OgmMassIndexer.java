@@ -58,6 +58,8 @@ public class OgmMassIndexer implements MassIndexer {
 	private boolean optimizeAfterPurge = true;
 	private boolean purgeAllOnStart = true;
 	private int typesToIndexInParallel = 1;
+	private int threadsToLoadObjects = 6;
+	private int batchSizeToLoadObjects = 10;
 
 	private final Set<Class<?>> rootEntities;
 
@@ -75,13 +77,17 @@ private MassIndexerProgressMonitor createMonitor(SearchFactoryImplementor search
 
 	@Override
 	public MassIndexer threadsToLoadObjects(int numberOfThreads) {
-		log.unsupportedIndexerConfigurationOption( "threadsToLoadObjects" );
+		atLeastOneValidation( numberOfThreads );
+		this.threadsToLoadObjects = numberOfThreads;
 		return this;
 	}
 
 	@Override
 	public MassIndexer batchSizeToLoadObjects(int batchSize) {
-		log.unsupportedIndexerConfigurationOption( "batchSizeToLoadObjects" );
+		if ( batchSize < 1 ) {
+			throw new IllegalArgumentException( "batchSize must be at least 1" );
+		}
+		this.batchSizeToLoadObjects = batchSize;
 		return this;
 	}
 
@@ -164,8 +170,8 @@ public void startAndWait() throws InterruptedException {
 	}
 
 	protected BatchCoordinator createCoordinator() {
-		return new BatchCoordinator( gridDialect, rootEntities, searchFactory, sessionFactory, typesToIndexInParallel, cacheMode, optimizeOnFinish,
-				purgeAllOnStart, optimizeAfterPurge, monitor );
+		return new BatchCoordinator( gridDialect, rootEntities, searchFactory, sessionFactory, typesToIndexInParallel, threadsToLoadObjects,
+				batchSizeToLoadObjects, cacheMode, optimizeOnFinish, purgeAllOnStart, optimizeAfterPurge, monitor );
 	}
 
 	private void atLeastOneValidation(int numberOfThreads) {
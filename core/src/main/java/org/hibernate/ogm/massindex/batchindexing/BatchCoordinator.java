@@ -51,6 +51,8 @@ public class BatchCoordinator implements Runnable {
 	private final SearchFactoryImplementor searchFactoryImplementor;
 	private final SessionFactoryImplementor sessionFactory;
 	private final int typesToIndexInParallel;
+	private final int threadsToLoadObjects;
+	private final int batchSizeToLoadObjects;
 	private final CacheMode cacheMode;
 	private final boolean optimizeAtEnd;
 	private final boolean purgeAtStart;
@@ -62,13 +64,15 @@ public class BatchCoordinator implements Runnable {
 	private final GridDialect gridDialect;
 
 	public BatchCoordinator(GridDialect gridDialect, Set<Class<?>> rootEntities, SearchFactoryImplementor searchFactoryImplementor,
-			SessionFactoryImplementor sessionFactory, int typesToIndexInParallel, CacheMode cacheMode, boolean optimizeAtEnd, boolean purgeAtStart,
-			boolean optimizeAfterPurge, MassIndexerProgressMonitor monitor) {
+			SessionFactoryImplementor sessionFactory, int typesToIndexInParallel, int threadsToLoadObjects, int batchSizeToLoadObjects,
+			CacheMode cacheMode, boolean optimizeAtEnd, boolean purgeAtStart, boolean optimizeAfterPurge, MassIndexerProgressMonitor monitor) {
 		this.gridDialect = gridDialect;
 		this.rootEntities = rootEntities.toArray( new Class<?>[rootEntities.size()] );
 		this.searchFactoryImplementor = searchFactoryImplementor;
 		this.sessionFactory = sessionFactory;
 		this.typesToIndexInParallel = typesToIndexInParallel;
+		this.threadsToLoadObjects = threadsToLoadObjects;
+		this.batchSizeToLoadObjects = batchSizeToLoadObjects;
 		this.cacheMode = cacheMode;
 		this.optimizeAtEnd = optimizeAtEnd;
 		this.purgeAtStart = purgeAtStart;
@@ -116,7 +120,7 @@ private void doBatchWork(BatchBackend backend) throws InterruptedException {
 		ExecutorService executor = Executors.newFixedThreadPool( typesToIndexInParallel, "BatchIndexingWorkspace" );
 		for ( Class<?> type : rootEntities ) {
 			executor.execute( new BatchIndexingWorkspace( gridDialect, searchFactoryImplementor, sessionFactory, type,
-					cacheMode, endAllSignal, monitor, backend ) );
+					threadsToLoadObjects, batchSizeToLoadObjects, cacheMode, endAllSignal, monitor, backend ) );
 		}
 		executor.shutdown();
 		endAllSignal.await(); // waits for the executor to finish
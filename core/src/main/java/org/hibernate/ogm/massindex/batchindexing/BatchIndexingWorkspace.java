@@ -21,9 +21,12 @@
 package org.hibernate.ogm.massindex.batchindexing;
 
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.hibernate.CacheMode;
 import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.ogm.datastore.spi.Tuple;
 import org.hibernate.ogm.dialect.GridDialect;
 import org.hibernate.ogm.grid.EntityKeyMetadata;
 import org.hibernate.ogm.persister.OgmEntityPersister;
@@ -37,6 +40,10 @@
 /**
  * This runnable will prepare a pipeline for batch indexing
  * of entities, managing the lifecycle of several ThreadPools.
+ * <p>
+ * The tuples returned by {@link GridDialect#forEachTuple} are streamed through a bounded queue
+ * to {@code threadsToLoadObjects} consumer threads, each of them indexing the entities in
+ * batches of {@code batchSizeToLoadObjects}.
  *
  * @author Sanne Grinovero
  * @author Davide D'Alto <davide@hibernate.org>
@@ -62,11 +69,17 @@ public class BatchIndexingWorkspace implements Runnable {
 
 	private final CountDownLatch endAllSignal;
 
+	private final int threadsToLoadObjects;
+
+	private final int batchSizeToLoadObjects;
+
 	public BatchIndexingWorkspace(GridDialect gridDialect, SearchFactoryImplementor searchFactoryImplementor,
-			SessionFactoryImplementor sessionFactory, Class<?> entityType, CacheMode cacheMode, CountDownLatch endAllSignal,
-			MassIndexerProgressMonitor monitor, BatchBackend backend) {
+			SessionFactoryImplementor sessionFactory, Class<?> entityType, int threadsToLoadObjects, int batchSizeToLoadObjects,
+			CacheMode cacheMode, CountDownLatch endAllSignal, MassIndexerProgressMonitor monitor, BatchBackend backend) {
 		this.gridDialect = gridDialect;
 		this.indexedType = entityType;
+		this.threadsToLoadObjects = threadsToLoadObjects;
+		this.batchSizeToLoadObjects = batchSizeToLoadObjects;
 		this.searchFactory = searchFactoryImplementor;
 		this.sessionFactory = sessionFactory;
 		this.cacheMode = cacheMode;
@@ -85,8 +98,19 @@ public void run() {
 		ErrorHandler errorHandler = searchFactory.getErrorHandler();
 		try {
 			final EntityKeyMetadata keyMetadata = getEntityKeyMetadata();
-			final SessionAwareRunnable consumer = new TupleIndexer( indexedType, monitor, sessionFactory, searchFactory, cacheMode, batchBackend, errorHandler );
-			gridDialect.forEachTuple( new OptionallyWrapInJTATransaction( sessionFactory, errorHandler, consumer ), keyMetadata );
+			final SessionAwareRunnable indexer = new TupleIndexer( indexedType, monitor, sessionFactory, searchFactory, cacheMode, batchBackend, errorHandler );
+			final OptionallyWrapInJTATransaction transactionalIndexer = new OptionallyWrapInJTATransaction( sessionFactory, errorHandler, indexer );
+			final ProducerConsumerQueue<Tuple> tuples = new ProducerConsumerQueue<Tuple>( 1 );
+			final ThreadPoolExecutor consumers = Executors.newFixedThreadPool( threadsToLoadObjects, "entityloader" );
+			try {
+				for ( int i = 0; i < threadsToLoadObjects; i++ ) {
+					consumers.execute( new TupleConsumer( tuples, batchSizeToLoadObjects, transactionalIndexer ) );
+				}
+				produceTuples( tuples, keyMetadata );
+			}
+			finally {
+				awaitTermination( consumers );
+			}
 		}
 		catch ( RuntimeException re ) {
 			// being this an async thread we want to make sure everything is somehow reported
@@ -96,4 +120,24 @@ public void run() {
 			endAllSignal.countDown();
 		}
 	}
+
+	private void produceTuples(ProducerConsumerQueue<Tuple> tuples, EntityKeyMetadata keyMetadata) {
+		try {
+			gridDialect.forEachTuple( new QueueingConsumer( tuples ), keyMetadata );
+		}
+		finally {
+			tuples.producerStopping();
+		}
+	}
+
+	private void awaitTermination(ThreadPoolExecutor consumers) {
+		consumers.shutdown();
+		try {
+			consumers.awaitTermination( Long.MAX_VALUE, TimeUnit.SECONDS );
+		}
+		catch ( InterruptedException e ) {
+			consumers.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+	}
 }
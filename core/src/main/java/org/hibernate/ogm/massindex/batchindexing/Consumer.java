@@ -24,6 +24,10 @@
 
 /**
  * Represents an object that can consume a {@link Tuple}.
+ * <p>
+ * Grid dialects should pass on the tuples while they are reading them from the datastore, rather than collecting them
+ * all first: {@link #consume(Tuple)} may block until the previous tuples have been processed, which keeps the memory
+ * needed for iterating over large data sets bounded.
  *
  * @author Davide D'Alto <davide@hibernate.org>
  */
@@ -20,6 +20,8 @@
  */
 package org.hibernate.ogm.massindex.batchindexing;
 
+import java.util.List;
+
 import javax.transaction.Status;
 import javax.transaction.SystemException;
 import javax.transaction.TransactionManager;
@@ -43,7 +45,7 @@
  *
  * @author Emmanuel Bernard
  */
-public class OptionallyWrapInJTATransaction implements Consumer {
+public class OptionallyWrapInJTATransaction {
 
 	private static final Log log = LoggerFactory.make();
 
@@ -98,15 +100,14 @@ boolean wrapInTransaction() {
 		return false;
 	}
 
-	@Override
-	public void consume(Tuple tuple) {
+	public void consume(List<Tuple> tuples) {
 		try {
 			final boolean wrapInTransaction = wrapInTransaction();
 			if ( wrapInTransaction ) {
-				consumeInTransaction( tuple );
+				consumeInTransaction( tuples );
 			}
 			else {
-				delegate.run( null, null );
+				delegate.run( null, tuples );
 			}
 		}
 		catch ( Throwable e ) {
@@ -114,12 +115,12 @@ public void consume(Tuple tuple) {
 		}
 	}
 
-	private void consumeInTransaction(Tuple tuple) {
+	private void consumeInTransaction(List<Tuple> tuples) {
 		TransactionManager transactionManager = getTransactionManager();
 		try {
 			final Session session = factory.openSession();
 			transactionManager.begin();
-			delegate.run( session, tuple );
+			delegate.run( session, tuples );
 			transactionManager.commit();
 			session.close();
 		}
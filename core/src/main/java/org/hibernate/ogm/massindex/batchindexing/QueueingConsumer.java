@@ -0,0 +1,51 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.massindex.batchindexing;
+
+import org.hibernate.ogm.datastore.spi.Tuple;
+import org.hibernate.ogm.util.impl.Log;
+import org.hibernate.ogm.util.impl.LoggerFactory;
+
+/**
+ * Passes the tuples returned by the grid dialect on to the consumer threads, blocking the dialect while the queue is
+ * full so that only a bounded number of tuples is held in memory.
+ */
+public class QueueingConsumer implements Consumer {
+
+	private static final Log log = LoggerFactory.make();
+
+	private final ProducerConsumerQueue<Tuple> destination;
+
+	public QueueingConsumer(ProducerConsumerQueue<Tuple> destination) {
+		this.destination = destination;
+	}
+
+	@Override
+	public void consume(Tuple tuple) {
+		try {
+			destination.put( tuple );
+		}
+		catch ( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+			throw log.interruptedWhileLoadingTuples( e );
+		}
+	}
+}
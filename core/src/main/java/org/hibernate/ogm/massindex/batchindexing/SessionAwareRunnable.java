@@ -20,6 +20,8 @@
  */
 package org.hibernate.ogm.massindex.batchindexing;
 
+import java.util.List;
+
 import org.hibernate.Session;
 import org.hibernate.ogm.datastore.spi.Tuple;
 
@@ -28,6 +30,6 @@
  */
 public interface SessionAwareRunnable {
 
-	void run(Session upperSession, Tuple tuple);
+	void run(Session upperSession, List<Tuple> tuples);
 
 }
@@ -0,0 +1,71 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.massindex.batchindexing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.ogm.datastore.spi.Tuple;
+
+/**
+ * Component of batch-indexing pipeline, using chained producer-consumers.
+ * <p>
+ * Takes the tuples from the queue filled by {@link QueueingConsumer} and hands them over in batches to the indexer,
+ * until the producer has finished.
+ */
+public class TupleConsumer implements Runnable {
+
+	private final ProducerConsumerQueue<Tuple> source;
+	private final int batchSize;
+	private final OptionallyWrapInJTATransaction indexer;
+
+	public TupleConsumer(ProducerConsumerQueue<Tuple> source, int batchSize, OptionallyWrapInJTATransaction indexer) {
+		this.source = source;
+		this.batchSize = batchSize;
+		this.indexer = indexer;
+	}
+
+	@Override
+	public void run() {
+		try {
+			List<Tuple> batch = nextBatch();
+			while ( !batch.isEmpty() ) {
+				indexer.consume( batch );
+				batch = nextBatch();
+			}
+		}
+		catch ( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private List<Tuple> nextBatch() throws InterruptedException {
+		List<Tuple> batch = new ArrayList<Tuple>( batchSize );
+		while ( batch.size() < batchSize ) {
+			Tuple tuple = source.take();
+			if ( tuple == null ) {
+				break;
+			}
+			batch.add( tuple );
+		}
+		return batch;
+	}
+}
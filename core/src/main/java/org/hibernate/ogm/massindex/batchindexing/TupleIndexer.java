@@ -22,7 +22,6 @@
 
 import java.io.Serializable;
 import java.lang.reflect.InvocationTargetException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -57,8 +56,9 @@
 /**
  * Component of batch-indexing pipeline, using chained producer-consumers.
  * <p>
- * This Runnable will consume {@link Tuple} objects taken one-by-one and it will create an {@link AddLuceneWork} for the
- * corresponding entity.
+ * This Runnable will consume {@link Tuple} objects taken in batches and it will create an {@link AddLuceneWork} for each
+ * corresponding entity. The entities of a batch are loaded and indexed within the same session, which is cleared
+ * afterwards.
  *
  * @author Sanne Grinovero
  * @author Davide D'Alto <davide@hibernate.org>
@@ -98,7 +98,6 @@ private void index(Session session, Object entity) {
 			session.buildLockRequest( LockOptions.NONE ).lock( entity );
 			index( entity, session, sessionInitializer, contextualBridge );
 			monitor.documentsBuilt( 1 );
-			session.clear();
 		}
 		catch ( InterruptedException e ) {
 			Thread.currentThread().interrupt();
@@ -190,11 +189,14 @@ private void close(Session upperSession, Session session) {
 	}
 
 	@Override
-	public void run(Session upperSession, Tuple tuple) {
+	public void run(Session upperSession, List<Tuple> tuples) {
 		Session session = openSession( upperSession );
 		try {
 			Transaction transaction = beginTransaction( session );
-			index( session, entity( session, tuple ) );
+			for ( Object entity : entities( session, tuples ) ) {
+				index( session, entity );
+			}
+			session.clear();
 			transaction.commit();
 		}
 		catch ( Throwable e ) {
@@ -206,15 +208,12 @@ public void run(Session upperSession, Tuple tuple) {
 		}
 	}
 
-	private Object entity(Session session, Tuple tuple) {
+	private List<Object> entities(Session session, List<Tuple> tuples) {
 		OgmEntityPersister persister = (OgmEntityPersister) sessionFactory.getEntityPersister( indexedType.getName() );
 		OgmLoader loader = new OgmLoader( new OgmEntityPersister[] { persister } );
-		List<Tuple> tuples = new ArrayList<Tuple>();
-		tuples.add( tuple );
 		OgmLoadingContext ogmLoadingContext = new OgmLoadingContext();
 		ogmLoadingContext.setTuples( tuples );
-		List<Object> entities = loader.loadEntities( (SessionImplementor) session, LockOptions.NONE, ogmLoadingContext );
-		return entities.get( 0 );
+		return loader.loadEntities( (SessionImplementor) session, LockOptions.NONE, ogmLoadingContext );
 	}
 
 }
@@ -21,13 +21,14 @@
 package org.hibernate.ogm.persister;
 
 import java.io.Serializable;
+import java.util.Arrays;
 
 import org.hibernate.engine.spi.SessionImplementor;
-import org.hibernate.ogm.datastore.spi.Association;
 import org.hibernate.ogm.datastore.spi.Tuple;
 import org.hibernate.ogm.dialect.GridDialect;
 import org.hibernate.ogm.grid.RowKey;
 import org.hibernate.ogm.grid.impl.RowKeyBuilder;
+import org.hibernate.ogm.service.impl.AssociationCacheService;
 import org.hibernate.ogm.type.GridType;
 import org.hibernate.ogm.util.impl.Log;
 import org.hibernate.ogm.util.impl.LoggerFactory;
@@ -134,19 +135,12 @@ public void dehydrate() {
 				final Type propertyType = propertyTypes[propertyIndex];
 				boolean isStarToOne = propertyType.isAssociationType() && ! propertyType.isCollectionType();
 				final boolean createMetadata = isStarToOne || uniqueness[propertyIndex];
+				Object[] oldColumnValues = null;
 				if ( removePropertyMetadata && createMetadata ) {
-					//remove from property cache
-					Object[] oldColumnValues = LogicalPhysicalConverterHelper.getColumnValuesFromResultset(
+					oldColumnValues = LogicalPhysicalConverterHelper.getColumnValuesFromResultset(
 							resultset,
 							persister.getPropertyColumnNames( propertyIndex )
 					);
-					//don't index null columns, this means no association
-					if ( ! isEmptyOrAllColumnsNull( oldColumnValues ) ) {
-						doRemovePropertyMetadata(
-								tableIndex,
-								propertyIndex,
-								oldColumnValues);
-					}
 				}
 
 				if ( dehydrate && includeProperties[propertyIndex] ) {
@@ -160,20 +154,35 @@ public void dehydrate() {
 					);
 				}
 
+				Object[] newColumnValues = null;
 				if ( addPropertyMetadata && createMetadata ) {
-					//add to property cache
-					Object[] newColumnValues = LogicalPhysicalConverterHelper.getColumnValuesFromResultset(
+					newColumnValues = LogicalPhysicalConverterHelper.getColumnValuesFromResultset(
 							resultset,
 							persister.getPropertyColumnNames( propertyIndex )
 					);
-					//don't index null columns, this means no association
-					if ( ! isEmptyOrAllColumnsNull( newColumnValues ) ) {
-						doAddPropertyMetadata(
-								tableIndex,
-								propertyIndex,
-								newColumnValues);
+					//the property cache is up to date if the columns did not change
+					if ( oldColumnValues != null && Arrays.equals( oldColumnValues, newColumnValues ) ) {
+						continue;
 					}
 				}
+
+				//remove from property cache
+				//don't index null columns, this means no association
+				if ( oldColumnValues != null && ! isEmptyOrAllColumnsNull( oldColumnValues ) ) {
+					doRemovePropertyMetadata(
+							tableIndex,
+							propertyIndex,
+							oldColumnValues);
+				}
+
+				//add to property cache
+				//don't index null columns, this means no association
+				if ( newColumnValues != null && ! isEmptyOrAllColumnsNull( newColumnValues ) ) {
+					doAddPropertyMetadata(
+							tableIndex,
+							propertyIndex,
+							newColumnValues);
+				}
 			}
 		}
 	}
@@ -208,11 +217,7 @@ private void doAddPropertyMetadata(int tableIndex, int propertyIndex, Object[] n
 		Object[] columnValues = LogicalPhysicalConverterHelper.getColumnValuesFromResultset( tuple, rowKeyColumnNames );
 		final RowKey rowKey = new RowKey( persister.getTableName(), rowKeyColumnNames, columnValues );
 
-		Tuple assocEntryTuple = metadataProvider.createAndPutAssociationTuple( rowKey );
-		for ( String column : tuple.getColumnNames() ) {
-			assocEntryTuple.put( column, tuple.get( column ) );
-		}
-		metadataProvider.flushToCache();
+		getAssociationCache().scheduleRowPut( session, metadataProvider, rowKey, tuple );
 	}
 
 	// Here the RowKey is made of the foreign key columns pointing to the associated entity
@@ -251,19 +256,18 @@ private void doRemovePropertyMetadata(int tableIndex,
 		//add id value in TupleKey
 		gridIdentifierType.nullSafeSet( tupleKey, id, persister.getIdentifierColumnNames(), session );
 
-		Association propertyValues = metadataProvider.getCollectionMetadata();
-		if ( propertyValues != null ) {
-			//Map's equals operation delegates to all it's key and value, should be fine for now
-			//this is a StarToOne case ie the FK is on the owning entity
-			final RowKey matchingTuple = new RowKeyBuilder()
-					.tableName( persister.getTableName() )
-					.addColumns( buildRowKeyColumnNamesForStarToOne( persister, propertyColumnNames ) )
-					.values( tupleKey )
-					.build();
-			//TODO what should we do if that's null?
-			metadataProvider.getCollectionMetadata().remove( matchingTuple );
-			metadataProvider.flushToCache();
-		}
+		//Map's equals operation delegates to all it's key and value, should be fine for now
+		//this is a StarToOne case ie the FK is on the owning entity
+		final RowKey matchingTuple = new RowKeyBuilder()
+				.tableName( persister.getTableName() )
+				.addColumns( buildRowKeyColumnNamesForStarToOne( persister, propertyColumnNames ) )
+				.values( tupleKey )
+				.build();
+		getAssociationCache().scheduleRowRemoval( session, metadataProvider, matchingTuple );
+	}
+
+	private AssociationCacheService getAssociationCache() {
+		return session.getFactory().getServiceRegistry().getService( AssociationCacheService.class );
 	}
 
 	private boolean isEmptyOrAllColumnsNull(Object[] objects) {
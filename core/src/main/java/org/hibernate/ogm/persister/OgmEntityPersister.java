@@ -24,6 +24,7 @@
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -49,21 +50,32 @@
 import org.hibernate.engine.spi.Mapping;
 import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.UUIDGenerator;
+import org.hibernate.id.UUIDHexGenerator;
 import org.hibernate.internal.DynamicFilterAliasGenerator;
 import org.hibernate.internal.FilterAliasGenerator;
 import org.hibernate.loader.entity.UniqueEntityLoader;
 import org.hibernate.mapping.Column;
 import org.hibernate.mapping.PersistentClass;
 import org.hibernate.mapping.Table;
+import org.hibernate.ogm.datastore.impl.MapTupleSnapshot;
 import org.hibernate.ogm.datastore.spi.Association;
+import org.hibernate.ogm.datastore.spi.ColumnIndex;
 import org.hibernate.ogm.datastore.spi.Tuple;
 import org.hibernate.ogm.datastore.spi.TupleContext;
+import org.hibernate.ogm.datastore.spi.TupleSnapshot;
 import org.hibernate.ogm.dialect.GridDialect;
+import org.hibernate.ogm.dialect.impl.GridDialects;
 import org.hibernate.ogm.exception.NotSupportedException;
 import org.hibernate.ogm.grid.AssociationKeyMetadata;
 import org.hibernate.ogm.grid.EntityKey;
 import org.hibernate.ogm.grid.EntityKeyMetadata;
+import org.hibernate.ogm.id.impl.OgmIdentityGenerator;
+import org.hibernate.ogm.id.impl.OgmSequenceGenerator;
+import org.hibernate.ogm.id.impl.OgmTableGenerator;
 import org.hibernate.ogm.loader.OgmLoader;
+import org.hibernate.ogm.service.impl.AssociationCacheService;
 import org.hibernate.ogm.type.GridType;
 import org.hibernate.ogm.type.TypeTranslator;
 import org.hibernate.ogm.util.impl.ArrayHelper;
@@ -107,6 +119,7 @@ public abstract class OgmEntityPersister extends AbstractEntityPersister impleme
 	private final GridType gridIdentifierType;
 	private final String jpaEntityName;
 	private final TupleContext tupleContext;
+	private final int batchSize;
 
 	//service references
 	private final GridDialect gridDialect;
@@ -220,7 +233,15 @@ public abstract class OgmEntityPersister extends AbstractEntityPersister impleme
 		if ( discriminator.getColumnName() != null ) {
 			columnNames.add( discriminator.getColumnName() );
 		}
-		this.tupleContext = new TupleContext( columnNames );
+		List<String> writtenColumnNames = new ArrayList<String>( columnNames );
+		writtenColumnNames.addAll( Arrays.asList( getIdentifierColumnNames() ) );
+		this.tupleContext = new TupleContext( columnNames, new ColumnIndex( writtenColumnNames ) );
+		//same logic as in AbstractEntityPersister which doesn't expose the batch size
+		int batch = persistentClass.getBatchSize();
+		if ( batch == -1 ) {
+			batch = factory.getSettings().getDefaultBatchFetchSize();
+		}
+		this.batchSize = batch;
 		jpaEntityName = persistentClass.getJpaEntityName();
 		entityKeyMetadata = new EntityKeyMetadata( getTableName(), getIdentifierColumnNames() );
 		//load unique key association key metadata
@@ -765,20 +786,28 @@ else if ( ! isModifiableEntity( entry ) ) {
 			// Now update only the tables with dirty properties (and the table with the version number)
 			if ( tableUpdateNeeded[j] ) {
 				final EntityKey key = EntityKeyBuilder.fromPersister( this, id, session );
-				Tuple resultset = gridDialect.getTuple( key, this.getTupleContext() );
 				final boolean useVersion = j == 0 && isVersioned();
-
-				resultset = createNewResultSetIfNull( key, resultset, id, session );
-
 				final EntityMetamodel entityMetamodel = getEntityMetamodel();
 
-				// Write any appropriate versioning conditional parameters
-				if ( useVersion && entityMetamodel.getOptimisticLockStyle() == OptimisticLockStyle.VERSION ) {
-					if ( checkVersion( propsToUpdate ) ) {
-						checkVersionAndRaiseSOSE( id, oldVersion, session, resultset );
-					}
+				// The version is checked by the datastore when writing the tuple and the datastore state is only
+				// needed for the other optimistic lock checks; otherwise the tuple is built from the state loaded by
+				// the session and only the dirty columns are written
+				final boolean isVersionStyle = useVersion && entityMetamodel.getOptimisticLockStyle() == OptimisticLockStyle.VERSION;
+				final boolean isVersionCheckNeeded = isVersionStyle && checkVersion( propsToUpdate );
+				final boolean isStateCheckNeeded = !isVersionStyle && isAllOrDirtyOptLocking() && oldFields != null;
+
+				Tuple resultset;
+				if ( isStateCheckNeeded || !isLoadedStateAvailable( oldFields ) ) {
+					resultset = gridDialect.getTuple( key, this.getTupleContext() );
+				}
+				else {
+					TupleSnapshot loadedState = getLoadedState( id, oldFields, j, session );
+					resultset = GridDialects.createTupleForUpdate( gridDialect, key, loadedState, this.getTupleContext() );
 				}
-				else if ( isAllOrDirtyOptLocking() && oldFields != null ) {
+
+				resultset = createNewResultSetIfNull( key, resultset, id, session );
+
+				if ( isStateCheckNeeded ) {
 					boolean[] versionability = getPropertyVersionability(); //TODO: is this really necessary????
 					boolean[] includeOldField = entityMetamodel.getOptimisticLockStyle() == OptimisticLockStyle.ALL
 							? getPropertyUpdateability()
@@ -810,9 +839,57 @@ resultset, getPropertyColumnNames( i ), session, object
 
 				//dehydrate
 				dehydrate( resultset, fields, propsToUpdate, getPropertyColumnUpdateable(), j, id, session );
-				gridDialect.updateTuple( resultset, key );
+
+				// Write any appropriate versioning conditional parameters
+				if ( isVersionCheckNeeded ) {
+					Tuple oldLockState = new Tuple();
+					gridVersionType.nullSafeSet( oldLockState, oldVersion, new String[] { getVersionColumnName() }, session );
+					if ( !GridDialects.updateTupleWithOptimisticLock( gridDialect, key, oldLockState, resultset, this.getTupleContext() ) ) {
+						raiseStaleObjectStateException( id );
+					}
+				}
+				else {
+					gridDialect.updateTuple( resultset, key );
+				}
+			}
+		}
+	}
+
+	private boolean isLoadedStateAvailable(Object[] loadedState) {
+		if ( loadedState == null ) {
+			return false;
+		}
+		for ( Object value : loadedState ) {
+			if ( value == LazyPropertyInitializer.UNFETCHED_PROPERTY ) {
+				return false;
 			}
 		}
+		return true;
+	}
+
+	/**
+	 * Returns the columns of the given table as they were when the entity got loaded, including the identifier and
+	 * discriminator columns.
+	 */
+	private TupleSnapshot getLoadedState(Serializable id, Object[] loadedState, int tableIndex, SessionImplementor session) {
+		Tuple tuple = new Tuple();
+		gridIdentifierType.nullSafeSet( tuple, id, getIdentifierColumnNames(), session );
+		if ( tableIndex == 0 && discriminator.isNeeded() ) {
+			tuple.put( getDiscriminatorColumnName(), getDiscriminatorValue() );
+		}
+
+		final Type[] propertyTypes = getPropertyTypes();
+		for ( int propertyIndex = 0; propertyIndex < loadedState.length; propertyIndex++ ) {
+			if ( isPropertyOfTable( propertyIndex, tableIndex ) && !propertyTypes[propertyIndex].isCollectionType() ) {
+				gridPropertyTypes[propertyIndex].nullSafeSet( tuple, loadedState[propertyIndex], getPropertyColumnNames( propertyIndex ), session );
+			}
+		}
+
+		Map<String, Object> columns = new HashMap<String, Object>();
+		for ( String column : tuple.getColumnNames() ) {
+			columns.put( column, tuple.get( column ) );
+		}
+		return new MapTupleSnapshot( columns );
 	}
 
 	//Copied from AbstractEntityPersister
@@ -837,14 +914,19 @@ public void checkVersionAndRaiseSOSE(Serializable id, Object oldVersion, Session
 		final Object resultSetVersion = gridVersionType.nullSafeGet( resultset, getVersionColumnName(), session, null );
 		final SessionFactoryImplementor factory = getFactory();
 		if ( ! gridVersionType.isEqual( oldVersion, resultSetVersion, factory ) ) {
-			if ( factory.getStatistics().isStatisticsEnabled() ) {
-				factory.getStatisticsImplementor()
-						.optimisticFailure( getEntityName() );
-			}
-			throw new StaleObjectStateException( getEntityName(), id );
+			raiseStaleObjectStateException( id );
 		}
 	}
 
+	private void raiseStaleObjectStateException(Serializable id) {
+		final SessionFactoryImplementor factory = getFactory();
+		if ( factory.getStatistics().isStatisticsEnabled() ) {
+			factory.getStatisticsImplementor()
+					.optimisticFailure( getEntityName() );
+		}
+		throw new StaleObjectStateException( getEntityName(), id );
+	}
+
 	private void dehydrate(
 			Tuple resultset,
 			final Object[] fields,
@@ -911,18 +993,23 @@ public void insert(Serializable id, Object[] fields, Object object, SessionImple
 			}
 
 			final EntityKey key = EntityKeyBuilder.fromPersister( this, id, session );
-			Tuple resultset = gridDialect.getTuple( key, this.getTupleContext() );
-			// add the discriminator
-			if ( j == 0 ) {
-				if (resultset != null) {
+			Tuple resultset;
+			if ( j == 0 && isIdentifierGenerated() ) {
+				// a generated identifier is not expected to be used already; if it is, the dialect detects it
+				resultset = GridDialects.createTupleForInsert( gridDialect, key, getTupleContext() );
+				gridIdentifierType.nullSafeSet( resultset, id, getIdentifierColumnNames(), session );
+			}
+			else {
+				resultset = gridDialect.getTuple( key, this.getTupleContext() );
+				if ( j == 0 && resultset != null ) {
 					throw new HibernateException( "trying to insert an already existing entity: "
 							+  MessageHelper.infoString( this, id, getFactory() ) );
 				}
-
-				if ( discriminator.isNeeded() ) {
-					resultset = createNewResultSetIfNull( key, resultset, id, session );
-					resultset.put( getDiscriminatorColumnName(), getDiscriminatorValue() );
-				}
+			}
+			// add the discriminator
+			if ( j == 0 && discriminator.isNeeded() ) {
+				resultset = createNewResultSetIfNull( key, resultset, id, session );
+				resultset.put( getDiscriminatorColumnName(), getDiscriminatorValue() );
 			}
 
 			resultset = createNewResultSetIfNull( key, resultset, id, session );
@@ -933,6 +1020,19 @@ public void insert(Serializable id, Object[] fields, Object object, SessionImple
 		}
 	}
 
+	/**
+	 * Whether the identifiers of this entity are generated by one of the OGM generators or as UUIDs, in which case
+	 * they are unique and inserting an entity doesn't need to check whether its key is in use already.
+	 */
+	private boolean isIdentifierGenerated() {
+		IdentifierGenerator generator = getIdentifierGenerator();
+		return generator instanceof OgmTableGenerator
+				|| generator instanceof OgmSequenceGenerator
+				|| generator instanceof OgmIdentityGenerator
+				|| generator instanceof UUIDGenerator
+				|| generator instanceof UUIDHexGenerator;
+	}
+
 	@Override
 	public String getDiscriminatorColumnName() {
 		return discriminator.getColumnName();
@@ -949,7 +1049,7 @@ private Tuple createNewResultSetIfNull(
 			Serializable id,
 			SessionImplementor session) {
 		if (resultset == null) {
-			resultset = gridDialect.createTuple( key );
+			resultset = GridDialects.createTuple( gridDialect, key, getTupleContext() );
 			gridIdentifierType.nullSafeSet( resultset, id, getIdentifierColumnNames(), session );
 		}
 		return resultset;
@@ -1035,6 +1135,9 @@ resultset, getPropertyColumnNames( i ), session, object
 				}
 			}
 
+			//association rows written at the end of the flush would re-create the removed entity in some datastores
+			getAssociationCache().writePendingRowsOfRemovedEntity( session, key );
+
 			//delete association information
 			//needs to be executed before the tuple removal because the AtomicMap in ISPN is cleared upon removal
 			new EntityDehydrator()
@@ -1054,6 +1157,10 @@ resultset, getPropertyColumnNames( i ), session, object
 
 	}
 
+	private AssociationCacheService getAssociationCache() {
+		return getFactory().getServiceRegistry().getService( AssociationCacheService.class );
+	}
+
 	@Override
 	protected int[] getSubclassColumnTableNumberClosure() {
 		return new int[ getSubclassColumnClosure().length ];
@@ -1200,6 +1307,13 @@ public Serializable[] getPropertySpaces() {
 		return spaces;
 	}
 
+	/**
+	 * The maximum number of entities of this type loaded together when initializing a proxy.
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
 	public TupleContext getTupleContext() {
 		return this.tupleContext;
 	}
@@ -0,0 +1,52 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.service.impl;
+
+import java.util.Map;
+
+import org.hibernate.HibernateException;
+import org.hibernate.event.spi.RefreshEvent;
+import org.hibernate.event.spi.RefreshEventListener;
+
+/**
+ * Empties the association cache of a session before entities are refreshed, so that their associations are read
+ * again from the datastore.
+ *
+ * @see AssociationCacheService
+ */
+class AssociationCacheRefreshEventListener implements RefreshEventListener {
+
+	private final AssociationCacheService associationCache;
+
+	AssociationCacheRefreshEventListener(AssociationCacheService associationCache) {
+		this.associationCache = associationCache;
+	}
+
+	@Override
+	public void onRefresh(RefreshEvent event) throws HibernateException {
+		associationCache.evictAll( event.getSession() );
+	}
+
+	@Override
+	public void onRefresh(RefreshEvent event, Map refreshedAlready) throws HibernateException {
+		associationCache.evictAll( event.getSession() );
+	}
+}
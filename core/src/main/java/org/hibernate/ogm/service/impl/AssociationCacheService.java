@@ -0,0 +1,213 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.service.impl;
+
+import java.util.EnumSet;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.internal.util.collections.ConcurrentReferenceHashMap;
+import org.hibernate.internal.util.collections.ConcurrentReferenceHashMap.Option;
+import org.hibernate.internal.util.collections.ConcurrentReferenceHashMap.ReferenceType;
+import org.hibernate.ogm.datastore.spi.Association;
+import org.hibernate.ogm.datastore.spi.AssociationContext;
+import org.hibernate.ogm.datastore.spi.Tuple;
+import org.hibernate.ogm.dialect.GridDialect;
+import org.hibernate.ogm.grid.AssociationKey;
+import org.hibernate.ogm.grid.EntityKey;
+import org.hibernate.ogm.grid.RowKey;
+import org.hibernate.ogm.util.impl.PropertyMetadataProvider;
+import org.hibernate.service.Service;
+
+/**
+ * Keeps the associations read from the datastore during a session, so that the persisters and loaders working on
+ * the same association (e.g. to get the size of a collection and then to add rows to it) do not read it several
+ * times.
+ * <p>
+ * Each session has its own cache, which is emptied when the session is flushed, when its transaction completes and
+ * when it is closed, as well as when an entity is refreshed. An association obtained for update is removed from the
+ * cache and will be read again once it has been written.
+ * <p>
+ * Rows scheduled to be added to or removed from an association while a session is flushed are written together at
+ * the end of the flush, so that each association is read and written once per flush whatever the number of rows
+ * changed. They are written earlier if the association is read in the meantime.
+ * <p>
+ * The numbers of cache hits and misses are kept for all the sessions of the session factory.
+ */
+public class AssociationCacheService implements Service {
+
+	/**
+	 * The caches by session; the sessions are compared by identity and not referenced strongly
+	 */
+	private final ConcurrentMap<SessionImplementor, SessionAssociationCache> caches = new ConcurrentReferenceHashMap<SessionImplementor, SessionAssociationCache>(
+			16, 0.75f, 16, ReferenceType.WEAK, ReferenceType.STRONG, EnumSet.of( Option.IDENTITY_COMPARISONS ) );
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+
+	/**
+	 * Returns the association with the given key, reading it from the datastore unless the session already did.
+	 *
+	 * @return the association or {@code null} if it does not exist in the datastore
+	 */
+	public Association getAssociation(SessionImplementor session, AssociationKey key, AssociationContext associationContext, GridDialect gridDialect) {
+		return getAssociation( session, key, associationContext, gridDialect, false );
+	}
+
+	/**
+	 * Returns the association with the given key for it to be modified and written to the datastore; the association
+	 * is no longer cached afterwards.
+	 *
+	 * @return the association or {@code null} if it does not exist in the datastore
+	 */
+	public Association getAssociationForUpdate(SessionImplementor session, AssociationKey key, AssociationContext associationContext, GridDialect gridDialect) {
+		return getAssociation( session, key, associationContext, gridDialect, true );
+	}
+
+	/**
+	 * Adds the given row to the association of the given provider, when the current flush ends if the session is
+	 * being flushed and immediately otherwise.
+	 */
+	public void scheduleRowPut(SessionImplementor session, PropertyMetadataProvider metadataProvider, RowKey rowKey, Tuple row) {
+		SessionAssociationCache cache = getCacheOfFlushingSession( session, metadataProvider );
+		if ( cache != null ) {
+			cache.getPendingRows( metadataProvider ).put( rowKey, row );
+		}
+		else {
+			PendingAssociationRows rows = new PendingAssociationRows( metadataProvider );
+			rows.put( rowKey, row );
+			rows.write();
+		}
+	}
+
+	/**
+	 * Removes the row with the given key from the association of the given provider, when the current flush ends if
+	 * the session is being flushed and immediately otherwise.
+	 */
+	public void scheduleRowRemoval(SessionImplementor session, PropertyMetadataProvider metadataProvider, RowKey rowKey) {
+		SessionAssociationCache cache = getCacheOfFlushingSession( session, metadataProvider );
+		if ( cache != null ) {
+			cache.getPendingRows( metadataProvider ).remove( rowKey );
+		}
+		else {
+			PendingAssociationRows rows = new PendingAssociationRows( metadataProvider );
+			rows.remove( rowKey );
+			rows.write();
+		}
+	}
+
+	/**
+	 * Writes the rows scheduled for the associations stored within the given entity, as it is about to be removed;
+	 * the rows scheduled for these associations later on in the current flush are written immediately.
+	 */
+	public void writePendingRowsOfRemovedEntity(SessionImplementor session, EntityKey entityKey) {
+		SessionAssociationCache cache = session.getPersistenceContext().isFlushing() ? getCache( session, false ) : null;
+		if ( cache != null ) {
+			cache.writePendingRowsOfRemovedEntity( entityKey );
+		}
+	}
+
+	/**
+	 * Removes the association with the given key from the cache of the session, e.g. because it has been written.
+	 */
+	public void evict(SessionImplementor session, AssociationKey key) {
+		SessionAssociationCache cache = getCache( session, false );
+		if ( cache != null ) {
+			cache.remove( key );
+		}
+	}
+
+	/**
+	 * Removes all the associations from the cache of the session, e.g. because its entities are refreshed from the
+	 * datastore.
+	 */
+	public void evictAll(SessionImplementor session) {
+		SessionAssociationCache cache = getCache( session, false );
+		if ( cache != null ) {
+			cache.clear();
+		}
+	}
+
+	/**
+	 * @return the number of associations which were found in the cache of a session
+	 */
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	/**
+	 * @return the number of associations which had to be read from the datastore
+	 */
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	public void clearStatistics() {
+		hitCount.set( 0 );
+		missCount.set( 0 );
+	}
+
+	private Association getAssociation(SessionImplementor session, AssociationKey key, AssociationContext associationContext, GridDialect gridDialect, boolean forUpdate) {
+		SessionAssociationCache cache = getCache( session, true );
+		if ( cache != null ) {
+			// the rows scheduled for the association are part of it
+			cache.writePendingRows( key );
+			if ( cache.contains( key ) ) {
+				hitCount.incrementAndGet();
+				return forUpdate ? cache.remove( key ) : cache.get( key );
+			}
+		}
+
+		missCount.incrementAndGet();
+		Association association = gridDialect.getAssociation( key, associationContext );
+		if ( cache != null && !forUpdate ) {
+			cache.put( key, association );
+		}
+		return association;
+	}
+
+	private SessionAssociationCache getCacheOfFlushingSession(SessionImplementor session, PropertyMetadataProvider metadataProvider) {
+		if ( !session.getPersistenceContext().isFlushing() ) {
+			return null;
+		}
+		SessionAssociationCache cache = getCache( session, true );
+		// the entity will not be around any more at the end of the flush
+		if ( cache != null && cache.isRemoved( metadataProvider.getCollectionMetadataKey().getEntityKey() ) ) {
+			return null;
+		}
+		return cache;
+	}
+
+	private SessionAssociationCache getCache(SessionImplementor session, boolean create) {
+		SessionAssociationCache cache = caches.get( session );
+		// only sessions notify their listeners of flushes and transaction completions
+		if ( cache == null && create && session instanceof EventSource ) {
+			SessionAssociationCache newCache = new SessionAssociationCache( (EventSource) session );
+			cache = caches.putIfAbsent( session, newCache );
+			if ( cache == null ) {
+				cache = newCache;
+				( (EventSource) session ).addEventListeners( cache );
+			}
+		}
+		return cache;
+	}
+}
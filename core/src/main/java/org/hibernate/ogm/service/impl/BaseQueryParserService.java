@@ -24,7 +24,11 @@
 import java.util.Map;
 import java.util.Map.Entry;
 
+import org.hibernate.engine.config.spi.ConfigurationService;
 import org.hibernate.engine.spi.TypedValue;
+import org.hibernate.ogm.cfg.OgmProperties;
+import org.hibernate.ogm.util.configurationreader.impl.ConfigurationPropertyReader;
+import org.hibernate.service.spi.ServiceRegistryImplementor;
 
 /**
  * Common base functionality for {@link QueryParserService} implementations.
@@ -49,4 +53,20 @@ protected Map<String, Object> unwrap(Map<String, Object> namedParameters) {
 
 		return unwrapped;
 	}
+
+	/**
+	 * Creates a cache for parsed queries with the size configured via {@link OgmProperties#QUERY_PLAN_CACHE_MAX_SIZE}.
+	 *
+	 * @param serviceRegistry the service registry providing the configuration
+	 * @return a new cache for parsed queries
+	 */
+	protected <K, V> ParsedQueryCache<K, V> createQueryCache(ServiceRegistryImplementor serviceRegistry) {
+		Map<?, ?> settings = serviceRegistry.getService( ConfigurationService.class ).getSettings();
+		int maxSize = new ConfigurationPropertyReader( settings )
+				.property( OgmProperties.QUERY_PLAN_CACHE_MAX_SIZE, int.class )
+				.withDefault( ParsedQueryCache.DEFAULT_MAX_SIZE )
+				.getValue();
+
+		return new ParsedQueryCache<K, V>( maxSize );
+	}
 }
@@ -20,15 +20,23 @@
  */
 package org.hibernate.ogm.service.impl;
 
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.Map;
 
+import org.antlr.runtime.RecognitionException;
+import org.antlr.runtime.TokenStream;
+import org.antlr.runtime.tree.CommonTree;
 import org.hibernate.Query;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.hql.QueryParser;
+import org.hibernate.hql.ast.spi.AstProcessingChain;
+import org.hibernate.hql.ast.spi.AstProcessor;
 import org.hibernate.hql.ast.spi.EntityNamesResolver;
 import org.hibernate.hql.lucene.LuceneProcessingChain;
 import org.hibernate.hql.lucene.LuceneQueryParsingResult;
+import org.hibernate.ogm.cfg.OgmProperties;
 import org.hibernate.ogm.hibernatecore.impl.OgmSession;
 import org.hibernate.ogm.util.impl.Log;
 import org.hibernate.ogm.util.impl.LoggerFactory;
@@ -38,31 +46,44 @@
 import org.hibernate.search.engine.spi.SearchFactoryImplementor;
 import org.hibernate.search.query.DatabaseRetrievalMethod;
 import org.hibernate.search.query.ObjectLookupMethod;
+import org.hibernate.service.spi.ServiceRegistryAwareService;
+import org.hibernate.service.spi.ServiceRegistryImplementor;
 
 /**
  * QueryParserService using the ANTLR3-powered LuceneJPQLWalker.
  * Expects the targeted entities and used attributes to be indexed via Hibernate Search,
  * transforming HQL and JPQL in Lucene Queries.
+ * <p>
+ * The tree resulting from parsing a query and resolving its entities and properties doesn't depend on the parameter
+ * values, so it is kept in a bounded LRU cache (see {@link OgmProperties#QUERY_PLAN_CACHE_MAX_SIZE}). Executing the same
+ * query again only requires to render the cached tree into a Lucene query with the given parameter values.
  *
  * @author Sanne Grinovero <sanne@hibernate.org> (C) 2012 Red Hat Inc.
  */
-public class LuceneBasedQueryParserService extends BaseQueryParserService {
+public class LuceneBasedQueryParserService extends BaseQueryParserService implements ServiceRegistryAwareService {
 
 	private static final Log log = LoggerFactory.make();
 
 	private volatile SessionFactoryEntityNamesResolver entityNamesResolver;
 
+	private volatile ParsedQueryCache<String, ResolvedQuery> queryCache;
+
 	public LuceneBasedQueryParserService() {
 		// TODO: make it possible to lookup the SearchFactoryImplementor at initialization time
 		// searchFactoryImplementor = lookupSearchFactory( registry );
 	}
 
+	@Override
+	public void injectServices(ServiceRegistryImplementor serviceRegistry) {
+		queryCache = createQueryCache( serviceRegistry );
+	}
+
 	@Override
 	public Query getParsedQueryExecutor(OgmSession session, String queryString, Map<String, Object> namedParameters) {
 		FullTextSession fullTextSession = Search.getFullTextSession( session );
 
-		LuceneQueryParsingResult parsingResult = new QueryParser().parseQuery( queryString,
-				createProcessingChain( session, unwrap( namedParameters ), fullTextSession ) );
+		LuceneProcessingChain processingChain = createProcessingChain( session, unwrap( namedParameters ), fullTextSession );
+		LuceneQueryParsingResult parsingResult = getResolvedQuery( queryString, processingChain ).render( processingChain );
 
 		log.createdQuery( queryString, parsingResult.getQuery() );
 
@@ -75,6 +96,25 @@ public Query getParsedQueryExecutor(OgmSession session, String queryString, Map<
 		return fullTextQuery;
 	}
 
+	/**
+	 * Returns the cache of parsed queries of this service, e.g. to monitor its hit ratio.
+	 *
+	 * @return the cache of parsed queries
+	 */
+	public ParsedQueryCache<?, ?> getQueryCache() {
+		return queryCache;
+	}
+
+	private ResolvedQuery getResolvedQuery(String queryString, LuceneProcessingChain processingChain) {
+		ResolvedQuery resolvedQuery = queryCache.get( queryString );
+
+		if ( resolvedQuery == null ) {
+			resolvedQuery = new QueryParser().parseQuery( queryString, new ResolvingProcessingChain( queryString, processingChain ) );
+			queryCache.put( queryString, resolvedQuery );
+		}
+
+		return resolvedQuery;
+	}
 	private LuceneProcessingChain createProcessingChain(Session session, Map<String, Object> namedParameters, FullTextSession fullTextSession) {
 		EntityNamesResolver entityNamesResolver = getDefinedEntityNames( session.getSessionFactory() );
 		SearchFactoryImplementor searchFactory = (SearchFactoryImplementor) fullTextSession.getSearchFactory();
@@ -90,4 +130,74 @@ private EntityNamesResolver getDefinedEntityNames(SessionFactory sessionFactory)
 		}
 		return entityNamesResolver;
 	}
+
+	/**
+	 * A query which has been parsed and whose entities and properties have been resolved. It is independent of the
+	 * parameter values and can be rendered any number of times, also concurrently, as rendering doesn't alter the tree.
+	 */
+	private static final class ResolvedQuery {
+
+		private final String queryString;
+		private final TokenStream tokens;
+		private final CommonTree tree;
+
+		private ResolvedQuery(String queryString, TokenStream tokens, CommonTree tree) {
+			this.queryString = queryString;
+			this.tokens = tokens;
+			this.tree = tree;
+			// token boundaries are computed lazily otherwise, which would alter the shared tree while rendering it
+			tree.setUnknownTokenBoundaries();
+		}
+
+		/**
+		 * Renders this query using the processors of the given chain following its resolver.
+		 */
+		private LuceneQueryParsingResult render(LuceneProcessingChain processingChain) {
+			Iterator<AstProcessor> processors = processingChain.iterator();
+			processors.next();
+
+			try {
+				CommonTree renderedTree = tree;
+				while ( processors.hasNext() ) {
+					renderedTree = processors.next().process( tokens, renderedTree );
+				}
+			}
+			catch (RecognitionException e) {
+				throw log.unableToRenderParsedQuery( queryString, e );
+			}
+
+			return processingChain.getResult();
+		}
+	}
+
+	/**
+	 * Applies only the resolver of the given chain to a query and captures the resulting tree as {@link ResolvedQuery}.
+	 */
+	private static final class ResolvingProcessingChain implements AstProcessingChain<ResolvedQuery>, AstProcessor {
+
+		private final String queryString;
+		private final AstProcessor resolverProcessor;
+		private ResolvedQuery result;
+
+		private ResolvingProcessingChain(String queryString, LuceneProcessingChain processingChain) {
+			this.queryString = queryString;
+			this.resolverProcessor = processingChain.iterator().next();
+		}
+
+		@Override
+		public Iterator<AstProcessor> iterator() {
+			return Arrays.<AstProcessor>asList( resolverProcessor, this ).iterator();
+		}
+
+		@Override
+		public CommonTree process(TokenStream tokens, CommonTree tree) {
+			result = new ResolvedQuery( queryString, tokens, tree );
+			return tree;
+		}
+
+		@Override
+		public ResolvedQuery getResult() {
+			return result;
+		}
+	}
 }
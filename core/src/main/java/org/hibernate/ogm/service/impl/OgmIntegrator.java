@@ -23,6 +23,8 @@
 import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
 import org.hibernate.cfg.Configuration;
 import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
 import org.hibernate.integrator.spi.Integrator;
 import org.hibernate.integrator.spi.ServiceContributingIntegrator;
 import org.hibernate.metamodel.source.MetadataImplementor;
@@ -44,6 +46,7 @@
  * - replace ConnectionProvider
  * - replace DialectFactory
  * - replace (if not provided by the user) NamingStrategy
+ * - empty the association cache of a session when refreshing entities
  *
  * Also enforce an OGM NamingStrategy
  *
@@ -58,6 +61,10 @@ public void integrate(Configuration configuration, SessionFactoryImplementor ses
 		}
 		Version.touch();
 		configuration.setNamingStrategy( OgmNamingStrategy.INSTANCE );
+
+		AssociationCacheService associationCache = serviceRegistry.getService( AssociationCacheService.class );
+		serviceRegistry.getService( EventListenerRegistry.class ).getEventListenerGroup( EventType.REFRESH )
+				.prependListener( new AssociationCacheRefreshEventListener( associationCache ) );
 	}
 
 	@Override
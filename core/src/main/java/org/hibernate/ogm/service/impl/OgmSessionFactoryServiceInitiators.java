@@ -26,6 +26,7 @@
 
 import org.hibernate.ogm.datastore.impl.DatastoreProviderInitiator;
 import org.hibernate.ogm.dialect.impl.GridDialectInitiator;
+import org.hibernate.ogm.dialect.impl.GridDialectMetricsInitiator;
 import org.hibernate.ogm.options.navigation.impl.OptionsServiceInitiator;
 import org.hibernate.ogm.type.impl.TypeTranslatorInitiator;
 import org.hibernate.service.spi.SessionFactoryServiceInitiator;
@@ -43,8 +44,10 @@ public class OgmSessionFactoryServiceInitiators {
 			TypeTranslatorInitiator.INSTANCE,
 			OptionsServiceInitiator.INSTANCE ,
 			DatastoreProviderInitiator.INSTANCE,
+			GridDialectMetricsInitiator.INSTANCE,
 			GridDialectInitiator.INSTANCE,
-			QueryParserServicesInitiator.INSTANCE
+			QueryParserServicesInitiator.INSTANCE,
+			AssociationCacheServiceInitiator.INSTANCE
 	) );
 
 }
@@ -0,0 +1,133 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.service.impl;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.internal.util.collections.BoundedConcurrentHashMap;
+
+/**
+ * A bounded cache for the results of parsing queries, evicting the least recently used entries first. Counts the cache
+ * hits and misses, allowing to monitor how effective the cache is.
+ * <p>
+ * Cached values are shared between all the sessions of a session factory, so they must not be altered once they have
+ * been put into the cache.
+ *
+ * @param <K> the type of the keys identifying the parsed queries
+ * @param <V> the type of the parsed queries
+ */
+public class ParsedQueryCache<K, V> {
+
+	/**
+	 * The maximum number of parsed queries kept if not configured otherwise.
+	 */
+	public static final int DEFAULT_MAX_SIZE = 2048;
+
+	private static final int MAX_CONCURRENCY_LEVEL = 16;
+
+	private final ConcurrentMap<K, V> cache;
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+
+	/**
+	 * Creates a new cache.
+	 *
+	 * @param maxSize the maximum number of parsed queries kept; nothing is cached if this is 0 or less
+	 */
+	public ParsedQueryCache(int maxSize) {
+		this.cache = maxSize > 0
+				? new BoundedConcurrentHashMap<K, V>( maxSize, Math.min( maxSize, MAX_CONCURRENCY_LEVEL ), BoundedConcurrentHashMap.Eviction.LRU )
+				: null;
+	}
+
+	/**
+	 * Returns the parsed query cached for the given key, counting a hit or a miss.
+	 *
+	 * @param key the key of the parsed query
+	 * @return the parsed query or {@code null} if it is not cached
+	 */
+	public V get(K key) {
+		V value = cache != null ? cache.get( key ) : null;
+
+		if ( value != null ) {
+			hitCount.incrementAndGet();
+		}
+		else {
+			missCount.incrementAndGet();
+		}
+
+		return value;
+	}
+
+	/**
+	 * Caches the given parsed query, possibly evicting the least recently used one.
+	 *
+	 * @param key the key of the parsed query
+	 * @param value the parsed query
+	 */
+	public void put(K key, V value) {
+		if ( cache != null ) {
+			cache.put( key, value );
+		}
+	}
+
+	/**
+	 * @return the number of lookups which found a cached parsed query
+	 */
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	/**
+	 * @return the number of lookups which didn't find a cached parsed query
+	 */
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	/**
+	 * @return the ratio of the lookups which found a cached parsed query, between 0 and 1; 0 if there was no lookup yet
+	 */
+	public double getHitRatio() {
+		long hits = hitCount.get();
+		long lookups = hits + missCount.get();
+		return lookups == 0 ? 0 : (double) hits / lookups;
+	}
+
+	/**
+	 * @return the number of parsed queries currently cached
+	 */
+	public int size() {
+		return cache != null ? cache.size() : 0;
+	}
+
+	/**
+	 * Removes all the parsed queries from this cache and resets the hit and miss counts.
+	 */
+	public void clear() {
+		if ( cache != null ) {
+			cache.clear();
+		}
+		hitCount.set( 0 );
+		missCount.set( 0 );
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.service.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.hibernate.ogm.datastore.spi.Association;
+import org.hibernate.ogm.datastore.spi.Tuple;
+import org.hibernate.ogm.grid.AssociationKey;
+import org.hibernate.ogm.grid.RowKey;
+import org.hibernate.ogm.util.impl.PropertyMetadataProvider;
+
+/**
+ * The rows to add to or remove from one association, written together with a single read and a single write of the
+ * association.
+ *
+ * @see AssociationCacheService#scheduleRowPut(org.hibernate.engine.spi.SessionImplementor, PropertyMetadataProvider, RowKey, Tuple)
+ */
+class PendingAssociationRows {
+
+	private final PropertyMetadataProvider metadataProvider;
+
+	/**
+	 * The rows by key, {@code null} standing for a row to remove; only the last change of a row is kept
+	 */
+	private final Map<RowKey, Tuple> rows = new LinkedHashMap<RowKey, Tuple>();
+
+	PendingAssociationRows(PropertyMetadataProvider metadataProvider) {
+		this.metadataProvider = metadataProvider;
+	}
+
+	AssociationKey getKey() {
+		return metadataProvider.getCollectionMetadataKey();
+	}
+
+	void put(RowKey rowKey, Tuple row) {
+		rows.put( rowKey, row );
+	}
+
+	void remove(RowKey rowKey) {
+		rows.put( rowKey, null );
+	}
+
+	void write() {
+		Association association = metadataProvider.getCollectionMetadata();
+		for ( Map.Entry<RowKey, Tuple> entry : rows.entrySet() ) {
+			Tuple row = entry.getValue();
+			if ( row == null ) {
+				association.remove( entry.getKey() );
+			}
+			else {
+				Tuple associationRow = metadataProvider.createAndPutAssociationTuple( entry.getKey() );
+				for ( String column : row.getColumnNames() ) {
+					associationRow.put( column, row.get( column ) );
+				}
+			}
+		}
+		metadataProvider.flushToCache();
+	}
+}
@@ -0,0 +1,235 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.service.impl;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.hibernate.BaseSessionEventListener;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.ogm.datastore.spi.Association;
+import org.hibernate.ogm.grid.AssociationKey;
+import org.hibernate.ogm.grid.EntityKey;
+import org.hibernate.ogm.util.impl.PropertyMetadataProvider;
+
+/**
+ * The associations read by one session, {@code null} standing for an association not found in the datastore.
+ * <p>
+ * The cache empties itself when the session is flushed, when its transaction completes and when it is closed.
+ * <p>
+ * It also keeps the rows to be written to associations during the current flush, which are written once per
+ * association when the flush ends successfully, or before the association is read. The rows of associations stored
+ * within an entity removed during the flush are written before the entity is removed instead.
+ *
+ * @see AssociationCacheService
+ */
+class SessionAssociationCache extends BaseSessionEventListener {
+
+	private final transient Map<AssociationKey, Entry> associations = new HashMap<AssociationKey, Entry>();
+	private final transient Map<AssociationKey, PendingAssociationRows> pendingRows = new LinkedHashMap<AssociationKey, PendingAssociationRows>();
+	private final transient Set<EntityKey> removedEntities = new HashSet<EntityKey>();
+
+	/**
+	 * Not referenced strongly, as the session is the key of this cache in {@link AssociationCacheService}
+	 */
+	private final transient WeakReference<EventSource> session;
+
+	SessionAssociationCache(EventSource session) {
+		this.session = new WeakReference<EventSource>( session );
+	}
+
+	boolean contains(AssociationKey key) {
+		return getEntry( key ) != null;
+	}
+
+	Association get(AssociationKey key) {
+		Entry entry = getEntry( key );
+		return entry == null ? null : entry.association;
+	}
+
+	void put(AssociationKey key, Association association) {
+		associations.put( key, new Entry( key.getCollectionRole(), key.getRowKeyColumnNames(), association ) );
+	}
+
+	Association remove(AssociationKey key) {
+		Entry entry = getEntry( key );
+		associations.remove( key );
+		return entry == null ? null : entry.association;
+	}
+
+	void clear() {
+		associations.clear();
+	}
+
+	/**
+	 * Returns the pending rows of the association with the given key and role, creating them if needed. The pending
+	 * rows of the association with the same key but another role are written beforehand, as they cannot be kept at
+	 * the same time.
+	 */
+	PendingAssociationRows getPendingRows(PropertyMetadataProvider metadataProvider) {
+		AssociationKey key = metadataProvider.getCollectionMetadataKey();
+		PendingAssociationRows rows = pendingRows.get( key );
+		if ( rows != null && !isSameRole( key, rows.getKey() ) ) {
+			writePendingRows( key );
+			rows = null;
+		}
+		if ( rows == null ) {
+			rows = new PendingAssociationRows( metadataProvider );
+			pendingRows.put( key, rows );
+		}
+		return rows;
+	}
+
+	/**
+	 * Writes the pending rows of the association with the given key, whatever its role, if there are some.
+	 */
+	void writePendingRows(AssociationKey key) {
+		// removed first, as writing reads the association
+		PendingAssociationRows rows = pendingRows.remove( key );
+		if ( rows != null ) {
+			rows.write();
+		}
+	}
+
+	/**
+	 * Writes the pending rows of the associations stored within the given entity, which is about to be removed, and
+	 * remembers the entity until the current flush ends.
+	 */
+	void writePendingRowsOfRemovedEntity(EntityKey entityKey) {
+		removedEntities.add( entityKey );
+		List<AssociationKey> keys = new ArrayList<AssociationKey>( pendingRows.keySet() );
+		for ( AssociationKey key : keys ) {
+			if ( entityKey.equals( key.getEntityKey() ) ) {
+				writePendingRows( key );
+			}
+		}
+	}
+
+	/**
+	 * Whether the given entity has been removed in the current flush, in which case the rows of its associations are
+	 * not kept until the flush ends.
+	 */
+	boolean isRemoved(EntityKey entityKey) {
+		return removedEntities.contains( entityKey );
+	}
+
+	private void writePendingRows() {
+		List<AssociationKey> keys = new ArrayList<AssociationKey>( pendingRows.keySet() );
+		for ( AssociationKey key : keys ) {
+			writePendingRows( key );
+		}
+	}
+
+	/**
+	 * Writes the pending rows unless the flush failed, in which case some of its actions are still queued.
+	 */
+	private void endFlush() {
+		try {
+			EventSource eventSource = session.get();
+			if ( eventSource != null && !eventSource.getActionQueue().hasAnyQueuedActions() ) {
+				writePendingRows();
+			}
+		}
+		finally {
+			pendingRows.clear();
+			removedEntities.clear();
+		}
+	}
+
+	private boolean isSameRole(AssociationKey key, AssociationKey other) {
+		String role = key.getCollectionRole();
+		return role == null ? other.getCollectionRole() == null : role.equals( other.getCollectionRole() );
+	}
+
+	/**
+	 * The role is not part of the identity of {@link AssociationKey}, but it designates a different association when
+	 * the association is stored within the entity. Keys only differing by their role are not cached at the same time
+	 * though, as writing one of them may alter the other one in some datastores.
+	 * <p>
+	 * The row key column names are not part of the identity either, but the keys of the rows of an association depend
+	 * on them; the two sides of an association don't necessarily list them in the same order.
+	 */
+	private Entry getEntry(AssociationKey key) {
+		Entry entry = associations.get( key );
+		if ( entry == null ) {
+			return null;
+		}
+		String role = key.getCollectionRole();
+		if ( role == null ? entry.role != null : !role.equals( entry.role ) ) {
+			return null;
+		}
+		return Arrays.equals( key.getRowKeyColumnNames(), entry.rowKeyColumnNames ) ? entry : null;
+	}
+
+	@Override
+	public void flushEnd(int numberOfEntities, int numberOfCollections) {
+		try {
+			endFlush();
+		}
+		finally {
+			clear();
+		}
+	}
+
+	@Override
+	public void partialFlushEnd(int numberOfEntities, int numberOfCollections) {
+		try {
+			endFlush();
+		}
+		finally {
+			clear();
+		}
+	}
+
+	@Override
+	public void transactionCompletion(boolean successful) {
+		pendingRows.clear();
+		removedEntities.clear();
+		clear();
+	}
+
+	@Override
+	public void end() {
+		pendingRows.clear();
+		removedEntities.clear();
+		clear();
+	}
+
+	private static class Entry {
+
+		private final String role;
+		private final String[] rowKeyColumnNames;
+		private final Association association;
+
+		private Entry(String role, String[] rowKeyColumnNames, Association association) {
+			this.role = role;
+			this.rowKeyColumnNames = rowKeyColumnNames;
+			this.association = association;
+		}
+	}
+}
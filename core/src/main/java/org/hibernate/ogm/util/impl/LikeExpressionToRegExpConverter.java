@@ -18,15 +18,15 @@
  * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
  * MA  02110-1301, USA.
  */
-package org.hibernate.ogm.dialect.mongodb.util;
+package org.hibernate.ogm.util.impl;
 
 import java.util.regex.Pattern;
 
 /**
  * Creates {@link Pattern} objects equivalent to given HQL/JPQL {@code LIKE} expressions.
  * <p>
- * Used by {@link org.hibernate.ogm.dialect.mongodb.query.parsing.predicate.MongoDBLikePredicate} to run {@code LIKE}
- * queries against MongoDB, using the {@code $regex} operator.
+ * Used by the query parsers of datastores supporting regular expressions, e.g. MongoDB ({@code $regex}) and Neo4j
+ * ({@code =~}), to run {@code LIKE} queries.
  * <p>
  * The following rules apply for creating regular expressions:
  * <ul>
@@ -26,13 +26,18 @@
 import static org.jboss.logging.Logger.Level.WARN;
 
 import java.lang.annotation.ElementType;
+import java.util.Set;
 
 import javax.transaction.SystemException;
 
+import org.antlr.runtime.RecognitionException;
 import org.hibernate.HibernateException;
+import org.hibernate.StaleStateException;
 import org.hibernate.TransactionException;
+import org.hibernate.hql.ParsingException;
 import org.hibernate.hql.internal.ast.QuerySyntaxException;
 import org.hibernate.ogm.cfg.OgmProperties;
+import org.hibernate.ogm.grid.EntityKey;
 import org.hibernate.ogm.options.spi.AnnotationConverter;
 import org.jboss.logging.BasicLogger;
 import org.jboss.logging.Cause;
@@ -183,4 +188,33 @@ public interface Log extends BasicLogger {
 
 	@Message(id = 55, value = "It is not possible to add or poll operations from a closed queue")
 	HibernateException closedOperationQueue();
+
+	@Message(id = 56, value = "Interrupted while loading the tuples to index")
+	HibernateException interruptedWhileLoadingTuples(@Cause InterruptedException e);
+
+	@LogMessage(level = WARN)
+	@Message(id = 57, value = "Unable to register the grid dialect metrics MBean for session factory %s")
+	void unableToRegisterGridDialectMetricsMBean(String name, @Cause Exception e);
+
+	@LogMessage(level = WARN)
+	@Message(id = 58, value = "Unable to unregister the grid dialect metrics MBean %s")
+	void unableToUnregisterGridDialectMetricsMBean(String objectName, @Cause Exception e);
+
+	@Message(id = 59, value = "Unable to load the tuples of segments %1$s from node %2$s")
+	HibernateException unableToLoadTuplesOfSegments(Set<Integer> segments, String node, @Cause Throwable e);
+
+	@Message(id = 60, value = "Interrupted while waiting for an asynchronous grid dialect operation")
+	HibernateException interruptedWhileWaitingForAsynchronousOperation(@Cause InterruptedException e);
+
+	@Message(id = 61, value = "An asynchronous grid dialect operation failed")
+	HibernateException asynchronousOperationFailed(@Cause Throwable e);
+
+	@Message(id = 62, value = "Unable to render the parsed query '%1$s'")
+	ParsingException unableToRenderParsedQuery(String queryString, @Cause RecognitionException e);
+
+	@Message(id = 63, value = "Trying to insert an already existing entity: %1$s")
+	HibernateException entityAlreadyExists(EntityKey key);
+
+	@Message(id = 64, value = "The batched update of entity %1$s has been rejected, the entity has been updated or deleted by another transaction")
+	StaleStateException staleBatchedUpdate(EntityKey key);
 }
@@ -42,6 +42,7 @@
 import org.hibernate.ogm.persister.EntityKeyBuilder;
 import org.hibernate.ogm.persister.OgmCollectionPersister;
 import org.hibernate.ogm.persister.OgmEntityPersister;
+import org.hibernate.ogm.service.impl.AssociationCacheService;
 import org.hibernate.ogm.type.GridType;
 import org.hibernate.persister.collection.CollectionPersister;
 import org.hibernate.persister.entity.Loadable;
@@ -132,7 +133,7 @@ public PropertyMetadataProvider inverse() {
 
 	//action methods
 
-	private AssociationKey getCollectionMetadataKey() {
+	public AssociationKey getCollectionMetadataKey() {
 		if ( collectionMetadataKey == null ) {
 			if ( associationKeyMetadata == null ) {
 				associationKeyMetadata = new AssociationKeyMetadata( tableName, keyColumnNames );
@@ -345,7 +346,7 @@ public Association getCollectionMetadata() {
 				collectionMetadata = new Association();
 			}
 			else {
-				collectionMetadata = gridDialect.getAssociation( key, getAssociationContext() );
+				collectionMetadata = getAssociationCache().getAssociationForUpdate( session, key, getAssociationContext(), gridDialect );
 				if (collectionMetadata == null) {
 					collectionMetadata = gridDialect.createAssociation( key, getAssociationContext() );
 				}
@@ -359,7 +360,7 @@ public Association getCollectionMetadata() {
 	 */
 	public Association getCollectionMetadataOrNull() {
 		if ( collectionMetadata == null ) {
-			collectionMetadata = gridDialect.getAssociation( getCollectionMetadataKey(), getAssociationContext() );
+			collectionMetadata = getAssociationCache().getAssociation( session, getCollectionMetadataKey(), getAssociationContext(), gridDialect );
 		}
 		return collectionMetadata;
 	}
@@ -368,6 +369,7 @@ public void flushToCache() {
 		//If we don't have a bidirectional association, do not update the info
 		//to prevent unidirectional associations to keep record of the inverse side
 		if ( isBidirectional != Boolean.FALSE ) {
+			getAssociationCache().evict( session, getCollectionMetadataKey() );
 			if ( getCollectionMetadata().isEmpty() ) {
 				gridDialect.removeAssociation( getCollectionMetadataKey(), getAssociationContext() );
 				collectionMetadata = null;
@@ -393,6 +395,10 @@ public PropertyMetadataProvider rowKeyColumnNames(String[] rowKeyColumnNames) {
 		return this;
 	}
 
+	private AssociationCacheService getAssociationCache() {
+		return session.getFactory().getServiceRegistry().getService( AssociationCacheService.class );
+	}
+
 	private AssociationContext getAssociationContext() {
 		if ( associationContext == null ) {
 			OptionsServiceContext serviceContext = session.getFactory()
@@ -0,0 +1,174 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.associations.collection.unidirectional;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.ogm.datastore.impl.PropertyOptionsContext;
+import org.hibernate.ogm.datastore.spi.AssociationContext;
+import org.hibernate.ogm.dialect.GridDialect;
+import org.hibernate.ogm.grid.AssociationKey;
+import org.hibernate.ogm.grid.AssociationKeyMetadata;
+import org.hibernate.ogm.grid.AssociationKind;
+import org.hibernate.ogm.grid.EntityKey;
+import org.hibernate.ogm.grid.EntityKeyMetadata;
+import org.hibernate.ogm.options.navigation.impl.WritableOptionsServiceContext;
+import org.hibernate.ogm.service.impl.AssociationCacheService;
+import org.hibernate.ogm.test.utils.OgmTestCase;
+import org.junit.Test;
+
+/**
+ * Test for the cache of the associations read by a session.
+ */
+public class AssociationCacheTest extends OgmTestCase {
+
+	@Test
+	public void testAssociationIsReadOncePerTransaction() throws Exception {
+		final Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		SnowFlake sf = new SnowFlake();
+		sf.setDescription( "Snowflake 1" );
+		session.persist( sf );
+		Cloud cloud = new Cloud();
+		cloud.setLength( 23 );
+		cloud.getProducedSnowFlakes().add( sf );
+		session.persist( cloud );
+		transaction.commit();
+		session.clear();
+
+		AssociationCacheService associationCache = sfi().getServiceRegistry().getService( AssociationCacheService.class );
+
+		transaction = session.beginTransaction();
+		long misses = associationCache.getMissCount();
+		cloud = (Cloud) session.get( Cloud.class, cloud.getId() );
+		assertThat( cloud.getProducedSnowFlakes() ).hasSize( 1 );
+		assertThat( associationCache.getMissCount() ).isGreaterThan( misses );
+
+		// loading the collection again in the same transaction does not read it from the datastore
+		session.clear();
+		long hits = associationCache.getHitCount();
+		misses = associationCache.getMissCount();
+		cloud = (Cloud) session.get( Cloud.class, cloud.getId() );
+		assertThat( cloud.getProducedSnowFlakes() ).hasSize( 1 );
+		assertThat( associationCache.getHitCount() ).isGreaterThan( hits );
+		assertThat( associationCache.getMissCount() ).isEqualTo( misses );
+
+		// the association is read again once it has been written
+		SnowFlake sf2 = new SnowFlake();
+		sf2.setDescription( "Snowflake 2" );
+		session.persist( sf2 );
+		cloud.getProducedSnowFlakes().add( sf2 );
+		session.flush();
+		session.clear();
+		misses = associationCache.getMissCount();
+		cloud = (Cloud) session.get( Cloud.class, cloud.getId() );
+		assertThat( cloud.getProducedSnowFlakes() ).hasSize( 2 );
+		assertThat( associationCache.getMissCount() ).isGreaterThan( misses );
+		transaction.commit();
+		session.clear();
+
+		// the cache does not outlive the transaction
+		transaction = session.beginTransaction();
+		misses = associationCache.getMissCount();
+		cloud = (Cloud) session.get( Cloud.class, cloud.getId() );
+		assertThat( cloud.getProducedSnowFlakes() ).hasSize( 2 );
+		assertThat( associationCache.getMissCount() ).isGreaterThan( misses );
+
+		for ( SnowFlake current : cloud.getProducedSnowFlakes() ) {
+			session.delete( current );
+		}
+		session.delete( cloud );
+		transaction.commit();
+		session.close();
+
+		checkCleanCache();
+	}
+
+	@Test
+	public void testAssociationIsReadAgainWhenRefreshing() throws Exception {
+		final Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		SnowFlake sf = new SnowFlake();
+		sf.setDescription( "Snowflake 1" );
+		session.persist( sf );
+		Cloud cloud = new Cloud();
+		cloud.setLength( 23 );
+		cloud.getProducedSnowFlakes().add( sf );
+		session.persist( cloud );
+		transaction.commit();
+		session.clear();
+
+		AssociationCacheService associationCache = sfi().getServiceRegistry().getService( AssociationCacheService.class );
+
+		transaction = session.beginTransaction();
+		cloud = (Cloud) session.get( Cloud.class, cloud.getId() );
+		assertThat( cloud.getProducedSnowFlakes() ).hasSize( 1 );
+
+		long misses = associationCache.getMissCount();
+		session.refresh( cloud );
+		assertThat( cloud.getProducedSnowFlakes() ).hasSize( 1 );
+		assertThat( associationCache.getMissCount() ).isGreaterThan( misses );
+
+		session.delete( cloud.getProducedSnowFlakes().iterator().next() );
+		session.delete( cloud );
+		transaction.commit();
+		session.close();
+
+		checkCleanCache();
+	}
+
+	@Test
+	public void testAssociationIsReadAgainForOtherRowKeyColumns() throws Exception {
+		final Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+
+		AssociationCacheService associationCache = sfi().getServiceRegistry().getService( AssociationCacheService.class );
+		GridDialect gridDialect = sfi().getServiceRegistry().getService( GridDialect.class );
+		AssociationContext associationContext = new AssociationContext( new PropertyOptionsContext( new WritableOptionsServiceContext(), Cloud.class, "producedSnowFlakes" ) );
+
+		long misses = associationCache.getMissCount();
+		associationCache.getAssociation( (SessionImplementor) session, associationKey( "cloud_id", "snowflake_id" ), associationContext, gridDialect );
+		associationCache.getAssociation( (SessionImplementor) session, associationKey( "cloud_id", "snowflake_id" ), associationContext, gridDialect );
+		assertThat( associationCache.getMissCount() ).isEqualTo( misses + 1 );
+
+		// the keys of the cached rows would not match the ones of the caller
+		associationCache.getAssociation( (SessionImplementor) session, associationKey( "snowflake_id", "cloud_id" ), associationContext, gridDialect );
+		assertThat( associationCache.getMissCount() ).isEqualTo( misses + 2 );
+
+		transaction.commit();
+		session.close();
+	}
+
+	private AssociationKey associationKey(String... rowKeyColumnNames) {
+		AssociationKeyMetadata metadata = new AssociationKeyMetadata( "Cloud_SnowFlake", new String[] { "cloud_id" } );
+		metadata.setRowKeyColumnNames( rowKeyColumnNames );
+		EntityKey entityKey = new EntityKey( new EntityKeyMetadata( "Cloud", new String[] { "id" } ), new Object[] { "cloud-1" } );
+		return new AssociationKey( metadata, new Object[] { "cloud-1" }, "producedSnowFlakes", entityKey, AssociationKind.ASSOCIATION );
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class<?>[] { Cloud.class, SnowFlake.class };
+	}
+}
@@ -0,0 +1,145 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.associations.manytoone;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.ogm.cfg.OgmProperties;
+import org.hibernate.ogm.dialect.metrics.GridDialectMetrics;
+import org.hibernate.ogm.dialect.metrics.GridDialectOperation;
+import org.hibernate.ogm.test.utils.OgmTestCase;
+import org.junit.Test;
+
+/**
+ * Test that the inverse side of a many-to-one association is only written when the foreign key changes, once per
+ * association and flush.
+ */
+public class ManyToOneInverseSideTest extends OgmTestCase {
+
+	@Test
+	public void testInverseSideIsWrittenOncePerFlushAndOnlyWhenForeignKeyChanges() throws Exception {
+		GridDialectMetrics metrics = sfi().getServiceRegistry().getService( GridDialectMetrics.class );
+
+		final Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		SalesForce redHat = new SalesForce();
+		redHat.setCorporation( "Red Hat" );
+		session.persist( redHat );
+		SalesForce jboss = new SalesForce();
+		jboss.setCorporation( "JBoss" );
+		session.persist( jboss );
+		SalesGuy eric = createSalesGuy( session, "Eric", redHat );
+		SalesGuy simon = createSalesGuy( session, "Simon", redHat );
+		SalesGuy emmanuel = createSalesGuy( session, "Emmanuel", redHat );
+		metrics.clear();
+		transaction.commit();
+		session.clear();
+
+		// the rows of all the sales guys are added with a single read of the association
+		assertThat( associationReads( metrics ) ).isEqualTo( 1 );
+
+		transaction = session.beginTransaction();
+		eric = (SalesGuy) session.get( SalesGuy.class, eric.getId() );
+		eric.setName( "Eric the second" );
+		metrics.clear();
+		transaction.commit();
+		session.clear();
+
+		// the foreign key did not change
+		assertThat( associationReads( metrics ) ).isEqualTo( 0 );
+		assertThat( metrics.getStatistics( GridDialectOperation.UPDATE_ASSOCIATION ).getCount() ).isEqualTo( 0 );
+		assertThat( metrics.getStatistics( GridDialectOperation.REMOVE_ASSOCIATION ).getCount() ).isEqualTo( 0 );
+
+		transaction = session.beginTransaction();
+		simon = (SalesGuy) session.get( SalesGuy.class, simon.getId() );
+		simon.setSalesForce( (SalesForce) session.get( SalesForce.class, jboss.getId() ) );
+		transaction.commit();
+		session.clear();
+
+		transaction = session.beginTransaction();
+		redHat = (SalesForce) session.get( SalesForce.class, redHat.getId() );
+		assertThat( redHat.getSalesGuys() ).onProperty( "name" ).containsOnly( "Eric the second", "Emmanuel" );
+		jboss = (SalesForce) session.get( SalesForce.class, jboss.getId() );
+		assertThat( jboss.getSalesGuys() ).onProperty( "name" ).containsOnly( "Simon" );
+
+		session.delete( session.get( SalesGuy.class, eric.getId() ) );
+		session.delete( session.get( SalesGuy.class, simon.getId() ) );
+		session.delete( session.get( SalesGuy.class, emmanuel.getId() ) );
+		session.delete( redHat );
+		session.delete( jboss );
+		transaction.commit();
+		session.close();
+
+		checkCleanCache();
+	}
+
+	@Test
+	public void testInverseSideIsWrittenBeforeOwnerIsRemovedInSameFlush() throws Exception {
+		final Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		SalesForce redHat = new SalesForce();
+		redHat.setCorporation( "Red Hat" );
+		session.persist( redHat );
+		SalesGuy eric = createSalesGuy( session, "Eric", redHat );
+		transaction.commit();
+		session.clear();
+
+		transaction = session.beginTransaction();
+		session.delete( session.get( SalesGuy.class, eric.getId() ) );
+		session.delete( session.get( SalesForce.class, redHat.getId() ) );
+		transaction.commit();
+		session.clear();
+
+		// writing the emptied association after the removal would re-create the sales force in some datastores
+		transaction = session.beginTransaction();
+		assertThat( session.get( SalesForce.class, redHat.getId() ) ).isNull();
+		transaction.commit();
+		session.close();
+
+		checkCleanCache();
+	}
+
+	private SalesGuy createSalesGuy(Session session, String name, SalesForce force) {
+		SalesGuy salesGuy = new SalesGuy();
+		salesGuy.setName( name );
+		salesGuy.setSalesForce( force );
+		force.getSalesGuys().add( salesGuy );
+		session.persist( salesGuy );
+		return salesGuy;
+	}
+
+	private long associationReads(GridDialectMetrics metrics) {
+		return metrics.getStatistics( GridDialectOperation.GET_ASSOCIATION, "SalesGuy" ).getCount();
+	}
+
+	@Override
+	protected void configure(Configuration cfg) {
+		cfg.setProperty( OgmProperties.DIALECT_METRICS, "true" );
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class<?>[] { SalesForce.class, SalesGuy.class };
+	}
+}
@@ -0,0 +1,205 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.batch;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.hibernate.HibernateException;
+import org.hibernate.ogm.datastore.spi.Tuple;
+import org.hibernate.ogm.datastore.spi.TupleContext;
+import org.hibernate.ogm.dialect.BatchOperationsDelegator;
+import org.hibernate.ogm.dialect.batch.Operation;
+import org.hibernate.ogm.dialect.batch.OperationsQueue;
+import org.hibernate.ogm.dialect.batch.RemoveTupleOperation;
+import org.hibernate.ogm.dialect.batch.UpdateTupleOperation;
+import org.hibernate.ogm.grid.EntityKey;
+import org.hibernate.ogm.grid.EntityKeyMetadata;
+import org.hibernate.ogm.test.batch.BatchExecutionTest.SampleBatchableDialect;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test the dispatching of the batched operations by {@link BatchOperationsDelegator}.
+ */
+public class BatchDispatchTest {
+
+	private RecordingDialect dialect;
+	private BatchOperationsDelegator delegator;
+
+	@Before
+	public void setUp() {
+		dialect = new RecordingDialect();
+		delegator = new BatchOperationsDelegator( dialect );
+		delegator.prepareBatch();
+	}
+
+	@After
+	public void tearDown() {
+		delegator.clearBatch();
+		delegator.stop();
+	}
+
+	@Test
+	public void testOperationsOfDifferentTablesAreExecutedSeparately() throws Exception {
+		delegator.updateTuple( new Tuple(), key( "Hypothesis", 1 ) );
+		delegator.updateTuple( new Tuple(), key( "Helicopter", 1 ) );
+		delegator.removeTuple( key( "Hypothesis", 2 ) );
+
+		delegator.executeBatch();
+
+		assertThat( dialect.batches ).hasSize( 2 );
+		List<Operation> hypotheses = dialect.getBatch( "Hypothesis" );
+		assertThat( hypotheses ).hasSize( 2 );
+		assertThat( ( (UpdateTupleOperation) hypotheses.get( 0 ) ).getEntityKey() ).isEqualTo( key( "Hypothesis", 1 ) );
+		assertThat( ( (RemoveTupleOperation) hypotheses.get( 1 ) ).getEntityKey() ).isEqualTo( key( "Hypothesis", 2 ) );
+		assertThat( dialect.getBatch( "Helicopter" ) ).hasSize( 1 );
+	}
+
+	@Test
+	public void testOperationsOfOneTableAreExecutedInOneBatch() throws Exception {
+		delegator.updateTuple( new Tuple(), key( "Hypothesis", 1 ) );
+		delegator.updateTuple( new Tuple(), key( "Hypothesis", 2 ) );
+
+		delegator.executeBatch();
+
+		assertThat( dialect.batches ).hasSize( 1 );
+		assertThat( dialect.getBatch( "Hypothesis" ) ).hasSize( 2 );
+	}
+
+	@Test
+	public void testFailureIsPropagatedOnceAllBatchesAreExecuted() throws Exception {
+		dialect.failingTable = "Helicopter";
+		delegator.updateTuple( new Tuple(), key( "Hypothesis", 1 ) );
+		delegator.updateTuple( new Tuple(), key( "Helicopter", 1 ) );
+		delegator.updateTuple( new Tuple(), key( "SuperHero", 1 ) );
+
+		try {
+			delegator.executeBatch();
+			fail( "The failure of a batch should be propagated" );
+		}
+		catch (HibernateException e) {
+			assertThat( e.getMessage() ).isEqualTo( "Helicopter" );
+		}
+		assertThat( dialect.batches ).hasSize( 2 );
+	}
+
+	@Test
+	public void testGivenQueueIsExecuted() throws Exception {
+		OperationsQueue queue = new OperationsQueue();
+		queue.add( new UpdateTupleOperation( new Tuple(), key( "Hypothesis", 1 ) ) );
+		queue.add( new UpdateTupleOperation( new Tuple(), key( "Helicopter", 1 ) ) );
+
+		delegator.executeBatch( queue );
+
+		assertThat( dialect.batches ).hasSize( 2 );
+		assertThat( queue.isClosed() ).isTrue();
+	}
+
+	@Test
+	public void testOperationsAreExecutedByFlushingThreadWithoutDispatchThreads() throws Exception {
+		delegator.clearBatch();
+		delegator.stop();
+		delegator = new BatchOperationsDelegator( dialect, 0 );
+		delegator.prepareBatch();
+
+		delegator.updateTuple( new Tuple(), key( "Hypothesis", 1 ) );
+		delegator.updateTuple( new Tuple(), key( "Helicopter", 1 ) );
+
+		delegator.executeBatch();
+
+		assertThat( dialect.batches ).hasSize( 1 );
+		assertThat( dialect.batches.get( 0 ) ).hasSize( 2 );
+	}
+
+	@Test
+	public void testUpdateWithOptimisticLockIsQueuedWithItsLockState() throws Exception {
+		Tuple oldLockState = new Tuple();
+		oldLockState.put( "version", 1 );
+		delegator.updateTuple( new Tuple(), key( "Hypothesis", 1 ) );
+
+		boolean updated = delegator.updateTupleWithOptimisticLock( key( "Hypothesis", 1 ), oldLockState, new Tuple(), new TupleContext( Collections.<String>emptyList() ) );
+
+		assertThat( updated ).isTrue();
+		assertThat( dialect.batches ).isEmpty();
+
+		delegator.executeBatch();
+
+		List<Operation> hypotheses = dialect.getBatch( "Hypothesis" );
+		assertThat( hypotheses ).hasSize( 2 );
+		assertThat( ( (UpdateTupleOperation) hypotheses.get( 0 ) ).getOldLockState() ).isNull();
+		assertThat( ( (UpdateTupleOperation) hypotheses.get( 1 ) ).getOldLockState() ).isSameAs( oldLockState );
+	}
+
+	private static EntityKey key(String table, long id) {
+		return new EntityKey( new EntityKeyMetadata( table, new String[] { "id" } ), new Object[] { id } );
+	}
+
+	private static class RecordingDialect extends SampleBatchableDialect {
+
+		private final List<List<Operation>> batches = Collections.synchronizedList( new ArrayList<List<Operation>>() );
+
+		private volatile String failingTable;
+
+		public RecordingDialect() {
+			super( null );
+		}
+
+		@Override
+		public void executeBatch(OperationsQueue queue) {
+			List<Operation> operations = new ArrayList<Operation>();
+			Operation operation = queue.poll();
+			while ( operation != null ) {
+				operations.add( operation );
+				operation = queue.poll();
+			}
+			queue.close();
+
+			if ( getTable( operations.get( 0 ) ).equals( failingTable ) ) {
+				throw new HibernateException( failingTable );
+			}
+			batches.add( operations );
+		}
+
+		List<Operation> getBatch(String table) {
+			synchronized ( batches ) {
+				for ( List<Operation> batch : batches ) {
+					if ( getTable( batch.get( 0 ) ).equals( table ) ) {
+						return batch;
+					}
+				}
+			}
+			return null;
+		}
+
+		private static String getTable(Operation operation) {
+			if ( operation instanceof UpdateTupleOperation ) {
+				return ( (UpdateTupleOperation) operation ).getEntityKey().getTable();
+			}
+			return ( (RemoveTupleOperation) operation ).getEntityKey().getTable();
+		}
+	}
+}
@@ -23,8 +23,13 @@
 import org.fest.assertions.Assertions;
 import org.hibernate.HibernateException;
 import org.hibernate.ogm.dialect.batch.OperationsQueue;
+import org.hibernate.ogm.dialect.batch.RemoveAssociationOperation;
 import org.hibernate.ogm.dialect.batch.RemoveTupleOperation;
+import org.hibernate.ogm.dialect.batch.UpdateAssociationOperation;
 import org.hibernate.ogm.dialect.batch.UpdateTupleOperation;
+import org.hibernate.ogm.grid.AssociationKey;
+import org.hibernate.ogm.grid.AssociationKeyMetadata;
+import org.hibernate.ogm.grid.AssociationKind;
 import org.hibernate.ogm.grid.EntityKey;
 import org.hibernate.ogm.grid.EntityKeyMetadata;
 import org.junit.Before;
@@ -117,6 +122,68 @@ public void testQueueSizeWhenAddingRemoveTupleOperation() throws Exception {
 		Assertions.assertThat( 1 ).isEqualTo( queue.size() );
 	}
 
+	@Test
+	public void testContainsKeyIsFalseOncePolled() throws Exception {
+		EntityKey key = entityKey();
+		queue.add( new UpdateTupleOperation( null, key ) );
+		queue.poll();
+
+		Assertions.assertThat( queue.contains( key ) ).isFalse();
+	}
+
+	@Test
+	public void testContainsKeyUntilTheLastUpdateIsPolled() throws Exception {
+		EntityKey key = entityKey();
+		queue.add( new UpdateTupleOperation( null, key ) );
+		queue.add( new UpdateTupleOperation( null, key ) );
+		queue.poll();
+
+		Assertions.assertThat( queue.contains( key ) ).isTrue();
+	}
+
+	@Test
+	public void testGetTupleOperationsInTheOrderTheyHaveBeenAdded() throws Exception {
+		EntityKey key = entityKey();
+		UpdateTupleOperation update = new UpdateTupleOperation( null, key );
+		RemoveTupleOperation remove = new RemoveTupleOperation( key );
+		queue.add( update );
+		queue.add( new RemoveAssociationOperation( associationKey( key ), null ) );
+		queue.add( remove );
+
+		Assertions.assertThat( queue.getOperations( key ) ).containsExactly( update, remove );
+	}
+
+	@Test
+	public void testGetAssociationOperations() throws Exception {
+		AssociationKey key = associationKey( entityKey() );
+		UpdateAssociationOperation update = new UpdateAssociationOperation( null, key, null );
+		RemoveAssociationOperation remove = new RemoveAssociationOperation( key, null );
+		queue.add( update );
+		queue.add( new UpdateTupleOperation( null, key.getEntityKey() ) );
+		queue.add( remove );
+
+		Assertions.assertThat( queue.getOperations( key ) ).containsExactly( update, remove );
+
+		queue.poll();
+		Assertions.assertThat( queue.getOperations( key ) ).containsExactly( remove );
+	}
+
+	@Test
+	public void testNoOperationsOnceClosed() throws Exception {
+		AssociationKey key = associationKey( entityKey() );
+		queue.add( new UpdateAssociationOperation( null, key, null ) );
+		queue.add( new UpdateTupleOperation( null, key.getEntityKey() ) );
+		queue.close();
+
+		Assertions.assertThat( queue.getOperations( key ) ).isEmpty();
+		Assertions.assertThat( queue.getOperations( key.getEntityKey() ) ).isEmpty();
+	}
+
+	private AssociationKey associationKey(EntityKey entityKey) {
+		AssociationKeyMetadata keyMetadata = new AssociationKeyMetadata( "AssociationTable", new String[] {} );
+		return new AssociationKey( keyMetadata, new Object[] {}, "role", entityKey, AssociationKind.ASSOCIATION );
+	}
+
 	private EntityKey entityKey() {
 		EntityKeyMetadata keyMetadata = new EntityKeyMetadata( "MetadataTable", new String[] {} );
 		EntityKey key = new EntityKey( keyMetadata, new Object[] {} );
@@ -0,0 +1,204 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.datastore;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.Map;
+
+import org.hibernate.Session;
+import org.hibernate.StaleObjectStateException;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.ogm.cfg.OgmProperties;
+import org.hibernate.ogm.datastore.impl.MapHelpers;
+import org.hibernate.ogm.datastore.map.impl.HashMapDialect;
+import org.hibernate.ogm.datastore.map.impl.MapDatastoreProvider;
+import org.hibernate.ogm.datastore.spi.Tuple;
+import org.hibernate.ogm.datastore.spi.TupleContext;
+import org.hibernate.ogm.datastore.spi.TupleSnapshot;
+import org.hibernate.ogm.dialect.DeltaUpdateGridDialect;
+import org.hibernate.ogm.grid.EntityKey;
+import org.hibernate.ogm.test.simpleentity.Hypothesis;
+import org.hibernate.ogm.test.utils.OgmTestCase;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test that entities are updated without being read from the datastore when the dialect is a
+ * {@link DeltaUpdateGridDialect}, their version being checked by the dialect while updating them.
+ */
+public class DeltaUpdateTest extends OgmTestCase {
+
+	static int tuplesRead = 0;
+	static int tuplesCreatedForUpdate = 0;
+
+	@Before
+	public void resetCounters() {
+		tuplesRead = 0;
+		tuplesCreatedForUpdate = 0;
+	}
+
+	@Test
+	public void testUpdateDoesNotReadTuple() throws Exception {
+		Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		Hypothesis hypothesis = new Hypothesis();
+		hypothesis.setId( "delta-1" );
+		hypothesis.setDescription( "The tuple is read before each update" );
+		hypothesis.setPosition( 3 );
+		session.persist( hypothesis );
+		transaction.commit();
+		session.clear();
+
+		transaction = session.beginTransaction();
+		hypothesis = (Hypothesis) session.get( Hypothesis.class, "delta-1" );
+		resetCounters();
+		hypothesis.setDescription( "The tuple is built from the loaded state" );
+		transaction.commit();
+		session.clear();
+
+		assertThat( tuplesRead ).isEqualTo( 0 );
+		assertThat( tuplesCreatedForUpdate ).isEqualTo( 1 );
+
+		transaction = session.beginTransaction();
+		hypothesis = (Hypothesis) session.get( Hypothesis.class, "delta-1" );
+		assertThat( hypothesis.getDescription() ).isEqualTo( "The tuple is built from the loaded state" );
+		assertThat( hypothesis.getPosition() ).isEqualTo( 3 );
+		session.delete( hypothesis );
+		transaction.commit();
+		session.close();
+	}
+
+	@Test
+	public void testUpdateOfVersionedEntityDoesNotReadTuple() throws Exception {
+		Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		Manuscript manuscript = new Manuscript();
+		manuscript.setId( "delta-2" );
+		manuscript.setTitle( "Draft" );
+		session.persist( manuscript );
+		transaction.commit();
+		session.clear();
+
+		transaction = session.beginTransaction();
+		manuscript = (Manuscript) session.get( Manuscript.class, "delta-2" );
+		resetCounters();
+		manuscript.setTitle( "Final" );
+		transaction.commit();
+		session.clear();
+
+		// the version is checked by the dialect while updating the tuple
+		assertThat( tuplesRead ).isEqualTo( 0 );
+		assertThat( tuplesCreatedForUpdate ).isEqualTo( 1 );
+
+		transaction = session.beginTransaction();
+		manuscript = (Manuscript) session.get( Manuscript.class, "delta-2" );
+		assertThat( manuscript.getTitle() ).isEqualTo( "Final" );
+		assertThat( manuscript.getVersion() ).isEqualTo( 1 );
+		session.delete( manuscript );
+		transaction.commit();
+		session.close();
+	}
+
+	@Test
+	public void testConcurrentUpdateOfVersionedEntityIsDetected() throws Exception {
+		Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		Manuscript manuscript = new Manuscript();
+		manuscript.setId( "delta-3" );
+		manuscript.setTitle( "Draft" );
+		session.persist( manuscript );
+		transaction.commit();
+		session.clear();
+
+		transaction = session.beginTransaction();
+		manuscript = (Manuscript) session.get( Manuscript.class, "delta-3" );
+
+		Session concurrentSession = openSession();
+		Transaction concurrentTransaction = concurrentSession.beginTransaction();
+		( (Manuscript) concurrentSession.get( Manuscript.class, "delta-3" ) ).setTitle( "Reviewed" );
+		concurrentTransaction.commit();
+		concurrentSession.close();
+
+		manuscript.setTitle( "Final" );
+		try {
+			session.flush();
+			fail( "The concurrent update should have been detected" );
+		}
+		catch (StaleObjectStateException e) {
+			// expected
+		}
+		transaction.rollback();
+		session.clear();
+
+		transaction = session.beginTransaction();
+		manuscript = (Manuscript) session.get( Manuscript.class, "delta-3" );
+		assertThat( manuscript.getTitle() ).isEqualTo( "Reviewed" );
+		assertThat( manuscript.getVersion() ).isEqualTo( 1 );
+		session.delete( manuscript );
+		transaction.commit();
+		session.close();
+	}
+
+	@Override
+	protected void configure(Configuration cfg) {
+		cfg.setProperty( OgmProperties.DATASTORE_PROVIDER, MapDatastoreProvider.class.getName() );
+		cfg.setProperty( OgmProperties.GRID_DIALECT, DeltaUpdateMapDialect.class.getName() );
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class<?>[] { Hypothesis.class, Manuscript.class };
+	}
+
+	/**
+	 * Applies the changes of the updated tuples to the stored maps, whatever the snapshot of the tuple is.
+	 */
+	public static class DeltaUpdateMapDialect extends HashMapDialect implements DeltaUpdateGridDialect {
+
+		private final MapDatastoreProvider provider;
+
+		public DeltaUpdateMapDialect(MapDatastoreProvider provider) {
+			super( provider );
+			this.provider = provider;
+		}
+
+		@Override
+		public Tuple getTuple(EntityKey key, TupleContext tupleContext) {
+			tuplesRead++;
+			return super.getTuple( key, tupleContext );
+		}
+
+		@Override
+		public Tuple createTupleForUpdate(EntityKey key, TupleSnapshot loadedState, TupleContext tupleContext) {
+			tuplesCreatedForUpdate++;
+			return new Tuple( loadedState, tupleContext.getColumnIndex() );
+		}
+
+		@Override
+		public void updateTuple(Tuple tuple, EntityKey key) {
+			Map<String, Object> entityRecord = provider.getEntityTuple( key );
+			MapHelpers.applyTupleOpsOnMap( tuple, entityRecord );
+		}
+	}
+}
@@ -0,0 +1,160 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.datastore;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.ogm.cfg.OgmProperties;
+import org.hibernate.ogm.datastore.map.impl.HashMapDialect;
+import org.hibernate.ogm.datastore.map.impl.MapDatastoreProvider;
+import org.hibernate.ogm.datastore.spi.Tuple;
+import org.hibernate.ogm.datastore.spi.TupleContext;
+import org.hibernate.ogm.dialect.DuplicateInsertAwareGridDialect;
+import org.hibernate.ogm.dialect.GridDialect;
+import org.hibernate.ogm.dialect.impl.GridDialects;
+import org.hibernate.ogm.grid.EntityKey;
+import org.hibernate.ogm.grid.EntityKeyMetadata;
+import org.hibernate.ogm.persister.OgmEntityPersister;
+import org.hibernate.ogm.test.simpleentity.Hypothesis;
+import org.hibernate.ogm.test.utils.OgmTestCase;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test that entities with a generated identifier are inserted without checking beforehand whether their key is in use
+ * when the dialect is a {@link DuplicateInsertAwareGridDialect}, duplicates being detected by the dialect itself.
+ */
+public class DuplicateInsertTest extends OgmTestCase {
+
+	static int tuplesRead = 0;
+	static int tuplesCreatedForInsert = 0;
+
+	@Before
+	public void resetCounters() {
+		tuplesRead = 0;
+		tuplesCreatedForInsert = 0;
+	}
+
+	@Test
+	public void testInsertWithGeneratedIdDoesNotReadTuple() throws Exception {
+		Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		Noise noise = new Noise();
+		noise.setFrequency( 440d );
+		session.persist( noise );
+		transaction.commit();
+		session.clear();
+
+		assertThat( tuplesRead ).isEqualTo( 0 );
+		assertThat( tuplesCreatedForInsert ).isEqualTo( 1 );
+
+		transaction = session.beginTransaction();
+		noise = (Noise) session.get( Noise.class, noise.getId() );
+		assertThat( noise.getFrequency() ).isEqualTo( 440d );
+		session.delete( noise );
+		transaction.commit();
+		session.close();
+	}
+
+	@Test
+	public void testInsertWithAssignedIdReadsTuple() throws Exception {
+		Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		Hypothesis hypothesis = new Hypothesis();
+		hypothesis.setId( "duplicate-1" );
+		hypothesis.setDescription( "An assigned id may be in use already" );
+		session.persist( hypothesis );
+		transaction.commit();
+		session.clear();
+
+		assertThat( tuplesRead ).isEqualTo( 1 );
+		assertThat( tuplesCreatedForInsert ).isEqualTo( 0 );
+
+		transaction = session.beginTransaction();
+		session.delete( session.get( Hypothesis.class, "duplicate-1" ) );
+		transaction.commit();
+		session.close();
+	}
+
+	@Test
+	public void testDuplicateIsDetectedByDialect() throws Exception {
+		Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		Noise noise = new Noise();
+		noise.setFrequency( 880d );
+		session.persist( noise );
+		transaction.commit();
+		session.clear();
+
+		GridDialect gridDialect = sfi().getServiceRegistry().getService( GridDialect.class );
+		OgmEntityPersister persister = (OgmEntityPersister) sfi().getEntityPersister( Noise.class.getName() );
+		EntityKey key = new EntityKey( new EntityKeyMetadata( persister.getTableName(), persister.getIdentifierColumnNames() ), new Object[] { noise.getId() } );
+		try {
+			GridDialects.createTupleForInsert( gridDialect, key, persister.getTupleContext() );
+			fail( "The existing entity should have been detected" );
+		}
+		catch (HibernateException e) {
+			// expected
+		}
+
+		transaction = session.beginTransaction();
+		noise = (Noise) session.get( Noise.class, noise.getId() );
+		assertThat( noise.getFrequency() ).isEqualTo( 880d );
+		session.delete( noise );
+		transaction.commit();
+		session.close();
+	}
+
+	@Override
+	protected void configure(Configuration cfg) {
+		cfg.setProperty( OgmProperties.DATASTORE_PROVIDER, MapDatastoreProvider.class.getName() );
+		cfg.setProperty( OgmProperties.GRID_DIALECT, CountingMapDialect.class.getName() );
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class<?>[] { Noise.class, Hypothesis.class };
+	}
+
+	public static class CountingMapDialect extends HashMapDialect {
+
+		public CountingMapDialect(MapDatastoreProvider provider) {
+			super( provider );
+		}
+
+		@Override
+		public Tuple getTuple(EntityKey key, TupleContext tupleContext) {
+			tuplesRead++;
+			return super.getTuple( key, tupleContext );
+		}
+
+		@Override
+		public Tuple createTupleForInsert(EntityKey key, TupleContext tupleContext) {
+			tuplesCreatedForInsert++;
+			return super.createTupleForInsert( key, tupleContext );
+		}
+	}
+}
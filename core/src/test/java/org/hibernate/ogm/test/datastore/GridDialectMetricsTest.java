@@ -0,0 +1,142 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.datastore;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.ogm.cfg.OgmProperties;
+import org.hibernate.ogm.dialect.metrics.GridDialectMetrics;
+import org.hibernate.ogm.dialect.metrics.GridDialectMetricsListener;
+import org.hibernate.ogm.dialect.metrics.GridDialectMetricsMBean;
+import org.hibernate.ogm.dialect.metrics.GridDialectOperation;
+import org.hibernate.ogm.dialect.metrics.OperationStatistics;
+import org.hibernate.ogm.test.simpleentity.Hypothesis;
+import org.hibernate.ogm.test.utils.OgmTestCase;
+import org.junit.Test;
+
+/**
+ * Test for the metrics collected about the operations of the grid dialect.
+ */
+public class GridDialectMetricsTest extends OgmTestCase {
+
+	// the session factory is shared by all test methods
+	private static final RecordingListener listener = new RecordingListener();
+
+	@Test
+	public void testMetricsAreRecordedPerOperationAndTable() throws Exception {
+		Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		Hypothesis hypothesis = new Hypothesis();
+		hypothesis.setId( "metrics-1" );
+		hypothesis.setDescription( "Operations can be measured" );
+		session.persist( hypothesis );
+		transaction.commit();
+		session.clear();
+
+		GridDialectMetrics metrics = sfi().getServiceRegistry().getService( GridDialectMetrics.class );
+		assertThat( metrics.isEnabled() ).isTrue();
+		metrics.clear();
+		listener.operations.clear();
+
+		transaction = session.beginTransaction();
+		hypothesis = (Hypothesis) session.get( Hypothesis.class, "metrics-1" );
+		assertThat( hypothesis.getDescription() ).isEqualTo( "Operations can be measured" );
+
+		OperationStatistics reads = metrics.getStatistics( GridDialectOperation.GET_TUPLE, "Hypothesis" );
+		assertThat( reads.getCount() ).isEqualTo( 1 );
+		assertThat( reads.getMaxSize() ).isGreaterThan( 0 );
+		assertThat( sum( reads.getLatencyHistogram() ) ).isEqualTo( 1 );
+		assertThat( metrics.getStatistics( GridDialectOperation.GET_TUPLE ).getCount() ).isEqualTo( 1 );
+		assertThat( metrics.getTables() ).containsOnly( "Hypothesis" );
+		assertThat( listener.operations ).containsOnly( GridDialectOperation.GET_TUPLE + "@Hypothesis" );
+
+		session.delete( hypothesis );
+		transaction.commit();
+		session.close();
+
+		// a removal is either executed directly or as part of a batch
+		long removals = metrics.getStatistics( GridDialectOperation.REMOVE_TUPLE ).getCount()
+				+ metrics.getStatistics( GridDialectOperation.EXECUTE_BATCH ).getCount();
+		assertThat( removals ).isGreaterThan( 0 );
+	}
+
+	@Test
+	public void testMetricsArePublishedViaJmx() throws Exception {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		Set<ObjectName> names = server.queryNames( new ObjectName( GridDialectMetricsMBean.JMX_DOMAIN + ":type=GridDialectMetrics,*" ), null );
+		assertThat( names ).hasSize( 1 );
+
+		Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		session.get( Hypothesis.class, "metrics-2" );
+		transaction.commit();
+		session.close();
+
+		Object count = server.invoke(
+				names.iterator().next(),
+				"getCount",
+				new Object[] { GridDialectOperation.GET_TUPLE.name() },
+				new String[] { String.class.getName() }
+		);
+		assertThat( (Long) count ).isGreaterThan( 0 );
+	}
+
+	private long sum(long[] values) {
+		long sum = 0;
+		for ( long value : values ) {
+			sum += value;
+		}
+		return sum;
+	}
+
+	@Override
+	protected void configure(Configuration cfg) {
+		cfg.getProperties().put( OgmProperties.DIALECT_METRICS_LISTENER, listener );
+		cfg.setProperty( OgmProperties.DIALECT_METRICS_JMX, "true" );
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class<?>[] { Hypothesis.class };
+	}
+
+	private static class RecordingListener implements GridDialectMetricsListener {
+
+		private final List<String> operations = Collections.synchronizedList( new ArrayList<String>() );
+
+		@Override
+		public void operationExecuted(GridDialectOperation operation, String table, long durationInNanos, int size) {
+			operations.add( operation + "@" + table );
+		}
+	}
+}
@@ -0,0 +1,145 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.datastore;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.hibernate.ogm.datastore.impl.MapTupleSnapshot;
+import org.hibernate.ogm.datastore.spi.ColumnIndex;
+import org.hibernate.ogm.datastore.spi.Tuple;
+import org.hibernate.ogm.datastore.spi.TupleOperation;
+import org.hibernate.ogm.datastore.spi.TupleOperationType;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link Tuple}, in particular when created with a {@link ColumnIndex}.
+ */
+public class TupleTest {
+
+	private final ColumnIndex columnIndex = new ColumnIndex( Arrays.asList( "id", "name", "age", "city" ) );
+
+	@Test
+	public void getShouldReturnSnapshotValueOfUnchangedColumn() {
+		Tuple tuple = new Tuple( snapshot(), columnIndex );
+
+		assertThat( tuple.get( "name" ) ).isEqualTo( "Bob" );
+		assertThat( tuple.getOperations() ).isEmpty();
+		assertThat( tuple.getColumnNames() ).containsOnly( "id", "name", "city" );
+	}
+
+	@Test
+	public void getShouldReturnChangedValues() {
+		Tuple tuple = new Tuple( snapshot(), columnIndex );
+		tuple.put( "name", "Alice" );
+		tuple.put( "age", null );
+		tuple.remove( "city" );
+		tuple.put( "unindexed", 42 );
+
+		assertThat( tuple.get( "name" ) ).isEqualTo( "Alice" );
+		assertThat( tuple.get( "age" ) ).isNull();
+		assertThat( tuple.get( "city" ) ).isNull();
+		assertThat( tuple.get( "unindexed" ) ).isEqualTo( 42 );
+		assertThat( tuple.getColumnNames() ).containsOnly( "id", "name", "age", "unindexed" );
+	}
+
+	@Test
+	public void getOperationsShouldReturnOneOperationPerChangedColumn() {
+		Tuple tuple = new Tuple( snapshot(), columnIndex );
+		tuple.put( "name", "Alice" );
+		tuple.put( "name", "Carol" );
+		tuple.put( "age", null );
+		tuple.remove( "city" );
+		tuple.put( "unindexed", 42 );
+
+		assertThat( operations( tuple ) ).containsOnly(
+				"PUT name=Carol",
+				"PUT_NULL age=null",
+				"REMOVE city=null",
+				"PUT unindexed=42"
+		);
+	}
+
+	@Test
+	public void putAfterRemoveShouldResultInPut() {
+		Tuple tuple = new Tuple( snapshot(), columnIndex );
+		tuple.remove( "city" );
+		tuple.put( "city", "Paris" );
+
+		assertThat( tuple.get( "city" ) ).isEqualTo( "Paris" );
+		assertThat( operations( tuple ) ).containsOnly( "PUT city=Paris" );
+	}
+
+	@Test
+	public void withColumnIndexShouldKeepSnapshotAndChanges() {
+		Tuple tuple = new Tuple( snapshot() );
+		tuple.put( "name", "Dave" );
+		tuple.remove( "city" );
+
+		Tuple indexedTuple = tuple.withColumnIndex( columnIndex );
+
+		assertThat( indexedTuple.getSnapshot() ).isSameAs( tuple.getSnapshot() );
+		assertThat( indexedTuple.get( "name" ) ).isEqualTo( "Dave" );
+		assertThat( indexedTuple.get( "id" ) ).isEqualTo( tuple.get( "id" ) );
+		assertThat( operations( indexedTuple ) ).containsOnly( "PUT name=Dave", "REMOVE city=null" );
+		assertThat( indexedTuple.withColumnIndex( columnIndex ) ).isSameAs( indexedTuple );
+	}
+
+	@Test
+	public void compactTupleShouldSupportMoreThanSixtyFourColumns() {
+		String[] columns = new String[130];
+		for ( int i = 0; i < columns.length; i++ ) {
+			columns[i] = "column" + i;
+		}
+		Tuple tuple = new Tuple( snapshot(), new ColumnIndex( Arrays.asList( columns ) ) );
+		tuple.put( "column129", "last" );
+		tuple.remove( "column64" );
+
+		assertThat( tuple.get( "column129" ) ).isEqualTo( "last" );
+		assertThat( tuple.get( "column63" ) ).isNull();
+		assertThat( operations( tuple ) ).containsOnly( "PUT column129=last", "REMOVE column64=null" );
+	}
+
+	private Set<String> operations(Tuple tuple) {
+		Set<String> operations = new HashSet<String>();
+		for ( TupleOperation operation : tuple.getOperations() ) {
+			operations.add( operationString( operation.getType(), operation.getColumn(), operation.getValue() ) );
+		}
+		return operations;
+	}
+
+	private String operationString(TupleOperationType type, String column, Object value) {
+		return type + " " + column + "=" + value;
+	}
+
+	private MapTupleSnapshot snapshot() {
+		Map<String, Object> values = new HashMap<String, Object>();
+		values.put( "id", 1L );
+		values.put( "name", "Bob" );
+		values.put( "city", "London" );
+		return new MapTupleSnapshot( values );
+	}
+}
@@ -0,0 +1,172 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.datastore.map;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.persistence.PessimisticLockException;
+
+import org.hibernate.LockMode;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.dialect.lock.LockingStrategy;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.ogm.datastore.map.impl.MapDatastoreProvider;
+import org.hibernate.ogm.datastore.map.impl.MapPessimisticWriteLockingStrategy;
+import org.hibernate.ogm.datastore.spi.DatastoreProvider;
+import org.hibernate.ogm.grid.EntityKey;
+import org.hibernate.ogm.grid.EntityKeyMetadata;
+import org.hibernate.ogm.test.simpleentity.Hypothesis;
+import org.hibernate.ogm.test.utils.GridDialectType;
+import org.hibernate.ogm.test.utils.OgmTestCase;
+import org.hibernate.ogm.test.utils.SkipByGridDialect;
+import org.hibernate.persister.entity.Lockable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test the pessimistic locks of the {@link MapDatastoreProvider}.
+ */
+@SkipByGridDialect(
+		value = { GridDialectType.COUCHDB, GridDialectType.EHCACHE, GridDialectType.INFINISPAN, GridDialectType.MONGODB, GridDialectType.NEO4J },
+		comment = "Tests the locks of the map datastore"
+)
+public class MapLockingTest extends OgmTestCase {
+
+	private static final EntityKeyMetadata METADATA = new EntityKeyMetadata( "Hypothesis", new String[] { "id" } );
+
+	private final Object owner = new Object();
+
+	private MapDatastoreProvider provider;
+	private ExecutorService executor;
+
+	@Before
+	public void init() {
+		provider = (MapDatastoreProvider) sfi().getServiceRegistry().getService( DatastoreProvider.class );
+		executor = Executors.newSingleThreadExecutor();
+	}
+
+	@After
+	public void shutDownExecutor() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testLocksAreDiscardedOnceReleased() throws Exception {
+		EntityKey key = key( "lock-1" );
+
+		provider.writeLock( key, -1, owner );
+		provider.readLock( key( "lock-2" ), -1, owner );
+		assertThat( provider.getLockCount() ).isEqualTo( 2 );
+		assertThat( tryWriteLockFromOtherThread( key ) ).as( "Lock should be held" ).isFalse();
+
+		provider.releaseLocks( owner );
+		assertThat( provider.getLockCount() ).isEqualTo( 0 );
+		assertThat( tryWriteLockFromOtherThread( key ) ).as( "Lock should have been released" ).isTrue();
+		assertThat( provider.getLockCount() ).isEqualTo( 0 );
+	}
+
+	@Test
+	public void testReentrantLocksAreFullyReleased() throws Exception {
+		EntityKey key = key( "lock-1" );
+
+		provider.writeLock( key, -1, owner );
+		provider.writeLock( key, -1, owner );
+		provider.readLock( key, -1, owner );
+		assertThat( provider.getLockCount() ).isEqualTo( 1 );
+
+		provider.releaseLocks( owner );
+		assertThat( provider.getLockCount() ).isEqualTo( 0 );
+		assertThat( tryWriteLockFromOtherThread( key ) ).as( "Lock should have been released" ).isTrue();
+	}
+
+	@Test
+	public void testLocksAreReleasedOnTransactionCompletion() throws Exception {
+		Lockable persister = (Lockable) sfi().getEntityPersister( Hypothesis.class.getName() );
+		LockingStrategy lockingStrategy = new MapPessimisticWriteLockingStrategy( persister, LockMode.PESSIMISTIC_WRITE );
+
+		Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		lockingStrategy.lock( "hyp-1", null, null, -1, (SessionImplementor) session );
+		lockingStrategy.lock( "hyp-2", null, null, -1, (SessionImplementor) session );
+		assertThat( provider.getLockCount() ).isEqualTo( 2 );
+		assertThat( tryWriteLockFromOtherThread( key( "hyp-1" ) ) ).as( "Lock should be held" ).isFalse();
+		transaction.commit();
+		session.close();
+
+		assertThat( provider.getLockCount() ).isEqualTo( 0 );
+		assertThat( tryWriteLockFromOtherThread( key( "hyp-1" ) ) ).as( "Lock should have been released" ).isTrue();
+		assertThat( tryWriteLockFromOtherThread( key( "hyp-2" ) ) ).as( "Lock should have been released" ).isTrue();
+	}
+
+	@Test
+	public void testLocksCanBeReleasedFromOtherThread() throws Exception {
+		EntityKey key = key( "lock-1" );
+
+		provider.writeLock( key, -1, owner );
+		provider.readLock( key( "lock-2" ), -1, owner );
+
+		// e.g. a transaction timing out, completed by a reaper thread
+		executor.submit( new Runnable() {
+
+			@Override
+			public void run() {
+				provider.releaseLocks( owner );
+			}
+		} ).get();
+
+		assertThat( provider.holdsLocks( owner ) ).isFalse();
+		assertThat( provider.getLockCount() ).isEqualTo( 0 );
+		assertThat( tryWriteLockFromOtherThread( key ) ).as( "Lock should have been released" ).isTrue();
+	}
+
+	private boolean tryWriteLockFromOtherThread(final EntityKey key) throws Exception {
+		return executor.submit( new Callable<Boolean>() {
+
+			@Override
+			public Boolean call() throws Exception {
+				try {
+					Object otherOwner = new Object();
+					provider.writeLock( key, 0, otherOwner );
+					provider.releaseLocks( otherOwner );
+					return true;
+				}
+				catch (PessimisticLockException e) {
+					return false;
+				}
+			}
+		} ).get();
+	}
+
+	private EntityKey key(String id) {
+		return new EntityKey( METADATA, new Object[] { id } );
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class<?>[] { Hypothesis.class };
+	}
+}
@@ -0,0 +1,134 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.id;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hibernate.id.IdentifierGeneratorHelper;
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.id.enhanced.AccessCallback;
+import org.hibernate.id.enhanced.Optimizer;
+import org.hibernate.id.enhanced.OptimizerFactory;
+import org.hibernate.ogm.id.impl.PooledBlockAllocator;
+import org.junit.Test;
+
+/**
+ * Test for {@link PooledBlockAllocator}.
+ */
+public class PooledBlockAllocatorTest {
+
+	private static final int INCREMENT_SIZE = 10;
+
+	@Test
+	public void testSameValuesAsPooledOptimizer() {
+		assertSameValuesAsOptimizer( OptimizerFactory.POOL, false, 1, 1 );
+		assertSameValuesAsOptimizer( OptimizerFactory.POOL, false, -1, 1 );
+		assertSameValuesAsOptimizer( OptimizerFactory.POOL, false, 100, 100 );
+	}
+
+	@Test
+	public void testSameValuesAsPooledLoOptimizer() {
+		assertSameValuesAsOptimizer( OptimizerFactory.POOL_LO, true, 1, 1 );
+		assertSameValuesAsOptimizer( OptimizerFactory.POOL_LO, true, 100, 100 );
+	}
+
+	@Test
+	public void testConcurrentGenerationReservesOneBlockPerDatastoreAccess() throws Exception {
+		final int threads = 8;
+		final int valuesPerThread = 1000;
+		final SequenceCallback callback = new SequenceCallback( 1 );
+		final PooledBlockAllocator allocator = new PooledBlockAllocator( Long.class, INCREMENT_SIZE, 1, true );
+		final Set<Long> values = new ConcurrentSkipListSet<Long>();
+
+		ExecutorService executor = Executors.newFixedThreadPool( threads );
+		List<Future<Void>> futures = new ArrayList<Future<Void>>();
+		for ( int i = 0; i < threads; i++ ) {
+			futures.add( executor.submit( new Callable<Void>() {
+
+				@Override
+				public Void call() throws Exception {
+					for ( int j = 0; j < valuesPerThread; j++ ) {
+						values.add( (Long) allocator.generate( callback ) );
+					}
+					return null;
+				}
+			} ) );
+		}
+		for ( Future<Void> future : futures ) {
+			future.get();
+		}
+		executor.shutdown();
+
+		int total = threads * valuesPerThread;
+		assertThat( values ).hasSize( total );
+		assertThat( values.iterator().next() ).isEqualTo( 1L );
+		assertThat( callback.accessCount.get() ).isEqualTo( total / INCREMENT_SIZE );
+	}
+
+	private void assertSameValuesAsOptimizer(String strategy, boolean lowValueBased, int optimizerInitialValue, int sequenceInitialValue) {
+		Optimizer optimizer = OptimizerFactory.buildOptimizer( strategy, Long.class, INCREMENT_SIZE, optimizerInitialValue );
+		PooledBlockAllocator allocator = new PooledBlockAllocator( Long.class, INCREMENT_SIZE, optimizerInitialValue, lowValueBased );
+		SequenceCallback optimizerCallback = new SequenceCallback( sequenceInitialValue );
+		SequenceCallback allocatorCallback = new SequenceCallback( sequenceInitialValue );
+
+		for ( int i = 0; i < 5 * INCREMENT_SIZE; i++ ) {
+			Serializable expected = optimizer.generate( optimizerCallback );
+			assertThat( allocator.generate( allocatorCallback ) ).as( strategy + " value #" + i ).isEqualTo( expected );
+		}
+		assertThat( allocatorCallback.accessCount.get() ).isEqualTo( optimizerCallback.accessCount.get() );
+	}
+
+	/**
+	 * Mimics the sequences of the grid dialects: the initial value first, then increased by the increment size.
+	 */
+	private static class SequenceCallback implements AccessCallback {
+
+		private final AtomicInteger accessCount = new AtomicInteger();
+		private final int initialValue;
+
+		SequenceCallback(int initialValue) {
+			this.initialValue = initialValue;
+		}
+
+		@Override
+		public IntegralDataTypeHolder getNextValue() {
+			IntegralDataTypeHolder value = IdentifierGeneratorHelper.getIntegralDataTypeHolder( Long.class );
+			value.initialize( initialValue + (long) accessCount.getAndIncrement() * INCREMENT_SIZE );
+			return value;
+		}
+
+		@Override
+		public String getTenantIdentifier() {
+			return null;
+		}
+	}
+}
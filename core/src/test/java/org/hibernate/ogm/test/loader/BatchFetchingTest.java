@@ -0,0 +1,74 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.loader;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.ogm.test.utils.OgmTestCase;
+import org.junit.Test;
+
+/**
+ * Test that entities annotated with {@link org.hibernate.annotations.BatchSize} are loaded in batches.
+ */
+public class BatchFetchingTest extends OgmTestCase {
+
+	@Test
+	public void testProxiesAreInitializedInBatch() throws Exception {
+		final Session session = openSession();
+
+		Transaction transaction = session.beginTransaction();
+		for ( int i = 0; i < 5; i++ ) {
+			Mood mood = new Mood();
+			mood.setId( "mood-" + i );
+			mood.setName( "Mood " + i );
+			session.persist( mood );
+		}
+		transaction.commit();
+		session.clear();
+
+		transaction = session.beginTransaction();
+		Mood[] moods = new Mood[6];
+		for ( int i = 0; i < 5; i++ ) {
+			moods[i] = (Mood) session.load( Mood.class, "mood-" + i );
+		}
+		moods[5] = (Mood) session.load( Mood.class, "mood-missing" );
+
+		assertThat( session.getStatistics().getEntityCount() ).isEqualTo( 0 );
+		assertThat( moods[0].getName() ).isEqualTo( "Mood 0" );
+		assertThat( session.getStatistics().getEntityCount() ).as( "All existing entities should have been loaded in the same batch" ).isEqualTo( 5 );
+		for ( int i = 1; i < 5; i++ ) {
+			assertThat( moods[i].getName() ).isEqualTo( "Mood " + i );
+		}
+
+		for ( int i = 0; i < 5; i++ ) {
+			session.delete( moods[i] );
+		}
+		transaction.commit();
+		session.close();
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class<?>[] { Mood.class };
+	}
+}
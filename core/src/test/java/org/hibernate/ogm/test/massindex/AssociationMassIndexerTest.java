@@ -28,9 +28,9 @@
 
 import javax.persistence.EntityManager;
 
+import org.apache.lucene.search.MatchAllDocsQuery;
 import org.fest.util.Files;
 import org.hibernate.Session;
-import org.hibernate.ogm.test.hsearch.Insurance;
 import org.hibernate.ogm.test.id.NewsID;
 import org.hibernate.ogm.test.massindex.model.IndexedLabel;
 import org.hibernate.ogm.test.massindex.model.IndexedNews;
@@ -142,8 +142,7 @@ private void purgeAll(Class<?>... entityTypes) {
 		for ( Class<?> entityType : entityTypes ) {
 			session.purgeAll( entityType );
 			session.flushToIndexes();
-			@SuppressWarnings("unchecked")
-			List<Insurance> list = session.createQuery( "FROM " + entityType.getSimpleName() ).list();
+			List<?> list = session.createFullTextQuery( new MatchAllDocsQuery(), entityType ).list();
 			assertThat( list ).hasSize( 0 );
 		}
 	}
@@ -25,6 +25,7 @@
 import java.io.File;
 import java.util.List;
 
+import org.apache.lucene.search.MatchAllDocsQuery;
 import org.hibernate.Session;
 import org.hibernate.Transaction;
 import org.hibernate.ogm.test.hsearch.Insurance;
@@ -125,8 +126,7 @@ private void purgeAll(Class<?> entityType) {
 		FullTextSession session = Search.getFullTextSession( openSession() );
 		session.purgeAll( entityType );
 		session.flushToIndexes();
-		@SuppressWarnings("unchecked")
-		List<Insurance> list = session.createQuery( "FROM " + entityType.getSimpleName() ).list();
+		List<?> list = session.createFullTextQuery( new MatchAllDocsQuery(), entityType ).list();
 		assertThat( list ).hasSize( 0 );
 	}
 
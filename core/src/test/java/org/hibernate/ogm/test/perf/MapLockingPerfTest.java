@@ -0,0 +1,121 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.perf;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.ogm.datastore.map.impl.MapDatastoreProvider;
+import org.hibernate.ogm.grid.EntityKey;
+import org.hibernate.ogm.grid.EntityKeyMetadata;
+import org.junit.Ignore;
+
+/**
+ * Measures the throughput of many concurrent writers locking entities of the {@link MapDatastoreProvider} as well as
+ * the number of lock objects and the heap used in steady state. Both should stay flat however long the run.
+ */
+@Ignore
+public class MapLockingPerfTest {
+
+	private static final EntityKeyMetadata METADATA = new EntityKeyMetadata( "Author", new String[] { "id" } );
+
+	private static final int WRITER_THREADS = 64;
+	private static final int KEY_SPACE = 1000000;
+	private static final int ROUNDS = 10;
+	private static final long ROUND_DURATION_MS = 2000;
+
+	public static void main(String[] args) {
+		try {
+			new MapLockingPerfTest().testConcurrentWriters();
+		}
+		catch ( Exception e ) {
+			e.printStackTrace();
+		}
+	}
+
+	public void testConcurrentWriters() throws Exception {
+		final MapDatastoreProvider provider = new MapDatastoreProvider();
+		provider.start();
+
+		final AtomicLong operations = new AtomicLong();
+		final CountDownLatch stop = new CountDownLatch( 1 );
+		Thread[] writers = new Thread[WRITER_THREADS];
+		for ( int i = 0; i < writers.length; i++ ) {
+			writers[i] = new Thread( new Writer( provider, operations, stop ), "writer-" + i );
+			writers[i].start();
+		}
+
+		Runtime runtime = Runtime.getRuntime();
+		System.out.printf( "Running %s writer threads on %s keys\n", WRITER_THREADS, KEY_SPACE );
+		for ( int round = 0; round < ROUNDS; round++ ) {
+			long before = operations.get();
+			long start = System.nanoTime();
+			Thread.sleep( ROUND_DURATION_MS );
+			long ops = operations.get() - before;
+			long elapsed = System.nanoTime() - start;
+			System.gc();
+			System.out.printf( "Round %s: %s ops/s, %s locks held, %sMB used heap\n", round, ops * 1000000000L / elapsed,
+					provider.getLockCount(), ( runtime.totalMemory() - runtime.freeMemory() ) / ( 1024 * 1024 ) );
+		}
+
+		stop.countDown();
+		for ( Thread writer : writers ) {
+			writer.join();
+		}
+		System.out.printf( "Done, %s locks left\n", provider.getLockCount() );
+		provider.stop();
+	}
+
+	private static class Writer implements Runnable {
+
+		private final Random rand = new Random();
+		private final MapDatastoreProvider provider;
+		private final AtomicLong operations;
+		private final CountDownLatch stop;
+
+		Writer(MapDatastoreProvider provider, AtomicLong operations, CountDownLatch stop) {
+			this.provider = provider;
+			this.operations = operations;
+			this.stop = stop;
+		}
+
+		@Override
+		public void run() {
+			while ( stop.getCount() > 0 ) {
+				EntityKey key = new EntityKey( METADATA, new Object[] { rand.nextInt( KEY_SPACE ) } );
+				provider.writeLock( key, -1, this );
+				try {
+					Map<String, Object> tuple = new HashMap<String, Object>();
+					tuple.put( "id", key.getColumnValues()[0] );
+					tuple.put( "fname", "Emmanuel " + rand.nextInt() );
+					provider.putEntity( key, tuple );
+				}
+				finally {
+					provider.releaseLocks( this );
+				}
+				operations.incrementAndGet();
+			}
+		}
+	}
+}
@@ -0,0 +1,95 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.queries;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.fest.assertions.MapAssert.entry;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.hibernate.FlushMode;
+import org.hibernate.Query;
+import org.hibernate.engine.query.spi.ParameterMetadata;
+import org.hibernate.ogm.hibernatecore.impl.OgmQuery;
+import org.hibernate.ogm.hibernatecore.impl.OgmSession;
+import org.hibernate.ogm.service.impl.QueryParserService;
+import org.junit.Test;
+
+/**
+ * Test that the row selection of an {@link OgmQuery} is passed on to the query created by the
+ * {@link QueryParserService}.
+ */
+public class QueryRowSelectionTest {
+
+	@Test
+	public void shouldPassRowSelectionToExecutingQuery() throws Exception {
+		RecordingQueryParserService queryParserService = new RecordingQueryParserService();
+
+		new OgmQuery( "from Hypothesis", FlushMode.AUTO, null, new ParameterMetadata( null, null ), queryParserService )
+				.setFirstResult( 3 )
+				.setMaxResults( 4 )
+				.setFetchSize( 2 )
+				.list();
+
+		assertThat( queryParserService.invocations ).includes(
+				entry( "setFirstResult", 3 ),
+				entry( "setMaxResults", 4 ),
+				entry( "setFetchSize", 2 ) );
+	}
+
+	@Test
+	public void shouldNotSetUnspecifiedRowSelection() throws Exception {
+		RecordingQueryParserService queryParserService = new RecordingQueryParserService();
+
+		new OgmQuery( "from Hypothesis", FlushMode.AUTO, null, new ParameterMetadata( null, null ), queryParserService )
+				.list();
+
+		assertThat( queryParserService.invocations.keySet() ).containsOnly( "list" );
+	}
+
+	/**
+	 * Creates queries recording the invoked methods together with their argument.
+	 */
+	private static class RecordingQueryParserService implements QueryParserService {
+
+		private final Map<String, Object> invocations = new HashMap<String, Object>();
+
+		@Override
+		public Query getParsedQueryExecutor(OgmSession session, String queryString, Map<String, Object> namedParameters) {
+			return (Query) Proxy.newProxyInstance( Query.class.getClassLoader(), new Class<?>[] { Query.class }, new InvocationHandler() {
+
+				@Override
+				public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+					invocations.put( method.getName(), args != null && args.length == 1 ? args[0] : null );
+					if ( method.getName().equals( "list" ) ) {
+						return Collections.emptyList();
+					}
+					return method.getReturnType().isInstance( proxy ) ? proxy : null;
+				}
+			} );
+		}
+	}
+}
@@ -34,7 +34,11 @@
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.Transaction;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.hql.ParsingException;
+import org.hibernate.ogm.service.impl.LuceneBasedQueryParserService;
+import org.hibernate.ogm.service.impl.ParsedQueryCache;
+import org.hibernate.ogm.service.impl.QueryParserService;
 import org.hibernate.ogm.test.utils.GridDialectType;
 import org.hibernate.ogm.test.utils.OgmTestCase;
 import org.hibernate.ogm.test.utils.SkipByGridDialect;
@@ -199,6 +203,28 @@ public void testParametricQueries() throws Exception {
 		assertThat( result ).onProperty( "id" ).containsOnly( "16" );
 	}
 
+	@Test
+	@SkipByGridDialect(value = { GridDialectType.MONGODB, GridDialectType.NEO4J }, comment = "Doesn't use the Lucene-based query parser service.")
+	public void testRepeatedParametricQueryUsesCachedParsedQuery() throws Exception {
+		QueryParserService queryParserService = ( (SessionFactoryImplementor) sessions ).getServiceRegistry().getService( QueryParserService.class );
+		ParsedQueryCache<?, ?> queryCache = ( (LuceneBasedQueryParserService) queryParserService ).getQueryCache();
+		long hitCount = queryCache.getHitCount();
+
+		List<?> result = session
+				.createQuery( "from Hypothesis h where h.position = :position" )
+				.setInteger( "position", 2 )
+				.list();
+		assertThat( result ).onProperty( "id" ).containsOnly( "14" );
+
+		result = session
+				.createQuery( "from Hypothesis h where h.position = :position" )
+				.setInteger( "position", 3 )
+				.list();
+		assertThat( result ).onProperty( "id" ).containsOnly( "15" );
+
+		assertThat( queryCache.getHitCount() ).isEqualTo( hitCount + 1 );
+	}
+
 	@Test
 	public void testConstantParameterRangeQuery() throws Exception {
 		List<?> result = session
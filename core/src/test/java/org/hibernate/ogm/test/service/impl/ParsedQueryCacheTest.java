@@ -0,0 +1,84 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.service.impl;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import org.hibernate.ogm.service.impl.ParsedQueryCache;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link ParsedQueryCache}.
+ */
+public class ParsedQueryCacheTest {
+
+	@Test
+	public void shouldCountHitsAndMisses() {
+		ParsedQueryCache<String, String> cache = new ParsedQueryCache<String, String>( 10 );
+
+		assertThat( cache.get( "from Hypothesis" ) ).isNull();
+		cache.put( "from Hypothesis", "parsed" );
+		assertThat( cache.get( "from Hypothesis" ) ).isEqualTo( "parsed" );
+		assertThat( cache.get( "from Hypothesis" ) ).isEqualTo( "parsed" );
+
+		assertThat( cache.getHitCount() ).isEqualTo( 2 );
+		assertThat( cache.getMissCount() ).isEqualTo( 1 );
+		assertThat( cache.getHitRatio() ).isEqualTo( 2.0 / 3 );
+		assertThat( cache.size() ).isEqualTo( 1 );
+	}
+
+	@Test
+	public void shouldEvictLeastRecentlyUsedEntries() {
+		ParsedQueryCache<Integer, String> cache = new ParsedQueryCache<Integer, String>( 1 );
+
+		cache.put( 1, "first" );
+		cache.put( 2, "second" );
+
+		assertThat( cache.size() ).isEqualTo( 1 );
+		assertThat( cache.get( 1 ) ).isNull();
+		assertThat( cache.get( 2 ) ).isEqualTo( "second" );
+	}
+
+	@Test
+	public void shouldNotCacheAnythingIfMaxSizeIsZero() {
+		ParsedQueryCache<String, String> cache = new ParsedQueryCache<String, String>( 0 );
+
+		cache.put( "from Hypothesis", "parsed" );
+
+		assertThat( cache.get( "from Hypothesis" ) ).isNull();
+		assertThat( cache.size() ).isEqualTo( 0 );
+		assertThat( cache.getMissCount() ).isEqualTo( 1 );
+		assertThat( cache.getHitRatio() ).isEqualTo( 0.0 );
+	}
+
+	@Test
+	public void shouldResetCountsWhenCleared() {
+		ParsedQueryCache<String, String> cache = new ParsedQueryCache<String, String>( 10 );
+		cache.put( "from Hypothesis", "parsed" );
+		cache.get( "from Hypothesis" );
+
+		cache.clear();
+
+		assertThat( cache.size() ).isEqualTo( 0 );
+		assertThat( cache.getHitCount() ).isEqualTo( 0 );
+		assertThat( cache.getMissCount() ).isEqualTo( 0 );
+	}
+}
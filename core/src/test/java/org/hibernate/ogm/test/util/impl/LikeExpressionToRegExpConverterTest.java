@@ -18,11 +18,11 @@
  * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
  * MA  02110-1301, USA.
  */
-package org.hibernate.ogm.test.mongodb.util;
+package org.hibernate.ogm.test.util.impl;
 
 import static org.fest.assertions.Assertions.assertThat;
 
-import org.hibernate.ogm.dialect.mongodb.util.LikeExpressionToRegExpConverter;
+import org.hibernate.ogm.util.impl.LikeExpressionToRegExpConverter;
 import org.junit.Test;
 
 /**
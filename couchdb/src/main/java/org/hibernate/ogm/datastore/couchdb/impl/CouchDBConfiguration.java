@@ -22,7 +22,13 @@
 
 import java.util.Map;
 
+import org.hibernate.HibernateException;
 import org.hibernate.ogm.cfg.impl.DocumentStoreConfiguration;
+import org.hibernate.ogm.datastore.couchdb.CouchDBProperties;
+import org.hibernate.ogm.logging.couchdb.impl.Log;
+import org.hibernate.ogm.logging.couchdb.impl.LoggerFactory;
+import org.hibernate.ogm.util.configurationreader.impl.ConfigurationPropertyReader;
+import org.hibernate.ogm.util.configurationreader.impl.PropertyValidator;
 
 /**
  * Provides utility methods to access the CouchDB configuration value
@@ -34,7 +40,45 @@ public class CouchDBConfiguration extends DocumentStoreConfiguration {
 
 	public static final int DEFAULT_PORT = 5984;
 
+	/**
+	 * The default number of documents written with one {@code _bulk_docs} request.
+	 *
+	 * @see CouchDBProperties#BATCH_SIZE
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 1000;
+
+	private static final Log log = LoggerFactory.getLogger();
+
+	private static final BatchSizeValidator BATCH_SIZE_VALIDATOR = new BatchSizeValidator();
+
+	private final int batchSize;
+
 	public CouchDBConfiguration(Map<?, ?> configurationValues) {
 		super( configurationValues, DEFAULT_PORT );
+
+		ConfigurationPropertyReader propertyReader = new ConfigurationPropertyReader( configurationValues );
+
+		this.batchSize = propertyReader.property( CouchDBProperties.BATCH_SIZE, int.class )
+				.withDefault( DEFAULT_BATCH_SIZE )
+				.withValidator( BATCH_SIZE_VALIDATOR )
+				.getValue();
+	}
+
+	/**
+	 * @see CouchDBProperties#BATCH_SIZE
+	 * @return the maximum number of documents written with one {@code _bulk_docs} request
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	private static class BatchSizeValidator implements PropertyValidator<Integer> {
+
+		@Override
+		public void validate(Integer value) throws HibernateException {
+			if ( value < 1 ) {
+				throw log.illegalBatchSize( value );
+			}
+		}
 	}
 }
@@ -111,6 +111,16 @@ public AssociationStorageType getDefaultAssociationStorageStrategy() {
 		return configuration.getAssociationStorageStrategy();
 	}
 
+	/**
+	 * Returns the maximum number of documents to be written with a single {@code _bulk_docs} request, as given via the
+	 * {@link org.hibernate.ogm.datastore.couchdb.CouchDBProperties#BATCH_SIZE} property.
+	 *
+	 * @return the maximum number of documents to be written with a single request
+	 */
+	public int getBatchSize() {
+		return configuration.getBatchSize();
+	}
+
 	private boolean isDatastoreNotInitialized() {
 		return datastore == null;
 	}
@@ -21,10 +21,17 @@
 package org.hibernate.ogm.dialect.couchdb;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+
+import javax.persistence.OptimisticLockException;
 
 import org.hibernate.LockMode;
 import org.hibernate.dialect.lock.LockingStrategy;
@@ -35,9 +42,23 @@
 import org.hibernate.ogm.datastore.spi.AssociationContext;
 import org.hibernate.ogm.datastore.spi.Tuple;
 import org.hibernate.ogm.datastore.spi.TupleContext;
-import org.hibernate.ogm.dialect.GridDialect;
+import org.hibernate.ogm.datastore.spi.TupleSnapshot;
+import org.hibernate.ogm.dialect.BatchableGridDialect;
+import org.hibernate.ogm.dialect.DeltaUpdateGridDialect;
+import org.hibernate.ogm.dialect.DuplicateInsertAwareGridDialect;
+import org.hibernate.ogm.dialect.MultigetGridDialect;
+import org.hibernate.ogm.dialect.OptimisticLockingAwareGridDialect;
+import org.hibernate.ogm.dialect.batch.Operation;
+import org.hibernate.ogm.dialect.batch.OperationsQueue;
+import org.hibernate.ogm.dialect.batch.RemoveAssociationOperation;
+import org.hibernate.ogm.dialect.batch.RemoveTupleOperation;
+import org.hibernate.ogm.dialect.batch.UpdateAssociationOperation;
+import org.hibernate.ogm.dialect.batch.UpdateTupleOperation;
 import org.hibernate.ogm.dialect.couchdb.backend.impl.CouchDBDatastore;
+import org.hibernate.ogm.dialect.couchdb.backend.json.designdocument.impl.EntityTupleRows;
 import org.hibernate.ogm.dialect.couchdb.backend.json.impl.AssociationDocument;
+import org.hibernate.ogm.dialect.couchdb.backend.json.impl.DeletedDocument;
+import org.hibernate.ogm.dialect.couchdb.backend.json.impl.Document;
 import org.hibernate.ogm.dialect.couchdb.backend.json.impl.EntityDocument;
 import org.hibernate.ogm.dialect.couchdb.model.impl.CouchDBAssociation;
 import org.hibernate.ogm.dialect.couchdb.model.impl.CouchDBAssociationSnapshot;
@@ -46,11 +67,14 @@
 import org.hibernate.ogm.dialect.couchdb.type.impl.CouchDBByteType;
 import org.hibernate.ogm.dialect.couchdb.type.impl.CouchDBLongType;
 import org.hibernate.ogm.dialect.couchdb.util.impl.Identifier;
+import org.hibernate.ogm.dialect.impl.GridDialects;
 import org.hibernate.ogm.grid.AssociationKey;
 import org.hibernate.ogm.grid.AssociationKind;
 import org.hibernate.ogm.grid.EntityKey;
 import org.hibernate.ogm.grid.EntityKeyMetadata;
 import org.hibernate.ogm.grid.RowKey;
+import org.hibernate.ogm.logging.couchdb.impl.Log;
+import org.hibernate.ogm.logging.couchdb.impl.LoggerFactory;
 import org.hibernate.ogm.massindex.batchindexing.Consumer;
 import org.hibernate.ogm.options.generic.document.AssociationStorageType;
 import org.hibernate.ogm.options.generic.document.impl.AssociationStorageOption;
@@ -66,11 +90,21 @@
  * <p>
  * Tuples are stored in CouchDB documents obtained as a JSON serialization of a {@link EntityDocument} object.
  * Associations are stored in CouchDB documents obtained as a JSON serialization of a {@link AssociationDocument} object.
+ * <p>
+ * When executed as batch, all the changes of a flush are merged per document and written using the {@code _bulk_docs}
+ * API.
  *
  * @author Andrea Boriero <dreborier@gmail.com/>
  * @author Gunnar Morling
  */
-public class CouchDBDialect implements GridDialect {
+public class CouchDBDialect implements MultigetGridDialect, BatchableGridDialect, DeltaUpdateGridDialect, DuplicateInsertAwareGridDialect, OptimisticLockingAwareGridDialect {
+
+	private static final Log logger = LoggerFactory.getLogger();
+
+	/**
+	 * Number of documents fetched per request when iterating over all the entities of a table
+	 */
+	private static final int FOR_EACH_TUPLE_PAGE_SIZE = 1000;
 
 	private final CouchDBDatastoreProvider provider;
 
@@ -85,21 +119,97 @@ public LockingStrategy getLockingStrategy(Lockable lockable, LockMode lockMode)
 
 	@Override
 	public Tuple getTuple(EntityKey key, TupleContext tupleContext) {
-		EntityDocument entity = getDataStore().getEntity( Identifier.createEntityId( key ) );
+		if ( isInTheQueue( key, tupleContext ) ) {
+			executeBatch( tupleContext.getOperationsQueue() );
+		}
+
+		EntityDocument entity = getDataStore().getEntity( Identifier.createEntityId( key ), getFields( key, tupleContext ) );
 		if ( entity != null ) {
-			return new Tuple( new CouchDBTupleSnapshot( entity.getProperties() ) );
+			return new Tuple( new CouchDBTupleSnapshot( entity.getProperties() ), tupleContext.getColumnIndex() );
 		}
 
 		return null;
 	}
 
+	/**
+	 * Returns the fields to retrieve when loading the given entity: the selectable columns of the context and the key
+	 * columns. Other fields of the document, e.g. associations stored within the entity, are not needed for building
+	 * the tuple.
+	 */
+	private List<String> getFields(EntityKey key, TupleContext tupleContext) {
+		if ( tupleContext.getSelectableColumns() == null ) {
+			return null;
+		}
+
+		List<String> fields = new ArrayList<String>( tupleContext.getSelectableColumns() );
+		fields.addAll( Arrays.asList( key.getColumnNames() ) );
+		return fields;
+	}
+
+	/**
+	 * Retrieves all the documents with a single request to the {@code _all_docs} view.
+	 */
+	@Override
+	public List<Tuple> getTuples(EntityKey[] keys, TupleContext tupleContext) {
+		List<String> ids = new ArrayList<String>( keys.length );
+		for ( EntityKey key : keys ) {
+			if ( isInTheQueue( key, tupleContext ) ) {
+				executeBatch( tupleContext.getOperationsQueue() );
+			}
+			ids.add( Identifier.createEntityId( key ) );
+		}
+
+		Map<String, EntityDocument> entities = getDataStore().getEntities( ids );
+		List<Tuple> tuples = new ArrayList<Tuple>( keys.length );
+		for ( String id : ids ) {
+			EntityDocument entity = entities.get( id );
+			tuples.add( entity != null ? new Tuple( new CouchDBTupleSnapshot( entity.getProperties() ), tupleContext.getColumnIndex() ) : null );
+		}
+		return tuples;
+	}
+
+	private boolean isInTheQueue(EntityKey key, TupleContext tupleContext) {
+		OperationsQueue queue = tupleContext.getOperationsQueue();
+		return queue != null && !queue.isClosed() && queue.contains( key );
+	}
+
 	@Override
 	public Tuple createTuple(EntityKey key) {
 		return new Tuple( new CouchDBTupleSnapshot( key ) );
 	}
 
+	/**
+	 * The document is written without a revision, so CouchDB rejects it with a conflict if its id is in use already.
+	 */
+	@Override
+	public Tuple createTupleForInsert(EntityKey key, TupleContext tupleContext) {
+		return new Tuple( new CouchDBTupleSnapshot( key, true ), tupleContext.getColumnIndex() );
+	}
+
+	/**
+	 * The stored document is retrieved anyway when writing the tuple, as its current revision is required; so there is
+	 * no need to read it beforehand, unless the entity is still waiting in the operations queue.
+	 */
+	@Override
+	public Tuple createTupleForUpdate(EntityKey key, TupleSnapshot loadedState, TupleContext tupleContext) {
+		if ( isInTheQueue( key, tupleContext ) ) {
+			return getTuple( key, tupleContext );
+		}
+
+		Map<String, Object> properties = new HashMap<String, Object>();
+		for ( String column : loadedState.getColumnNames() ) {
+			properties.put( column, loadedState.get( column ) );
+		}
+		return new Tuple( new CouchDBTupleSnapshot( properties ), tupleContext.getColumnIndex() );
+	}
+
 	@Override
 	public void updateTuple(Tuple tuple, EntityKey key) {
+		if ( isCreatedForInsert( tuple ) ) {
+			insertDocument( tuple, key );
+			return;
+		}
+
 		EntityDocument entity = getDataStore().getEntity( Identifier.createEntityId( key ) );
 		if ( entity == null ) {
 			entity = new EntityDocument( key );
@@ -108,6 +218,42 @@ public void updateTuple(Tuple tuple, EntityKey key) {
 		getDataStore().saveDocument( entity );
 	}
 
+	private void insertDocument(Tuple tuple, EntityKey key) {
+		EntityDocument entity = new EntityDocument( key );
+		entity.update( tuple );
+		try {
+			getDataStore().saveDocument( entity );
+		}
+		catch (OptimisticLockException e) {
+			throw logger.entityAlreadyExists( key );
+		}
+	}
+
+	private boolean isCreatedForInsert(Tuple tuple) {
+		return tuple.getSnapshot() instanceof CouchDBTupleSnapshot && ( (CouchDBTupleSnapshot) tuple.getSnapshot() ).isCreatedForInsert();
+	}
+
+	/**
+	 * The document is saved with the revision it had when its lock state got compared, so that CouchDB rejects the
+	 * update if the document has been modified in between.
+	 */
+	@Override
+	public boolean updateTupleWithOptimisticLock(EntityKey key, Tuple oldLockState, Tuple tuple, TupleContext tupleContext) {
+		EntityDocument entity = getDataStore().getEntity( Identifier.createEntityId( key ) );
+		if ( entity == null || !GridDialects.matches( oldLockState, new Tuple( new CouchDBTupleSnapshot( entity.getProperties() ) ) ) ) {
+			return false;
+		}
+
+		entity.update( tuple );
+		try {
+			getDataStore().saveDocument( entity );
+			return true;
+		}
+		catch (OptimisticLockException e) {
+			return false;
+		}
+	}
+
 	@Override
 	public void removeTuple(EntityKey key) {
 		removeDocumentIfPresent( Identifier.createEntityId( key ) );
@@ -115,6 +261,12 @@ public void removeTuple(EntityKey key) {
 
 	@Override
 	public Association getAssociation(AssociationKey key, AssociationContext associationContext) {
+		// We need to execute the previous operations first or it won't be able to find the documents that should have
+		// been written
+		if ( associationContext.getOperationsQueue() != null ) {
+			executeBatch( associationContext.getOperationsQueue() );
+		}
+
 		CouchDBAssociation couchDBAssociation = null;
 
 		if ( isStoredInEntityStructure( key, associationContext ) ) {
@@ -259,14 +411,16 @@ public void forEachTuple(Consumer consumer, EntityKeyMetadata... entityKeyMetada
 	}
 
 	private void forTuple(Consumer consumer, EntityKeyMetadata entityKeyMetadata) {
-		List<Tuple> tuples = getTuples( entityKeyMetadata );
-		for ( Tuple tuple : tuples ) {
-			consumer.consume( tuple );
+		String startDocumentId = null;
+		do {
+			// one additional row is fetched, its id is where the next page starts
+			EntityTupleRows page = getDataStore().getTuples( entityKeyMetadata, startDocumentId, FOR_EACH_TUPLE_PAGE_SIZE + 1 );
+			for ( Tuple tuple : page.getTuples( FOR_EACH_TUPLE_PAGE_SIZE ) ) {
+				consumer.consume( tuple );
+			}
+			startDocumentId = page.getDocumentId( FOR_EACH_TUPLE_PAGE_SIZE );
 		}
-	}
-
-	private List<Tuple> getTuples(EntityKeyMetadata entityKeyMetadata) {
-		return getDataStore().getTuples( entityKeyMetadata );
+		while ( startDocumentId != null );
 	}
 
 	private CouchDBDatastore getDataStore() {
@@ -280,6 +434,202 @@ private void removeDocumentIfPresent(String id) {
 		}
 	}
 
+	@Override
+	public void executeBatch(OperationsQueue queue) {
+		if ( !queue.isClosed() ) {
+			List<Operation> operations = new ArrayList<Operation>( queue.size() );
+			Operation operation = queue.poll();
+			while ( operation != null ) {
+				operations.add( operation );
+				operation = queue.poll();
+			}
+
+			Map<String, Document> storedDocuments = getStoredDocuments( operations );
+			// the documents to write, each one containing all the changes of this batch applied to it
+			Map<String, Document> documents = new LinkedHashMap<String, Document>();
+			for ( Operation batchedOperation : operations ) {
+				if ( batchedOperation instanceof UpdateTupleOperation ) {
+					UpdateTupleOperation update = (UpdateTupleOperation) batchedOperation;
+					executeBatchUpdate( documents, storedDocuments, update );
+				}
+				else if ( batchedOperation instanceof RemoveTupleOperation ) {
+					RemoveTupleOperation remove = (RemoveTupleOperation) batchedOperation;
+					executeBatchRemove( documents, storedDocuments, remove );
+				}
+				else if ( batchedOperation instanceof UpdateAssociationOperation ) {
+					UpdateAssociationOperation update = (UpdateAssociationOperation) batchedOperation;
+					executeBatchAssociationUpdate( documents, storedDocuments, update );
+				}
+				else if ( batchedOperation instanceof RemoveAssociationOperation ) {
+					RemoveAssociationOperation remove = (RemoveAssociationOperation) batchedOperation;
+					executeBatchAssociationRemove( documents, storedDocuments, remove );
+				}
+				else {
+					throw new UnsupportedOperationException( "Operation not supported on CouchDB: " + batchedOperation.getClass().getName() );
+				}
+			}
+
+			if ( !documents.isEmpty() ) {
+				getDataStore().saveDocuments( new ArrayList<Document>( documents.values() ), provider.getBatchSize() );
+			}
+			queue.close();
+		}
+	}
+
+	/**
+	 * Retrieves all the stored documents affected by the given operations with a single request, so their current
+	 * revisions are known when writing them back or deleting them.
+	 */
+	private Map<String, Document> getStoredDocuments(List<Operation> operations) {
+		Set<String> ids = new LinkedHashSet<String>();
+		for ( Operation operation : operations ) {
+			if ( operation instanceof UpdateTupleOperation ) {
+				UpdateTupleOperation update = (UpdateTupleOperation) operation;
+				// new documents are written without a revision, a conflict revealing a duplicate id
+				if ( !isCreatedForInsert( update.getTuple() ) ) {
+					ids.add( Identifier.createEntityId( update.getEntityKey() ) );
+				}
+			}
+			else if ( operation instanceof RemoveTupleOperation ) {
+				ids.add( Identifier.createEntityId( ( (RemoveTupleOperation) operation ).getEntityKey() ) );
+			}
+			else if ( operation instanceof UpdateAssociationOperation ) {
+				UpdateAssociationOperation update = (UpdateAssociationOperation) operation;
+				if ( isStoredInEntityStructure( update.getAssociationKey(), update.getContext() ) ) {
+					ids.add( Identifier.createEntityId( update.getAssociationKey().getEntityKey() ) );
+				}
+			}
+			else if ( operation instanceof RemoveAssociationOperation ) {
+				RemoveAssociationOperation remove = (RemoveAssociationOperation) operation;
+				if ( isStoredInEntityStructure( remove.getAssociationKey(), remove.getContext() ) ) {
+					ids.add( Identifier.createEntityId( remove.getAssociationKey().getEntityKey() ) );
+				}
+				else {
+					ids.add( Identifier.createAssociationId( remove.getAssociationKey() ) );
+				}
+			}
+		}
+
+		if ( ids.isEmpty() ) {
+			return Collections.emptyMap();
+		}
+		return getDataStore().getDocuments( new ArrayList<String>( ids ) );
+	}
+
+	/**
+	 * The lock state of a guarded update is compared with the document as read by this batch, which is then saved with
+	 * the revision it had when read; CouchDB rejects it if it has been modified in between.
+	 */
+	private void executeBatchUpdate(Map<String, Document> documents, Map<String, Document> storedDocuments, UpdateTupleOperation update) {
+		EntityDocument entity;
+		if ( update.getOldLockState() == null ) {
+			entity = getOrCreateEntityDocument( documents, storedDocuments, update.getEntityKey() );
+		}
+		else {
+			entity = getEntityDocument( documents, storedDocuments, Identifier.createEntityId( update.getEntityKey() ) );
+			if ( entity == null || !GridDialects.matches( update.getOldLockState(), new Tuple( new CouchDBTupleSnapshot( entity.getProperties() ) ) ) ) {
+				throw logger.staleBatchedUpdate( update.getEntityKey() );
+			}
+		}
+		entity.update( update.getTuple() );
+	}
+
+	private void executeBatchRemove(Map<String, Document> documents, Map<String, Document> storedDocuments, RemoveTupleOperation remove) {
+		String id = Identifier.createEntityId( remove.getEntityKey() );
+		markAsDeleted( documents, id, getStoredRevision( storedDocuments, id ) );
+	}
+
+	private void executeBatchAssociationUpdate(Map<String, Document> documents, Map<String, Document> storedDocuments, UpdateAssociationOperation update) {
+		AssociationKey key = update.getAssociationKey();
+		List<Map<String, Object>> rows = getAssociationRows( update.getAssociation(), key );
+
+		if ( isStoredInEntityStructure( key, update.getContext() ) ) {
+			EntityDocument owningEntity = getOrCreateEntityDocument( documents, storedDocuments, key.getEntityKey() );
+			CouchDBAssociation.fromEmbeddedAssociation( owningEntity, key.getCollectionRole() ).setRows( rows );
+		}
+		else {
+			CouchDBAssociation couchDBAssociation = ( (CouchDBAssociationSnapshot) update.getAssociation().getSnapshot() ).getCouchDbAssociation();
+			couchDBAssociation.setRows( rows );
+
+			Document association = couchDBAssociation.getOwningDocument();
+			Document previous = documents.put( association.getId(), association );
+			// an earlier operation of this batch knows the current revision best
+			if ( previous != null && previous != association && previous.getRevision() != null ) {
+				association.setRevision( previous.getRevision() );
+			}
+		}
+	}
+
+	private void executeBatchAssociationRemove(Map<String, Document> documents, Map<String, Document> storedDocuments, RemoveAssociationOperation remove) {
+		AssociationKey key = remove.getAssociationKey();
+
+		if ( isStoredInEntityStructure( key, remove.getContext() ) ) {
+			EntityDocument owningEntity = getEntityDocument( documents, storedDocuments, Identifier.createEntityId( key.getEntityKey() ) );
+			if ( owningEntity != null ) {
+				owningEntity.removeAssociation( key.getCollectionRole() );
+			}
+		}
+		else {
+			String id = Identifier.createAssociationId( key );
+			markAsDeleted( documents, id, getStoredRevision( storedDocuments, id ) );
+		}
+	}
+
+	private String getStoredRevision(Map<String, Document> storedDocuments, String id) {
+		Document stored = storedDocuments.get( id );
+		return stored != null ? stored.getRevision() : null;
+	}
+
+	/**
+	 * Returns the entity document with the given id as to be written by this batch, obtained from the stored entities
+	 * upon first access. Returns {@code null} if the entity doesn't exist or has been removed within this batch.
+	 */
+	private EntityDocument getEntityDocument(Map<String, Document> documents, Map<String, Document> storedDocuments, String id) {
+		Document document = documents.get( id );
+		if ( document != null ) {
+			return document instanceof EntityDocument ? (EntityDocument) document : null;
+		}
+
+		Document stored = storedDocuments.get( id );
+		if ( stored instanceof EntityDocument ) {
+			documents.put( id, stored );
+			return (EntityDocument) stored;
+		}
+		return null;
+	}
+
+	private EntityDocument getOrCreateEntityDocument(Map<String, Document> documents, Map<String, Document> storedDocuments, EntityKey key) {
+		String id = Identifier.createEntityId( key );
+		EntityDocument entity = getEntityDocument( documents, storedDocuments, id );
+		if ( entity == null ) {
+			entity = new EntityDocument( key );
+			// re-created after having been removed within this batch
+			Document removed = documents.get( id );
+			if ( removed != null ) {
+				entity.setRevision( removed.getRevision() );
+			}
+			documents.put( id, entity );
+		}
+		return entity;
+	}
+
+	/**
+	 * Replaces the given document by a deletion marker. Documents not yet stored in the datastore are just not written.
+	 *
+	 * @param storedRevision the revision of the stored document, only used if this batch doesn't contain the document
+	 * yet
+	 */
+	private void markAsDeleted(Map<String, Document> documents, String id, String storedRevision) {
+		Document document = documents.get( id );
+		String revision = document != null ? document.getRevision() : storedRevision;
+		if ( revision != null ) {
+			documents.put( id, new DeletedDocument( id, revision ) );
+		}
+		else {
+			documents.remove( id );
+		}
+	}
+
 	@Override
 	public Iterator<Tuple> executeBackendQuery(CustomQuery customQuery, EntityKeyMetadata[] metadatas) {
 		throw new UnsupportedOperationException( "Native queries not supported for CouchDB" );
@@ -24,6 +24,7 @@
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
 import javax.ws.rs.HEAD;
+import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
@@ -32,8 +33,11 @@
 import javax.ws.rs.core.Response;
 
 import org.hibernate.ogm.dialect.couchdb.backend.json.designdocument.impl.DesignDocument;
+import org.hibernate.ogm.dialect.couchdb.backend.json.designdocument.impl.EntityProjectionDesignDocument;
 import org.hibernate.ogm.dialect.couchdb.backend.json.designdocument.impl.TuplesDesignDocument;
+import org.hibernate.ogm.dialect.couchdb.backend.json.impl.BulkDocuments;
 import org.hibernate.ogm.dialect.couchdb.backend.json.impl.Document;
+import org.hibernate.ogm.dialect.couchdb.backend.json.impl.DocumentKeys;
 
 /**
  * The Interface used by RESTEasy to create the REST calls used to interact with the CouchDB database instance. The
@@ -57,6 +61,16 @@ public interface DatabaseClient {
 	@Path("{id}")
 	Response saveDocument(Document document, @PathParam("id") String id);
 
+	/**
+	 * Save, update or delete several {@link Document}s with a single request
+	 *
+	 * @param documents the documents to be written
+	 * @return the {@link Response} from CouchDB, containing one result per document in the order of the request
+	 */
+	@POST
+	@Path("_bulk_docs")
+	Response saveDocuments(BulkDocuments documents);
+
 	/**
 	 * Save a {@link DesignDocument} with the given id
 	 *
@@ -98,6 +112,30 @@ public interface DatabaseClient {
 	@Path("{id}")
 	Response getEntityById(@PathParam("id") String id);
 
+	/**
+	 * Retrieve some fields of the {@link org.hibernate.ogm.dialect.couchdb.backend.json.impl.EntityDocument} with the
+	 * given id
+	 *
+	 * @param id of the CouchDBEntity to retrieve
+	 * @param fields the JSON array with the names of the fields to retrieve
+	 * @return the {@link Response} with the searched CouchDBEntity, containing only the given fields
+	 */
+	@GET
+	@Path(EntityProjectionDesignDocument.FIELDS_PATH + "/{id}")
+	Response getEntityFieldsById(@PathParam("id") String id, @QueryParam("fields") String fields);
+
+	/**
+	 * Retrieve the {@link org.hibernate.ogm.dialect.couchdb.backend.json.impl.EntityDocument}s with the given ids
+	 *
+	 * @param keys the ids of the CouchDBEntities to retrieve
+	 * @param includeDocs whether to include the documents in the result or not
+	 * @return the {@link Response} with the
+	 * {@link org.hibernate.ogm.dialect.couchdb.backend.json.impl.EntityDocumentRows}
+	 */
+	@POST
+	@Path("_all_docs")
+	Response getEntitiesByIds(DocumentKeys keys, @QueryParam("include_docs") boolean includeDocs);
+
 	/**
 	 * Retrieve the {@link org.hibernate.ogm.dialect.couchdb.backend.json.impl.AssociationDocument} with the given id
 	 *
@@ -119,15 +157,20 @@ public interface DatabaseClient {
 	Response getKeyValueById(@PathParam("id") String id);
 
 	/**
-	 * Retrieve all the entity tuples with the table name equals to the given one.
+	 * Retrieve a page of the entity tuples with the table name equals to the given one, ordered by document id.
 	 *
-	 * @param tableName name of the entity
+	 * @param startKey the JSON-quoted name of the entity table
+	 * @param endKey the JSON-quoted name of the entity table
+	 * @param startDocumentId the id of the first document to retrieve, {@code null} to start with the first document of
+	 * the table
+	 * @param limit the maximum number of tuples to retrieve
 	 * @return the {@link Response} with the
 	 * {@link org.hibernate.ogm.dialect.couchdb.backend.json.designdocument.impl.EntityTupleRows}
 	 */
 	@GET
 	@Path(TuplesDesignDocument.ENTITY_TUPLE_BY_TABLE_NAME_PATH)
-	Response getEntityTuplesByTableName(@QueryParam("key") String tableName);
+	Response getEntityTuplesByTableName(@QueryParam("startkey") String startKey, @QueryParam("endkey") String endKey,
+			@QueryParam("startkey_docid") String startDocumentId, @QueryParam("limit") int limit);
 
 	/**
 	 * Retrieves the current revision of the document with the given id.
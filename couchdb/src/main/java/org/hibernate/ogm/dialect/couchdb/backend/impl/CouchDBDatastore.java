@@ -21,19 +21,23 @@
 package org.hibernate.ogm.dialect.couchdb.backend.impl;
 
 import java.util.List;
+import java.util.Map;
 
 import javax.ws.rs.ProcessingException;
 import javax.ws.rs.core.Response;
 
-import org.hibernate.ogm.datastore.spi.Tuple;
 import org.hibernate.ogm.dialect.couchdb.backend.facade.impl.DatabaseClient;
 import org.hibernate.ogm.dialect.couchdb.backend.facade.impl.ServerClient;
 import org.hibernate.ogm.dialect.couchdb.backend.json.designdocument.impl.DesignDocument;
+import org.hibernate.ogm.dialect.couchdb.backend.json.designdocument.impl.EntityProjectionDesignDocument;
 import org.hibernate.ogm.dialect.couchdb.backend.json.designdocument.impl.EntityTupleRows;
 import org.hibernate.ogm.dialect.couchdb.backend.json.designdocument.impl.TuplesDesignDocument;
 import org.hibernate.ogm.dialect.couchdb.backend.json.impl.AssociationDocument;
+import org.hibernate.ogm.dialect.couchdb.backend.json.impl.BulkDocuments;
 import org.hibernate.ogm.dialect.couchdb.backend.json.impl.Document;
+import org.hibernate.ogm.dialect.couchdb.backend.json.impl.DocumentKeys;
 import org.hibernate.ogm.dialect.couchdb.backend.json.impl.EntityDocument;
+import org.hibernate.ogm.dialect.couchdb.backend.json.impl.EntityDocumentRows;
 import org.hibernate.ogm.dialect.couchdb.backend.json.impl.GenericResponse;
 import org.hibernate.ogm.dialect.couchdb.backend.json.impl.SequenceDocument;
 import org.hibernate.ogm.dialect.couchdb.util.impl.DatabaseIdentifier;
@@ -61,6 +65,11 @@ public class CouchDBDatastore {
 	 */
 	private static final int CONNECTION_POOL_SIZE = 10;
 
+	/**
+	 * Error returned for a document of a bulk request if the given revision is not the current one
+	 */
+	private static final String CONFLICT_ERROR = "conflict";
+
 	private static final Log logger = LoggerFactory.getLogger();
 
 	private final DatabaseIdentifier database;
@@ -116,6 +125,11 @@ else if ( !databaseExists( serverClient, database.getDatabaseName() ) ) {
 		if ( !exists( TuplesDesignDocument.DOCUMENT_ID, true ) ) {
 			saveDocument( new TuplesDesignDocument() );
 		}
+
+		// create entity projection design document if required
+		if ( !exists( EntityProjectionDesignDocument.DOCUMENT_ID, true ) ) {
+			saveDocument( new EntityProjectionDesignDocument() );
+		}
 	}
 
 	/**
@@ -170,6 +184,60 @@ else if ( response.getStatus() == Response.Status.CONFLICT.getStatusCode() ) {
 		}
 	}
 
+	/**
+	 * Saves the given documents using as few requests to the {@code _bulk_docs} API as possible. The revisions of all
+	 * successfully written documents are updated. Documents may be marked for deletion using
+	 * {@link org.hibernate.ogm.dialect.couchdb.backend.json.impl.DeletedDocument}.
+	 *
+	 * @param documents the documents to be saved; each document must be contained at most once
+	 * @param batchSize the maximum number of documents to be written with one request
+	 */
+	public void saveDocuments(List<Document> documents, int batchSize) {
+		for ( int i = 0; i < documents.size(); i += batchSize ) {
+			doSaveDocuments( documents.subList( i, Math.min( i + batchSize, documents.size() ) ) );
+		}
+	}
+
+	private void doSaveDocuments(List<Document> documents) {
+		Response response = null;
+		try {
+			response = databaseClient.saveDocuments( new BulkDocuments( documents ) );
+			if ( response.getStatus() == Response.Status.CREATED.getStatusCode() ) {
+				// CouchDB returns the results in the order of the given documents; each document may have failed
+				// individually, so the revisions of the successful ones are applied before raising any error
+				GenericResponse[] results = response.readEntity( GenericResponse[].class );
+				GenericResponse failure = null;
+				for ( int i = 0; i < results.length; i++ ) {
+					GenericResponse result = results[i];
+					if ( result.getError() == null ) {
+						updateDocumentRevision( documents.get( i ), result.getRev() );
+					}
+					else if ( failure == null ) {
+						failure = result;
+					}
+				}
+				if ( failure != null ) {
+					if ( CONFLICT_ERROR.equals( failure.getError() ) ) {
+						throw logger.getDocumentHasBeenConcurrentlyModifiedException( failure.getId() );
+					}
+					throw logger.errorSavingDocumentInBulk( failure.getId(), failure.getError(), failure.getReason() );
+				}
+			}
+			else {
+				GenericResponse entity = response.readEntity( GenericResponse.class );
+				throw logger.errorCreatingDocument( response.getStatus(), entity.getError(), entity.getReason() );
+			}
+		}
+		catch (ResteasyClientException e) {
+			throw logger.couchDBConnectionProblem( e );
+		}
+		finally {
+			if ( response != null ) {
+				response.close();
+			}
+		}
+	}
+
 	/**
 	 * Retrieves a {@link EntityDocument} from the database
 	 *
@@ -177,9 +245,22 @@ else if ( response.getStatus() == Response.Status.CONFLICT.getStatusCode() ) {
 	 * @return the found CouchDBEntity or null
 	 */
 	public EntityDocument getEntity(String id) {
+		return getEntity( id, null );
+	}
+
+	/**
+	 * Retrieves a {@link EntityDocument} with only the given fields from the database. The document is filtered by a
+	 * show function on the server, so the other fields are neither transferred nor deserialized.
+	 *
+	 * @param id the id of the CouchDBEntity to retrieve
+	 * @param fields the names of the fields to retrieve, embedded fields given by their dot-separated path; {@code null}
+	 * to retrieve all the fields
+	 * @return the found CouchDBEntity or null
+	 */
+	public EntityDocument getEntity(String id, List<String> fields) {
 		Response response = null;
 		try {
-			response = databaseClient.getEntityById( id );
+			response = fields == null ? databaseClient.getEntityById( id ) : databaseClient.getEntityFieldsById( id, toJsonArray( fields ) );
 			if ( response.getStatus() == Response.Status.NOT_FOUND.getStatusCode() ) {
 				return null;
 			}
@@ -201,6 +282,48 @@ else if ( response.getStatus() == Response.Status.OK.getStatusCode() ) {
 		}
 	}
 
+	/**
+	 * Retrieves several {@link EntityDocument}s from the database using a single request
+	 *
+	 * @param ids the ids of the CouchDBEntities to retrieve
+	 * @return the found CouchDBEntities by id; missing entities have no entry
+	 */
+	public Map<String, EntityDocument> getEntities(List<String> ids) {
+		return getDocumentRows( ids ).getEntitiesById();
+	}
+
+	/**
+	 * Retrieves several documents of any type from the database using a single request
+	 *
+	 * @param ids the ids of the documents to retrieve
+	 * @return the found documents by id, each one carrying its current revision; missing documents have no entry
+	 */
+	public Map<String, Document> getDocuments(List<String> ids) {
+		return getDocumentRows( ids ).getDocumentsById();
+	}
+
+	private EntityDocumentRows getDocumentRows(List<String> ids) {
+		Response response = null;
+		try {
+			response = databaseClient.getEntitiesByIds( new DocumentKeys( ids ), true );
+			if ( response.getStatus() == Response.Status.OK.getStatusCode() ) {
+				return response.readEntity( EntityDocumentRows.class );
+			}
+			else {
+				GenericResponse responseEntity = response.readEntity( GenericResponse.class );
+				throw logger.errorRetrievingEntities( ids, response.getStatus(), responseEntity.getError(), responseEntity.getReason() );
+			}
+		}
+		catch (ResteasyClientException e) {
+			throw logger.couchDBConnectionProblem( e );
+		}
+		finally {
+			if ( response != null ) {
+				response.close();
+			}
+		}
+	}
+
 	/**
 	 * Returns the current revision of the document with the given id.
 	 *
@@ -281,14 +404,16 @@ else if ( response.getStatus() == Response.Status.OK.getStatusCode() ) {
 	}
 
 	/**
-	 * Retrieves all the tuples matching the {@link EntityKeyMetadata}
+	 * Retrieves a page of the tuples matching the {@link EntityKeyMetadata}, ordered by document id
 	 *
 	 * @param entityKeyMetadata the EntityKeyMetadata used to filter the tuples
-	 * @return all the tuples matching the given entityKeyMetadata
+	 * @param startDocumentId the id of the first document to retrieve, {@code null} to start with the first one
+	 * @param limit the maximum number of tuples to retrieve
+	 * @return the tuples matching the given entityKeyMetadata, starting with the given document
 	 */
-	public List<Tuple> getTuples(EntityKeyMetadata entityKeyMetadata) {
+	public EntityTupleRows getTuples(EntityKeyMetadata entityKeyMetadata, String startDocumentId, int limit) {
 		final String tableName = getTableName( entityKeyMetadata );
-		return getTuplesByTableName( tableName );
+		return getTuplesByTableName( tableName, startDocumentId, limit );
 	}
 
 	public long nextValue(RowKey key, int increment, int initialValue) {
@@ -418,12 +543,24 @@ private boolean databaseExists(ServerClient serverClient, String databaseName) {
 		}
 	}
 
-	private List<Tuple> getTuplesByTableName(String tableName) {
+	private static String toJsonArray(List<String> values) {
+		StringBuilder array = new StringBuilder( "[" );
+		for ( String value : values ) {
+			if ( array.length() > 1 ) {
+				array.append( "," );
+			}
+			array.append( "\"" ).append( value.replace( "\\", "\\\\" ).replace( "\"", "\\\"" ) ).append( "\"" );
+		}
+		return array.append( "]" ).toString();
+	}
+
+	private EntityTupleRows getTuplesByTableName(String tableName, String startDocumentId, int limit) {
 		Response response = null;
 		try {
-			response = databaseClient.getEntityTuplesByTableName( "\"" + tableName + "\"" );
+			String key = "\"" + tableName + "\"";
+			response = databaseClient.getEntityTuplesByTableName( key, key, startDocumentId, limit );
 			if ( response.getStatus() == Response.Status.OK.getStatusCode() ) {
-				return response.readEntity( EntityTupleRows.class ).getTuples();
+				return response.readEntity( EntityTupleRows.class );
 			}
 			else {
 				GenericResponse responseEntity = response.readEntity( GenericResponse.class );
@@ -38,6 +38,7 @@ public class DesignDocument extends Document {
 
 	private Map<String, View> views = new HashMap<String, View>();
 	private Map<String, String> lists = new HashMap<String, String>();
+	private Map<String, String> shows = new HashMap<String, String>();
 	private final String language = "javascript";
 
 	public Map<String, View> getViews() {
@@ -60,6 +61,14 @@ public void setLists(Map<String, String> lists) {
 		this.lists = lists;
 	}
 
+	public Map<String, String> getShows() {
+		return shows;
+	}
+
+	public void setShows(Map<String, String> shows) {
+		this.shows = shows;
+	}
+
 	/**
 	 * Adds View with bot map and reduce functions to the Document.
 	 *
@@ -105,6 +114,16 @@ public void addList(String name, String listFunction) {
 		lists.put( name, listFunction );
 	}
 
+	/**
+	 * Adds the given show function to this design document.
+	 *
+	 * @param name the name of the function
+	 * @param showFunction the JavaScript code of the function
+	 */
+	public void addShow(String name, String showFunction) {
+		shows.put( name, showFunction );
+	}
+
 	@JsonSerialize(include = JsonSerialize.Inclusion.NON_NULL)
 	public static class View {
 		private String map;
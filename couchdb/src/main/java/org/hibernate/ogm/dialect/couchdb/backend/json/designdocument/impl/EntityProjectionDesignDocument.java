@@ -0,0 +1,81 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.dialect.couchdb.backend.json.designdocument.impl;
+
+import org.codehaus.jackson.map.annotate.JsonSerialize;
+import org.hibernate.ogm.dialect.couchdb.backend.json.impl.Document;
+import org.hibernate.ogm.dialect.couchdb.backend.json.impl.EntityDocument;
+
+/**
+ * Creates a CouchDB Design Document with a show function used to retrieve only some of the fields of an entity.
+ * <p>
+ * The show function expects the names of the requested fields as JSON array in the "fields" query parameter, embedded
+ * fields being given by their dot-separated path. Besides the requested fields, the returned document only contains
+ * the id, revision, type and table of the {@link EntityDocument}, so that e.g. associations stored within the entity
+ * document are not transferred when loading the entity.
+ */
+@JsonSerialize(include = JsonSerialize.Inclusion.NON_NULL)
+public class EntityProjectionDesignDocument extends DesignDocument {
+
+	/**
+	 * The ID of the Document
+	 */
+	public static final String DOCUMENT_ID = "entityProjection";
+
+	/**
+	 * The name of the show function
+	 */
+	public static final String FIELDS_SHOW_NAME = "fields";
+
+	/**
+	 * The URL to use in the REST call in order to obtain some fields of an entity, to be followed by the document id
+	 */
+	public static final String FIELDS_PATH = "_design/" + DOCUMENT_ID + "/_show/" + FIELDS_SHOW_NAME;
+
+	/**
+	 * The JavaScript show function; returns the requested fields of the given document, responding with 404 if the
+	 * document doesn't exist.
+	 */
+	public static final String SHOW = "function(doc, req) {"
+			+ "if (!doc) {return {code: 404, json: {error: \"not_found\", reason: \"missing\"}};}"
+			+ "var fields = JSON.parse(req.query.fields);"
+			+ "var result = {_id: doc._id, _rev: doc._rev};"
+			+ "result." + Document.TYPE_DISCRIMINATOR_FIELD_NAME + " = doc." + Document.TYPE_DISCRIMINATOR_FIELD_NAME + ";"
+			+ "result.$table = doc.$table;"
+			+ "for (var i = 0; i < fields.length; i++) {"
+			+ "var path = fields[i].split(\".\");"
+			+ "var source = doc;"
+			+ "var target = result;"
+			+ "for (var j = 0; j < path.length - 1 && source; j++) {"
+			+ "source = typeof source[path[j]] == \"object\" ? source[path[j]] : null;"
+			+ "if (source) {target[path[j]] = target[path[j]] || {}; target = target[path[j]];}"
+			+ "}"
+			+ "var name = path[path.length - 1];"
+			+ "if (source && source.hasOwnProperty(name)) {target[name] = source[name];}"
+			+ "}"
+			+ "return {json: result};"
+			+ "}";
+
+	public EntityProjectionDesignDocument() {
+		setId( DOCUMENT_ID );
+		addShow( FIELDS_SHOW_NAME, SHOW );
+	}
+}
@@ -49,19 +49,49 @@ void setRows(List<Row> rows) {
 
 	@JsonIgnore
 	public List<Tuple> getTuples() {
-		List<Tuple> tuples = new ArrayList<Tuple>( rows.size() );
-		if ( rows.size() > 0 ) {
-			for ( Row row : rows ) {
-				tuples.add( new Tuple( new CouchDBTupleSnapshot( row.getValue().getProperties() ) ) );
-			}
+		return getTuples( rows.size() );
+	}
+
+	/**
+	 * Returns the tuples of the first rows of this result.
+	 *
+	 * @param maxTuples the maximum number of tuples to return
+	 * @return the tuples of the first {@code maxTuples} rows
+	 */
+	@JsonIgnore
+	public List<Tuple> getTuples(int maxTuples) {
+		int size = Math.min( maxTuples, rows.size() );
+		List<Tuple> tuples = new ArrayList<Tuple>( size );
+		for ( Row row : rows.subList( 0, size ) ) {
+			tuples.add( new Tuple( new CouchDBTupleSnapshot( row.getValue().getProperties() ) ) );
 		}
 		return tuples;
 	}
 
+	/**
+	 * Returns the id of the document of the given row.
+	 *
+	 * @param index the index of the row
+	 * @return the id of the document of the given row, {@code null} if this result has no such row
+	 */
+	@JsonIgnore
+	public String getDocumentId(int index) {
+		return index < rows.size() ? rows.get( index ).getId() : null;
+	}
+
 	@JsonIgnoreProperties(ignoreUnknown = true)
 	private static class Row {
+		private String id;
 		private EntityDocument value;
 
+		public String getId() {
+			return id;
+		}
+
+		void setId(String id) {
+			this.id = id;
+		}
+
 		public EntityDocument getValue() {
 			return value;
 		}
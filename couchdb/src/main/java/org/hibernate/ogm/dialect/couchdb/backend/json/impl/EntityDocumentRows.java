@@ -0,0 +1,100 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.dialect.couchdb.backend.json.impl;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.codehaus.jackson.annotate.JsonIgnore;
+import org.codehaus.jackson.annotate.JsonIgnoreProperties;
+
+/**
+ * Represents the result of a REST call retrieving several documents by their ids via {@code _all_docs}. Rows for
+ * missing or deleted documents don't contain any document.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class EntityDocumentRows {
+
+	private List<Row> rows;
+
+	List<Row> getRows() {
+		return rows;
+	}
+
+	void setRows(List<Row> rows) {
+		this.rows = rows;
+	}
+
+	/**
+	 * Returns the retrieved documents, keyed by their id.
+	 *
+	 * @return the retrieved documents by id; missing documents have no entry
+	 */
+	@JsonIgnore
+	public Map<String, Document> getDocumentsById() {
+		Map<String, Document> documents = new HashMap<String, Document>( rows.size() );
+		for ( Row row : rows ) {
+			if ( row.getDoc() != null ) {
+				documents.put( row.getKey(), row.getDoc() );
+			}
+		}
+		return documents;
+	}
+
+	/**
+	 * Returns the retrieved entity documents, keyed by their id.
+	 *
+	 * @return the retrieved entity documents by id; missing documents and documents of other types have no entry
+	 */
+	@JsonIgnore
+	public Map<String, EntityDocument> getEntitiesById() {
+		Map<String, EntityDocument> entities = new HashMap<String, EntityDocument>( rows.size() );
+		for ( Row row : rows ) {
+			if ( row.getDoc() instanceof EntityDocument ) {
+				entities.put( row.getKey(), (EntityDocument) row.getDoc() );
+			}
+		}
+		return entities;
+	}
+
+	@JsonIgnoreProperties(ignoreUnknown = true)
+	private static class Row {
+		private String key;
+		private Document doc;
+
+		public String getKey() {
+			return key;
+		}
+
+		void setKey(String key) {
+			this.key = key;
+		}
+
+		public Document getDoc() {
+			return doc;
+		}
+
+		void setDoc(Document doc) {
+			this.doc = doc;
+		}
+	}
+}
@@ -38,20 +38,33 @@
 public class CouchDBTupleSnapshot implements TupleSnapshot {
 
 	private final Map<String, Object> properties;
+	private final boolean createdForInsert;
 
 	public CouchDBTupleSnapshot() {
 		this.properties = Collections.emptyMap();
+		this.createdForInsert = false;
 	}
 
 	public CouchDBTupleSnapshot(EntityKey key) {
+		this( key, false );
+	}
+
+	/**
+	 * @param key the key of the entity
+	 * @param createdForInsert whether the tuple belongs to an entity to be inserted without checking whether a
+	 * document with the same id exists
+	 */
+	public CouchDBTupleSnapshot(EntityKey key, boolean createdForInsert) {
 		properties = new HashMap<String, Object>();
 		for ( int i = 0; i < key.getColumnNames().length; i++ ) {
 			properties.put( key.getColumnNames()[i], key.getColumnValues()[i] );
 		}
+		this.createdForInsert = createdForInsert;
 	}
 
 	public CouchDBTupleSnapshot(Map<String, Object> properties) {
 		this.properties = properties;
+		this.createdForInsert = false;
 	}
 
 	@Override
@@ -68,4 +81,12 @@ public boolean isEmpty() {
 	public Set<String> getColumnNames() {
 		return properties.keySet();
 	}
+
+	/**
+	 * Whether the document of this tuple is to be created without a revision, so that CouchDB rejects it if a
+	 * document with the same id exists already.
+	 */
+	public boolean isCreatedForInsert() {
+		return createdForInsert;
+	}
 }
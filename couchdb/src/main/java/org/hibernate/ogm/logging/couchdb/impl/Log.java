@@ -23,11 +23,13 @@
 import static org.jboss.logging.Logger.Level.INFO;
 
 import java.text.ParseException;
+import java.util.List;
 
 import javax.persistence.OptimisticLockException;
 
 import org.hibernate.HibernateException;
 import org.hibernate.ogm.cfg.OgmProperties;
+import org.hibernate.ogm.datastore.couchdb.CouchDBProperties;
 import org.jboss.logging.Cause;
 import org.jboss.logging.LogMessage;
 import org.jboss.logging.Message;
@@ -102,4 +104,13 @@ HibernateException malformedDataBaseUrl(@Cause Exception e, String databaseHost,
 
 	@Message(id = 1321, value = "Database %s does not exist. Either create it yourself or set property '" + OgmProperties.CREATE_DATABASE + "' to true.")
 	HibernateException databaseDoesNotExistException(String databaseName);
+
+	@Message(id = 1322, value = "An error occurred retrieving entities with ids %s, " + ERROR_DESCRIPTION)
+	HibernateException errorRetrievingEntities(List<String> entityIds, int status, String error, String reason);
+
+	@Message(id = 1323, value = "The value set for the configuration property '" + CouchDBProperties.BATCH_SIZE + "' must be a number greater than 0. Found '%s'.")
+	HibernateException illegalBatchSize(int value);
+
+	@Message(id = 1324, value = "An error occurred saving CouchDB Document with id %s in a bulk request, error: '%s', reason: '%s'")
+	HibernateException errorSavingDocumentInBulk(String id, String error, String reason);
 }
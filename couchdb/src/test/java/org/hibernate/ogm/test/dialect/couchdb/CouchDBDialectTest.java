@@ -36,6 +36,10 @@
 import org.hibernate.ogm.datastore.spi.AssociationContext;
 import org.hibernate.ogm.datastore.spi.Tuple;
 import org.hibernate.ogm.datastore.spi.TupleContext;
+import org.hibernate.ogm.dialect.batch.OperationsQueue;
+import org.hibernate.ogm.dialect.batch.RemoveTupleOperation;
+import org.hibernate.ogm.dialect.batch.UpdateAssociationOperation;
+import org.hibernate.ogm.dialect.batch.UpdateTupleOperation;
 import org.hibernate.ogm.dialect.couchdb.CouchDBDialect;
 import org.hibernate.ogm.dialect.couchdb.model.impl.CouchDBTupleSnapshot;
 import org.hibernate.ogm.grid.AssociationKey;
@@ -87,7 +91,7 @@ public void getTupleShouldReturnTheSearchedOne() {
 
 		dialect.updateTuple( createdTuple, key );
 
-		Tuple actualTuple = dialect.getTuple( key, null );
+		Tuple actualTuple = dialect.getTuple( key, emptyTupleContext() );
 
 		assertThat( actualTuple.get( "id" ), is( createdTuple.get( "id" ) ) );
 	}
@@ -111,7 +115,7 @@ public void updateTupleShouldAddTheNewColumnValue() {
 
 		dialect.updateTuple( createdTuple, key );
 
-		Tuple tuple = dialect.getTuple( key, new TupleContext( new ArrayList<String>() ) );
+		Tuple tuple = dialect.getTuple( key, emptyTupleContext() );
 		assertThat( (String) tuple.get( "name" ), is( "and" ) );
 	}
 
@@ -159,6 +163,53 @@ public void updateAnAssociationShouldAddATuple() {
 		assertThat( actualAssociation.get( rowKey ).hashCode(), notNullValue() );
 	}
 
+	@Test
+	public void executeBatchShouldMergeTheChangesOfEachDocument() {
+		EntityKey key = createEntityKey( "user", new String[] { "id", "age" }, new Object[] { "17", 36 } );
+		EntityKey otherKey = createEntityKey( "user", new String[] { "id", "age" }, new Object[] { "18", 42 } );
+		Tuple tuple = dialect.createTuple( key );
+		tuple.put( "name", "and" );
+
+		OperationsQueue queue = new OperationsQueue();
+		queue.add( new UpdateTupleOperation( tuple, key ) );
+		queue.add( new UpdateTupleOperation( dialect.createTuple( otherKey ), otherKey ) );
+
+		String[] rowKeyColumnNames = new String[] { "user_id", "addresses_id" };
+		AssociationKey associationKey = createAssociationKey(
+				key, "addresses", "user_address", new String[] { "user_id" }, new Object[] { "17" }, rowKeyColumnNames
+		);
+		Association association = dialect.createAssociation( associationKey, emptyAssociationContext() );
+		Map<String, Object> properties = new HashMap<String, Object>();
+		properties.put( "user_id", "17" );
+		properties.put( "addresses_id", 1 );
+		RowKey rowKey = createRowKey( "user_address", rowKeyColumnNames, new Object[] { "17", 1 } );
+		association.put( rowKey, new Tuple( new CouchDBTupleSnapshot( properties ) ) );
+		queue.add( new UpdateAssociationOperation( association, associationKey, emptyAssociationContext() ) );
+
+		dialect.executeBatch( queue );
+
+		assertThat( queue.isClosed() ).isTrue();
+		assertThat( new CouchDBTestHelper().getNumberOfEntities( datastoreProvider.getDataStore() ) ).isEqualTo( 2 );
+		assertThat( (String) dialect.getTuple( key, emptyTupleContext() ).get( "name" ), is( "and" ) );
+		assertThat( dialect.getAssociation( associationKey, emptyAssociationContext() ).get( rowKey ), notNullValue() );
+	}
+
+	@Test
+	public void executeBatchShouldRemoveStoredDocuments() {
+		EntityKey key = createEntityKey( "user", new String[] { "id", "age" }, new Object[] { "17", 36 } );
+		EntityKey otherKey = createEntityKey( "user", new String[] { "id", "age" }, new Object[] { "18", 42 } );
+		dialect.updateTuple( dialect.createTuple( key ), key );
+
+		OperationsQueue queue = new OperationsQueue();
+		queue.add( new UpdateTupleOperation( dialect.createTuple( otherKey ), otherKey ) );
+		queue.add( new RemoveTupleOperation( key ) );
+		queue.add( new RemoveTupleOperation( otherKey ) );
+
+		dialect.executeBatch( queue );
+
+		assertThat( new CouchDBTestHelper().getNumberOfEntities( datastoreProvider.getDataStore() ) ).isEqualTo( 0 );
+	}
+
 	private EntityKey createEntityKey(String tableName, String[] columnNames, Object[] values) {
 		return new EntityKey( new EntityKeyMetadata( tableName, columnNames ), values );
 	}
@@ -181,6 +232,10 @@ private void createDataStoreProvider() throws Exception {
 		datastoreProvider.start();
 	}
 
+	private TupleContext emptyTupleContext() {
+		return new TupleContext( new ArrayList<String>() );
+	}
+
 	private AssociationContext emptyAssociationContext() {
 		return new AssociationContext( new PropertyOptionsContext( new WritableOptionsServiceContext(), Object.class, "" ) );
 	}
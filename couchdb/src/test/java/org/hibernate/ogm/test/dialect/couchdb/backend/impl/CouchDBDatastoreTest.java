@@ -20,15 +20,19 @@
  */
 package org.hibernate.ogm.test.dialect.couchdb.backend.impl;
 
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Properties;
 
 import javax.persistence.OptimisticLockException;
 
+import org.codehaus.jackson.map.ObjectMapper;
 import org.hibernate.HibernateException;
 import org.hibernate.ogm.cfg.OgmProperties;
 import org.hibernate.ogm.dialect.couchdb.backend.impl.CouchDBDatastore;
@@ -131,6 +135,50 @@ public void testGetEntityWithWrongIdReturnNullValue() {
 		assertThat( entity, nullValue() );
 	}
 
+	@Test
+	public void testGetEntityWithSelectedFieldsOnlyReturnsThoseFields() throws Exception {
+		EntityDocument document = createEntity();
+		document.set( "content", createLargeContent() );
+		document.set( "address.city", "Rome" );
+		document.set( "address.street", "Via Appia" );
+		Document createdDocument = dataStore.saveDocument( document );
+
+		EntityDocument entity = dataStore.getEntity( createdDocument.getId() );
+		EntityDocument projectedEntity = dataStore.getEntity( createdDocument.getId(), Arrays.asList( "id", "name", "address.city", "missing" ) );
+
+		assertThat( projectedEntity.getRevision(), equalTo( createdDocument.getRevision() ) );
+		assertThat( projectedEntity.getTable(), equalTo( "tableName" ) );
+		assertThat( projectedEntity.getProperties().get( "name" ), equalTo( (Object) "Andrea" ) );
+		assertThat( projectedEntity.getProperties().get( "address.city" ), equalTo( (Object) "Rome" ) );
+		assertThat( projectedEntity.getProperties().containsKey( "address.street" ), is( false ) );
+		assertThat( projectedEntity.getProperties().containsKey( "content" ), is( false ) );
+		assertThat( projectedEntity.getProperties().containsKey( "missing" ), is( false ) );
+
+		// the payload of the projected load must not grow with the unselected fields
+		int payloadBytes = payloadBytes( entity );
+		int projectedPayloadBytes = payloadBytes( projectedEntity );
+		assertThat( projectedPayloadBytes < payloadBytes / 10, is( true ) );
+	}
+
+	@Test
+	public void testGetEntityWithSelectedFieldsAndWrongIdReturnNullValue() {
+		Document createdDocument = dataStore.saveDocument( createEntity() );
+		EntityDocument entity = dataStore.getEntity( createdDocument.getId() + "_1", Arrays.asList( "name" ) );
+		assertThat( entity, nullValue() );
+	}
+
+	private String createLargeContent() {
+		StringBuilder content = new StringBuilder();
+		for ( int i = 0; i < 1000; i++ ) {
+			content.append( "Lorem ipsum dolor sit amet. " );
+		}
+		return content.toString();
+	}
+
+	private int payloadBytes(EntityDocument entity) throws IOException {
+		return new ObjectMapper().writeValueAsBytes( entity ).length;
+	}
+
 	private void setUpDatastore() throws Exception {
 		dataBaseDropped = false;
 		loadProperties();
@@ -20,6 +20,8 @@
  */
 package org.hibernate.ogm.dialect.ehcache;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -41,23 +43,31 @@
 import org.hibernate.ogm.datastore.map.impl.MapAssociationSnapshot;
 import org.hibernate.ogm.datastore.spi.Association;
 import org.hibernate.ogm.datastore.spi.AssociationContext;
+import org.hibernate.ogm.datastore.spi.ColumnIndex;
 import org.hibernate.ogm.datastore.spi.DefaultDatastoreNames;
 import org.hibernate.ogm.datastore.spi.Tuple;
 import org.hibernate.ogm.datastore.spi.TupleContext;
-import org.hibernate.ogm.dialect.GridDialect;
+import org.hibernate.ogm.dialect.DuplicateInsertAwareGridDialect;
+import org.hibernate.ogm.dialect.MultigetGridDialect;
+import org.hibernate.ogm.dialect.OptimisticLockingAwareGridDialect;
+import org.hibernate.ogm.dialect.impl.GridDialects;
 import org.hibernate.ogm.grid.AssociationKey;
 import org.hibernate.ogm.grid.EntityKey;
 import org.hibernate.ogm.grid.EntityKeyMetadata;
 import org.hibernate.ogm.grid.RowKey;
 import org.hibernate.ogm.massindex.batchindexing.Consumer;
 import org.hibernate.ogm.type.GridType;
+import org.hibernate.ogm.util.impl.Log;
+import org.hibernate.ogm.util.impl.LoggerFactory;
 import org.hibernate.persister.entity.Lockable;
 import org.hibernate.type.Type;
 
 /**
  * @author Alex Snaps
  */
-public class EhcacheDialect implements GridDialect {
+public class EhcacheDialect implements MultigetGridDialect, DuplicateInsertAwareGridDialect, OptimisticLockingAwareGridDialect {
+
+	private static final Log log = LoggerFactory.make();
 
 	EhcacheDatastoreProvider datastoreProvider;
 
@@ -91,16 +101,27 @@ public Tuple getTuple(EntityKey key, TupleContext tupleContext) {
 		final Cache entityCache = getEntityCache();
 		final Element element = entityCache.get( key );
 		if ( element != null ) {
-			return createTuple( element );
+			return createTuple( element, tupleContext.getColumnIndex() );
 		}
 		else {
 			return null;
 		}
 	}
 
+	@Override
+	public List<Tuple> getTuples(EntityKey[] keys, TupleContext tupleContext) {
+		final Map<Object, Element> elements = getEntityCache().getAll( Arrays.asList( keys ) );
+		final List<Tuple> tuples = new ArrayList<Tuple>( keys.length );
+		for ( EntityKey key : keys ) {
+			Element element = elements.get( key );
+			tuples.add( element != null ? createTuple( element, tupleContext.getColumnIndex() ) : null );
+		}
+		return tuples;
+	}
+
 	@SuppressWarnings("unchecked")
-	private Tuple createTuple(final Element element) {
-		return new Tuple( new MapTupleSnapshot( (Map<String, Object>) element.getValue() ) );
+	private Tuple createTuple(final Element element, ColumnIndex columnIndex) {
+		return new Tuple( new MapTupleSnapshot( (Map<String, Object>) element.getValue() ), columnIndex );
 	}
 
 	@Override
@@ -111,12 +132,44 @@ public Tuple createTuple(EntityKey key) {
 		return new Tuple( new MapTupleSnapshot( tuple ) );
 	}
 
+	@Override
+	public Tuple createTupleForInsert(EntityKey key, TupleContext tupleContext) {
+		final Cache entityCache = getEntityCache();
+		final HashMap<String, Object> tuple = new HashMap<String, Object>();
+		if ( entityCache.putIfAbsent( new Element( key, tuple ) ) != null ) {
+			throw log.entityAlreadyExists( key );
+		}
+		return new Tuple( new MapTupleSnapshot( tuple ), tupleContext.getColumnIndex() );
+	}
+
 	@Override
 	public void updateTuple(Tuple tuple, EntityKey key) {
 		Map<String, Object> entityRecord = ( (MapTupleSnapshot) tuple.getSnapshot() ).getMap();
 		MapHelpers.applyTupleOpsOnMap( tuple, entityRecord );
 	}
 
+	/**
+	 * The changes are applied to a copy of the stored tuple, which replaces the stored element only if no other
+	 * update replaced it in the meantime.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public boolean updateTupleWithOptimisticLock(EntityKey key, Tuple oldLockState, Tuple tuple, TupleContext tupleContext) {
+		final Cache entityCache = getEntityCache();
+		final Element element = entityCache.get( key );
+		if ( element == null ) {
+			return false;
+		}
+
+		Map<String, Object> entityRecord = (Map<String, Object>) element.getValue();
+		if ( !GridDialects.matches( oldLockState, new Tuple( new MapTupleSnapshot( entityRecord ) ) ) ) {
+			return false;
+		}
+		Map<String, Object> updatedRecord = new HashMap<String, Object>( entityRecord );
+		MapHelpers.applyTupleOpsOnMap( tuple, updatedRecord );
+		return entityCache.replace( element, new Element( key, updatedRecord ) );
+	}
+
 	@Override
 	public void removeTuple(EntityKey key) {
 		getEntityCache().remove( key );
@@ -203,7 +256,7 @@ public void forEachTuple(Consumer consumer, EntityKeyMetadata... entityKeyMetada
 				// Check if there is a way to load keys applying a filter
 				if ( key.getTable().equals( entityKeyMetadata.getTable() ) ) {
 					Element element = entityCache.get( key );
-					consumer.consume( createTuple( element ) );
+					consumer.consume( createTuple( element, null ) );
 				}
 			}
 		}
@@ -43,6 +43,17 @@ public final class InfinispanProperties implements OgmProperties {
 	 */
 	public static final String CACHE_MANAGER_RESOURCE_PROP = "hibernate.ogm.infinispan.cachemanager_jndiname";
 
+	/**
+	 * Whether the associations should be stored on the same nodes as the entities owning them when the entity and
+	 * association caches are distributed. Accepts {@code true} or {@code false}, defaults to {@code false}.
+	 * <p>
+	 * When enabled, grouping is turned on for these caches and they share a synchronized consistent hash, so that
+	 * loading an entity together with its collections is served by a single owner. This only applies to a cache
+	 * manager started by Hibernate OGM; a cache manager looked up via JNDI needs to register
+	 * {@code EntityKeyGrouper} and {@code AssociationKeyGrouper} in its own configuration.
+	 */
+	public static final String COLOCATE_ASSOCIATIONS = "hibernate.ogm.infinispan.colocate_associations";
+
 	private InfinispanProperties() {
 	}
 }
@@ -0,0 +1,46 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.datastore.infinispan.impl;
+
+import org.hibernate.ogm.grid.AssociationKey;
+import org.infinispan.distribution.group.Grouper;
+
+/**
+ * Assigns an {@link AssociationKey} to the group of the entity owning the association.
+ * <p>
+ * The group is derived from the column values of the association key, which are the id values of the owning entity,
+ * rather than from {@link AssociationKey#getEntityKey()}: the latter is transient, but the group of a key must be the
+ * same on every node, including the ones which only ever see its serialized form.
+ *
+ * @see EntityKeyGrouper
+ */
+public class AssociationKeyGrouper implements Grouper<AssociationKey> {
+
+	@Override
+	public String computeGroup(AssociationKey key, String group) {
+		return EntityKeyGrouper.groupOf( key.getColumnValues() );
+	}
+
+	@Override
+	public Class<AssociationKey> getKeyType() {
+		return AssociationKey.class;
+	}
+}
@@ -46,6 +46,7 @@
 import org.infinispan.commons.util.FileLookupFactory;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.distribution.ch.SyncConsistentHashFactory;
 import org.infinispan.manager.DefaultCacheManager;
 import org.infinispan.manager.EmbeddedCacheManager;
 
@@ -137,12 +138,14 @@ private EmbeddedCacheManager createCustomCacheManager(String cfgName, JtaPlatfor
 				// inject the platform TransactionManager
 				for (String cacheName : cacheManager.getCacheNames() ) {
 					Configuration originalCfg = cacheManager.getCacheConfiguration( cacheName );
-					Configuration newCfg = new ConfigurationBuilder()
-						.read( originalCfg )
-							.transaction()
-								.transactionManagerLookup( transactionManagerLookupDelegator )
-						.build();
-					cacheManager.defineConfiguration( cacheName, newCfg );
+					ConfigurationBuilder builder = new ConfigurationBuilder()
+						.read( originalCfg );
+					builder.transaction()
+							.transactionManagerLookup( transactionManagerLookupDelegator );
+					if ( config.isColocateAssociations() && isColocated( cacheName, originalCfg ) ) {
+						groupByOwningEntity( builder, originalCfg );
+					}
+					cacheManager.defineConfiguration( cacheName, builder.build() );
 				}
 				cacheManager.start();
 				return cacheManager;
@@ -161,6 +164,26 @@ private EmbeddedCacheManager createCustomCacheManager(String cfgName, JtaPlatfor
 		}
 	}
 
+	private boolean isColocated(String cacheName, Configuration cacheCfg) {
+		return cacheCfg.clustering().cacheMode().isDistributed()
+				&& ( DefaultDatastoreNames.ENTITY_STORE.equals( cacheName ) || DefaultDatastoreNames.ASSOCIATION_STORE.equals( cacheName ) );
+	}
+
+	/**
+	 * Makes the entities and the associations they own members of the same group; the caches also need the same
+	 * consistent hash to place a group on the same nodes in both of them, which is what the synchronized factory
+	 * guarantees for caches with the same members.
+	 */
+	private void groupByOwningEntity(ConfigurationBuilder builder, Configuration originalCfg) {
+		if ( originalCfg.clustering().hash().consistentHashFactory() == null ) {
+			builder.clustering().hash().consistentHashFactory( new SyncConsistentHashFactory() );
+		}
+		builder.clustering().hash().groups()
+				.enabled()
+				.addGrouper( new EntityKeyGrouper() )
+				.addGrouper( new AssociationKeyGrouper() );
+	}
+
 	public EmbeddedCacheManager getEmbeddedCacheManager() {
 		return cacheManager;
 	}
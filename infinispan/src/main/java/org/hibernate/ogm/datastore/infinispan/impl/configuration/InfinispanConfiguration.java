@@ -23,6 +23,7 @@
 import java.util.Map;
 
 import org.hibernate.ogm.datastore.infinispan.InfinispanProperties;
+import org.hibernate.ogm.util.configurationreader.impl.ConfigurationPropertyReader;
 import org.hibernate.ogm.util.impl.Log;
 import org.hibernate.ogm.util.impl.LoggerFactory;
 import org.hibernate.ogm.util.impl.StringHelper;
@@ -40,6 +41,7 @@ public class InfinispanConfiguration {
 
 	private String configName;
 	private String jndi;
+	private boolean colocateAssociations;
 
 	/**
 	 * @see org.hibernate.ogm.datastore.infinispan.Infinispan#CONFIGURATION_RESOURCENAME
@@ -57,6 +59,14 @@ public String getJndiName() {
 		return jndi;
 	}
 
+	/**
+	 * @see org.hibernate.ogm.datastore.infinispan.InfinispanProperties#COLOCATE_ASSOCIATIONS
+	 * @return whether the associations are stored on the same nodes as the entities owning them
+	 */
+	public boolean isColocateAssociations() {
+		return colocateAssociations;
+	}
+
 	/**
 	 * Initialize the internal values form the given {@link Map}.
 	 *
@@ -71,6 +81,11 @@ public void initConfiguration(Map configurationMap) {
 			this.configName = INFINISPAN_DEFAULT_CONFIG;
 		}
 
+		this.colocateAssociations = new ConfigurationPropertyReader( configurationMap )
+				.property( InfinispanProperties.COLOCATE_ASSOCIATIONS, boolean.class )
+				.withDefault( false )
+				.getValue();
+
 		log.tracef( "Initializing Infinispan from configuration file at %1$s", configName );
 	}
 }
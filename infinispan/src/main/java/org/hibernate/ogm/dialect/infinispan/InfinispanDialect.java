@@ -24,9 +24,20 @@
 import static org.hibernate.ogm.datastore.spi.DefaultDatastoreNames.ENTITY_STORE;
 import static org.hibernate.ogm.datastore.spi.DefaultDatastoreNames.IDENTIFIER_STORE;
 
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.hibernate.LockMode;
 import org.hibernate.dialect.lock.LockingStrategy;
@@ -36,35 +47,63 @@
 import org.hibernate.id.IntegralDataTypeHolder;
 import org.hibernate.loader.custom.CustomQuery;
 import org.hibernate.ogm.datastore.impl.MapHelpers;
+import org.hibernate.ogm.datastore.impl.MapTupleSnapshot;
 import org.hibernate.ogm.datastore.infinispan.impl.InfinispanDatastoreProvider;
 import org.hibernate.ogm.datastore.map.impl.MapAssociationSnapshot;
 import org.hibernate.ogm.datastore.spi.Association;
 import org.hibernate.ogm.datastore.spi.AssociationContext;
+import org.hibernate.ogm.datastore.spi.ColumnIndex;
 import org.hibernate.ogm.datastore.spi.Tuple;
 import org.hibernate.ogm.datastore.spi.TupleContext;
-import org.hibernate.ogm.dialect.GridDialect;
+import org.hibernate.ogm.dialect.OptimisticLockingAwareGridDialect;
+import org.hibernate.ogm.dialect.impl.GridDialects;
 import org.hibernate.ogm.grid.AssociationKey;
 import org.hibernate.ogm.grid.EntityKey;
 import org.hibernate.ogm.grid.EntityKeyMetadata;
 import org.hibernate.ogm.grid.RowKey;
 import org.hibernate.ogm.massindex.batchindexing.Consumer;
 import org.hibernate.ogm.type.GridType;
+import org.hibernate.ogm.util.impl.Log;
+import org.hibernate.ogm.util.impl.LoggerFactory;
 import org.hibernate.persister.entity.Lockable;
 import org.hibernate.type.Type;
 import org.infinispan.AdvancedCache;
 import org.infinispan.Cache;
 import org.infinispan.atomic.AtomicMapLookup;
 import org.infinispan.atomic.FineGrainedAtomicMap;
+import org.infinispan.container.DataContainer;
+import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.context.Flag;
-import org.infinispan.distexec.mapreduce.Collector;
-import org.infinispan.distexec.mapreduce.MapReduceTask;
-import org.infinispan.distexec.mapreduce.Mapper;
-import org.infinispan.distexec.mapreduce.Reducer;
+import org.infinispan.distexec.DefaultExecutorService;
+import org.infinispan.distexec.DistributedCallable;
+import org.infinispan.distexec.DistributedExecutorService;
+import org.infinispan.distribution.DistributionManager;
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.persistence.spi.AdvancedCacheLoader.CacheLoaderTask;
+import org.infinispan.persistence.spi.AdvancedCacheLoader.KeyFilter;
+import org.infinispan.persistence.spi.AdvancedCacheLoader.TaskContext;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.transaction.LockingMode;
 
 /**
  * @author Emmanuel Bernard
  */
-public class InfinispanDialect implements GridDialect {
+public class InfinispanDialect implements OptimisticLockingAwareGridDialect {
+
+	private static final Log log = LoggerFactory.make();
+
+	/**
+	 * The maximum number of segments whose tuples are collected by a single task when iterating over a distributed
+	 * cache.
+	 */
+	private static final int SEGMENTS_PER_TASK = 8;
+
+	/**
+	 * The maximum number of tasks sent to the same node at a time when iterating over a distributed cache.
+	 */
+	private static final int MAX_TASKS_IN_FLIGHT_PER_NODE = 2;
 
 	private final InfinispanDatastoreProvider provider;
 
@@ -105,13 +144,17 @@ else if ( lockMode == LockMode.OPTIMISTIC_FORCE_INCREMENT ) {
 
 	@Override
 	public Tuple getTuple(EntityKey key, TupleContext tupleContext) {
+		return getTuple( key, tupleContext.getColumnIndex() );
+	}
+
+	private Tuple getTuple(EntityKey key, ColumnIndex columnIndex) {
 		Cache<EntityKey, Map<String, Object>> cache = provider.getCache( ENTITY_STORE );
 		FineGrainedAtomicMap<String, Object> atomicMap = AtomicMapLookup.getFineGrainedAtomicMap( cache, key, false );
 		if ( atomicMap == null ) {
 			return null;
 		}
 		else {
-			return new Tuple( new InfinispanTupleSnapshot( atomicMap ) );
+			return new Tuple( new InfinispanTupleSnapshot( atomicMap ), columnIndex );
 		}
 	}
 
@@ -130,6 +173,31 @@ public void updateTuple(Tuple tuple, EntityKey key) {
 		MapHelpers.applyTupleOpsOnMap( tuple, atomicMap );
 	}
 
+	/**
+	 * Entities are stored as fine-grained atomic maps rather than as single values which could be swapped with
+	 * {@code replace(key, old, new)}; instead the entry is locked when the cache uses pessimistic locking, before
+	 * comparing its lock state and applying the changes within the current transaction.
+	 */
+	@Override
+	public boolean updateTupleWithOptimisticLock(EntityKey key, Tuple oldLockState, Tuple tuple, TupleContext tupleContext) {
+		AdvancedCache<EntityKey, Map<String, Object>> cache = provider.getCache( ENTITY_STORE ).getAdvancedCache();
+		if ( isPessimistic( cache ) ) {
+			cache.lock( key );
+		}
+
+		FineGrainedAtomicMap<String, Object> atomicMap = AtomicMapLookup.getFineGrainedAtomicMap( cache, key, false );
+		if ( atomicMap == null || !GridDialects.matches( oldLockState, new Tuple( new InfinispanTupleSnapshot( atomicMap ) ) ) ) {
+			return false;
+		}
+		MapHelpers.applyTupleOpsOnMap( tuple, atomicMap );
+		return true;
+	}
+
+	private boolean isPessimistic(AdvancedCache<?, ?> cache) {
+		return cache.getCacheConfiguration().transaction().transactionMode().isTransactional()
+				&& cache.getCacheConfiguration().transaction().lockingMode() == LockingMode.PESSIMISTIC;
+	}
+
 	@Override
 	public void removeTuple(EntityKey key) {
 		Cache<EntityKey, Map<String, Object>> cache = provider.getCache( ENTITY_STORE );
@@ -216,46 +284,261 @@ public Iterator<Tuple> executeBackendQuery(CustomQuery customQuery, EntityKeyMet
 	}
 
 	@Override
-	@SuppressWarnings("unchecked")
 	public void forEachTuple(Consumer consumer, EntityKeyMetadata... entityKeyMetadatas) {
 		Cache<EntityKey, Map<String, Object>> cache = provider.getCache( ENTITY_STORE );
-		Map<EntityKey, Map<String, Object>> queryResult = retrieveKeys( cache, entityKeyMetadatas );
-		for ( Entry<EntityKey, Map<String, Object>> entry : queryResult.entrySet() ) {
-			consumer.consume( getTuple( entry.getKey(), null ) );
+		DistributionManager distributionManager = cache.getAdvancedCache().getDistributionManager();
+		if ( distributionManager == null ) {
+			// local or replicated cache: every entry is available on this node
+			forEachLocalTuple( cache.getAdvancedCache(), consumer, entityKeyMetadatas );
+		}
+		else {
+			forEachDistributedTuple( cache.getAdvancedCache(), distributionManager, consumer, entityKeyMetadatas );
+		}
+	}
+
+	private void forEachLocalTuple(AdvancedCache<EntityKey, Map<String, Object>> cache, Consumer consumer, EntityKeyMetadata... entityKeyMetadatas) {
+		final DataContainer dataContainer = cache.getDataContainer();
+		final TableFilter tableFilter = new TableFilter( entityKeyMetadatas );
+		for ( InternalCacheEntry entry : dataContainer ) {
+			if ( tableFilter.accept( entry.getKey() ) ) {
+				consume( consumer, (EntityKey) entry.getKey() );
+			}
+		}
+
+		// entries which have been passivated or evicted are only known by the stores; the tasks
+		// of the stores may run concurrently so the keys are collected before being consumed
+		final List<EntityKey> storedKeys = Collections.synchronizedList( new ArrayList<EntityKey>() );
+		processOnAllStores( cache, new KeyFilter<Object>() {
+			@Override
+			public boolean shouldLoadKey(Object key) {
+				return tableFilter.accept( key ) && !dataContainer.containsKey( key );
+			}
+		}, new CacheLoaderTask<Object, Object>() {
+			@Override
+			public void processEntry(MarshalledEntry<Object, Object> marshalledEntry, TaskContext taskContext) {
+				storedKeys.add( (EntityKey) marshalledEntry.getKey() );
+			}
+		}, false );
+		for ( EntityKey key : storedKeys ) {
+			consume( consumer, key );
+		}
+	}
+
+	private void consume(Consumer consumer, EntityKey key) {
+		Tuple tuple = getTuple( key, (ColumnIndex) null );
+		// the entry might have been removed in the meantime
+		if ( tuple != null ) {
+			consumer.consume( tuple );
+		}
+	}
+
+	/**
+	 * Sends tasks to the primary owners of the segments and passes the returned tuples to the consumer as soon as a task
+	 * completed. Each task collects the tuples of at most {@link #SEGMENTS_PER_TASK} segments, scanning the entries of
+	 * its node once, and at most {@link #MAX_TASKS_IN_FLIGHT_PER_NODE} tasks per node are in flight, so that only a
+	 * bounded share of the data is held in memory at any time. As entries may move to other nodes while being scanned,
+	 * a task only returns the segments its node owned during the whole scan; the segments missed that way are requested
+	 * again, based on the read consistent hash in place at that time.
+	 */
+	private void forEachDistributedTuple(AdvancedCache<EntityKey, Map<String, Object>> cache, DistributionManager distributionManager, Consumer consumer, EntityKeyMetadata... entityKeyMetadatas) {
+		final Set<Integer> remainingSegments = new HashSet<Integer>();
+		for ( int segment = 0; segment < distributionManager.getReadConsistentHash().getNumSegments(); segment++ ) {
+			remainingSegments.add( segment );
+		}
+
+		final List<OwnerResult> inFlight = new LinkedList<OwnerResult>();
+		final DistributedExecutorService executor = new DefaultExecutorService( cache );
+		try {
+			while ( !remainingSegments.isEmpty() ) {
+				Map<Address, LinkedList<Set<Integer>>> pendingChunks = chunksByPrimaryOwner( distributionManager.getReadConsistentHash(), remainingSegments );
+				for ( Address owner : pendingChunks.keySet() ) {
+					for ( int i = 0; i < MAX_TASKS_IN_FLIGHT_PER_NODE; i++ ) {
+						submitNextChunk( executor, owner, pendingChunks, inFlight, entityKeyMetadatas );
+					}
+				}
+
+				while ( !inFlight.isEmpty() ) {
+					OwnerResult result = inFlight.remove( 0 );
+					Map<Integer, Map<EntityKey, Map<String, Object>>> tuplesBySegment = result.get();
+					for ( Entry<Integer, Map<EntityKey, Map<String, Object>>> segmentTuples : tuplesBySegment.entrySet() ) {
+						for ( Map<String, Object> tuple : segmentTuples.getValue().values() ) {
+							consumer.consume( new Tuple( new MapTupleSnapshot( tuple ) ) );
+						}
+						remainingSegments.remove( segmentTuples.getKey() );
+					}
+					log.tracef( "Consumed the tuples of %1$d segments from node %2$s (%3$d segments left)", tuplesBySegment.size(), result.owner, remainingSegments.size() );
+					submitNextChunk( executor, result.owner, pendingChunks, inFlight, entityKeyMetadatas );
+				}
+			}
+		}
+		finally {
+			for ( OwnerResult result : inFlight ) {
+				result.future.cancel( true );
+			}
+			executor.shutdownNow();
 		}
 	}
 
-	private Map<EntityKey, Map<String, Object>> retrieveKeys(Cache<EntityKey, Map<String, Object>> cache, EntityKeyMetadata... entityKeyMetadatas) {
-		MapReduceTask<EntityKey, Map<String, Object>, EntityKey, Map<String, Object>> queryTask = new MapReduceTask<EntityKey, Map<String, Object>, EntityKey, Map<String, Object>>( cache );
-		queryTask.mappedWith( new TupleMapper( entityKeyMetadatas ) ).reducedWith( new TupleReducer() );
-		return queryTask.execute();
+	private static void submitNextChunk(DistributedExecutorService executor, Address owner, Map<Address, LinkedList<Set<Integer>>> pendingChunks, List<OwnerResult> inFlight, EntityKeyMetadata... entityKeyMetadatas) {
+		Set<Integer> segments = pendingChunks.get( owner ).poll();
+		if ( segments != null ) {
+			Future<Map<Integer, Map<EntityKey, Map<String, Object>>>> future = executor.submit( owner, new OwnerTuplesCallable( segments, entityKeyMetadatas ) );
+			inFlight.add( new OwnerResult( owner, segments, future ) );
+		}
 	}
 
-	static class TupleMapper implements Mapper<EntityKey, Map<String, Object>, EntityKey, Map<String, Object>> {
+	/**
+	 * Groups the given segments by their primary owner, in chunks of at most {@link #SEGMENTS_PER_TASK} segments.
+	 */
+	private static Map<Address, LinkedList<Set<Integer>>> chunksByPrimaryOwner(ConsistentHash consistentHash, Set<Integer> segments) {
+		Map<Address, LinkedList<Set<Integer>>> chunksByOwner = new HashMap<Address, LinkedList<Set<Integer>>>();
+		for ( Integer segment : segments ) {
+			Address owner = consistentHash.locatePrimaryOwnerForSegment( segment );
+			LinkedList<Set<Integer>> chunks = chunksByOwner.get( owner );
+			if ( chunks == null ) {
+				chunks = new LinkedList<Set<Integer>>();
+				chunksByOwner.put( owner, chunks );
+			}
+			if ( chunks.isEmpty() || chunks.getLast().size() == SEGMENTS_PER_TASK ) {
+				chunks.add( new HashSet<Integer>() );
+			}
+			chunks.getLast().add( segment );
+		}
+		return chunksByOwner;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void processOnAllStores(AdvancedCache<?, ?> cache, KeyFilter<Object> keyFilter, CacheLoaderTask<Object, Object> task, boolean fetchValue) {
+		PersistenceManager persistenceManager = cache.getComponentRegistry().getComponent( PersistenceManager.class );
+		if ( persistenceManager != null ) {
+			persistenceManager.processOnAllStores( keyFilter, task, fetchValue, false );
+		}
+	}
+
+	/**
+	 * Accepts the keys of the entities stored in one of the given tables.
+	 */
+	static class TableFilter implements Serializable {
 
 		private final EntityKeyMetadata[] entityKeyMetadatas;
 
-		public TupleMapper(EntityKeyMetadata... entityKeyMetadatas) {
+		public TableFilter(EntityKeyMetadata... entityKeyMetadatas) {
 			this.entityKeyMetadatas = entityKeyMetadatas;
 		}
 
-		@Override
-		public void map(EntityKey key, Map<String, Object> value, Collector<EntityKey, Map<String, Object>> collector) {
-			for ( EntityKeyMetadata entityKeyMetadata : entityKeyMetadatas ) {
-				if ( key.getTable().equals( entityKeyMetadata.getTable() ) ) {
-					collector.emit( key, value );
+		public boolean accept(Object key) {
+			if ( key instanceof EntityKey ) {
+				String table = ( (EntityKey) key ).getTable();
+				for ( EntityKeyMetadata entityKeyMetadata : entityKeyMetadatas ) {
+					if ( table.equals( entityKeyMetadata.getTable() ) ) {
+						return true;
+					}
 				}
 			}
+			return false;
 		}
-
 	}
 
-	static class TupleReducer implements Reducer<EntityKey, Map<String, Object>> {
+	/**
+	 * Collects a copy of the tuples of the given segments, bucketed by segment, executed on an owner of these segments.
+	 * The data container and the stores of the node are scanned once for all the given segments.
+	 */
+	static class OwnerTuplesCallable implements DistributedCallable<EntityKey, Map<String, Object>, Map<Integer, Map<EntityKey, Map<String, Object>>>>, Serializable {
+
+		private final Set<Integer> segments;
+		private final TableFilter tableFilter;
+		private transient AdvancedCache<EntityKey, Map<String, Object>> cache;
+
+		public OwnerTuplesCallable(Set<Integer> segments, EntityKeyMetadata... entityKeyMetadatas) {
+			this.segments = segments;
+			this.tableFilter = new TableFilter( entityKeyMetadatas );
+		}
+
+		@Override
+		public void setEnvironment(Cache<EntityKey, Map<String, Object>> cache, Set<EntityKey> inputKeys) {
+			this.cache = cache.getAdvancedCache();
+		}
 
 		@Override
-		public Map<String, Object> reduce(EntityKey reducedKey, Iterator<Map<String, Object>> iter) {
-			return iter.next();
+		@SuppressWarnings("unchecked")
+		public Map<Integer, Map<EntityKey, Map<String, Object>>> call() throws Exception {
+			final ConsistentHash consistentHash = cache.getDistributionManager().getReadConsistentHash();
+			final Map<Integer, Map<EntityKey, Map<String, Object>>> tuplesBySegment = new HashMap<Integer, Map<EntityKey, Map<String, Object>>>();
+			for ( Integer segment : segments ) {
+				tuplesBySegment.put( segment, new HashMap<EntityKey, Map<String, Object>>() );
+			}
+
+			for ( InternalCacheEntry entry : cache.getDataContainer() ) {
+				Object key = entry.getKey();
+				if ( entry.getValue() != null && tableFilter.accept( key ) ) {
+					Map<EntityKey, Map<String, Object>> tuples = tuplesBySegment.get( consistentHash.getSegment( key ) );
+					if ( tuples != null ) {
+						tuples.put( (EntityKey) key, new HashMap<String, Object>( (Map<String, Object>) entry.getValue() ) );
+					}
+				}
+			}
+
+			final Map<EntityKey, Map<String, Object>> storedTuples = new ConcurrentHashMap<EntityKey, Map<String, Object>>();
+			processOnAllStores( cache, new KeyFilter<Object>() {
+				@Override
+				public boolean shouldLoadKey(Object key) {
+					if ( !tableFilter.accept( key ) ) {
+						return false;
+					}
+					Map<EntityKey, Map<String, Object>> tuples = tuplesBySegment.get( consistentHash.getSegment( key ) );
+					return tuples != null && !tuples.containsKey( key );
+				}
+			}, new CacheLoaderTask<Object, Object>() {
+				@Override
+				public void processEntry(MarshalledEntry<Object, Object> marshalledEntry, TaskContext taskContext) {
+					if ( marshalledEntry.getValue() != null ) {
+						storedTuples.put( (EntityKey) marshalledEntry.getKey(), new HashMap<String, Object>( (Map<String, Object>) marshalledEntry.getValue() ) );
+					}
+				}
+			}, true );
+			for ( Entry<EntityKey, Map<String, Object>> storedTuple : storedTuples.entrySet() ) {
+				tuplesBySegment.get( consistentHash.getSegment( storedTuple.getKey() ) ).put( storedTuple.getKey(), storedTuple.getValue() );
+			}
+
+			// entries may have been moved by a topology change during the scan: only return the segments this node
+			// owned before and after it, the others are requested again
+			Address self = cache.getCacheManager().getAddress();
+			ConsistentHash currentConsistentHash = cache.getDistributionManager().getReadConsistentHash();
+			Iterator<Integer> segmentIterator = tuplesBySegment.keySet().iterator();
+			while ( segmentIterator.hasNext() ) {
+				Integer segment = segmentIterator.next();
+				if ( !consistentHash.locateOwnersForSegment( segment ).contains( self )
+						|| !currentConsistentHash.locateOwnersForSegment( segment ).contains( self ) ) {
+					segmentIterator.remove();
+				}
+			}
+			return tuplesBySegment;
 		}
+	}
 
+	private static class OwnerResult {
+
+		private final Address owner;
+		private final Set<Integer> segments;
+		private final Future<Map<Integer, Map<EntityKey, Map<String, Object>>>> future;
+
+		public OwnerResult(Address owner, Set<Integer> segments, Future<Map<Integer, Map<EntityKey, Map<String, Object>>>> future) {
+			this.owner = owner;
+			this.segments = segments;
+			this.future = future;
+		}
+
+		public Map<Integer, Map<EntityKey, Map<String, Object>>> get() {
+			try {
+				return future.get();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw log.interruptedWhileLoadingTuples( e );
+			}
+			catch (ExecutionException e) {
+				throw log.unableToLoadTuplesOfSegments( segments, String.valueOf( owner ), e.getCause() );
+			}
+		}
 	}
 }
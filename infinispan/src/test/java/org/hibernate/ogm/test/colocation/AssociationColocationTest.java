@@ -0,0 +1,109 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.colocation;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.ogm.cfg.OgmConfiguration;
+import org.hibernate.ogm.datastore.infinispan.InfinispanProperties;
+import org.hibernate.ogm.datastore.infinispan.impl.InfinispanDatastoreProvider;
+import org.hibernate.ogm.datastore.spi.DefaultDatastoreNames;
+import org.hibernate.ogm.grid.AssociationKey;
+import org.hibernate.ogm.grid.AssociationKeyMetadata;
+import org.hibernate.ogm.grid.EntityKey;
+import org.hibernate.ogm.grid.EntityKeyMetadata;
+import org.hibernate.ogm.test.simpleentity.Hypothesis;
+import org.hibernate.ogm.test.utils.InfinispanNode;
+import org.hibernate.ogm.test.utils.InfinispanTestHelper;
+import org.hibernate.ogm.test.utils.TestHelper;
+import org.infinispan.Cache;
+import org.infinispan.distribution.DistributionManager;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.test.TestingUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Verifies that associations are owned by the same nodes as the entities owning them when
+ * {@link InfinispanProperties#COLOCATE_ASSOCIATIONS} is enabled.
+ */
+public class AssociationColocationTest {
+
+	private static final int NUMBER_OF_KEYS = 100;
+
+	private SessionFactory nodeA;
+	private SessionFactory nodeB;
+
+	@Before
+	public void startCluster() {
+		InfinispanNode.verifyNetworkStackEnabled();
+		nodeA = buildSessionFactory();
+		nodeB = buildSessionFactory();
+		Cache<?, ?> cache = InfinispanTestHelper.getProvider( nodeA ).getCache( DefaultDatastoreNames.ENTITY_STORE );
+		TestingUtil.blockUntilViewReceived( cache, 2, 15000, true );
+	}
+
+	@After
+	public void stopCluster() {
+		if ( nodeB != null ) {
+			nodeB.close();
+		}
+		if ( nodeA != null ) {
+			nodeA.close();
+		}
+	}
+
+	@Test
+	public void testAssociationsAreColocatedWithTheirOwningEntity() throws Exception {
+		InfinispanDatastoreProvider provider = InfinispanTestHelper.getProvider( nodeA );
+		DistributionManager entities = provider.getCache( DefaultDatastoreNames.ENTITY_STORE ).getAdvancedCache().getDistributionManager();
+		DistributionManager associations = provider.getCache( DefaultDatastoreNames.ASSOCIATION_STORE ).getAdvancedCache().getDistributionManager();
+
+		EntityKeyMetadata entityKeyMetadata = new EntityKeyMetadata( "Blog", new String[] { "id" } );
+		AssociationKeyMetadata associationKeyMetadata = new AssociationKeyMetadata( "Blog_tags", new String[] { "Blog_id" } );
+
+		Set<Address> owners = new HashSet<Address>();
+		for ( long id = 0; id < NUMBER_OF_KEYS; id++ ) {
+			EntityKey entityKey = new EntityKey( entityKeyMetadata, new Object[] { id } );
+			// the owning entity key is transient, so don't rely on it
+			AssociationKey associationKey = new AssociationKey( associationKeyMetadata, new Object[] { id }, null, null, null );
+
+			Address owner = entities.getPrimaryLocation( entityKey );
+			assertThat( associations.getPrimaryLocation( associationKey ) ).isEqualTo( owner );
+			owners.add( owner );
+		}
+
+		// the groups are still spread across the cluster
+		assertThat( owners ).hasSize( 2 );
+	}
+
+	private SessionFactory buildSessionFactory() {
+		OgmConfiguration configuration = TestHelper.getDefaultTestConfiguration( Hypothesis.class );
+		configuration.setProperty( InfinispanProperties.CONFIGURATION_RESOURCENAME, "infinispan-dist.xml" );
+		configuration.setProperty( InfinispanProperties.COLOCATE_ASSOCIATIONS, "true" );
+		return configuration.buildSessionFactory();
+	}
+}
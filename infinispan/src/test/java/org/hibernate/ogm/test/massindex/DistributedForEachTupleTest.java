@@ -0,0 +1,108 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.massindex;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.ogm.cfg.OgmConfiguration;
+import org.hibernate.ogm.datastore.spi.Tuple;
+import org.hibernate.ogm.dialect.GridDialect;
+import org.hibernate.ogm.grid.EntityKeyMetadata;
+import org.hibernate.ogm.massindex.batchindexing.Consumer;
+import org.hibernate.ogm.test.simpleentity.Hypothesis;
+import org.hibernate.ogm.test.utils.InfinispanNode;
+import org.hibernate.ogm.test.utils.InfinispanTestHelper;
+import org.hibernate.ogm.test.utils.TestHelper;
+import org.infinispan.Cache;
+import org.infinispan.test.TestingUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Verifies that all the tuples of a distributed cache are visited, whatever node owns them.
+ */
+public class DistributedForEachTupleTest {
+
+	private static final int NUMBER_OF_ENTITIES = 50;
+
+	private SessionFactory nodeA;
+	private SessionFactory nodeB;
+
+	@Before
+	public void startCluster() {
+		InfinispanNode.verifyNetworkStackEnabled();
+		nodeA = buildSessionFactory();
+		nodeB = buildSessionFactory();
+		Cache<?, ?> cache = InfinispanTestHelper.getProvider( nodeA ).getCache( "ENTITIES" );
+		TestingUtil.blockUntilViewReceived( cache, 2, 15000, true );
+	}
+
+	@After
+	public void stopCluster() {
+		if ( nodeB != null ) {
+			nodeB.close();
+		}
+		if ( nodeA != null ) {
+			nodeA.close();
+		}
+	}
+
+	@Test
+	public void testAllTuplesAreConsumed() throws Exception {
+		Session session = nodeA.openSession();
+		Transaction transaction = session.beginTransaction();
+		for ( int i = 0; i < NUMBER_OF_ENTITIES; i++ ) {
+			Hypothesis hypothesis = new Hypothesis();
+			hypothesis.setId( String.valueOf( i ) );
+			hypothesis.setDescription( "Hypothesis " + i );
+			hypothesis.setPosition( i );
+			session.persist( hypothesis );
+		}
+		transaction.commit();
+		session.close();
+
+		final Set<Object> ids = new HashSet<Object>();
+		GridDialect gridDialect = ( (SessionFactoryImplementor) nodeB ).getServiceRegistry().getService( GridDialect.class );
+		gridDialect.forEachTuple( new Consumer() {
+			@Override
+			public void consume(Tuple tuple) {
+				assertThat( tuple.get( "description" ) ).isEqualTo( "Hypothesis " + tuple.get( "id" ) );
+				ids.add( tuple.get( "id" ) );
+			}
+		}, new EntityKeyMetadata( "Hypothesis", new String[] { "id" } ) );
+
+		assertThat( ids ).hasSize( NUMBER_OF_ENTITIES );
+	}
+
+	private SessionFactory buildSessionFactory() {
+		OgmConfiguration configuration = TestHelper.getDefaultTestConfiguration( Hypothesis.class );
+		configuration.setProperty( "hibernate.ogm.infinispan.configuration_resourcename", "infinispan-dist.xml" );
+		return configuration.buildSessionFactory();
+	}
+}
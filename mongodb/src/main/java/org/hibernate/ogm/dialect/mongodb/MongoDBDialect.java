@@ -27,10 +27,11 @@
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -52,7 +53,12 @@
 import org.hibernate.ogm.datastore.spi.Tuple;
 import org.hibernate.ogm.datastore.spi.TupleContext;
 import org.hibernate.ogm.datastore.spi.TupleOperation;
+import org.hibernate.ogm.datastore.spi.TupleSnapshot;
 import org.hibernate.ogm.dialect.BatchableGridDialect;
+import org.hibernate.ogm.dialect.DeltaUpdateGridDialect;
+import org.hibernate.ogm.dialect.DuplicateInsertAwareGridDialect;
+import org.hibernate.ogm.dialect.MultigetGridDialect;
+import org.hibernate.ogm.dialect.OptimisticLockingAwareGridDialect;
 import org.hibernate.ogm.dialect.batch.Operation;
 import org.hibernate.ogm.dialect.batch.OperationsQueue;
 import org.hibernate.ogm.dialect.batch.RemoveAssociationOperation;
@@ -78,10 +84,18 @@
 import org.hibernate.type.Type;
 
 import com.mongodb.BasicDBObject;
+import com.mongodb.BulkWriteError;
+import com.mongodb.BulkWriteException;
+import com.mongodb.BulkWriteOperation;
+import com.mongodb.BulkWriteResult;
+import com.mongodb.BulkWriteUpsert;
 import com.mongodb.DB;
 import com.mongodb.DBCollection;
 import com.mongodb.DBCursor;
 import com.mongodb.DBObject;
+import com.mongodb.DuplicateKeyException;
+import com.mongodb.WriteConcern;
+import com.mongodb.WriteResult;
 
 /**
  * Each Tuple entry is stored as a property in a MongoDB document.
@@ -99,16 +113,17 @@
  * Collection of embeddable are stored within the owning entity document under the
  * unqualified collection role
  *
- * In MongoDB is possible to batch operations but only for the creation of new documents
- * and only if they don't have invalid characters in the field name.
- * If these conditions are not met, the MongoDB mechanism for batch operations
- * is not going to be used.
+ * Batched operations are sent to MongoDB as one bulk write operation per collection.
+ * New documents are inserted with a single bulk insert only if they don't have invalid
+ * characters in the field name; otherwise they are upserted like updated documents.
+ * Reads done while operations are pending are answered from the queue or merged with
+ * the queued operations, so the batch is only executed at the end of the flush.
  *
  * @author Guillaume Scheibel <guillaume.scheibel@gmail.com>
  * @author Alan Fitton <alan at eth0.org.uk>
  * @author Emmanuel Bernard <emmanuel@hibernate.org>
  */
-public class MongoDBDialect implements BatchableGridDialect {
+public class MongoDBDialect implements BatchableGridDialect, MultigetGridDialect, DeltaUpdateGridDialect, DuplicateInsertAwareGridDialect, OptimisticLockingAwareGridDialect {
 
 	public static final String ID_FIELDNAME = "_id";
 	public static final String PROPERTY_SEPARATOR = ".";
@@ -117,10 +132,16 @@ public class MongoDBDialect implements BatchableGridDialect {
 	public static final String TABLE_FIELDNAME = "table";
 	public static final String ASSOCIATIONS_COLLECTION_PREFIX = "associations_";
 
+	/**
+	 * Number of documents fetched per round trip when iterating over all the entities of a collection
+	 */
+	private static final int FOR_EACH_TUPLE_BATCH_SIZE = 1000;
+
 	private static final Log log = LoggerFactory.getLogger();
 	private static final Integer ONE = Integer.valueOf( 1 );
 	private static final Pattern DOT_SEPARATOR_PATTERN = Pattern.compile( "\\." );
 	private static final List<String> ROWS_FIELDNAME_LIST = Collections.singletonList( ROWS_FIELDNAME );
+	private static final int DUPLICATE_KEY_ERROR_CODE = 11000;
 
 	private final MongoDBDatastoreProvider provider;
 	private final DB currentDB;
@@ -137,30 +158,131 @@ public LockingStrategy getLockingStrategy(Lockable lockable, LockMode lockMode)
 
 	@Override
 	public Tuple getTuple(EntityKey key, TupleContext tupleContext) {
+		if ( isRemovedInTheQueue( key, tupleContext ) ) {
+			return null;
+		}
 		DBObject found = this.getObject( key, tupleContext );
 		if ( found != null ) {
-			return new Tuple( new MongoDBTupleSnapshot( (BasicDBObject) found, key, UPDATE ) );
+			return new Tuple( new MongoDBTupleSnapshot( (BasicDBObject) found, key, UPDATE ), tupleContext.getColumnIndex() );
 		}
 		else if ( isInTheQueue( key, tupleContext ) ) {
 			// The key has not been inserted in the db but it is in the queue
-			return new Tuple( new MongoDBTupleSnapshot( prepareIdObject( key ), key, INSERT ) );
+			return new Tuple( new MongoDBTupleSnapshot( prepareIdObject( key ), key, INSERT ), tupleContext.getColumnIndex() );
 		}
 		else {
 			return null;
 		}
 	}
 
+	/**
+	 * Retrieves all the documents with a single query using an {@code $in} restriction on their ids.
+	 */
+	@Override
+	public List<Tuple> getTuples(EntityKey[] keys, TupleContext tupleContext) {
+		Map<Object, DBObject> documentsById = new HashMap<Object, DBObject>( keys.length );
+		if ( keys.length > 0 ) {
+			List<Object> ids = new ArrayList<Object>( keys.length );
+			for ( EntityKey key : keys ) {
+				ids.add( prepareIdObject( key ).get( ID_FIELDNAME ) );
+			}
+			DBObject searchObject = new BasicDBObject( ID_FIELDNAME, new BasicDBObject( "$in", ids ) );
+			DBCursor cursor = getCollection( keys[0] ).find( searchObject, getSearchObject( tupleContext ) );
+			try {
+				for ( DBObject document : cursor ) {
+					documentsById.put( document.get( ID_FIELDNAME ), document );
+				}
+			}
+			finally {
+				cursor.close();
+			}
+		}
+
+		List<Tuple> tuples = new ArrayList<Tuple>( keys.length );
+		for ( EntityKey key : keys ) {
+			DBObject found = documentsById.get( prepareIdObject( key ).get( ID_FIELDNAME ) );
+			if ( isRemovedInTheQueue( key, tupleContext ) ) {
+				tuples.add( null );
+			}
+			else if ( found != null ) {
+				tuples.add( new Tuple( new MongoDBTupleSnapshot( (BasicDBObject) found, key, UPDATE ), tupleContext.getColumnIndex() ) );
+			}
+			else if ( isInTheQueue( key, tupleContext ) ) {
+				tuples.add( new Tuple( new MongoDBTupleSnapshot( prepareIdObject( key ), key, INSERT ), tupleContext.getColumnIndex() ) );
+			}
+			else {
+				tuples.add( null );
+			}
+		}
+		return tuples;
+	}
+
 	private boolean isInTheQueue(EntityKey key, TupleContext tupleContext) {
 		OperationsQueue queue = tupleContext.getOperationsQueue();
 		return queue != null && queue.contains( key );
 	}
 
+	/**
+	 * Whether the last pending operation on the given tuple removes it; the document may still be in the datastore.
+	 */
+	private boolean isRemovedInTheQueue(EntityKey key, TupleContext tupleContext) {
+		OperationsQueue queue = tupleContext.getOperationsQueue();
+		if ( queue == null ) {
+			return false;
+		}
+		List<Operation> operations = queue.getOperations( key );
+		return !operations.isEmpty() && operations.get( operations.size() - 1 ) instanceof RemoveTupleOperation;
+	}
+
 	@Override
 	public Tuple createTuple(EntityKey key) {
 		DBObject toSave = this.prepareIdObject( key );
 		return new Tuple( new MongoDBTupleSnapshot( toSave, key, SnapshotType.INSERT ) );
 	}
 
+	/**
+	 * The new document is written with an insert command, so MongoDB rejects it if its id is in use already (see
+	 * {@link #updateTuple(Tuple, EntityKey)}).
+	 */
+	@Override
+	public Tuple createTupleForInsert(EntityKey key, TupleContext tupleContext) {
+		DBObject toSave = this.prepareIdObject( key );
+		return new Tuple( new MongoDBTupleSnapshot( toSave, key, SnapshotType.INSERT ), tupleContext.getColumnIndex() );
+	}
+
+	/**
+	 * Builds the document from the given state, the update itself only sets or unsets the changed fields. Tuples of
+	 * entities still waiting in the operations queue are read as usual, as their insertion may not be executed yet.
+	 */
+	@Override
+	public Tuple createTupleForUpdate(EntityKey key, TupleSnapshot loadedState, TupleContext tupleContext) {
+		if ( isInTheQueue( key, tupleContext ) ) {
+			return getTuple( key, tupleContext );
+		}
+
+		BasicDBObject document = prepareIdObject( key );
+		MongoDBTupleSnapshot snapshot = new MongoDBTupleSnapshot( document, key, UPDATE );
+		for ( String column : loadedState.getColumnNames() ) {
+			if ( notInIdField( snapshot, column ) ) {
+				addNestedField( document, column, loadedState.get( column ) );
+			}
+		}
+		return new Tuple( snapshot, tupleContext.getColumnIndex() );
+	}
+
+	private void addNestedField(DBObject document, String column, Object value) {
+		String[] fields = MongoDBTupleSnapshot.EMBEDDED_FIELDNAME_SEPARATOR.split( column, 0 );
+		DBObject parent = document;
+		for ( int i = 0; i < fields.length - 1; i++ ) {
+			DBObject child = (DBObject) parent.get( fields[i] );
+			if ( child == null ) {
+				child = new BasicDBObject();
+				parent.put( fields[i], child );
+			}
+			parent = child;
+		}
+		parent.put( fields[fields.length - 1], value );
+	}
+
 	private DBObject getObjectAsEmbeddedAssociation(AssociationKey key) {
 		DBCollection collection = this.getCollection( key.getEntityKey() );
 		DBObject searchObject = this.prepareIdObject( key.getEntityKey() );
@@ -258,9 +380,78 @@ private void addSubQuery(String operator, BasicDBObject query, String column, Ob
 
 	@Override
 	public void updateTuple(Tuple tuple, EntityKey key) {
+		MongoDBTupleSnapshot snapshot = (MongoDBTupleSnapshot) tuple.getSnapshot();
+		if ( INSERT == snapshot.getOperationType() ) {
+			insertDocument( tuple, key );
+		}
+		else {
+			BasicDBObject idObject = this.prepareIdObject( key );
+			DBObject updater = objectForUpdate( tuple, key, idObject );
+			getCollection( key ).update( idObject, updater, true, false );
+		}
+	}
+
+	/**
+	 * Writes a new document, failing if its id is in use already (see {@link #flushInserts(Map)}).
+	 */
+	private void insertDocument(Tuple tuple, EntityKey key) {
+		DBObject document = objectForInsert( tuple, key, prepareIdObject( key ) );
+		DBCollection collection = getCollection( key );
+		if ( fieldNamesAllowInsert( document ) ) {
+			try {
+				collection.insert( document, getAcknowledgedWriteConcern( collection ) );
+			}
+			catch (DuplicateKeyException e) {
+				throw log.entityAlreadyExists( key );
+			}
+		}
+		else {
+			WriteResult result = collection.update( prepareIdObject( key ), objectForInsertingUpsert( document ), true, false, getAcknowledgedWriteConcern( collection ) );
+			if ( result.isUpdateOfExisting() ) {
+				throw log.entityAlreadyExists( key );
+			}
+		}
+	}
+
+	/**
+	 * Creates the update of an upsert writing the given document only if no document with its id exists.
+	 */
+	private static DBObject objectForInsertingUpsert(DBObject document) {
+		BasicDBObject fields = new BasicDBObject( document.toMap() );
+		fields.remove( ID_FIELDNAME );
+		return new BasicDBObject( "$setOnInsert", fields );
+	}
+
+	/**
+	 * Restricts the update to the document having the expected lock state, the number of matched documents telling
+	 * whether the lock state was the expected one.
+	 */
+	@Override
+	public boolean updateTupleWithOptimisticLock(EntityKey key, Tuple oldLockState, Tuple tuple, TupleContext tupleContext) {
 		BasicDBObject idObject = this.prepareIdObject( key );
 		DBObject updater = objectForUpdate( tuple, key, idObject );
-		getCollection( key ).update( idObject, updater, true, false );
+
+		DBCollection collection = getCollection( key );
+		WriteResult result = collection.update( prepareLockStateObject( key, oldLockState ), updater, false, false, getAcknowledgedWriteConcern( collection ) );
+		return result.getN() > 0;
+	}
+
+	private BasicDBObject prepareLockStateObject(EntityKey key, Tuple oldLockState) {
+		BasicDBObject query = this.prepareIdObject( key );
+		for ( String column : oldLockState.getColumnNames() ) {
+			query.put( column, oldLockState.get( column ) );
+		}
+		return query;
+	}
+
+	/**
+	 * The number of documents matched by a guarded update tells whether their lock state was the expected one and the
+	 * errors of an insert whether the id of the document is in use already, so these writes are acknowledged even if the
+	 * configured write concern doesn't ask for it.
+	 */
+	private static WriteConcern getAcknowledgedWriteConcern(DBCollection collection) {
+		WriteConcern writeConcern = collection.getWriteConcern();
+		return writeConcern.callGetLastError() ? writeConcern : WriteConcern.ACKNOWLEDGED;
 	}
 
 	// Creates a dbObject that can be pass to the mongoDB batch insert function
@@ -342,29 +533,96 @@ private DBObject getSearchObject(AssociationKey key, boolean embedded) {
 		}
 	}
 
+	/**
+	 * The operations still waiting in the queue for the association are applied on top of the stored document, so
+	 * that the queue does not need to be executed beforehand.
+	 */
 	@Override
 	public Association getAssociation(AssociationKey key, AssociationContext associationContext) {
 		AssociationStorageStrategy storageStrategy = getAssociationStorageStrategy( key, associationContext );
+		List<Operation> queuedOperations = getQueuedOperations( key, associationContext );
 
-		// We need to execute the previous operations first or it won't be able to find the key that should have
-		// been created
-		executeBatch( associationContext.getOperationsQueue() );
+		MongoDBAssociationSnapshot stored = null;
 		if ( storageStrategy.isEmbeddedInEntity() ) {
 			DBObject entity = getObjectAsEmbeddedAssociation( key );
 			if ( getAssociationFieldOrNull( key, entity ) != null ) {
-				return new Association( new MongoDBAssociationSnapshot( entity, key, storageStrategy ) );
+				stored = new MongoDBAssociationSnapshot( entity, key, storageStrategy );
+			}
+		}
+		else {
+			DBObject result = findAssociation( key, storageStrategy );
+			if ( result != null ) {
+				stored = new MongoDBAssociationSnapshot( result, key, storageStrategy );
+			}
+		}
+
+		if ( queuedOperations.isEmpty() ) {
+			return stored == null ? null : new Association( stored );
+		}
+		return mergeWithQueuedOperations( stored, queuedOperations, key, storageStrategy );
+	}
+
+	private List<Operation> getQueuedOperations(AssociationKey key, AssociationContext associationContext) {
+		OperationsQueue queue = associationContext.getOperationsQueue();
+		if ( queue == null ) {
+			return Collections.emptyList();
+		}
+		return queue.getOperations( key );
+	}
+
+	/**
+	 * Builds the association as it will be stored once the given queued operations are executed.
+	 */
+	private Association mergeWithQueuedOperations(MongoDBAssociationSnapshot stored, List<Operation> queuedOperations, AssociationKey key, AssociationStorageStrategy storageStrategy) {
+		boolean exists = stored != null;
+		Map<RowKey, DBObject> rows = new LinkedHashMap<RowKey, DBObject>();
+		if ( stored != null ) {
+			for ( RowKey rowKey : stored.getRowKeys() ) {
+				rows.put( rowKey, stored.getRowKeyDBObject( rowKey ) );
+			}
+		}
+
+		for ( Operation operation : queuedOperations ) {
+			if ( operation instanceof RemoveAssociationOperation ) {
+				exists = false;
+				rows.clear();
 			}
 			else {
-				return null;
+				exists = true;
+				Association association = ( (UpdateAssociationOperation) operation ).getAssociation();
+				for ( AssociationOperation action : association.getOperations() ) {
+					switch ( action.getType() ) {
+					case CLEAR:
+						rows.clear();
+						break;
+					case PUT_NULL:
+					case PUT:
+						rows.put( action.getKey(), associationRow( action.getValue(), key ) );
+						break;
+					case REMOVE:
+						rows.remove( action.getKey() );
+						break;
+					}
+				}
 			}
 		}
-		final DBObject result = findAssociation( key, storageStrategy );
-		if ( result == null ) {
+
+		if ( !exists ) {
 			return null;
 		}
+
+		List<DBObject> rowList = new ArrayList<DBObject>( rows.values() );
+		DBObject document;
+		if ( storageStrategy.isEmbeddedInEntity() ) {
+			document = prepareIdObject( key.getEntityKey() );
+			addNestedField( document, key.getCollectionRole(), rowList );
+		}
 		else {
-			return new Association( new MongoDBAssociationSnapshot( result, key, storageStrategy ) );
+			document = stored != null ? stored.getDBObject() : associationKeyToObject( key, storageStrategy );
+			document = new BasicDBObject( ID_FIELDNAME, document.get( ID_FIELDNAME ) );
+			document.put( ROWS_FIELDNAME, rowList );
 		}
+		return new Association( new MongoDBAssociationSnapshot( document, key, storageStrategy ) );
 	}
 
 	private DBObject getAssociationFieldOrNull(AssociationKey key, DBObject entity) {
@@ -376,10 +634,28 @@ private DBObject getAssociationFieldOrNull(AssociationKey key, DBObject entity)
 		return field;
 	}
 
+	/**
+	 * If operations on the association or on its owning entity are still waiting in the queue, the association is
+	 * only created in memory: the queued operations and the updates of the association create the document when the
+	 * queue is executed.
+	 */
 	@Override
 	public Association createAssociation(AssociationKey key, AssociationContext associationContext) {
 		AssociationStorageStrategy storageStrategy = getAssociationStorageStrategy( key, associationContext );
 
+		if ( isPendingInTheQueue( key, storageStrategy, associationContext ) ) {
+			DBObject document;
+			if ( storageStrategy.isEmbeddedInEntity() ) {
+				document = prepareIdObject( key.getEntityKey() );
+				addEmptyAssociationField( key, document );
+			}
+			else {
+				document = associationKeyToObject( key, storageStrategy );
+				document.put( ROWS_FIELDNAME, Collections.EMPTY_LIST );
+			}
+			return new Association( new MongoDBAssociationSnapshot( document, key, storageStrategy ) );
+		}
+
 		if ( storageStrategy.isEmbeddedInEntity() ) {
 			DBObject entity = getObjectAsEmbeddedAssociation( key );
 			boolean insert = false;
@@ -413,12 +689,28 @@ public Association createAssociation(AssociationKey key, AssociationContext asso
 		return new Association( new MongoDBAssociationSnapshot( assoc, key, storageStrategy ) );
 	}
 
+	private boolean isPendingInTheQueue(AssociationKey key, AssociationStorageStrategy storageStrategy, AssociationContext associationContext) {
+		OperationsQueue queue = associationContext.getOperationsQueue();
+		if ( queue == null ) {
+			return false;
+		}
+		if ( !queue.getOperations( key ).isEmpty() ) {
+			return true;
+		}
+		return storageStrategy.isEmbeddedInEntity() && !queue.getOperations( key.getEntityKey() ).isEmpty();
+	}
+
 	private DBObject removeAssociationRowKey(MongoDBAssociationSnapshot snapshot, RowKey rowKey, String associationField) {
 		DBObject pull = new BasicDBObject( associationField,  snapshot.getRowKeyDBObject( rowKey ) );
 		return new BasicDBObject( "$pull", pull );
 	}
 
 	private DBObject putAssociationRowKey(Tuple value, String associationField, AssociationKey associationKey) {
+		DBObject row = associationRow( value, associationKey );
+		return new BasicDBObject( "$push", new BasicDBObject( associationField, row ) );
+	}
+
+	private DBObject associationRow(Tuple value, AssociationKey associationKey) {
 		DBObject rowTupleMap = new BasicDBObject();
 		for ( String valueKeyName : value.getColumnNames() ) {
 			boolean add = true;
@@ -433,12 +725,17 @@ private DBObject putAssociationRowKey(Tuple value, String associationField, Asso
 				rowTupleMap.put( valueKeyName, value.get( valueKeyName ) );
 			}
 		}
-		DBObject row = rowTupleMap;
-		return new BasicDBObject( "$push", new BasicDBObject( associationField, row ) );
+		return rowTupleMap;
 	}
 
 	@Override
 	public void updateAssociation(Association association, AssociationKey key, AssociationContext associationContext) {
+		Map<DBCollection, BulkWriteOperation> bulkOperations = new LinkedHashMap<DBCollection, BulkWriteOperation>();
+		prepareAssociationUpdate( bulkOperations, association, key, associationContext );
+		flushBulkOperations( bulkOperations );
+	}
+
+	private void prepareAssociationUpdate(Map<DBCollection, BulkWriteOperation> bulkOperations, Association association, AssociationKey key, AssociationContext associationContext) {
 		DBCollection collection;
 		DBObject query;
 		MongoDBAssociationSnapshot assocSnapshot = (MongoDBAssociationSnapshot) association.getSnapshot();
@@ -446,9 +743,6 @@ public void updateAssociation(Association association, AssociationKey key, Assoc
 
 		AssociationStorageStrategy storageStrategy = getAssociationStorageStrategy( key, associationContext );
 
-		// We need to execute the previous operations first or it won't be able to find the key that should have
-		// been created
-		executeBatch( associationContext.getOperationsQueue() );
 		if ( storageStrategy.isEmbeddedInEntity() ) {
 			collection = this.getCollection( key.getEntityKey() );
 			query = this.prepareIdObject( key.getEntityKey() );
@@ -480,13 +774,19 @@ public void updateAssociation(Association association, AssociationKey key, Assoc
 			}
 
 			if ( update != null ) {
-				collection.update( query, update, true, false );
+				getOrCreateBulkOperation( bulkOperations, collection ).find( query ).upsert().updateOne( update );
 			}
 		}
 	}
 
 	@Override
 	public void removeAssociation(AssociationKey key, AssociationContext associationContext) {
+		Map<DBCollection, BulkWriteOperation> bulkOperations = new LinkedHashMap<DBCollection, BulkWriteOperation>();
+		prepareAssociationRemoval( bulkOperations, key, associationContext );
+		flushBulkOperations( bulkOperations );
+	}
+
+	private void prepareAssociationRemoval(Map<DBCollection, BulkWriteOperation> bulkOperations, AssociationKey key, AssociationContext associationContext) {
 		AssociationStorageStrategy storageStrategy = getAssociationStorageStrategy( key, associationContext );
 
 		if ( storageStrategy.isEmbeddedInEntity() ) {
@@ -494,15 +794,14 @@ public void removeAssociation(AssociationKey key, AssociationContext association
 			if ( entity != null ) {
 				BasicDBObject updater = new BasicDBObject();
 				this.addSubQuery( "$unset", updater, key.getCollectionRole(), ONE );
-				this.getCollection( key.getEntityKey() ).update( entity, updater, true, false );
+				getOrCreateBulkOperation( bulkOperations, this.getCollection( key.getEntityKey() ) ).find( entity ).updateOne( updater );
 			}
 		}
 		else {
 			DBCollection collection = getAssociationCollection( key, storageStrategy );
 			DBObject query = associationKeyToObject( key, storageStrategy );
 
-			int nAffected = collection.remove( query ).getN();
-			log.removedAssociation( nAffected );
+			getOrCreateBulkOperation( bulkOperations, collection ).find( query ).remove();
 		}
 	}
 
@@ -563,8 +862,14 @@ public void forEachTuple(Consumer consumer, EntityKeyMetadata... entityKeyMetada
 		DB db = provider.getDatabase();
 		for ( EntityKeyMetadata entityKeyMetadata : entityKeyMetadatas ) {
 			DBCollection collection = db.getCollection( entityKeyMetadata.getTable() );
-			for ( DBObject dbObject : collection.find() ) {
-				consumer.consume( new Tuple( new MassIndexingMongoDBTupleSnapshot( dbObject, entityKeyMetadata ) ) );
+			DBCursor cursor = collection.find().batchSize( FOR_EACH_TUPLE_BATCH_SIZE );
+			try {
+				for ( DBObject dbObject : cursor ) {
+					consumer.consume( new Tuple( new MassIndexingMongoDBTupleSnapshot( dbObject, entityKeyMetadata ) ) );
+				}
+			}
+			finally {
+				cursor.close();
 			}
 		}
 	}
@@ -632,16 +937,14 @@ private AssociationStorageStrategy getAssociationStorageStrategy(AssociationKey
 	}
 
 	/**
-	 * When creating documents in batch, MongoDB doesn't allow the name of the fields to contain
+	 * When inserting documents, MongoDB doesn't allow the name of the fields to contain
 	 * the characters '$' or '.'
 	 *
-	 * @return false if the {@link UpdateTupleOperation} affects fields containing invalid characters for the execution
-	 * of operations in batch, true otherwise.
+	 * @return false if the document has fields containing invalid characters for an insert, true otherwise.
 	 */
-	private boolean columnNamesAllowBatchInsert(UpdateTupleOperation tupleOperation) {
-		Set<String> columnNames = tupleOperation.getTuple().getColumnNames();
-		for ( String column : columnNames ) {
-			if ( column.contains( "." ) || column.contains( "$" ) ) {
+	private boolean fieldNamesAllowInsert(DBObject document) {
+		for ( String field : document.keySet() ) {
+			if ( field.contains( "." ) || field.contains( "$" ) ) {
 				return false;
 			}
 		}
@@ -652,96 +955,225 @@ private boolean columnNamesAllowBatchInsert(UpdateTupleOperation tupleOperation)
 	public void executeBatch(OperationsQueue queue) {
 		if ( !queue.isClosed() ) {
 			Operation operation = queue.poll();
-			Map<DBCollection, Map<DBObject, DBObject>> inserts = new HashMap<DBCollection, Map<DBObject, DBObject>>();
+			Map<DBCollection, Map<EntityKey, DBObject>> inserts = new HashMap<DBCollection, Map<EntityKey, DBObject>>();
+			Map<DBCollection, BulkWriteOperation> bulkOperations = new LinkedHashMap<DBCollection, BulkWriteOperation>();
+			Map<DBCollection, List<UpdateTupleOperation>> guardedUpdates = new LinkedHashMap<DBCollection, List<UpdateTupleOperation>>();
 			while ( operation != null ) {
 				if ( operation instanceof UpdateTupleOperation ) {
 					UpdateTupleOperation update = (UpdateTupleOperation) operation;
-					executeBatchUpdate( inserts, update );
+					if ( update.getOldLockState() == null ) {
+						executeBatchUpdate( inserts, bulkOperations, update );
+					}
+					else {
+						prepareGuardedUpdate( guardedUpdates, update );
+					}
 				}
 				else if ( operation instanceof RemoveTupleOperation ) {
 					RemoveTupleOperation tupleOp = (RemoveTupleOperation) operation;
-					executeBatchRemove( inserts, tupleOp );
+					executeBatchRemove( inserts, bulkOperations, tupleOp );
 				}
 				else if ( operation instanceof UpdateAssociationOperation ) {
 					UpdateAssociationOperation update = (UpdateAssociationOperation) operation;
-					updateAssociation( update.getAssociation(), update.getAssociationKey(), update.getContext() );
+					prepareAssociationUpdate( bulkOperations, update.getAssociation(), update.getAssociationKey(), update.getContext() );
 				}
 				else if ( operation instanceof RemoveAssociationOperation ) {
 					RemoveAssociationOperation remove = (RemoveAssociationOperation) operation;
-					removeAssociation( remove.getAssociationKey(), remove.getContext() );
+					prepareAssociationRemoval( bulkOperations, remove.getAssociationKey(), remove.getContext() );
 				}
 				else {
 					throw new UnsupportedOperationException( "Operation not supported on MongoDB: " + operation.getClass().getName() );
 				}
 				operation = queue.poll();
 			}
+			// new documents first, the queued updates of their associations may target them
 			flushInserts( inserts );
+			flushBulkOperations( bulkOperations );
+			flushGuardedUpdates( guardedUpdates );
 			queue.close();
 		}
 	}
 
-	private void executeBatchRemove(Map<DBCollection, Map<DBObject, DBObject>> inserts, RemoveTupleOperation tupleOperation) {
+	private void executeBatchRemove(Map<DBCollection, Map<EntityKey, DBObject>> inserts, Map<DBCollection, BulkWriteOperation> bulkOperations, RemoveTupleOperation tupleOperation) {
 		EntityKey entityKey = tupleOperation.getEntityKey();
 		DBCollection collection = getCollection( entityKey );
-		BasicDBObject idObject = prepareIdObject( entityKey );
-		Map<DBObject, DBObject> documents = inserts.get( collection );
-		if ( documents != null && documents.containsKey( idObject ) ) {
+		Map<EntityKey, DBObject> documents = inserts.get( collection );
+		if ( documents != null && documents.containsKey( entityKey ) ) {
 			documents.remove( entityKey );
 		}
 		else {
-			removeTuple( entityKey );
+			getOrCreateBulkOperation( bulkOperations, collection ).find( prepareIdObject( entityKey ) ).remove();
 		}
 	}
 
-	private void executeBatchUpdate(Map<DBCollection, Map<DBObject, DBObject>> inserts, UpdateTupleOperation tupleOperation) {
+	private void executeBatchUpdate(Map<DBCollection, Map<EntityKey, DBObject>> inserts, Map<DBCollection, BulkWriteOperation> bulkOperations, UpdateTupleOperation tupleOperation) {
 		EntityKey entityKey = tupleOperation.getEntityKey();
 		Tuple tuple = tupleOperation.getTuple();
 		MongoDBTupleSnapshot snapshot = (MongoDBTupleSnapshot) tupleOperation.getTuple().getSnapshot();
-		if ( INSERT == snapshot.getOperationType() && columnNamesAllowBatchInsert( tupleOperation ) ) {
+		if ( INSERT == snapshot.getOperationType() ) {
 			prepareForInsert( inserts, snapshot, entityKey, tuple );
 		}
 		else {
-			// Object already exists in the db or has invalid fields:
-			updateTuple( tuple, entityKey );
+			// Object already exists in the db:
+			BasicDBObject idObject = prepareIdObject( entityKey );
+			DBObject updater = objectForUpdate( tuple, entityKey, idObject );
+			if ( updater == idObject ) {
+				// bulk updates only accept update operators: only create the document if it does not exist yet
+				updater = new BasicDBObject( "$setOnInsert", idObject );
+			}
+			getOrCreateBulkOperation( bulkOperations, getCollection( entityKey ) ).find( idObject ).upsert().updateOne( updater );
+		}
+	}
+
+	private void prepareGuardedUpdate(Map<DBCollection, List<UpdateTupleOperation>> guardedUpdates, UpdateTupleOperation tupleOperation) {
+		DBCollection collection = getCollection( tupleOperation.getEntityKey() );
+		List<UpdateTupleOperation> updates = guardedUpdates.get( collection );
+		if ( updates == null ) {
+			updates = new ArrayList<UpdateTupleOperation>();
+			guardedUpdates.put( collection, updates );
+		}
+		updates.add( tupleOperation );
+	}
+
+	/**
+	 * Executes the updates guarded by a lock state in one bulk operation per collection, each of them having to match
+	 * the document it updates. They are executed last so that the documents inserted by the same batch exist.
+	 */
+	private void flushGuardedUpdates(Map<DBCollection, List<UpdateTupleOperation>> guardedUpdates) {
+		for ( Map.Entry<DBCollection, List<UpdateTupleOperation>> entry : guardedUpdates.entrySet() ) {
+			DBCollection collection = entry.getKey();
+			List<UpdateTupleOperation> updates = entry.getValue();
+			BulkWriteOperation bulkOperation = collection.initializeOrderedBulkOperation();
+			for ( UpdateTupleOperation update : updates ) {
+				EntityKey entityKey = update.getEntityKey();
+				BasicDBObject idObject = prepareIdObject( entityKey );
+				DBObject updater = objectForUpdate( update.getTuple(), entityKey, idObject );
+				if ( updater == idObject ) {
+					// bulk updates only accept update operators: only check the lock state
+					updater = new BasicDBObject( "$setOnInsert", idObject );
+				}
+				bulkOperation.find( prepareLockStateObject( entityKey, update.getOldLockState() ) ).updateOne( updater );
+			}
+			BulkWriteResult result = bulkOperation.execute( getAcknowledgedWriteConcern( collection ) );
+			logBatchResult( collection, result );
+			if ( result.getMatchedCount() < updates.size() ) {
+				throw log.staleBatchedUpdates( collection.getName(), updates.size(), result.getMatchedCount() );
+			}
+		}
+		guardedUpdates.clear();
+	}
+
+	private BulkWriteOperation getOrCreateBulkOperation(Map<DBCollection, BulkWriteOperation> bulkOperations, DBCollection collection) {
+		BulkWriteOperation bulkOperation = bulkOperations.get( collection );
+		if ( bulkOperation == null ) {
+			// ordered, as several operations of a flush may target the same document
+			bulkOperation = collection.initializeOrderedBulkOperation();
+			bulkOperations.put( collection, bulkOperation );
 		}
+		return bulkOperation;
 	}
 
-	private void prepareForInsert(Map<DBCollection, Map<DBObject, DBObject>> inserts, MongoDBTupleSnapshot snapshot, EntityKey entityKey, Tuple tuple) {
+	private void flushBulkOperations(Map<DBCollection, BulkWriteOperation> bulkOperations) {
+		for ( Map.Entry<DBCollection, BulkWriteOperation> entry : bulkOperations.entrySet() ) {
+			BulkWriteResult result = entry.getValue().execute();
+			logBatchResult( entry.getKey(), result );
+		}
+		bulkOperations.clear();
+	}
+
+	private void logBatchResult(DBCollection collection, BulkWriteResult result) {
+		if ( log.isDebugEnabled() && result.isAcknowledged() ) {
+			log.executedBatch( collection.getName(), result.getInsertedCount(), result.getMatchedCount(), result.getUpserts().size(), result.getRemovedCount() );
+		}
+	}
+
+	private void prepareForInsert(Map<DBCollection, Map<EntityKey, DBObject>> inserts, MongoDBTupleSnapshot snapshot, EntityKey entityKey, Tuple tuple) {
 		DBCollection collection = getCollection( entityKey );
-		Map<DBObject, DBObject> documents = getOrCreateDocuments( inserts, collection );
-		DBObject idObject = prepareIdObject( entityKey );
-		DBObject document = getCurrentDocument( snapshot, idObject, documents );
+		Map<EntityKey, DBObject> documents = getOrCreateDocuments( inserts, collection );
+		DBObject document = getCurrentDocument( snapshot, entityKey, documents );
 		DBObject newDocument = objectForInsert( tuple, entityKey, (BasicDBObject) document );
-		inserts.get( collection ).put( idObject, newDocument );
+		documents.put( entityKey, newDocument );
 	}
 
-	private DBObject getCurrentDocument(MongoDBTupleSnapshot snapshot, DBObject idObject, Map<DBObject, DBObject> documents) {
-		if ( documents.containsKey( idObject ) ) {
-			return documents.get( idObject );
+	private DBObject getCurrentDocument(MongoDBTupleSnapshot snapshot, EntityKey entityKey, Map<EntityKey, DBObject> documents) {
+		if ( documents.containsKey( entityKey ) ) {
+			return documents.get( entityKey );
 		}
 		else {
 			return snapshot.getDbObject();
 		}
 	}
 
-	private Map<DBObject, DBObject> getOrCreateDocuments(Map<DBCollection, Map<DBObject, DBObject>> inserts, DBCollection collection) {
+	private Map<EntityKey, DBObject> getOrCreateDocuments(Map<DBCollection, Map<EntityKey, DBObject>> inserts, DBCollection collection) {
 		if ( !inserts.containsKey( collection ) ) {
-			Map<DBObject, DBObject> map = new HashMap<DBObject, DBObject>();
+			Map<EntityKey, DBObject> map = new LinkedHashMap<EntityKey, DBObject>();
 			inserts.put( collection, map );
 		}
-		Map<DBObject, DBObject> documents = inserts.get( collection );
+		Map<EntityKey, DBObject> documents = inserts.get( collection );
 		return documents;
 	}
 
-	private void flushInserts(Map<DBCollection, Map<DBObject, DBObject>> inserts) {
-		for ( Map.Entry<DBCollection, Map<DBObject, DBObject>> entry : inserts.entrySet() ) {
+	/**
+	 * Writes the new documents of each collection with a bulk insert, a duplicate key error revealing an id in use
+	 * already. Documents with field names an insert doesn't accept, as the dotted columns of embeddables, are written by
+	 * upserts only setting their fields if no document has their id; each of these upserts has to insert its document.
+	 */
+	private void flushInserts(Map<DBCollection, Map<EntityKey, DBObject>> inserts) {
+		for ( Map.Entry<DBCollection, Map<EntityKey, DBObject>> entry : inserts.entrySet() ) {
 			DBCollection collection = entry.getKey();
-			Collection<DBObject> documents = entry.getValue().values();
-			collection.insert( new ArrayList<DBObject>( documents ) );
+			List<EntityKey> insertedKeys = new ArrayList<EntityKey>();
+			List<EntityKey> upsertedKeys = new ArrayList<EntityKey>();
+			BulkWriteOperation insertOperation = collection.initializeUnorderedBulkOperation();
+			BulkWriteOperation upsertOperation = collection.initializeUnorderedBulkOperation();
+			for ( Map.Entry<EntityKey, DBObject> document : entry.getValue().entrySet() ) {
+				if ( fieldNamesAllowInsert( document.getValue() ) ) {
+					insertOperation.insert( document.getValue() );
+					insertedKeys.add( document.getKey() );
+				}
+				else {
+					upsertOperation.find( prepareIdObject( document.getKey() ) ).upsert().updateOne( objectForInsertingUpsert( document.getValue() ) );
+					upsertedKeys.add( document.getKey() );
+				}
+			}
+			if ( !insertedKeys.isEmpty() ) {
+				executeBulkInsert( collection, insertOperation, insertedKeys );
+			}
+			if ( !upsertedKeys.isEmpty() ) {
+				executeBulkInsertingUpsert( collection, upsertOperation, upsertedKeys );
+			}
 		}
 		inserts.clear();
 	}
 
+	private void executeBulkInsert(DBCollection collection, BulkWriteOperation bulkOperation, List<EntityKey> keys) {
+		try {
+			logBatchResult( collection, bulkOperation.execute( getAcknowledgedWriteConcern( collection ) ) );
+		}
+		catch (BulkWriteException e) {
+			for ( BulkWriteError error : e.getWriteErrors() ) {
+				if ( error.getCode() == DUPLICATE_KEY_ERROR_CODE ) {
+					throw log.entityAlreadyExists( keys.get( error.getIndex() ) );
+				}
+			}
+			throw e;
+		}
+	}
+
+	private void executeBulkInsertingUpsert(DBCollection collection, BulkWriteOperation bulkOperation, List<EntityKey> keys) {
+		BulkWriteResult result = bulkOperation.execute( getAcknowledgedWriteConcern( collection ) );
+		logBatchResult( collection, result );
+		if ( result.getUpserts().size() < keys.size() ) {
+			Set<Integer> insertedIndexes = new HashSet<Integer>();
+			for ( BulkWriteUpsert upsert : result.getUpserts() ) {
+				insertedIndexes.add( upsert.getIndex() );
+			}
+			for ( int i = 0; i < keys.size(); i++ ) {
+				if ( !insertedIndexes.contains( i ) ) {
+					throw log.entityAlreadyExists( keys.get( i ) );
+				}
+			}
+		}
+	}
+
 	private static class MongoDBResultsCursor implements Iterator<Tuple>, Closeable {
 
 		private final DBCursor cursor;
@@ -85,6 +85,10 @@ public Object get(String column) {
 				return result;
 			}
 		}
+		//the id columns are stored in the _id field, take them from the EntityKey
+		if ( entityKey != null && columnInIdField( column ) ) {
+			return entityKey.getColumnValues()[columnNames.indexOf( column )];
+		}
 		//otherwise get it from the object
 		if ( column.contains( "." ) ) {
 			String[] fields = EMBEDDED_FIELDNAME_SEPARATOR.split( column, 0 );
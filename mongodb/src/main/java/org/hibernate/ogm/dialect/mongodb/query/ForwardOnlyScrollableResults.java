@@ -0,0 +1,272 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.dialect.mongodb.query;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import org.hibernate.HibernateException;
+import org.hibernate.ScrollableResults;
+import org.hibernate.type.Type;
+
+/**
+ * {@link ScrollableResults} moving forward over the results of a query, one row at a time. Only the current row is
+ * held, the next ones are fetched from the underlying cursor when moving to them.
+ */
+class ForwardOnlyScrollableResults implements ScrollableResults {
+
+	private final Iterator<?> results;
+	private final boolean projection;
+	private final Type[] types;
+	private final Closeable cursor;
+
+	private Object[] currentRow;
+	private int rowNumber = -1;
+	private boolean afterLast;
+
+	/**
+	 * Creates a new {@code ForwardOnlyScrollableResults}.
+	 *
+	 * @param results the query results, either entities or arrays of projected values
+	 * @param projection whether the results are arrays of projected values
+	 * @param types the types of the columns of a row
+	 * @param cursor the cursor to close when closing the results
+	 */
+	ForwardOnlyScrollableResults(Iterator<?> results, boolean projection, Type[] types, Closeable cursor) {
+		this.results = results;
+		this.projection = projection;
+		this.types = types;
+		this.cursor = cursor;
+	}
+
+	@Override
+	public boolean next() {
+		if ( !results.hasNext() ) {
+			currentRow = null;
+			afterLast = true;
+			return false;
+		}
+
+		Object next = results.next();
+		currentRow = projection ? (Object[]) next : new Object[] { next };
+		rowNumber++;
+		return true;
+	}
+
+	@Override
+	public boolean scroll(int positions) {
+		if ( positions < 0 ) {
+			throw unsupported( "scroll backwards" );
+		}
+		boolean onRow = currentRow != null;
+		for ( int i = 0; i < positions; i++ ) {
+			onRow = next();
+			if ( !onRow ) {
+				break;
+			}
+		}
+		return onRow;
+	}
+
+	@Override
+	public boolean last() {
+		throw unsupported( "last()" );
+	}
+
+	@Override
+	public boolean first() {
+		throw unsupported( "first()" );
+	}
+
+	@Override
+	public boolean previous() {
+		throw unsupported( "previous()" );
+	}
+
+	@Override
+	public void beforeFirst() {
+		throw unsupported( "beforeFirst()" );
+	}
+
+	@Override
+	public void afterLast() {
+		throw unsupported( "afterLast()" );
+	}
+
+	@Override
+	public boolean isFirst() {
+		return currentRow != null && rowNumber == 0;
+	}
+
+	@Override
+	public boolean isLast() {
+		return currentRow != null && !results.hasNext();
+	}
+
+	@Override
+	public int getRowNumber() {
+		return afterLast ? -1 : rowNumber;
+	}
+
+	@Override
+	public boolean setRowNumber(int rowNumber) {
+		if ( rowNumber < this.rowNumber ) {
+			throw unsupported( "setRowNumber() to a previous row" );
+		}
+		return scroll( rowNumber - this.rowNumber );
+	}
+
+	@Override
+	public void close() {
+		try {
+			cursor.close();
+		}
+		catch (IOException e) {
+			throw new HibernateException( "Could not close the query results", e );
+		}
+	}
+
+	@Override
+	public Object[] get() {
+		if ( currentRow == null ) {
+			throw new HibernateException( "The results are not positioned on a row" );
+		}
+		return currentRow;
+	}
+
+	@Override
+	public Object get(int col) {
+		return get()[col];
+	}
+
+	@Override
+	public Type getType(int i) {
+		return types[i];
+	}
+
+	@Override
+	public Integer getInteger(int col) {
+		return (Integer) get( col );
+	}
+
+	@Override
+	public Long getLong(int col) {
+		return (Long) get( col );
+	}
+
+	@Override
+	public Float getFloat(int col) {
+		return (Float) get( col );
+	}
+
+	@Override
+	public Boolean getBoolean(int col) {
+		return (Boolean) get( col );
+	}
+
+	@Override
+	public Double getDouble(int col) {
+		return (Double) get( col );
+	}
+
+	@Override
+	public Short getShort(int col) {
+		return (Short) get( col );
+	}
+
+	@Override
+	public Byte getByte(int col) {
+		return (Byte) get( col );
+	}
+
+	@Override
+	public Character getCharacter(int col) {
+		return (Character) get( col );
+	}
+
+	@Override
+	public byte[] getBinary(int col) {
+		return (byte[]) get( col );
+	}
+
+	@Override
+	public String getText(int col) {
+		return (String) get( col );
+	}
+
+	@Override
+	public Blob getBlob(int col) {
+		return (Blob) get( col );
+	}
+
+	@Override
+	public Clob getClob(int col) {
+		return (Clob) get( col );
+	}
+
+	@Override
+	public String getString(int col) {
+		return (String) get( col );
+	}
+
+	@Override
+	public BigDecimal getBigDecimal(int col) {
+		return (BigDecimal) get( col );
+	}
+
+	@Override
+	public BigInteger getBigInteger(int col) {
+		return (BigInteger) get( col );
+	}
+
+	@Override
+	public Date getDate(int col) {
+		return (Date) get( col );
+	}
+
+	@Override
+	public Locale getLocale(int col) {
+		return (Locale) get( col );
+	}
+
+	@Override
+	public Calendar getCalendar(int col) {
+		return (Calendar) get( col );
+	}
+
+	@Override
+	public TimeZone getTimeZone(int col) {
+		return (TimeZone) get( col );
+	}
+
+	private static HibernateException unsupported(String operation) {
+		return new HibernateException( "Results of MongoDB queries can only be scrolled forward, " + operation + " is not supported" );
+	}
+}
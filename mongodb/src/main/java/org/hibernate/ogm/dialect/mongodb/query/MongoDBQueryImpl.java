@@ -20,8 +20,9 @@
  */
 package org.hibernate.ogm.dialect.mongodb.query;
 
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
@@ -32,16 +33,20 @@
 import org.hibernate.ScrollMode;
 import org.hibernate.ScrollableResults;
 import org.hibernate.engine.query.spi.ParameterMetadata;
+import org.hibernate.engine.spi.RowSelection;
 import org.hibernate.internal.AbstractQueryImpl;
 import org.hibernate.ogm.datastore.mongodb.impl.MongoDBDatastoreProvider;
 import org.hibernate.ogm.datastore.mongodb.impl.MongoDBResultTupleIterable;
 import org.hibernate.ogm.datastore.spi.DatastoreProvider;
 import org.hibernate.ogm.datastore.spi.Tuple;
+import org.hibernate.ogm.dialect.mongodb.MongoDBDialect;
+import org.hibernate.ogm.exception.NotSupportedException;
 import org.hibernate.ogm.grid.EntityKeyMetadata;
 import org.hibernate.ogm.hibernatecore.impl.OgmSession;
 import org.hibernate.ogm.loader.OgmLoader;
 import org.hibernate.ogm.loader.OgmLoadingContext;
 import org.hibernate.ogm.persister.OgmEntityPersister;
+import org.hibernate.type.Type;
 
 import com.mongodb.DBCollection;
 import com.mongodb.DBCursor;
@@ -49,18 +54,28 @@
 
 /**
  * Query implementation based on on MongoDB.
+ * <p>
+ * The first result, the maximum number of results and the fetch size of the query are applied to the {@link DBCursor},
+ * so that only the requested documents are fetched, in batches of the given size. {@link #list()} turns the documents
+ * into entities one batch at a time, while {@link #iterate()} and {@link #scroll()} only hold the current batch of
+ * documents in memory.
  *
  * @author Gunnar Morling
  */
 public class MongoDBQueryImpl extends AbstractQueryImpl {
 
+	/**
+	 * Number of documents turned into entities at once by {@link #list()} if no fetch size is given
+	 */
+	private static final int DEFAULT_LOAD_BATCH_SIZE = 100;
+
 	private final DBObject query;
 	private final MongoDBDatastoreProvider provider;
 	private final Class<?> entityType;
 	private final DBObject projections;
 
 	public MongoDBQueryImpl(Class<?> entityType, DBObject query, DBObject projections, OgmSession session) {
-		super( query.toString(), null, session, new ParameterMetadata( null, null ) );
+		super( query.toString(), null, session.getDelegate(), new ParameterMetadata( null, null ) );
 		this.query = query;
 		this.entityType = entityType;
 		this.projections = projections;
@@ -75,22 +90,67 @@ public Iterator<?> iterate() throws HibernateException {
 
 	@Override
 	public ScrollableResults scroll() throws HibernateException {
-		throw new UnsupportedOperationException( "Not implemented yet" );
+		return scroll( ScrollMode.FORWARD_ONLY );
 	}
 
 	@Override
 	public ScrollableResults scroll(ScrollMode scrollMode) throws HibernateException {
-		throw new UnsupportedOperationException( "Not implemented yet" );
+		if ( scrollMode != ScrollMode.FORWARD_ONLY ) {
+			throw new NotSupportedException( "TBD", "Only forward-only scrolling is supported, got: " + scrollMode );
+		}
+
+		MongoDBResultTupleIterable resultsCursor = getResultsCursor();
+		return new ForwardOnlyScrollableResults( new ObjectLoadingIterator( resultsCursor ), isProjection(), getReturnTypes(), resultsCursor );
 	}
 
 	@Override
 	public List<?> list() throws HibernateException {
-		Iterator<?> results = iterate();
+		MongoDBResultTupleIterable resultsCursor = getResultsCursor();
+
+		try {
+			if ( isProjection() ) {
+				return listProjections( resultsCursor );
+			}
+			else {
+				return listEntities( resultsCursor );
+			}
+		}
+		finally {
+			close( resultsCursor );
+		}
+	}
 
+	private List<Object> listProjections(MongoDBResultTupleIterable resultsCursor) {
 		List<Object> result = new ArrayList<Object>();
 
-		while ( results.hasNext() ) {
-			result.add( results.next() );
+		for ( Tuple tuple : resultsCursor ) {
+			result.add( getAsProjection( tuple ) );
+		}
+
+		return result;
+	}
+
+	/**
+	 * Turns the documents into entities in batches, sharing one loader for all the batches.
+	 */
+	private List<Object> listEntities(MongoDBResultTupleIterable resultsCursor) {
+		OgmLoader loader = createLoader();
+		int batchSize = getFetchSize() != null ? getFetchSize() : DEFAULT_LOAD_BATCH_SIZE;
+
+		List<Object> result = new ArrayList<Object>();
+		List<Tuple> batch = new ArrayList<Tuple>( batchSize );
+
+		for ( Tuple tuple : resultsCursor ) {
+			batch.add( tuple );
+
+			if ( batch.size() == batchSize ) {
+				result.addAll( getAsManagedEntities( loader, batch ) );
+				batch = new ArrayList<Tuple>( batchSize );
+			}
+		}
+
+		if ( !batch.isEmpty() ) {
+			result.addAll( getAsManagedEntities( loader, batch ) );
 		}
 
 		return result;
@@ -100,6 +160,43 @@ private boolean isProjection() {
 		return !projections.keySet().isEmpty();
 	}
 
+	/**
+	 * Returns the entity type of the query or, for projections, the types of the projected properties.
+	 */
+	@Override
+	public Type[] getReturnTypes() {
+		if ( !isProjection() ) {
+			return new Type[] { session.getFactory().getTypeHelper().entity( entityType ) };
+		}
+
+		OgmEntityPersister persister = getPersister();
+		Type[] returnTypes = new Type[projections.keySet().size()];
+		int i = 0;
+		for ( String column : projections.keySet() ) {
+			returnTypes[i] = getPropertyType( persister, column );
+			i++;
+		}
+		return returnTypes;
+	}
+
+	/**
+	 * Returns the type of the property stored in the given column; only properties of the queried entity can be
+	 * projected.
+	 */
+	private static Type getPropertyType(OgmEntityPersister persister, String column) {
+		if ( column.equals( MongoDBDialect.ID_FIELDNAME ) ) {
+			return persister.getIdentifierType();
+		}
+		String[] propertyNames = persister.getPropertyNames();
+		for ( int i = 0; i < propertyNames.length; i++ ) {
+			String[] columnNames = persister.getPropertyColumnNames( i );
+			if ( columnNames.length > 0 && columnNames[0].equals( column ) ) {
+				return persister.getPropertyTypes()[i];
+			}
+		}
+		throw new HibernateException( "No property of entity " + persister.getEntityName() + " is stored in column " + column );
+	}
+
 	@Override
 	public int executeUpdate() throws HibernateException {
 		throw new UnsupportedOperationException( "Not implemented yet" );
@@ -121,25 +218,83 @@ public LockOptions getLockOptions() {
 	}
 
 	private MongoDBResultTupleIterable getResultsCursor() {
-		EntityKeyMetadata keyMetaData = getKeyMetaData( entityType );
-		DBCollection collection = provider.getDatabase().getCollection( keyMetaData.getTable() );
+		return new MongoDBResultTupleIterable( createCursor(), getKeyMetaData( entityType ) );
+	}
+
+	/**
+	 * Creates the cursor over the documents matching the query, with the row selection of the query applied.
+	 */
+	DBCursor createCursor() {
+		DBCollection collection = provider.getDatabase().getCollection( getKeyMetaData( entityType ).getTable() );
 
 		DBCursor cursor = isProjection() ? collection.find( query, projections ) : collection.find( query );
+		applyRowSelection( cursor );
+		return cursor;
+	}
+
+	private void applyRowSelection(DBCursor cursor) {
+		RowSelection selection = getRowSelection();
 
-		return new MongoDBResultTupleIterable( cursor, keyMetaData );
+		if ( selection.getFirstRow() != null && selection.getFirstRow() > 0 ) {
+			cursor.skip( selection.getFirstRow() );
+		}
+		if ( selection.getMaxRows() != null ) {
+			cursor.limit( selection.getMaxRows() );
+		}
+		if ( selection.getFetchSize() != null ) {
+			cursor.batchSize( selection.getFetchSize() );
+		}
 	}
 
 	private EntityKeyMetadata getKeyMetaData(Class<?> entityType) {
-		OgmEntityPersister persister = (OgmEntityPersister) ( session.getFactory() ).getEntityPersister( entityType.getName() );
+		OgmEntityPersister persister = getPersister();
 		return new EntityKeyMetadata( persister.getTableName(), persister.getRootTableIdentifierColumnNames() );
 	}
 
+	private OgmEntityPersister getPersister() {
+		return (OgmEntityPersister) ( session.getFactory() ).getEntityPersister( entityType.getName() );
+	}
+
+	private OgmLoader createLoader() {
+		return new OgmLoader( new OgmEntityPersister[] { getPersister() } );
+	}
+
+	private List<Object> getAsManagedEntities(OgmLoader loader, List<Tuple> tuples) {
+		OgmLoadingContext ogmLoadingContext = new OgmLoadingContext();
+		ogmLoadingContext.setTuples( tuples );
+
+		return loader.loadEntities( session, LockOptions.NONE, ogmLoadingContext );
+	}
+
+	private Object[] getAsProjection(Tuple tuple) {
+		Object[] projectionResult = new Object[projections.keySet().size()];
+		int i = 0;
+
+		for ( String column : projections.keySet() ) {
+			projectionResult[i] = tuple.get( column );
+			i++;
+		}
+
+		return projectionResult;
+	}
+
+	private static void close(MongoDBResultTupleIterable resultsCursor) {
+		try {
+			resultsCursor.close();
+		}
+		catch (IOException e) {
+			throw new HibernateException( "Could not close the MongoDB cursor", e );
+		}
+	}
+
 	private class ObjectLoadingIterator implements Iterator<Object> {
 
 		private final Iterator<Tuple> resultIterator;
+		private final OgmLoader loader;
 
 		private ObjectLoadingIterator(MongoDBResultTupleIterable resultsCursor) {
 			resultIterator = resultsCursor.iterator();
+			loader = isProjection() ? null : createLoader();
 		}
 
 		@Override
@@ -155,7 +310,7 @@ public Object next() {
 				return getAsProjection( next );
 			}
 			else {
-				return getAsManagedEntity( next );
+				return getAsManagedEntities( loader, Collections.singletonList( next ) ).iterator().next();
 			}
 		}
 
@@ -163,26 +318,5 @@ public Object next() {
 		public void remove() {
 			throw new UnsupportedOperationException( "Not implemented yet" );
 		}
-
-		private Object getAsManagedEntity(Tuple tuple) {
-			OgmEntityPersister persister = (OgmEntityPersister) ( session.getFactory() ).getEntityPersister( entityType.getName() );
-			OgmLoader loader = new OgmLoader( new OgmEntityPersister[] { persister } );
-			OgmLoadingContext ogmLoadingContext = new OgmLoadingContext();
-			ogmLoadingContext.setTuples( Arrays.asList( tuple ) );
-
-			return loader.loadEntities( session, LockOptions.NONE, ogmLoadingContext ).iterator().next();
-		}
-
-		private Object[] getAsProjection(Tuple tuple) {
-			Object[] projectionResult = new Object[projections.keySet().size()];
-			int i = 0;
-
-			for ( String column : projections.keySet() ) {
-				projectionResult[i] = tuple.get( column );
-				i++;
-			}
-
-			return projectionResult;
-		}
 	}
 }
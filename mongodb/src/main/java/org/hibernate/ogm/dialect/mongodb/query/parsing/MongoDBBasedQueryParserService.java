@@ -20,7 +20,10 @@
  */
 package org.hibernate.ogm.dialect.mongodb.query.parsing;
 
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import org.hibernate.Query;
 import org.hibernate.Session;
@@ -28,36 +31,87 @@
 import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.hql.QueryParser;
 import org.hibernate.hql.ast.spi.EntityNamesResolver;
+import org.hibernate.ogm.cfg.OgmProperties;
 import org.hibernate.ogm.dialect.mongodb.query.MongoDBQueryImpl;
 import org.hibernate.ogm.hibernatecore.impl.OgmSession;
 import org.hibernate.ogm.logging.mongodb.impl.Log;
 import org.hibernate.ogm.logging.mongodb.impl.LoggerFactory;
 import org.hibernate.ogm.service.impl.BaseQueryParserService;
+import org.hibernate.ogm.service.impl.ParsedQueryCache;
 import org.hibernate.ogm.service.impl.SessionFactoryEntityNamesResolver;
+import org.hibernate.service.spi.ServiceRegistryAwareService;
+import org.hibernate.service.spi.ServiceRegistryImplementor;
 
 /**
  * {@link org.hibernate.ogm.service.impl.QueryParserService} implementation which creates MongoDB queries in form of
  * {@link com.mongodb.DBObject}s.
+ * <p>
+ * Queries are parsed with {@link ParameterSlot}s instead of the actual parameter values, and the resulting templates
+ * are kept in a bounded LRU cache (see {@link OgmProperties#QUERY_PLAN_CACHE_MAX_SIZE}), so that executing the same
+ * query again only requires the parameter values to be bound.
  *
  * @author Gunnar Morling
  */
-public class MongoDBBasedQueryParserService extends BaseQueryParserService {
+public class MongoDBBasedQueryParserService extends BaseQueryParserService implements ServiceRegistryAwareService {
 
 	private static final Log log = LoggerFactory.getLogger();
 
 	private volatile SessionFactoryEntityNamesResolver entityNamesResolver;
 
+	private volatile ParsedQueryCache<QueryCacheKey, MongoDBQueryParsingResult> queryCache;
+
+	@Override
+	public void injectServices(ServiceRegistryImplementor serviceRegistry) {
+		queryCache = createQueryCache( serviceRegistry );
+	}
+
 	@Override
 	public Query getParsedQueryExecutor(OgmSession session, String queryString, Map<String, Object> namedParameters) {
-		QueryParser queryParser = new QueryParser();
-		MongoDBProcessingChain processingChain = createProcessingChain( session, unwrap( namedParameters ) );
+		Map<String, Object> parameterValues = unwrap( namedParameters );
+		MongoDBQueryParsingResult result = getQueryTemplate( session, queryString, parameterValues.keySet() );
+
+		if ( result.isBindable() ) {
+			result = result.bind( parameterValues );
+		}
+		else {
+			result = parseQuery( session, queryString, parameterValues );
+		}
 
-		MongoDBQueryParsingResult result = queryParser.parseQuery( queryString, processingChain );
 		log.createdQuery( queryString, result );
 
 		return new MongoDBQueryImpl( result.getEntityType(), result.getQuery(), result.getProjection(), session );
 	}
 
+	/**
+	 * Returns the cache of parsed queries of this service, e.g. to monitor its hit ratio.
+	 *
+	 * @return the cache of parsed queries
+	 */
+	public ParsedQueryCache<?, ?> getQueryCache() {
+		return queryCache;
+	}
+
+	private MongoDBQueryParsingResult getQueryTemplate(Session session, String queryString, Set<String> parameterNames) {
+		QueryCacheKey key = new QueryCacheKey( queryString, parameterNames );
+		MongoDBQueryParsingResult template = queryCache.get( key );
+
+		if ( template == null ) {
+			Map<String, Object> parameterSlots = new HashMap<String, Object>( parameterNames.size() );
+			for ( String parameterName : parameterNames ) {
+				parameterSlots.put( parameterName, new ParameterSlot( parameterName ) );
+			}
+
+			template = parseQuery( session, queryString, parameterSlots );
+			queryCache.put( key, template );
+		}
+
+		return template;
+	}
+
+	private MongoDBQueryParsingResult parseQuery(Session session, String queryString, Map<String, Object> namedParameters) {
+		return new QueryParser().parseQuery( queryString, createProcessingChain( session, namedParameters ) );
+	}
+
 	private MongoDBProcessingChain createProcessingChain(Session session, Map<String, Object> namedParameters) {
 		EntityNamesResolver entityNamesResolver = getDefinedEntityNames( session.getSessionFactory() );
 
@@ -73,4 +127,38 @@ private EntityNamesResolver getDefinedEntityNames(SessionFactory sessionFactory)
 		}
 		return entityNamesResolver;
 	}
+
+	/**
+	 * Identifies a cached query template. The names of the given parameters are part of the key, as only those are
+	 * replaced by slots when parsing the query.
+	 */
+	private static final class QueryCacheKey {
+
+		private final String queryString;
+		private final Set<String> parameterNames;
+		private final int hashCode;
+
+		private QueryCacheKey(String queryString, Set<String> parameterNames) {
+			this.queryString = queryString;
+			this.parameterNames = new HashSet<String>( parameterNames );
+			this.hashCode = 31 * queryString.hashCode() + this.parameterNames.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if ( this == obj ) {
+				return true;
+			}
+			if ( obj == null || getClass() != obj.getClass() ) {
+				return false;
+			}
+			QueryCacheKey other = (QueryCacheKey) obj;
+			return queryString.equals( other.queryString ) && parameterNames.equals( other.parameterNames );
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
 }
@@ -20,6 +20,7 @@
  */
 package org.hibernate.ogm.dialect.mongodb.query.parsing;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.hibernate.hql.ast.spi.predicate.ComparisonPredicate;
@@ -67,13 +68,13 @@ public RootPredicate<DBObject> getRootPredicate(String entityType) {
 	@Override
 	public ComparisonPredicate<DBObject> getComparisonPredicate(String entityType, Type comparisonType, List<String> propertyPath, Object value) {
 		String columnName = propertyHelper.getColumnName( entityType, propertyPath.get( propertyPath.size() - 1 ) );
-		return new MongoDBComparisonPredicate( columnName, comparisonType, value );
+		return new MongoDBComparisonPredicate( columnName, comparisonType, bind( value, entityType, propertyPath ) );
 	}
 
 	@Override
 	public RangePredicate<DBObject> getRangePredicate(String entityType, List<String> propertyPath, Object lowerValue, Object upperValue) {
 		String columnName = propertyHelper.getColumnName( entityType, propertyPath.get( propertyPath.size() - 1 ) );
-		return new MongoDBRangePredicate( columnName, lowerValue, upperValue );
+		return new MongoDBRangePredicate( columnName, bind( lowerValue, entityType, propertyPath ), bind( upperValue, entityType, propertyPath ) );
 	}
 
 	@Override
@@ -94,7 +95,11 @@ public ConjunctionPredicate<DBObject> getConjunctionPredicate() {
 	@Override
 	public InPredicate<DBObject> getInPredicate(String entityType, List<String> propertyPath, List<Object> typedElements) {
 		String columnName = propertyHelper.getColumnName( entityType, propertyPath.get( propertyPath.size() - 1 ) );
-		return new MongoDBInPredicate( columnName, typedElements );
+		List<Object> values = new ArrayList<Object>( typedElements.size() );
+		for ( Object element : typedElements ) {
+			values.add( bind( element, entityType, propertyPath ) );
+		}
+		return new MongoDBInPredicate( columnName, values );
 	}
 
 	@Override
@@ -108,4 +113,17 @@ public LikePredicate<DBObject> getLikePredicate(String entityType, List<String>
 		String columnName = propertyHelper.getColumnName( entityType, propertyPath.get( propertyPath.size() - 1 ) );
 		return new MongoDBLikePredicate( columnName, patternValue, escapeCharacter );
 	}
+
+	/**
+	 * Binds the given value to the given property if it is a {@link ParameterSlot}, so that the parameter value can be
+	 * converted to the property type later on.
+	 */
+	private Object bind(Object value, String entityType, List<String> propertyPath) {
+		if ( value instanceof ParameterSlot ) {
+			return ( (ParameterSlot) value ).boundTo( propertyHelper, entityType, propertyPath );
+		}
+		else {
+			return value;
+		}
+	}
 }
@@ -20,6 +20,11 @@
  */
 package org.hibernate.ogm.dialect.mongodb.query.parsing;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.mongodb.BasicDBObject;
 import com.mongodb.DBObject;
 
 /**
@@ -32,11 +37,63 @@ public class MongoDBQueryParsingResult {
 	private final Class<?> entityType;
 	private final DBObject query;
 	private final DBObject projection;
+	private final boolean bindable;
 
 	public MongoDBQueryParsingResult(Class<?> entityType, DBObject query, DBObject projection) {
+		this( entityType, query, projection, true );
+	}
+
+	public MongoDBQueryParsingResult(Class<?> entityType, DBObject query, DBObject projection, boolean bindable) {
 		this.entityType = entityType;
 		this.query = query;
 		this.projection = projection;
+		this.bindable = bindable;
+	}
+
+	/**
+	 * Returns a copy of this result whose query contains the given parameter values instead of the
+	 * {@link ParameterSlot}s of this result. This result itself is not altered, so it can be bound any number of times.
+	 *
+	 * @param namedParameters the parameter values to bind
+	 * @return a copy of this result with the given parameter values bound
+	 */
+	public MongoDBQueryParsingResult bind(Map<String, Object> namedParameters) {
+		return new MongoDBQueryParsingResult( entityType, (DBObject) bind( query, namedParameters ), projection );
+	}
+
+	private static Object bind(Object value, Map<String, Object> namedParameters) {
+		if ( value instanceof ParameterSlot ) {
+			return ( (ParameterSlot) value ).getValue( namedParameters );
+		}
+		else if ( value instanceof List ) {
+			List<?> template = (List<?>) value;
+			List<Object> bound = new ArrayList<Object>( template.size() );
+			for ( Object element : template ) {
+				bound.add( bind( element, namedParameters ) );
+			}
+			return bound;
+		}
+		else if ( value instanceof DBObject ) {
+			DBObject template = (DBObject) value;
+			DBObject bound = new BasicDBObject();
+			for ( String key : template.keySet() ) {
+				bound.put( key, bind( template.get( key ), namedParameters ) );
+			}
+			return bound;
+		}
+		else {
+			return value;
+		}
+	}
+
+	/**
+	 * Whether the parameter slots of this result can be bound to parameter values. That's not the case if a slot has
+	 * been given as pattern of a LIKE predicate; such queries need to be parsed with the actual parameter values.
+	 *
+	 * @return {@code true} if this result can be bound, {@code false} otherwise
+	 */
+	public boolean isBindable() {
+		return bindable;
 	}
 
 	/**
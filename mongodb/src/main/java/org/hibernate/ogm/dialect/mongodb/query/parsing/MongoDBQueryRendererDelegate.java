@@ -38,6 +38,12 @@
 public class MongoDBQueryRendererDelegate extends SingleEntityQueryRendererDelegate<DBObject, MongoDBQueryParsingResult> {
 
 	private final MongoDBPropertyHelper propertyHelper;
+	private final Map<String, Object> namedParameters;
+
+	/**
+	 * Whether a {@link ParameterSlot} has been given for the pattern of a LIKE predicate.
+	 */
+	private boolean slotInLikePredicate;
 
 	public MongoDBQueryRendererDelegate(EntityNamesResolver entityNames, MongoDBPropertyHelper propertyHelper, Map<String, Object> namedParameters) {
 		super(
@@ -46,11 +52,25 @@ public MongoDBQueryRendererDelegate(EntityNamesResolver entityNames, MongoDBProp
 				namedParameters );
 
 		this.propertyHelper = propertyHelper;
+		this.namedParameters = namedParameters;
 	}
 
 	@Override
 	public MongoDBQueryParsingResult getResult() {
-		return new MongoDBQueryParsingResult( targetType, builder.build(), getProjectionDBObject() );
+		return new MongoDBQueryParsingResult( targetType, builder.build(), getProjectionDBObject(), !slotInLikePredicate );
+	}
+
+	@Override
+	public void predicateLike(String patternValue, Character escapeCharacter) {
+		// LIKE patterns are translated into regular expressions while building the query, so a slot can't be bound
+		// later on; a placeholder pattern is used instead and the result is marked as not bindable
+		if ( isParameterSlot( patternValue ) ) {
+			slotInLikePredicate = true;
+			builder.addLikePredicate( propertyPath.getNodeNamesWithoutAlias(), "", escapeCharacter );
+		}
+		else {
+			super.predicateLike( patternValue, escapeCharacter );
+		}
 	}
 
 	@Override
@@ -70,6 +90,11 @@ else if ( propertyPath.getNodes().size() != 1 ) {
 		}
 	}
 
+	private boolean isParameterSlot(String value) {
+		return value.startsWith( ":" ) && namedParameters != null
+				&& namedParameters.get( value.substring( 1 ) ) instanceof ParameterSlot;
+	}
+
 	/**
 	 * Returns the projection columns of the parsed query in form of a {@code DBObject} as expected by MongoDB.
 	 *
@@ -0,0 +1,93 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.dialect.mongodb.query.parsing;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A placeholder for the value of a named parameter within a parsed MongoDB query. Parsing a query with slots instead of
+ * the actual parameter values yields a template which can be cached and bound to the parameter values of any execution
+ * of that query.
+ * <p>
+ * Slots are first passed as named parameter values to the parser, then bound to the property they are compared with by
+ * the {@link MongoDBPredicateFactory}, so that string values can be converted to the type of that property, as it is
+ * done when parsing with the actual values.
+ *
+ * @see MongoDBQueryParsingResult#bind(Map)
+ */
+public class ParameterSlot {
+
+	private final String name;
+	private final MongoDBPropertyHelper propertyHelper;
+	private final String entityType;
+	private final List<String> propertyPath;
+
+	public ParameterSlot(String name) {
+		this( name, null, null, null );
+	}
+
+	private ParameterSlot(String name, MongoDBPropertyHelper propertyHelper, String entityType, List<String> propertyPath) {
+		this.name = name;
+		this.propertyHelper = propertyHelper;
+		this.entityType = entityType;
+		this.propertyPath = propertyPath;
+	}
+
+	/**
+	 * Returns a slot for the same parameter whose values are converted to the type of the given property.
+	 *
+	 * @param propertyHelper the helper to be used for the conversion
+	 * @param entityType the entity type hosting the property
+	 * @param propertyPath the path of the property
+	 * @return the bound slot
+	 */
+	public ParameterSlot boundTo(MongoDBPropertyHelper propertyHelper, String entityType, List<String> propertyPath) {
+		return new ParameterSlot( name, propertyHelper, entityType, propertyPath );
+	}
+
+	/**
+	 * Returns the value of this slot's parameter, converted to the type of the property it is bound to if it is given as
+	 * string.
+	 *
+	 * @param namedParameters the parameter values of the query execution
+	 * @return the value of this slot's parameter
+	 */
+	public Object getValue(Map<String, Object> namedParameters) {
+		Object value = namedParameters.get( name );
+
+		if ( value instanceof String && propertyHelper != null ) {
+			return propertyHelper.convertToPropertyType( entityType, propertyPath, (String) value );
+		}
+		else {
+			return value;
+		}
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public String toString() {
+		return ":" + name;
+	}
+}
@@ -24,7 +24,7 @@
 
 import org.hibernate.hql.ast.spi.predicate.LikePredicate;
 import org.hibernate.hql.ast.spi.predicate.NegatablePredicate;
-import org.hibernate.ogm.dialect.mongodb.util.LikeExpressionToRegExpConverter;
+import org.hibernate.ogm.util.impl.LikeExpressionToRegExpConverter;
 
 import com.mongodb.BasicDBObject;
 import com.mongodb.DBObject;
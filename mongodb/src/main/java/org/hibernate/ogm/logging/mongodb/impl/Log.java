@@ -21,9 +21,10 @@
 package org.hibernate.ogm.logging.mongodb.impl;
 
 import static org.jboss.logging.Logger.Level.INFO;
-import static org.jboss.logging.Logger.Level.TRACE;
+import static org.jboss.logging.Logger.Level.DEBUG;
 
 import org.hibernate.HibernateException;
+import org.hibernate.StaleStateException;
 import org.hibernate.ogm.datastore.mongodb.MongoDBProperties;
 import org.jboss.logging.Cause;
 import org.jboss.logging.LogMessage;
@@ -63,10 +64,6 @@ public interface Log extends org.hibernate.ogm.util.impl.Log {
 	@Message(id = 1209, value = "The database named [%s] cannot be dropped")
 	HibernateException unableToDropDatabase(@Cause MongoException e, String databaseName);
 
-	@LogMessage(level = TRACE)
-	@Message(id = 1210, value = "Removed [%d] associations")
-	void removedAssociation(int nAffected);
-
 	@LogMessage(level = INFO)
 	@Message(id = 1211, value = "The configuration property '" + MongoDBProperties.WRITE_CONCERN + "' is set to %s")
 	void useWriteConcern(String writeConcern);
@@ -87,4 +84,11 @@ public interface Log extends org.hibernate.ogm.util.impl.Log {
 
 	@Message(id = 1217, value = "The result of a native query in MongoDB must be mapped by an entity")
 	HibernateException requireMetadatas();
+
+	@LogMessage(level = DEBUG)
+	@Message(id = 1218, value = "Executed batch on collection [%1$s]: %2$d inserted, %3$d matched, %4$d upserted, %5$d removed")
+	void executedBatch(String collection, int inserted, int matched, int upserted, int removed);
+
+	@Message(id = 1219, value = "Only %3$d of the %2$d batched updates of collection [%1$s] matched the expected version of their document, the other documents have been updated or deleted by another transaction")
+	StaleStateException staleBatchedUpdates(String collection, int expected, int matched);
 }
@@ -0,0 +1,110 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.dialect.mongodb.query;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.ogm.hibernatecore.impl.OgmSession;
+import org.hibernate.ogm.test.mongodb.query.Hypothesis;
+import org.hibernate.ogm.test.utils.OgmTestCase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCursor;
+
+/**
+ * Test that the row selection of a {@link MongoDBQueryImpl} is applied to the {@link DBCursor} it reads from.
+ */
+public class MongoDBQueryImplCursorTest extends OgmTestCase {
+
+	private static final int NUMBER_OF_HYPOTHESES = 10;
+
+	@Before
+	public void addTestEntities() {
+		Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		for ( int i = 1; i <= NUMBER_OF_HYPOTHESES; i++ ) {
+			Hypothesis hypothesis = new Hypothesis( String.valueOf( i ) );
+			hypothesis.setPosition( i );
+			session.persist( hypothesis );
+		}
+		transaction.commit();
+		session.close();
+	}
+
+	@After
+	public void deleteTestEntities() {
+		Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		for ( int i = 1; i <= NUMBER_OF_HYPOTHESES; i++ ) {
+			session.delete( session.load( Hypothesis.class, String.valueOf( i ) ) );
+		}
+		transaction.commit();
+		session.close();
+	}
+
+	@Test
+	public void shouldFetchDocumentsInBatchesOfFetchSize() throws Exception {
+		Session session = openSession();
+		MongoDBQueryImpl query = new MongoDBQueryImpl( Hypothesis.class, new BasicDBObject(), new BasicDBObject(), (OgmSession) session );
+		query.setFetchSize( 3 );
+
+		DBCursor cursor = query.createCursor();
+		try {
+			cursor.next();
+			assertThat( cursor.getSizes().get( 0 ) ).isEqualTo( 3 );
+			assertThat( cursor.size() ).isEqualTo( NUMBER_OF_HYPOTHESES );
+		}
+		finally {
+			cursor.close();
+			session.close();
+		}
+	}
+
+	@Test
+	public void shouldApplyFirstResultAndMaxResultsToCursor() throws Exception {
+		Session session = openSession();
+		MongoDBQueryImpl query = new MongoDBQueryImpl( Hypothesis.class, new BasicDBObject(), new BasicDBObject(), (OgmSession) session );
+		query.setFirstResult( 3 );
+		query.setMaxResults( 4 );
+		query.setFetchSize( 2 );
+
+		DBCursor cursor = query.createCursor();
+		try {
+			cursor.next();
+			assertThat( cursor.getSizes().get( 0 ) ).isEqualTo( 2 );
+			assertThat( cursor.size() ).isEqualTo( 4 );
+		}
+		finally {
+			cursor.close();
+			session.close();
+		}
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class<?>[] { Hypothesis.class };
+	}
+}
@@ -124,6 +124,41 @@ public void testImplicitFlushWithInsertsAndDelete() throws Exception {
 		Assertions.assertThat( LeakingMongoDBDialect.queueSize ).isEqualTo( 2 * numInsert );
 	}
 
+	@Test
+	public void testUpdatesAndDeletesAreApplied() throws Exception {
+		int numInsert = 3;
+
+		Session session = openSession();
+		session.beginTransaction();
+		for ( int i = 0; i < numInsert; i++ ) {
+			session.persist( helicopter( "H_" + i ) );
+		}
+		session.getTransaction().commit();
+		session.close();
+
+		session = openSession();
+		session.beginTransaction();
+		List<Helicopter> helicopters = session.createQuery( "FROM Helicopter" ).list();
+		session.delete( helicopters.get( 0 ) );
+		for ( int i = 1; i < numInsert; i++ ) {
+			helicopters.get( i ).setName( "Updated" );
+		}
+		session.getTransaction().commit();
+		session.close();
+
+		Assertions.assertThat( LeakingMongoDBDialect.queueSize ).isEqualTo( numInsert );
+
+		session = openSession();
+		session.beginTransaction();
+		helicopters = session.createQuery( "FROM Helicopter" ).list();
+		Assertions.assertThat( helicopters ).hasSize( numInsert - 1 );
+		for ( Helicopter helicopter : helicopters ) {
+			Assertions.assertThat( helicopter.getName() ).isEqualTo( "Updated" );
+		}
+		session.getTransaction().commit();
+		session.close();
+	}
+
 	@After
 	public void clean() {
 		Session session = openSession();
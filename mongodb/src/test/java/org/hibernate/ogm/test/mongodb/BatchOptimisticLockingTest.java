@@ -0,0 +1,126 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.mongodb;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import org.hibernate.Session;
+import org.hibernate.StaleStateException;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.ogm.datastore.mongodb.MongoDBProperties;
+import org.hibernate.ogm.datastore.mongodb.impl.MongoDBDatastoreProvider;
+import org.hibernate.ogm.datastore.spi.DatastoreProvider;
+import org.hibernate.ogm.test.datastore.Manuscript;
+import org.hibernate.ogm.test.utils.OgmTestCase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.WriteConcern;
+
+/**
+ * Test that the versions of the entities updated by a flush are checked when executing the batch. The write concern
+ * doesn't ask for acknowledgements, so this also makes sure that the updates guarded by a version are acknowledged
+ * anyway; the test document is written directly with an acknowledged write concern.
+ */
+public class BatchOptimisticLockingTest extends OgmTestCase {
+
+	@Before
+	public void insertManuscript() {
+		BasicDBObject manuscript = new BasicDBObject( "_id", "manuscript-1" );
+		manuscript.append( "title", "Draft" );
+		manuscript.append( "version", 0 );
+		getManuscripts().insert( manuscript, WriteConcern.ACKNOWLEDGED );
+	}
+
+	@After
+	public void removeManuscript() {
+		getManuscripts().remove( new BasicDBObject( "_id", "manuscript-1" ), WriteConcern.ACKNOWLEDGED );
+	}
+
+	@Test
+	public void testVersionedUpdateIsApplied() throws Exception {
+		Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		Manuscript manuscript = (Manuscript) session.get( Manuscript.class, "manuscript-1" );
+		manuscript.setTitle( "Reviewed" );
+		transaction.commit();
+		session.clear();
+
+		transaction = session.beginTransaction();
+		manuscript = (Manuscript) session.get( Manuscript.class, "manuscript-1" );
+		assertThat( manuscript.getTitle() ).isEqualTo( "Reviewed" );
+		assertThat( manuscript.getVersion() ).isEqualTo( 1 );
+		transaction.commit();
+		session.close();
+	}
+
+	@Test
+	public void testConcurrentUpdateIsDetectedWhenExecutingBatch() throws Exception {
+		Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		Manuscript manuscript = (Manuscript) session.get( Manuscript.class, "manuscript-1" );
+
+		Session concurrentSession = openSession();
+		Transaction concurrentTransaction = concurrentSession.beginTransaction();
+		Manuscript concurrentManuscript = (Manuscript) concurrentSession.get( Manuscript.class, "manuscript-1" );
+		concurrentManuscript.setTitle( "Reviewed" );
+		concurrentTransaction.commit();
+		concurrentSession.close();
+
+		manuscript.setTitle( "Final" );
+		try {
+			session.flush();
+			fail( "The concurrent update should have been detected" );
+		}
+		catch (StaleStateException e) {
+			// expected
+		}
+		transaction.rollback();
+		session.clear();
+
+		transaction = session.beginTransaction();
+		manuscript = (Manuscript) session.get( Manuscript.class, "manuscript-1" );
+		assertThat( manuscript.getTitle() ).isEqualTo( "Reviewed" );
+		assertThat( manuscript.getVersion() ).isEqualTo( 1 );
+		transaction.commit();
+		session.close();
+	}
+
+	private DBCollection getManuscripts() {
+		MongoDBDatastoreProvider provider = (MongoDBDatastoreProvider) sfi().getServiceRegistry().getService( DatastoreProvider.class );
+		return provider.getDatabase().getCollection( "Manuscript" );
+	}
+
+	@Override
+	protected void configure(Configuration cfg) {
+		cfg.setProperty( MongoDBProperties.WRITE_CONCERN, "UNACKNOWLEDGED" );
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class<?>[] { Manuscript.class };
+	}
+}
@@ -0,0 +1,185 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.mongodb;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.Collections;
+
+import org.hibernate.HibernateException;
+import org.hibernate.ogm.datastore.mongodb.impl.MongoDBDatastoreProvider;
+import org.hibernate.ogm.datastore.spi.DatastoreProvider;
+import org.hibernate.ogm.datastore.spi.Tuple;
+import org.hibernate.ogm.datastore.spi.TupleContext;
+import org.hibernate.ogm.dialect.batch.OperationsQueue;
+import org.hibernate.ogm.dialect.batch.UpdateTupleOperation;
+import org.hibernate.ogm.dialect.impl.GridDialects;
+import org.hibernate.ogm.dialect.mongodb.MongoDBDialect;
+import org.hibernate.ogm.grid.EntityKey;
+import org.hibernate.ogm.grid.EntityKeyMetadata;
+import org.hibernate.ogm.test.simpleentity.Hypothesis;
+import org.hibernate.ogm.test.utils.OgmTestCase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+
+/**
+ * Test that inserting a document whose id is in use already fails instead of merging the new document into the stored
+ * one, with and without batching, including for documents with embedded fields which can't be written by an insert.
+ */
+public class MongoDBDuplicateInsertTest extends OgmTestCase {
+
+	private static final String COLLECTION = "DuplicateInsert";
+	private static final String EXISTING_ID = "existing";
+	private static final String NEW_ID = "new";
+
+	@Before
+	public void insertExistingDocument() {
+		getCollection().insert( new BasicDBObject( "_id", EXISTING_ID ).append( "name", "Stored" ) );
+	}
+
+	@After
+	public void removeDocuments() {
+		getCollection().remove( new BasicDBObject() );
+	}
+
+	@Test
+	public void testDuplicateInsertIsDetected() throws Exception {
+		Tuple tuple = createTupleForInsert( EXISTING_ID );
+		tuple.put( "name", "Inserted" );
+
+		try {
+			getGridDialect().updateTuple( tuple, key( EXISTING_ID ) );
+			fail( "The existing document should have been detected" );
+		}
+		catch (HibernateException e) {
+			assertThat( e.getMessage() ).contains( "OGM000063" );
+		}
+		assertExistingDocumentIsUnchanged();
+	}
+
+	@Test
+	public void testDuplicateInsertWithEmbeddedFieldsIsDetected() throws Exception {
+		Tuple tuple = createTupleForInsert( EXISTING_ID );
+		tuple.put( "name", "Inserted" );
+		tuple.put( "address.city", "Paris" );
+
+		try {
+			getGridDialect().updateTuple( tuple, key( EXISTING_ID ) );
+			fail( "The existing document should have been detected" );
+		}
+		catch (HibernateException e) {
+			assertThat( e.getMessage() ).contains( "OGM000063" );
+		}
+		assertExistingDocumentIsUnchanged();
+	}
+
+	@Test
+	public void testDuplicateInsertIsDetectedInBatch() throws Exception {
+		Tuple newTuple = createTupleForInsert( NEW_ID );
+		newTuple.put( "name", "Inserted" );
+		Tuple duplicateTuple = createTupleForInsert( EXISTING_ID );
+		duplicateTuple.put( "name", "Inserted" );
+
+		OperationsQueue queue = new OperationsQueue();
+		queue.add( new UpdateTupleOperation( newTuple, key( NEW_ID ) ) );
+		queue.add( new UpdateTupleOperation( duplicateTuple, key( EXISTING_ID ) ) );
+		try {
+			getGridDialect().executeBatch( queue );
+			fail( "The existing document should have been detected" );
+		}
+		catch (HibernateException e) {
+			assertThat( e.getMessage() ).contains( "OGM000063" ).contains( EXISTING_ID );
+		}
+		assertExistingDocumentIsUnchanged();
+	}
+
+	@Test
+	public void testDuplicateInsertWithEmbeddedFieldsIsDetectedInBatch() throws Exception {
+		Tuple newTuple = createTupleForInsert( NEW_ID );
+		newTuple.put( "address.city", "Rome" );
+		Tuple duplicateTuple = createTupleForInsert( EXISTING_ID );
+		duplicateTuple.put( "address.city", "Paris" );
+
+		OperationsQueue queue = new OperationsQueue();
+		queue.add( new UpdateTupleOperation( newTuple, key( NEW_ID ) ) );
+		queue.add( new UpdateTupleOperation( duplicateTuple, key( EXISTING_ID ) ) );
+		try {
+			getGridDialect().executeBatch( queue );
+			fail( "The existing document should have been detected" );
+		}
+		catch (HibernateException e) {
+			assertThat( e.getMessage() ).contains( "OGM000063" ).contains( EXISTING_ID );
+		}
+		assertExistingDocumentIsUnchanged();
+	}
+
+	@Test
+	public void testDocumentWithEmbeddedFieldsIsInsertedInBatch() throws Exception {
+		Tuple tuple = createTupleForInsert( NEW_ID );
+		tuple.put( "name", "Inserted" );
+		tuple.put( "address.city", "Rome" );
+
+		OperationsQueue queue = new OperationsQueue();
+		queue.add( new UpdateTupleOperation( tuple, key( NEW_ID ) ) );
+		getGridDialect().executeBatch( queue );
+
+		DBObject document = getCollection().findOne( new BasicDBObject( "_id", NEW_ID ) );
+		assertThat( document.get( "name" ) ).isEqualTo( "Inserted" );
+		assertThat( ( (DBObject) document.get( "address" ) ).get( "city" ) ).isEqualTo( "Rome" );
+	}
+
+	private void assertExistingDocumentIsUnchanged() {
+		DBObject document = getCollection().findOne( new BasicDBObject( "_id", EXISTING_ID ) );
+		assertThat( document.keySet() ).containsOnly( "_id", "name" );
+		assertThat( document.get( "name" ) ).isEqualTo( "Stored" );
+	}
+
+	private Tuple createTupleForInsert(String id) {
+		return GridDialects.createTupleForInsert( getGridDialect(), key( id ), new TupleContext( Collections.<String>emptyList() ) );
+	}
+
+	private static EntityKey key(String id) {
+		return new EntityKey( new EntityKeyMetadata( COLLECTION, new String[] { "id" } ), new Object[] { id } );
+	}
+
+	private MongoDBDialect getGridDialect() {
+		return new MongoDBDialect( getProvider() );
+	}
+
+	private DBCollection getCollection() {
+		return getProvider().getDatabase().getCollection( COLLECTION );
+	}
+
+	private MongoDBDatastoreProvider getProvider() {
+		return (MongoDBDatastoreProvider) sfi().getServiceRegistry().getService( DatastoreProvider.class );
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class<?>[] { Hypothesis.class };
+	}
+}
@@ -0,0 +1,192 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.mongodb;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.hibernate.ogm.datastore.impl.PropertyOptionsContext;
+import org.hibernate.ogm.datastore.mongodb.impl.MongoDBDatastoreProvider;
+import org.hibernate.ogm.datastore.spi.Association;
+import org.hibernate.ogm.datastore.spi.AssociationContext;
+import org.hibernate.ogm.datastore.spi.DatastoreProvider;
+import org.hibernate.ogm.datastore.spi.Tuple;
+import org.hibernate.ogm.datastore.spi.TupleContext;
+import org.hibernate.ogm.dialect.batch.OperationsQueue;
+import org.hibernate.ogm.dialect.batch.RemoveTupleOperation;
+import org.hibernate.ogm.dialect.batch.UpdateAssociationOperation;
+import org.hibernate.ogm.dialect.batch.UpdateTupleOperation;
+import org.hibernate.ogm.dialect.impl.GridDialects;
+import org.hibernate.ogm.dialect.mongodb.MongoDBDialect;
+import org.hibernate.ogm.grid.AssociationKey;
+import org.hibernate.ogm.grid.AssociationKeyMetadata;
+import org.hibernate.ogm.grid.AssociationKind;
+import org.hibernate.ogm.grid.EntityKey;
+import org.hibernate.ogm.grid.EntityKeyMetadata;
+import org.hibernate.ogm.grid.RowKey;
+import org.hibernate.ogm.options.navigation.impl.WritableOptionsServiceContext;
+import org.hibernate.ogm.test.mongodb.loading.Module;
+import org.hibernate.ogm.test.mongodb.loading.Project;
+import org.hibernate.ogm.test.utils.OgmTestCase;
+import org.junit.After;
+import org.junit.Test;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import com.mongodb.WriteConcern;
+
+/**
+ * Test that the reads done while operations are waiting in the queue see the state the datastore will have once the
+ * queue is executed, without executing it beforehand.
+ */
+public class MongoDBQueuedOperationsTest extends OgmTestCase {
+
+	private static final String PROJECT_ID = "projectID";
+
+	@After
+	public void removeDocuments() {
+		getCollection().remove( new BasicDBObject(), WriteConcern.ACKNOWLEDGED );
+	}
+
+	@Test
+	public void testTupleRemovedInTheQueueIsNotReturned() throws Exception {
+		getCollection().insert( new BasicDBObject( "_id", PROJECT_ID ).append( "name", "HibernateOGM" ), WriteConcern.ACKNOWLEDGED );
+
+		OperationsQueue queue = new OperationsQueue();
+		queue.add( new RemoveTupleOperation( projectKey() ) );
+
+		assertThat( getGridDialect().getTuple( projectKey(), tupleContext( queue ) ) ).isNull();
+		assertThat( getGridDialect().getTuples( new EntityKey[] { projectKey() }, tupleContext( queue ) ) ).containsExactly( (Tuple) null );
+		assertThat( getGridDialect().getTuple( projectKey(), tupleContext( null ) ) ).isNotNull();
+
+		getGridDialect().executeBatch( queue );
+
+		assertThat( getGridDialect().getTuple( projectKey(), tupleContext( null ) ) ).isNull();
+	}
+
+	@Test
+	public void testAssociationIsReadWithItsQueuedChanges() throws Exception {
+		DBObject project = new BasicDBObject( "_id", PROJECT_ID )
+				.append( "modules", Arrays.asList( new BasicDBObject( "module_id", "mongodb" ) ) );
+		getCollection().insert( project, WriteConcern.ACKNOWLEDGED );
+
+		OperationsQueue queue = new OperationsQueue();
+		Association association = getGridDialect().getAssociation( modulesKey(), associationContext( queue ) );
+		assertThat( association.getKeys() ).containsOnly( rowKey( "mongodb" ) );
+		association.remove( rowKey( "mongodb" ) );
+		association.put( rowKey( "infinispan" ), row( "infinispan" ) );
+		queue.add( new UpdateAssociationOperation( association, modulesKey(), associationContext( queue ) ) );
+
+		Association queued = getGridDialect().getAssociation( modulesKey(), associationContext( queue ) );
+		assertThat( queued.getKeys() ).containsOnly( rowKey( "infinispan" ) );
+		assertThat( queued.get( rowKey( "infinispan" ) ).get( "module_id" ) ).isEqualTo( "infinispan" );
+		assertThat( getStoredModuleIds() ).containsOnly( "mongodb" );
+
+		getGridDialect().executeBatch( queue );
+
+		assertThat( getStoredModuleIds() ).containsOnly( "infinispan" );
+	}
+
+	@Test
+	public void testAssociationCreatedInTheQueueIsReadBeforeTheQueueIsExecuted() throws Exception {
+		OperationsQueue queue = new OperationsQueue();
+		Tuple tuple = GridDialects.createTupleForInsert( getGridDialect(), projectKey(), tupleContext( queue ) );
+		tuple.put( "name", "HibernateOGM" );
+		queue.add( new UpdateTupleOperation( tuple, projectKey() ) );
+
+		Association association = getGridDialect().createAssociation( modulesKey(), associationContext( queue ) );
+		association.put( rowKey( "mongodb" ), row( "mongodb" ) );
+		queue.add( new UpdateAssociationOperation( association, modulesKey(), associationContext( queue ) ) );
+
+		assertThat( getCollection().findOne( new BasicDBObject( "_id", PROJECT_ID ) ) ).isNull();
+		Association queued = getGridDialect().getAssociation( modulesKey(), associationContext( queue ) );
+		assertThat( queued.getKeys() ).containsOnly( rowKey( "mongodb" ) );
+
+		getGridDialect().executeBatch( queue );
+
+		assertThat( getCollection().findOne( new BasicDBObject( "_id", PROJECT_ID ) ).get( "name" ) ).isEqualTo( "HibernateOGM" );
+		assertThat( getStoredModuleIds() ).containsOnly( "mongodb" );
+	}
+
+	private Object[] getStoredModuleIds() {
+		DBObject project = getCollection().findOne( new BasicDBObject( "_id", PROJECT_ID ) );
+		List<?> modules = (List<?>) project.get( "modules" );
+		Object[] moduleIds = new Object[modules.size()];
+		for ( int i = 0; i < moduleIds.length; i++ ) {
+			moduleIds[i] = ( (DBObject) modules.get( i ) ).get( "module_id" );
+		}
+		return moduleIds;
+	}
+
+	private static EntityKey projectKey() {
+		return new EntityKey( new EntityKeyMetadata( "Project", new String[] { "id" } ), new Object[] { PROJECT_ID } );
+	}
+
+	private static AssociationKey modulesKey() {
+		AssociationKeyMetadata metadata = new AssociationKeyMetadata( "Project_Module", new String[] { "Project_id" } );
+		metadata.setRowKeyColumnNames( new String[] { "Project_id", "module_id" } );
+		return new AssociationKey( metadata, new Object[] { PROJECT_ID }, "modules", projectKey(), AssociationKind.ASSOCIATION );
+	}
+
+	private static RowKey rowKey(String moduleId) {
+		return new RowKey( "Project_Module", new String[] { "Project_id", "module_id" }, new Object[] { PROJECT_ID, moduleId } );
+	}
+
+	private static Tuple row(String moduleId) {
+		Tuple row = new Tuple();
+		row.put( "Project_id", PROJECT_ID );
+		row.put( "module_id", moduleId );
+		return row;
+	}
+
+	private static TupleContext tupleContext(OperationsQueue queue) {
+		TupleContext tupleContext = new TupleContext( Collections.<String>emptyList() );
+		tupleContext.setOperationsQueue( queue );
+		return tupleContext;
+	}
+
+	private static AssociationContext associationContext(OperationsQueue queue) {
+		AssociationContext associationContext = new AssociationContext( new PropertyOptionsContext( new WritableOptionsServiceContext(), Project.class, "modules" ) );
+		associationContext.setOperationsQueue( queue );
+		return associationContext;
+	}
+
+	private MongoDBDialect getGridDialect() {
+		return new MongoDBDialect( getProvider() );
+	}
+
+	private DBCollection getCollection() {
+		return getProvider().getDatabase().getCollection( "Project" );
+	}
+
+	private MongoDBDatastoreProvider getProvider() {
+		return (MongoDBDatastoreProvider) sfi().getServiceRegistry().getService( DatastoreProvider.class );
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class<?>[] { Project.class, Module.class };
+	}
+}
@@ -0,0 +1,187 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.mongodb.query;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.HibernateException;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.ogm.exception.NotSupportedException;
+import org.hibernate.ogm.test.utils.OgmTestCase;
+import org.hibernate.ogm.test.utils.TestSessionFactory;
+import org.hibernate.type.EntityType;
+import org.hibernate.type.IntegerType;
+import org.hibernate.type.StringType;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Test for paging, fetch size and scrolling of queries with MongoDB.
+ */
+public class MongoDBQueryPagingAndScrollingTest extends OgmTestCase {
+
+	private static final int NUMBER_OF_HYPOTHESES = 10;
+
+	@TestSessionFactory
+	private static SessionFactory sessions;
+
+	private Session session;
+	private Transaction transaction;
+
+	@BeforeClass
+	public static void addTestEntities() {
+		Session session = sessions.openSession();
+		Transaction transaction = session.getTransaction();
+		transaction.begin();
+
+		for ( int i = 1; i <= NUMBER_OF_HYPOTHESES; i++ ) {
+			Hypothesis hypothesis = new Hypothesis();
+			hypothesis.setId( String.valueOf( i ) );
+			hypothesis.setPosition( i );
+			hypothesis.setDescription( "Hypothesis " + i );
+			session.persist( hypothesis );
+		}
+
+		transaction.commit();
+		session.clear();
+		session.close();
+	}
+
+	@AfterClass
+	public static void deleteTestEntities() throws Exception {
+		Session session = sessions.openSession();
+		Transaction transaction = session.getTransaction();
+		transaction.begin();
+
+		for ( int i = 1; i <= NUMBER_OF_HYPOTHESES; i++ ) {
+			session.delete( new Hypothesis( String.valueOf( i ) ) );
+		}
+
+		transaction.commit();
+		session.clear();
+		session.close();
+	}
+
+	@Before
+	public void startTransaction() {
+		session = sessions.openSession();
+		transaction = session.getTransaction();
+		transaction.begin();
+	}
+
+	@After
+	public void commitTransaction() {
+		session.close();
+		transaction.commit();
+	}
+
+	@Test
+	public void shouldApplyFirstResultAndMaxResults() throws Exception {
+		List<?> all = session.createQuery( "from Hypothesis h where h.position > 2" ).list();
+		assertThat( all ).hasSize( 8 );
+
+		List<?> page = session.createQuery( "from Hypothesis h where h.position > 2" )
+				.setFirstResult( 3 )
+				.setMaxResults( 4 )
+				.list();
+		assertThat( page ).isEqualTo( all.subList( 3, 7 ) );
+
+		List<?> lastPage = session.createQuery( "from Hypothesis h where h.position > 2" )
+				.setFirstResult( 6 )
+				.setMaxResults( 4 )
+				.list();
+		assertThat( lastPage ).hasSize( 2 );
+	}
+
+	@Test
+	public void shouldLoadAllResultsWithFetchSizeSmallerThanResultCount() throws Exception {
+		List<?> results = session.createQuery( "from Hypothesis h" )
+				.setFetchSize( 3 )
+				.list();
+
+		assertThat( results ).onProperty( "id" ).containsOnly( "1", "2", "3", "4", "5", "6", "7", "8", "9", "10" );
+	}
+
+	@Test
+	public void shouldScrollForwardOverEntities() throws Exception {
+		ScrollableResults results = session.createQuery( "from Hypothesis h where h.position <= 5" )
+				.setFetchSize( 2 )
+				.scroll();
+
+		List<Object> hypotheses = new ArrayList<Object>();
+		assertThat( results.getType( 0 ) ).isInstanceOf( EntityType.class );
+		assertThat( ( (EntityType) results.getType( 0 ) ).getAssociatedEntityName() ).isEqualTo( Hypothesis.class.getName() );
+		while ( results.next() ) {
+			assertThat( results.getRowNumber() ).isEqualTo( hypotheses.size() );
+			hypotheses.add( results.get( 0 ) );
+		}
+		results.close();
+
+		assertThat( hypotheses ).onProperty( "id" ).containsOnly( "1", "2", "3", "4", "5" );
+	}
+
+	@Test
+	public void shouldScrollForwardOverProjections() throws Exception {
+		ScrollableResults results = session.createQuery( "select h.id, h.position from Hypothesis h where h.position = 7" )
+				.scroll( ScrollMode.FORWARD_ONLY );
+
+		assertThat( results.next() ).isTrue();
+		assertThat( results.isFirst() ).isTrue();
+		assertThat( results.isLast() ).isTrue();
+		assertThat( results.get() ).containsOnly( "7", 7 );
+		assertThat( results.getType( 0 ) ).isSameAs( StringType.INSTANCE );
+		assertThat( results.getType( 1 ) ).isSameAs( IntegerType.INSTANCE );
+		assertThat( results.next() ).isFalse();
+		results.close();
+	}
+
+	@Test(expected = HibernateException.class)
+	public void shouldNotScrollBackwards() throws Exception {
+		ScrollableResults results = session.createQuery( "from Hypothesis h" ).scroll();
+		try {
+			results.next();
+			results.previous();
+		}
+		finally {
+			results.close();
+		}
+	}
+
+	@Test(expected = NotSupportedException.class)
+	public void shouldNotSupportScrollInsensitiveMode() throws Exception {
+		session.createQuery( "from Hypothesis h" ).scroll( ScrollMode.SCROLL_INSENSITIVE );
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class<?>[] { Hypothesis.class };
+	}
+}
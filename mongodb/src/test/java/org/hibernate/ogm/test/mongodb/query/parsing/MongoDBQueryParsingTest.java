@@ -30,6 +30,7 @@
 import org.hibernate.hql.ast.spi.EntityNamesResolver;
 import org.hibernate.ogm.dialect.mongodb.query.parsing.MongoDBProcessingChain;
 import org.hibernate.ogm.dialect.mongodb.query.parsing.MongoDBQueryParsingResult;
+import org.hibernate.ogm.dialect.mongodb.query.parsing.ParameterSlot;
 import org.hibernate.ogm.test.mongodb.query.parsing.model.IndexedEntity;
 import org.hibernate.ogm.test.utils.MapBasedEntityNamesResolver;
 import org.hibernate.ogm.test.utils.OgmTestCase;
@@ -236,6 +237,49 @@ public void shouldCreateIsNotNullQuery() {
 				"}" );
 	}
 
+	@Test
+	public void shouldBindParameterSlotsOfCachedQuery() {
+		Map<String, Object> parameterSlots = new HashMap<String, Object>();
+		parameterSlots.put( "name", new ParameterSlot( "name" ) );
+		parameterSlots.put( "position", new ParameterSlot( "position" ) );
+
+		MongoDBQueryParsingResult template = parseQuery(
+				"select e from IndexedEntity e where e.name = :name and e.position IN ( :position, 4 )",
+				parameterSlots );
+		assertThat( template.isBindable() ).isTrue();
+
+		Map<String, Object> namedParameters = new HashMap<String, Object>();
+		namedParameters.put( "name", "Bob" );
+		namedParameters.put( "position", "2" );
+
+		assertThat( template.bind( namedParameters ).getQuery().toString() ).isEqualTo(
+				"{ \"$and\" : [ " +
+					"{ \"entityName\" : \"Bob\"} , " +
+					"{ \"position\" : { \"$in\" : [ 2 , 4]}}" +
+				"]}" );
+
+		namedParameters.put( "name", "Alice" );
+		namedParameters.put( "position", 3L );
+
+		assertThat( template.bind( namedParameters ).getQuery().toString() ).isEqualTo(
+				"{ \"$and\" : [ " +
+					"{ \"entityName\" : \"Alice\"} , " +
+					"{ \"position\" : { \"$in\" : [ 3 , 4]}}" +
+				"]}" );
+	}
+
+	@Test
+	public void shouldNotBindParameterSlotOfLikePredicate() {
+		Map<String, Object> parameterSlots = new HashMap<String, Object>();
+		parameterSlots.put( "title", new ParameterSlot( "title" ) );
+
+		MongoDBQueryParsingResult template = parseQuery(
+				"select e from IndexedEntity e where e.title like :title",
+				parameterSlots );
+
+		assertThat( template.isBindable() ).isFalse();
+	}
+
 	private void assertMongoDbQuery(String queryString, String expectedMongoDbQuery) {
 		assertMongoDbQuery( queryString, null, expectedMongoDbQuery );
 	}
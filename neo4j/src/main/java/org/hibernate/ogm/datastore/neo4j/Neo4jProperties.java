@@ -64,6 +64,16 @@ public final class Neo4jProperties implements OgmProperties {
 	 */
 	public static final String NEO4J_GRAPHDB_FACTORYCLASS = "hibernate.ogm.neo4j.graphdb.factoryclass";
 
+	/**
+	 * Whether nodes and relationships indexed without the key entry, i.e. stored by a version of Hibernate OGM prior
+	 * to its introduction, are looked up by querying their columns when no key entry matches. Accepts {@code true} or
+	 * {@code false}, defaults to {@code false}.
+	 * <p>
+	 * Enabling this makes each lookup of an absent node or relationship run a second index query, so it should only
+	 * be set for databases which still contain such elements.
+	 */
+	public static final String LEGACY_INDEX_LOOKUP = "hibernate.ogm.neo4j.index.legacy_lookup";
+
 	private Neo4jProperties() {
 	}
 }
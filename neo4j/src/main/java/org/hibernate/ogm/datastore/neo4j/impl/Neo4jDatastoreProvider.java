@@ -28,14 +28,16 @@
 import org.hibernate.ogm.datastore.spi.DatastoreProvider;
 import org.hibernate.ogm.dialect.GridDialect;
 import org.hibernate.ogm.dialect.neo4j.Neo4jDialect;
+import org.hibernate.ogm.dialect.neo4j.query.parsing.Neo4jBasedQueryParserService;
 import org.hibernate.ogm.grid.RowKey;
-import org.hibernate.ogm.service.impl.LuceneBasedQueryParserService;
 import org.hibernate.ogm.service.impl.QueryParserService;
+import org.hibernate.ogm.util.configurationreader.impl.ConfigurationPropertyReader;
 import org.hibernate.service.spi.Configurable;
 import org.hibernate.service.spi.ServiceRegistryAwareService;
 import org.hibernate.service.spi.ServiceRegistryImplementor;
 import org.hibernate.service.spi.Startable;
 import org.hibernate.service.spi.Stoppable;
+import org.neo4j.cypher.javacompat.ExecutionEngine;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Relationship;
@@ -69,8 +71,12 @@ public class Neo4jDatastoreProvider implements DatastoreProvider, Startable, Sto
 
 	private String relationshipIndexName = DEFAULT_NEO4J_ASSOCIATION_INDEX_NAME;
 
+	private boolean legacyIndexLookup;
+
 	private GraphDatabaseService neo4jDb;
 
+	private ExecutionEngine executionEngine;
+
 	private Neo4jSequenceGenerator neo4jSequenceGenerator;
 
 	private GraphDatabaseServiceFactory graphDbFactory;
@@ -84,7 +90,7 @@ public void injectServices(ServiceRegistryImplementor serviceRegistry) {
 
 	@Override
 	public Class<? extends QueryParserService> getDefaultQueryParserServiceType() {
-		return LuceneBasedQueryParserService.class;
+		return Neo4jBasedQueryParserService.class;
 	}
 
 	@Override
@@ -93,6 +99,10 @@ public void configure(Map cfg) {
 		sequenceIndexName = defaultIfNull( cfg, Neo4jProperties.SEQUENCE_INDEX_NAME, DEFAULT_NEO4J_SEQUENCE_INDEX_NAME );
 		nodeIndexName = defaultIfNull( cfg, Neo4jProperties.ENTITY_INDEX_NAME, DEFAULT_NEO4J_ENTITY_INDEX_NAME );
 		relationshipIndexName = defaultIfNull( cfg, Neo4jProperties.ASSOCIATION_INDEX_NAME, DEFAULT_NEO4J_ASSOCIATION_INDEX_NAME );
+		legacyIndexLookup = new ConfigurationPropertyReader( cfg )
+				.property( Neo4jProperties.LEGACY_INDEX_LOOKUP, boolean.class )
+				.withDefault( false )
+				.getValue();
 	}
 
 	private String defaultIfNull(Map<?, ?> cfg, String key, String defaultValue) {
@@ -108,6 +118,7 @@ public void stop() {
 	@Override
 	public void start() {
 		this.neo4jDb = graphDbFactory.create();
+		this.executionEngine = new ExecutionEngine( neo4jDb );
 		this.neo4jSequenceGenerator = new Neo4jSequenceGenerator( neo4jDb, sequenceIndexName );
 		this.graphDbFactory = null;
 	}
@@ -125,10 +136,38 @@ public GraphDatabaseService getDataBase() {
 		return neo4jDb;
 	}
 
+	/**
+	 * Returns the engine running the Cypher queries against the database.
+	 *
+	 * @return the Cypher execution engine
+	 */
+	public ExecutionEngine getExecutionEngine() {
+		return executionEngine;
+	}
+
 	public int nextValue(RowKey key, int increment, int initialValue) {
 		return neo4jSequenceGenerator.nextValue( key, increment, initialValue );
 	}
 
+	/**
+	 * Returns the name of the index containing the nodes of the entities.
+	 *
+	 * @return the name of the nodes index
+	 */
+	public String getNodesIndexName() {
+		return nodeIndexName;
+	}
+
+	/**
+	 * Whether nodes and relationships indexed without the key entry are looked up by their columns as well.
+	 *
+	 * @return {@code true} if the legacy index lookup is enabled, {@code false} otherwise
+	 * @see Neo4jProperties#LEGACY_INDEX_LOOKUP
+	 */
+	public boolean isLegacyIndexLookup() {
+		return legacyIndexLookup;
+	}
+
 	public Index<Node> getNodesIndex() {
 		return neo4jDb.index().forNodes( nodeIndexName );
 	}
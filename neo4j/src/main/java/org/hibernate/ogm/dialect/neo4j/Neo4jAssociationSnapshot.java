@@ -20,9 +20,10 @@
  */
 package org.hibernate.ogm.dialect.neo4j;
 
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 
 import org.hibernate.ogm.datastore.spi.AssociationSnapshot;
@@ -31,12 +32,14 @@
 import org.hibernate.ogm.grid.RowKey;
 import org.neo4j.graphdb.Direction;
 import org.neo4j.graphdb.Node;
-import org.neo4j.graphdb.PropertyContainer;
 import org.neo4j.graphdb.Relationship;
 import org.neo4j.graphdb.RelationshipType;
 
 /**
  * Represents the association snapshot as loaded by Neo4j.
+ * <p>
+ * The relationships of the owner node are traversed once, upon first access, to build an index from row keys to
+ * relationships; all further lookups are served from that index.
  *
  * @author Davide D'Alto <davide@hibernate.org>
  */
@@ -46,6 +49,8 @@ public final class Neo4jAssociationSnapshot implements AssociationSnapshot {
 	private final RelationshipType relationshipType;
 	private final AssociationKey associationKey;
 
+	private Map<RowKey, Relationship> relationships;
+
 	public Neo4jAssociationSnapshot(Node ownerNode, RelationshipType type, AssociationKey associationKey) {
 		this.ownerNode = ownerNode;
 		this.relationshipType = type;
@@ -54,64 +59,103 @@ public Neo4jAssociationSnapshot(Node ownerNode, RelationshipType type, Associati
 
 	@Override
 	public Tuple get(RowKey rowKey) {
-		for ( Relationship relationship : relationships() ) {
-			if ( matches( rowKey, relationship ) ) {
-				return new Tuple( new Neo4jTupleSnapshot( relationship.getEndNode() ) );
-			}
-		}
-		return null;
+		Relationship relationship = getRelationship( rowKey );
+		return relationship != null ? new Tuple( new Neo4jTupleSnapshot( relationship.getEndNode() ) ) : null;
 	}
 
 	@Override
 	public boolean containsKey(RowKey rowKey) {
-		for ( Relationship relationship : relationships() ) {
-			return matches( rowKey, relationship );
+		return getRelationship( rowKey ) != null;
+	}
+
+	@Override
+	public int size() {
+		return relationships().size();
+	}
+
+	@Override
+	public Set<RowKey> getRowKeys() {
+		return Collections.unmodifiableSet( relationships().keySet() );
+	}
+
+	/**
+	 * Returns the relationship representing the given row as loaded by this snapshot.
+	 *
+	 * @param rowKey the key of the row
+	 * @return the relationship representing the row or {@code null} if the association contained no such row
+	 */
+	public Relationship getRelationship(RowKey rowKey) {
+		RowKey indexedKey = toIndexedKey( rowKey );
+		return indexedKey != null ? relationships().get( indexedKey ) : null;
+	}
+
+	/**
+	 * Adds a relationship created after the snapshot has been loaded, keeping the index in sync with the graph.
+	 */
+	void addRelationship(RowKey rowKey, Relationship relationship) {
+		RowKey indexedKey = toIndexedKey( rowKey );
+		if ( indexedKey != null ) {
+			relationships().put( indexedKey, relationship );
 		}
-		return false;
 	}
 
-	private boolean matches(RowKey key, PropertyContainer container) {
-		for ( int i = 0; i < key.getColumnNames().length; i++ ) {
-			String column = key.getColumnNames()[i];
-			if ( !container.hasProperty( column ) || !key.getColumnValues()[i].equals( container.getProperty( column ) ) ) {
-				return false;
-			}
+	/**
+	 * Removes a relationship deleted after the snapshot has been loaded, keeping the index in sync with the graph.
+	 */
+	void removeRelationship(RowKey rowKey) {
+		RowKey indexedKey = toIndexedKey( rowKey );
+		if ( indexedKey != null ) {
+			relationships().remove( indexedKey );
 		}
-		return true;
 	}
 
-	@Override
-	public int size() {
-		int count = 0;
-		for ( Relationship relationship : relationships() ) {
-			count++;
+	private Map<RowKey, Relationship> relationships() {
+		if ( relationships == null ) {
+			Map<RowKey, Relationship> relationshipsByRowKey = new HashMap<RowKey, Relationship>();
+			for ( Relationship relationship : ownerNode.getRelationships( Direction.OUTGOING, relationshipType ) ) {
+				relationshipsByRowKey.put( convert( relationship ), relationship );
+			}
+			relationships = relationshipsByRowKey;
 		}
-		return count;
+		return relationships;
 	}
 
-	private Iterable<Relationship> relationships() {
-		return ownerNode.getRelationships( Direction.OUTGOING, relationshipType );
+	/**
+	 * Row keys coming from the engine do not necessarily list their columns in the order used by the index; returns
+	 * an equivalent key with the index column order or {@code null} if the given key lacks one of the columns.
+	 */
+	private RowKey toIndexedKey(RowKey rowKey) {
+		String[] columnNames = associationKey.getRowKeyColumnNames();
+		if ( Arrays.equals( columnNames, rowKey.getColumnNames() ) ) {
+			return rowKey;
+		}
+		Object[] values = new Object[columnNames.length];
+		for ( int i = 0; i < columnNames.length; i++ ) {
+			int index = indexOf( rowKey.getColumnNames(), columnNames[i] );
+			if ( index == -1 ) {
+				return null;
+			}
+			values[i] = rowKey.getColumnValues()[index];
+		}
+		return new RowKey( associationKey.getTable(), columnNames, values );
 	}
 
-	@Override
-	public Set<RowKey> getRowKeys() {
-		Set<RowKey> rowKeys = new HashSet<RowKey>();
-		for ( Relationship relationship : relationships() ) {
-			rowKeys.add( convert( relationship ) );
+	private static int indexOf(String[] columnNames, String columnName) {
+		for ( int i = 0; i < columnNames.length; i++ ) {
+			if ( columnNames[i].equals( columnName ) ) {
+				return i;
+			}
 		}
-		return rowKeys;
+		return -1;
 	}
 
-	private RowKey convert(PropertyContainer container) {
+	private RowKey convert(Relationship relationship) {
 		String[] columnNames = associationKey.getRowKeyColumnNames();
-		List<String> columns = new ArrayList<String>();
-		List<Object> values = new ArrayList<Object>();
-		for ( String column : columnNames ) {
-			columns.add( column );
-			values.add( container.getProperty( column ) );
+		Object[] values = new Object[columnNames.length];
+		for ( int i = 0; i < columnNames.length; i++ ) {
+			values[i] = relationship.getProperty( columnNames[i] );
 		}
-		return new RowKey( associationKey.getTable(), columns.toArray( new String[columns.size()] ),
-				values.toArray( new Object[values.size()] ) );
+		return new RowKey( associationKey.getTable(), columnNames, values );
 	}
 
 }
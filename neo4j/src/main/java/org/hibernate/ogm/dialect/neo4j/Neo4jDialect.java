@@ -20,22 +20,33 @@
  */
 package org.hibernate.ogm.dialect.neo4j;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import org.hibernate.HibernateException;
 import org.hibernate.LockMode;
 import org.hibernate.dialect.lock.LockingStrategy;
 import org.hibernate.id.IntegralDataTypeHolder;
 import org.hibernate.loader.custom.CustomQuery;
+import org.hibernate.ogm.datastore.impl.EmptyTupleSnapshot;
 import org.hibernate.ogm.datastore.neo4j.impl.Neo4jDatastoreProvider;
 import org.hibernate.ogm.datastore.neo4j.impl.Neo4jTypeConverter;
 import org.hibernate.ogm.datastore.spi.Association;
 import org.hibernate.ogm.datastore.spi.AssociationContext;
 import org.hibernate.ogm.datastore.spi.AssociationOperation;
+import org.hibernate.ogm.datastore.spi.AssociationOperationType;
+import org.hibernate.ogm.datastore.spi.ColumnIndex;
 import org.hibernate.ogm.datastore.spi.Tuple;
 import org.hibernate.ogm.datastore.spi.TupleContext;
 import org.hibernate.ogm.datastore.spi.TupleOperation;
-import org.hibernate.ogm.dialect.GridDialect;
+import org.hibernate.ogm.datastore.spi.TupleSnapshot;
+import org.hibernate.ogm.dialect.DeltaUpdateGridDialect;
+import org.hibernate.ogm.dialect.MultigetGridDialect;
 import org.hibernate.ogm.grid.AssociationKey;
 import org.hibernate.ogm.grid.EntityKey;
 import org.hibernate.ogm.grid.EntityKeyMetadata;
@@ -44,6 +55,7 @@
 import org.hibernate.ogm.type.GridType;
 import org.hibernate.persister.entity.Lockable;
 import org.hibernate.type.Type;
+import org.neo4j.cypher.javacompat.ExecutionResult;
 import org.neo4j.graphdb.Direction;
 import org.neo4j.graphdb.DynamicRelationshipType;
 import org.neo4j.graphdb.Node;
@@ -60,7 +72,7 @@
  *
  * @author Davide D'Alto <davide@hibernate.org>
  */
-public class Neo4jDialect implements GridDialect {
+public class Neo4jDialect implements MultigetGridDialect, DeltaUpdateGridDialect {
 
 	/**
 	 * Contains the name of the property with the table name.
@@ -87,16 +99,59 @@ public Tuple getTuple(EntityKey key, TupleContext context) {
 		if ( entityNode == null ) {
 			return null;
 		}
-		return createTuple( entityNode );
+		return createTuple( entityNode, context.getColumnIndex() );
 	}
 
-	private Tuple createTuple(Node entityNode) {
-		return new Tuple( new Neo4jTupleSnapshot( entityNode ) );
+	/**
+	 * Retrieves all the nodes with a single index query.
+	 */
+	@Override
+	public List<Tuple> getTuples(EntityKey[] keys, TupleContext tupleContext) {
+		Map<List<Object>, Node> nodesByKeyValues = new HashMap<List<Object>, Node>( keys.length );
+		if ( keys.length > 0 ) {
+			String[] columnNames = keys[0].getColumnNames();
+			IndexHits<Node> hits = indexer.findNodes( keys );
+			try {
+				for ( Node node : hits ) {
+					nodesByKeyValues.put( keyValues( node, columnNames ), node );
+				}
+			}
+			finally {
+				hits.close();
+			}
+		}
+
+		List<Tuple> tuples = new ArrayList<Tuple>( keys.length );
+		for ( EntityKey key : keys ) {
+			Node node = nodesByKeyValues.get( Arrays.asList( key.getColumnValues() ) );
+			tuples.add( node != null ? createTuple( node, tupleContext.getColumnIndex() ) : null );
+		}
+		return tuples;
+	}
+
+	private List<Object> keyValues(Node node, String[] columnNames) {
+		List<Object> values = new ArrayList<Object>( columnNames.length );
+		for ( String columnName : columnNames ) {
+			values.add( node.getProperty( columnName, null ) );
+		}
+		return values;
+	}
+
+	private Tuple createTuple(Node entityNode, ColumnIndex columnIndex) {
+		return new Tuple( new Neo4jTupleSnapshot( entityNode ), columnIndex );
 	}
 
 	@Override
 	public Tuple createTuple(EntityKey key) {
-		return new Tuple();
+		return new Tuple( EmptyTupleSnapshot.INSTANCE );
+	}
+
+	/**
+	 * Only the changed properties are set on the node when updating the tuple, so the loaded state is used as is.
+	 */
+	@Override
+	public Tuple createTupleForUpdate(EntityKey key, TupleSnapshot loadedState, TupleContext tupleContext) {
+		return new Tuple( loadedState, tupleContext.getColumnIndex() );
 	}
 
 	@Override
@@ -135,8 +190,15 @@ public Association createAssociation(AssociationKey associationKey, AssociationC
 
 	@Override
 	public void updateAssociation(Association association, AssociationKey key, AssociationContext associationContext) {
+		// the relationships loaded with the association avoid an index query per changed row
+		Neo4jAssociationSnapshot snapshot = association.getSnapshot() instanceof Neo4jAssociationSnapshot
+				? (Neo4jAssociationSnapshot) association.getSnapshot()
+				: null;
 		for ( AssociationOperation action : association.getOperations() ) {
-			applyAssociationOperation( key, action, associationContext );
+			if ( action.getType() == AssociationOperationType.CLEAR ) {
+				snapshot = null;
+			}
+			applyAssociationOperation( key, action, associationContext, snapshot );
 		}
 	}
 
@@ -162,33 +224,39 @@ public void removeAssociation(AssociationKey key, AssociationContext association
 		}
 	}
 
-	private void applyAssociationOperation(AssociationKey key, AssociationOperation operation, AssociationContext associationContext) {
+	private void applyAssociationOperation(AssociationKey key, AssociationOperation operation, AssociationContext associationContext, Neo4jAssociationSnapshot snapshot) {
 		switch ( operation.getType() ) {
 		case CLEAR:
 			removeAssociation( key, associationContext );
 			break;
 		case PUT:
-			putAssociationOperation( key, operation );
+			putAssociationOperation( key, operation, snapshot );
 			break;
 		case PUT_NULL:
-			removeAssociationOperation( key, operation );
+			removeAssociationOperation( key, operation, snapshot );
 			break;
 		case REMOVE:
-			removeAssociationOperation( key, operation );
+			removeAssociationOperation( key, operation, snapshot );
 			break;
 		}
 	}
 
-	private void putAssociationOperation(AssociationKey associationKey, AssociationOperation action) {
+	private void putAssociationOperation(AssociationKey associationKey, AssociationOperation action, Neo4jAssociationSnapshot snapshot) {
 		RowKey rowKey = action.getKey();
-		Relationship relationship = createRelationshipUnlessExists( findNode( associationKey.getEntityKey() ), associationKey, rowKey );
+		Relationship relationship = findRelationship( associationKey, rowKey, snapshot );
+		if ( relationship == null ) {
+			relationship = createRelationship( findNode( associationKey.getEntityKey() ), associationKey, rowKey );
+			if ( snapshot != null ) {
+				snapshot.addRelationship( rowKey, relationship );
+			}
+		}
 		applyTupleOperations( relationship.getEndNode(), action.getValue().getOperations() );
 	}
 
-	private Relationship createRelationshipUnlessExists(Node startNode, AssociationKey associationKey, RowKey rowKey) {
-		Relationship relationship = indexer.findRelationship( relationshipType( associationKey ), rowKey );
+	private Relationship findRelationship(AssociationKey associationKey, RowKey rowKey, Neo4jAssociationSnapshot snapshot) {
+		Relationship relationship = snapshot != null ? snapshot.getRelationship( rowKey ) : null;
 		if ( relationship == null ) {
-			return createRelationship( startNode, associationKey, rowKey );
+			relationship = indexer.findRelationship( relationshipType( associationKey ), rowKey );
 		}
 		return relationship;
 	}
@@ -197,10 +265,13 @@ private Node findNode(EntityKey entityKey) {
 		return indexer.findNode( entityKey );
 	}
 
-	private void removeAssociationOperation(AssociationKey associationKey, AssociationOperation action) {
+	private void removeAssociationOperation(AssociationKey associationKey, AssociationOperation action, Neo4jAssociationSnapshot snapshot) {
 		RowKey rowKey = action.getKey();
-		Relationship relationship = indexer.findRelationship( relationshipType( associationKey ), rowKey );
+		Relationship relationship = findRelationship( associationKey, rowKey, snapshot );
 		removeRelationship( relationship );
+		if ( snapshot != null ) {
+			snapshot.removeRelationship( rowKey );
+		}
 	}
 
 	private void removeRelationship(Relationship relationship) {
@@ -294,7 +365,7 @@ public void forEachTuple(Consumer consumer, EntityKeyMetadata... entityKeyMetada
 			IndexHits<Node> queryNodes = indexer.findNodes( entityKeyMetadata.getTable() );
 			try {
 				for ( Node node : queryNodes ) {
-					Tuple tuple = createTuple( node );
+					Tuple tuple = createTuple( node, null );
 					consumer.consume( tuple );
 				}
 			}
@@ -304,9 +375,43 @@ public void forEachTuple(Consumer consumer, EntityKeyMetadata... entityKeyMetada
 		}
 	}
 
+	/**
+	 * Runs the native query as a Cypher query; each row of the result must contain the node representing the returned
+	 * entity in its first column.
+	 */
 	@Override
 	public Iterator<Tuple> executeBackendQuery(CustomQuery customQuery, EntityKeyMetadata[] metadatas) {
-		throw new UnsupportedOperationException( "Native queries not suported for Neo4j" );
+		ExecutionResult result = provider.getExecutionEngine().execute( customQuery.getSQL() );
+		Iterator<Object> nodes = result.columnAs( result.columns().get( 0 ) );
+		return new NodesTupleIterator( nodes );
+	}
+
+	private static class NodesTupleIterator implements Iterator<Tuple> {
+
+		private final Iterator<Object> nodes;
+
+		public NodesTupleIterator(Iterator<Object> nodes) {
+			this.nodes = nodes;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return nodes.hasNext();
+		}
+
+		@Override
+		public Tuple next() {
+			Object node = nodes.next();
+			if ( !( node instanceof Node ) ) {
+				throw new HibernateException( "Native Cypher queries must return the nodes of the entities, got: " + node );
+			}
+			return new Tuple( new Neo4jTupleSnapshot( (Node) node ) );
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException( "Not implemented" );
+		}
 	}
 
 }
@@ -20,6 +20,7 @@
  */
 package org.hibernate.ogm.dialect.neo4j;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -34,6 +35,13 @@
 
 /**
  * Manages {@link Node} and {@link Relationship} indexes.
+ * <p>
+ * Besides one entry per column, each node and relationship is indexed under a single key property whose value is
+ * synthesized from the whole {@link EntityKey} or {@link RowKey}; this way single lookups are served by an exact-match
+ * {@link Index#get(String, Object)} instead of parsing and scoring a Lucene query. Nodes and relationships indexed
+ * before the key property was introduced are only found if the legacy lookup is enabled (see
+ * {@link org.hibernate.ogm.datastore.neo4j.Neo4jProperties#LEGACY_INDEX_LOOKUP}), which queries their columns when no
+ * key entry matches. Lookups never modify the index.
  *
  * @author Davide D'Alto <davide@hibernate.org>
  */
@@ -41,6 +49,8 @@ public class Neo4jIndexManager {
 
 	private static final String TABLE_PROPERTY = "_table";
 	private static final String RELATIONSHIP_TYPE = "_relationship_type";
+	private static final String KEY_PROPERTY = "_key";
+	private static final String QUERY_SYNTAX_CHARACTERS = "\\+-!():^[]\"{}~*?|&";
 
 	private final Neo4jDatastoreProvider provider;
 
@@ -60,11 +70,16 @@ public Neo4jIndexManager(Neo4jDatastoreProvider provider) {
 	public void index(Node node, EntityKey entityKey) {
 		Index<Node> nodeIndex = provider.getNodesIndex();
 		nodeIndex.add( node, TABLE_PROPERTY, entityKey.getTable() );
+		nodeIndex.add( node, KEY_PROPERTY, key( entityKey ) );
 		for ( int i = 0; i < entityKey.getColumnNames().length; i++ ) {
 			nodeIndex.add( node, entityKey.getColumnNames()[i], entityKey.getColumnValues()[i] );
 		}
 	}
 
+	private String key(EntityKey entityKey) {
+		return key( entityKey.getTable(), properties( entityKey.getColumnNames(), entityKey.getColumnValues() ) );
+	}
+
 	private Map<String, Object> properties(EntityKey entitykey) {
 		Map<String, Object> properties = new HashMap<String, Object>();
 		properties.put( TABLE_PROPERTY, entitykey.getTable() );
@@ -84,9 +99,13 @@ private Map<String, Object> properties(EntityKey entitykey) {
 	public void index(Relationship relationship) {
 		Index<Relationship> relationshipIndex = provider.getRelationshipsIndex();
 		relationshipIndex.add( relationship, RELATIONSHIP_TYPE, relationship.getType().name() );
+		Map<String, Object> properties = new HashMap<String, Object>();
 		for ( String key : relationship.getPropertyKeys() ) {
-			relationshipIndex.add( relationship, key, relationship.getProperty( key ) );
+			Object value = relationship.getProperty( key );
+			relationshipIndex.add( relationship, key, value );
+			properties.put( key, value );
 		}
+		relationshipIndex.add( relationship, KEY_PROPERTY, key( relationship.getType().name(), properties ) );
 	}
 
 	/**
@@ -111,18 +130,15 @@ public void remove(Relationship rel) {
 	 * @return the relationship found or null
 	 */
 	public Relationship findRelationship(RelationshipType type, RowKey rowKey) {
-		String query = createQuery( properties( type, rowKey ) );
+		Map<String, Object> properties = properties( rowKey.getColumnNames(), rowKey.getColumnValues() );
+		String key = key( type.name(), properties );
 		Index<Relationship> relationshipIndex = provider.getRelationshipsIndex();
-		return relationshipIndex.query( query ).getSingle();
-	}
-
-	private Map<String, Object> properties(RelationshipType type, RowKey rowKey) {
-		Map<String, Object> properties = new HashMap<String, Object>();
-		properties.put( RELATIONSHIP_TYPE, type.name() );
-		for ( int i = 0; i < rowKey.getColumnNames().length; i++ ) {
-			properties.put( rowKey.getColumnNames()[i], rowKey.getColumnValues()[i] );
+		Relationship relationship = relationshipIndex.get( KEY_PROPERTY, key ).getSingle();
+		if ( relationship == null && provider.isLegacyIndexLookup() ) {
+			properties.put( RELATIONSHIP_TYPE, type.name() );
+			relationship = relationshipIndex.query( createQuery( properties ) ).getSingle();
 		}
-		return properties;
+		return relationship;
 	}
 
 	/**
@@ -133,9 +149,35 @@ private Map<String, Object> properties(RelationshipType type, RowKey rowKey) {
 	 * @return the node found or null
 	 */
 	public Node findNode(EntityKey entityKey) {
-		String query = createQuery( properties( entityKey ) );
+		String key = key( entityKey );
+		Index<Node> nodeIndex = provider.getNodesIndex();
+		Node node = nodeIndex.get( KEY_PROPERTY, key ).getSingle();
+		if ( node == null && provider.isLegacyIndexLookup() ) {
+			node = nodeIndex.query( createQuery( properties( entityKey ) ) ).getSingle();
+		}
+		return node;
+	}
+
+	/**
+	 * Looks for the {@link Node}s corresponding to the given keys using a single index query.
+	 *
+	 * @param entityKeys
+	 *            the {@link EntityKey}s that identify the nodes.
+	 * @return the nodes found
+	 */
+	public IndexHits<Node> findNodes(EntityKey[] entityKeys) {
+		StringBuilder queryBuilder = new StringBuilder();
+		for ( EntityKey entityKey : entityKeys ) {
+			queryBuilder.append( " OR " );
+			appendTerm( queryBuilder, KEY_PROPERTY, key( entityKey ) );
+			if ( provider.isLegacyIndexLookup() ) {
+				queryBuilder.append( " OR (" );
+				queryBuilder.append( createQuery( properties( entityKey ) ) );
+				queryBuilder.append( ")" );
+			}
+		}
 		Index<Node> nodeIndex = provider.getNodesIndex();
-		return nodeIndex.query( query ).getSingle();
+		return nodeIndex.query( queryBuilder.substring( " OR ".length() ) );
 	}
 
 	private String createQuery(Map<String, Object> properties) {
@@ -147,10 +189,54 @@ private String createQuery(Map<String, Object> properties) {
 		return queryBuilder.substring( " AND ".length() );
 	}
 
+	private static Map<String, Object> properties(String[] columnNames, Object[] columnValues) {
+		Map<String, Object> properties = new HashMap<String, Object>();
+		for ( int i = 0; i < columnNames.length; i++ ) {
+			properties.put( columnNames[i], columnValues[i] );
+		}
+		return properties;
+	}
+
+	/**
+	 * Builds the value of the key property. The columns are sorted by name, as row keys do not always list them in the
+	 * same order, and each element is prefixed with its length so that no escaping is required.
+	 */
+	private static String key(String prefix, Map<String, Object> properties) {
+		String[] names = properties.keySet().toArray( new String[properties.size()] );
+		Arrays.sort( names );
+		StringBuilder builder = new StringBuilder();
+		appendElement( builder, prefix );
+		for ( String name : names ) {
+			appendElement( builder, name );
+			appendElement( builder, String.valueOf( properties.get( name ) ) );
+		}
+		return builder.toString();
+	}
+
+	private static void appendElement(StringBuilder builder, String element) {
+		builder.append( element.length() );
+		builder.append( ':' );
+		builder.append( element );
+	}
+
+	/**
+	 * Appends a term matching the given value as a whole. Characters with a meaning in the query syntax are escaped
+	 * in the field name, quotes and backslashes in the value.
+	 */
 	private void appendTerm(StringBuilder queryBuilder, String key, Object value) {
-		queryBuilder.append( key );
+		for ( char c : key.toCharArray() ) {
+			if ( QUERY_SYNTAX_CHARACTERS.indexOf( c ) >= 0 || Character.isWhitespace( c ) ) {
+				queryBuilder.append( '\\' );
+			}
+			queryBuilder.append( c );
+		}
 		queryBuilder.append( ": \"" );
-		queryBuilder.append( value );
+		for ( char c : String.valueOf( value ).toCharArray() ) {
+			if ( c == '"' || c == '\\' ) {
+				queryBuilder.append( '\\' );
+			}
+			queryBuilder.append( c );
+		}
 		queryBuilder.append( "\"" );
 	}
 
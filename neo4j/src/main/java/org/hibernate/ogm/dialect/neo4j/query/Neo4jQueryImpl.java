@@ -0,0 +1,176 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.dialect.neo4j.query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.HibernateException;
+import org.hibernate.LockMode;
+import org.hibernate.LockOptions;
+import org.hibernate.Query;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.engine.query.spi.ParameterMetadata;
+import org.hibernate.engine.spi.RowSelection;
+import org.hibernate.internal.AbstractQueryImpl;
+import org.hibernate.ogm.datastore.neo4j.impl.Neo4jDatastoreProvider;
+import org.hibernate.ogm.datastore.spi.DatastoreProvider;
+import org.hibernate.ogm.datastore.spi.Tuple;
+import org.hibernate.ogm.dialect.neo4j.Neo4jTupleSnapshot;
+import org.hibernate.ogm.dialect.neo4j.query.parsing.CypherHelper;
+import org.hibernate.ogm.hibernatecore.impl.OgmSession;
+import org.hibernate.ogm.loader.OgmLoader;
+import org.hibernate.ogm.loader.OgmLoadingContext;
+import org.hibernate.ogm.persister.OgmEntityPersister;
+import org.neo4j.graphdb.Node;
+
+/**
+ * Query implementation running a Cypher query against the embedded Neo4j database; the matching nodes are streamed
+ * and converted into entities or projections as they are iterated.
+ */
+public class Neo4jQueryImpl extends AbstractQueryImpl {
+
+	private final String query;
+	private final Map<String, Object> parameters;
+	private final Neo4jDatastoreProvider provider;
+	private final Class<?> entityType;
+	private final List<String> projections;
+
+	public Neo4jQueryImpl(Class<?> entityType, String query, Map<String, Object> parameters, List<String> projections, OgmSession session) {
+		super( query, null, session.getDelegate(), new ParameterMetadata( null, null ) );
+		this.query = query;
+		this.parameters = parameters;
+		this.entityType = entityType;
+		this.projections = projections;
+		this.provider = (Neo4jDatastoreProvider) session.getSessionFactory().getServiceRegistry().getService( DatastoreProvider.class );
+	}
+
+	@Override
+	public Iterator<?> iterate() throws HibernateException {
+		RowSelection selection = getRowSelection();
+		String selectedQuery = CypherHelper.rowSelection( query, selection.getFirstRow(), selection.getMaxRows() );
+		Iterator<Node> nodes = provider.getExecutionEngine().execute( selectedQuery, parameters ).columnAs( CypherHelper.ENTITY_ALIAS );
+		return new ObjectLoadingIterator( nodes );
+	}
+
+	@Override
+	public ScrollableResults scroll() throws HibernateException {
+		throw new UnsupportedOperationException( "Not implemented yet" );
+	}
+
+	@Override
+	public ScrollableResults scroll(ScrollMode scrollMode) throws HibernateException {
+		throw new UnsupportedOperationException( "Not implemented yet" );
+	}
+
+	@Override
+	public List<?> list() throws HibernateException {
+		Iterator<?> results = iterate();
+
+		List<Object> result = new ArrayList<Object>();
+
+		while ( results.hasNext() ) {
+			result.add( results.next() );
+		}
+
+		return result;
+	}
+
+	private boolean isProjection() {
+		return !projections.isEmpty();
+	}
+
+	@Override
+	public int executeUpdate() throws HibernateException {
+		throw new UnsupportedOperationException( "Not implemented yet" );
+	}
+
+	@Override
+	public Query setLockOptions(LockOptions lockOptions) {
+		throw new UnsupportedOperationException( "Not implemented yet" );
+	}
+
+	@Override
+	public Query setLockMode(String alias, LockMode lockMode) {
+		throw new UnsupportedOperationException( "Not implemented yet" );
+	}
+
+	@Override
+	public LockOptions getLockOptions() {
+		throw new UnsupportedOperationException( "Not implemented yet" );
+	}
+
+	private class ObjectLoadingIterator implements Iterator<Object> {
+
+		private final Iterator<Node> nodes;
+
+		private ObjectLoadingIterator(Iterator<Node> nodes) {
+			this.nodes = nodes;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return nodes.hasNext();
+		}
+
+		@Override
+		public Object next() {
+			Tuple next = new Tuple( new Neo4jTupleSnapshot( nodes.next() ) );
+
+			if ( isProjection() ) {
+				return getAsProjection( next );
+			}
+			else {
+				return getAsManagedEntity( next );
+			}
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException( "Not implemented yet" );
+		}
+
+		private Object getAsManagedEntity(Tuple tuple) {
+			OgmEntityPersister persister = (OgmEntityPersister) ( session.getFactory() ).getEntityPersister( entityType.getName() );
+			OgmLoader loader = new OgmLoader( new OgmEntityPersister[] { persister } );
+			OgmLoadingContext ogmLoadingContext = new OgmLoadingContext();
+			ogmLoadingContext.setTuples( Arrays.asList( tuple ) );
+
+			return loader.loadEntities( session, LockOptions.NONE, ogmLoadingContext ).iterator().next();
+		}
+
+		private Object[] getAsProjection(Tuple tuple) {
+			Object[] projectionResult = new Object[projections.size()];
+			int i = 0;
+
+			for ( String column : projections ) {
+				projectionResult[i] = tuple.get( column );
+				i++;
+			}
+
+			return projectionResult;
+		}
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.dialect.neo4j.query.parsing;
+
+import org.hibernate.ogm.dialect.neo4j.Neo4jDialect;
+
+/**
+ * Renders the elements of the Cypher queries created from JP-QL queries.
+ */
+public final class CypherHelper {
+
+	/**
+	 * Identifier of the node representing the queried entity.
+	 */
+	public static final String ENTITY_ALIAS = "n";
+
+	private CypherHelper() {
+	}
+
+	/**
+	 * Quotes the given identifier, e.g. an index or property name, so that it may contain any character.
+	 *
+	 * @param identifier the identifier to quote
+	 * @return the quoted identifier
+	 */
+	public static String identifier(String identifier) {
+		return "`" + identifier.replace( "`", "``" ) + "`";
+	}
+
+	/**
+	 * Returns the reference to the given property of the queried node; comparisons with the reference evaluate to
+	 * {@code false} if the node does not have the property.
+	 *
+	 * @param propertyName the name of the property
+	 * @return the reference to the property
+	 */
+	public static String property(String propertyName) {
+		return ENTITY_ALIAS + "." + identifier( propertyName ) + "!";
+	}
+
+	/**
+	 * Returns the condition evaluating to {@code true} if the queried node has the given property.
+	 *
+	 * @param propertyName the name of the property
+	 * @return the condition checking the existence of the property
+	 */
+	public static String has(String propertyName) {
+		return "has(" + ENTITY_ALIAS + "." + identifier( propertyName ) + ")";
+	}
+
+	/**
+	 * Returns the query matching all the nodes of the given table which satisfy the given condition. The nodes are
+	 * looked up in the legacy index containing all the entities, where each node is indexed under its table.
+	 *
+	 * @param indexName the name of the index containing the nodes of the entities
+	 * @param table the reference to the table of the nodes, usually a parameter
+	 * @param where the condition to match or {@code null} to match all the nodes
+	 * @return the Cypher query
+	 */
+	public static String start(String indexName, String table, String where) {
+		StringBuilder query = new StringBuilder( "START " );
+		query.append( ENTITY_ALIAS ).append( "=node:" ).append( identifier( indexName ) );
+		query.append( "(" ).append( identifier( Neo4jDialect.TABLE_PROPERTY ) ).append( "=" ).append( table ).append( ")" );
+		if ( where != null ) {
+			query.append( " WHERE " ).append( where );
+		}
+		query.append( " RETURN " ).append( ENTITY_ALIAS );
+		return query.toString();
+	}
+
+	/**
+	 * Restricts the results of the given query to the given range of rows.
+	 *
+	 * @param query the Cypher query, ending with its {@code RETURN} clause
+	 * @param firstRow the index of the first row to return, {@code null} to start with the first row
+	 * @param maxRows the maximum number of rows to return, {@code null} to return all of them
+	 * @return the Cypher query returning the selected rows
+	 */
+	public static String rowSelection(String query, Integer firstRow, Integer maxRows) {
+		StringBuilder selectedQuery = new StringBuilder( query );
+		if ( firstRow != null && firstRow > 0 ) {
+			selectedQuery.append( " SKIP " ).append( firstRow );
+		}
+		if ( maxRows != null ) {
+			selectedQuery.append( " LIMIT " ).append( maxRows );
+		}
+		return selectedQuery.toString();
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.dialect.neo4j.query.parsing;
+
+import java.util.Map;
+
+import org.hibernate.Query;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.hql.QueryParser;
+import org.hibernate.hql.ast.spi.EntityNamesResolver;
+import org.hibernate.ogm.datastore.neo4j.impl.Neo4jDatastoreProvider;
+import org.hibernate.ogm.datastore.spi.DatastoreProvider;
+import org.hibernate.ogm.dialect.neo4j.query.Neo4jQueryImpl;
+import org.hibernate.ogm.hibernatecore.impl.OgmSession;
+import org.hibernate.ogm.service.impl.BaseQueryParserService;
+import org.hibernate.ogm.service.impl.LuceneBasedQueryParserService;
+import org.hibernate.ogm.service.impl.SessionFactoryEntityNamesResolver;
+import org.hibernate.ogm.util.impl.Log;
+import org.hibernate.ogm.util.impl.LoggerFactory;
+import org.hibernate.service.spi.ServiceRegistryAwareService;
+import org.hibernate.service.spi.ServiceRegistryImplementor;
+
+/**
+ * {@link org.hibernate.ogm.service.impl.QueryParserService} implementation which translates JP-QL queries into Cypher
+ * queries run against the embedded Neo4j database, so that no separate Lucene index needs to be maintained.
+ * <p>
+ * Queries using constructs which cannot be translated yet (e.g. restrictions on associated entities or queries on
+ * entity types of an inheritance hierarchy) are delegated to the {@link LuceneBasedQueryParserService}, which
+ * requires the entities to be indexed with Hibernate Search.
+ */
+public class Neo4jBasedQueryParserService extends BaseQueryParserService implements ServiceRegistryAwareService {
+
+	private static final Log log = LoggerFactory.make();
+
+	private final LuceneBasedQueryParserService fallbackQueryParserService = new LuceneBasedQueryParserService();
+
+	private volatile SessionFactoryEntityNamesResolver entityNamesResolver;
+
+	@Override
+	public void injectServices(ServiceRegistryImplementor serviceRegistry) {
+		fallbackQueryParserService.injectServices( serviceRegistry );
+	}
+
+	@Override
+	public Query getParsedQueryExecutor(OgmSession session, String queryString, Map<String, Object> namedParameters) {
+		QueryParser queryParser = new QueryParser();
+		Neo4jProcessingChain processingChain = createProcessingChain( session, unwrap( namedParameters ) );
+
+		Neo4jQueryParsingResult result;
+		try {
+			result = queryParser.parseQuery( queryString, processingChain );
+		}
+		catch (UnsupportedQueryException e) {
+			log.tracef( "Query %s cannot be translated into Cypher, falling back to Hibernate Search: %s", queryString, e.getMessage() );
+			return fallbackQueryParserService.getParsedQueryExecutor( session, queryString, namedParameters );
+		}
+		log.createdQuery( queryString, result );
+
+		return new Neo4jQueryImpl( result.getEntityType(), result.getQuery(), result.getParameters(), result.getProjections(), session );
+	}
+
+	private Neo4jProcessingChain createProcessingChain(Session session, Map<String, Object> namedParameters) {
+		SessionFactoryImplementor sessionFactory = (SessionFactoryImplementor) session.getSessionFactory();
+		EntityNamesResolver entityNamesResolver = getDefinedEntityNames( sessionFactory );
+		Neo4jDatastoreProvider provider = (Neo4jDatastoreProvider) sessionFactory.getServiceRegistry().getService( DatastoreProvider.class );
+
+		return new Neo4jProcessingChain(
+				sessionFactory,
+				entityNamesResolver,
+				provider.getNodesIndexName(),
+				namedParameters );
+	}
+
+	private EntityNamesResolver getDefinedEntityNames(SessionFactory sessionFactory) {
+		if ( entityNamesResolver == null ) {
+			entityNamesResolver = new SessionFactoryEntityNamesResolver( sessionFactory );
+		}
+		return entityNamesResolver;
+	}
+}
@@ -0,0 +1,116 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.dialect.neo4j.query.parsing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.hql.ast.spi.predicate.ComparisonPredicate;
+import org.hibernate.hql.ast.spi.predicate.ComparisonPredicate.Type;
+import org.hibernate.hql.ast.spi.predicate.ConjunctionPredicate;
+import org.hibernate.hql.ast.spi.predicate.DisjunctionPredicate;
+import org.hibernate.hql.ast.spi.predicate.InPredicate;
+import org.hibernate.hql.ast.spi.predicate.IsNullPredicate;
+import org.hibernate.hql.ast.spi.predicate.LikePredicate;
+import org.hibernate.hql.ast.spi.predicate.NegationPredicate;
+import org.hibernate.hql.ast.spi.predicate.PredicateFactory;
+import org.hibernate.hql.ast.spi.predicate.RangePredicate;
+import org.hibernate.hql.ast.spi.predicate.RootPredicate;
+import org.hibernate.ogm.dialect.neo4j.query.parsing.predicate.Neo4jComparisonPredicate;
+import org.hibernate.ogm.dialect.neo4j.query.parsing.predicate.Neo4jConjunctionPredicate;
+import org.hibernate.ogm.dialect.neo4j.query.parsing.predicate.Neo4jDisjunctionPredicate;
+import org.hibernate.ogm.dialect.neo4j.query.parsing.predicate.Neo4jInPredicate;
+import org.hibernate.ogm.dialect.neo4j.query.parsing.predicate.Neo4jIsNullPredicate;
+import org.hibernate.ogm.dialect.neo4j.query.parsing.predicate.Neo4jLikePredicate;
+import org.hibernate.ogm.dialect.neo4j.query.parsing.predicate.Neo4jNegationPredicate;
+import org.hibernate.ogm.dialect.neo4j.query.parsing.predicate.Neo4jRangePredicate;
+import org.hibernate.ogm.dialect.neo4j.query.parsing.predicate.Neo4jRootPredicate;
+
+/**
+ * Factory for {@link org.hibernate.hql.ast.spi.predicate.Predicate}s creating the conditions of Cypher queries.
+ */
+public class Neo4jPredicateFactory implements PredicateFactory<String> {
+
+	private final Neo4jPropertyHelper propertyHelper;
+	private final Neo4jQueryParameters parameters;
+
+	public Neo4jPredicateFactory(Neo4jPropertyHelper propertyHelper, Neo4jQueryParameters parameters) {
+		this.propertyHelper = propertyHelper;
+		this.parameters = parameters;
+	}
+
+	@Override
+	public RootPredicate<String> getRootPredicate(String entityType) {
+		return new Neo4jRootPredicate();
+	}
+
+	@Override
+	public ComparisonPredicate<String> getComparisonPredicate(String entityType, Type comparisonType, List<String> propertyPath, Object value) {
+		String columnName = propertyHelper.getColumnName( entityType, propertyPath );
+		Object backendValue = propertyHelper.convertToBackendType( entityType, propertyPath, value );
+		return new Neo4jComparisonPredicate( columnName, comparisonType, parameters.add( backendValue ) );
+	}
+
+	@Override
+	public RangePredicate<String> getRangePredicate(String entityType, List<String> propertyPath, Object lowerValue, Object upperValue) {
+		String columnName = propertyHelper.getColumnName( entityType, propertyPath );
+		Object lower = propertyHelper.convertToBackendType( entityType, propertyPath, lowerValue );
+		Object upper = propertyHelper.convertToBackendType( entityType, propertyPath, upperValue );
+		return new Neo4jRangePredicate( columnName, parameters.add( lower ), parameters.add( upper ) );
+	}
+
+	@Override
+	public NegationPredicate<String> getNegationPredicate() {
+		return new Neo4jNegationPredicate();
+	}
+
+	@Override
+	public DisjunctionPredicate<String> getDisjunctionPredicate() {
+		return new Neo4jDisjunctionPredicate();
+	}
+
+	@Override
+	public ConjunctionPredicate<String> getConjunctionPredicate() {
+		return new Neo4jConjunctionPredicate();
+	}
+
+	@Override
+	public InPredicate<String> getInPredicate(String entityType, List<String> propertyPath, List<Object> typedElements) {
+		String columnName = propertyHelper.getColumnName( entityType, propertyPath );
+		List<Object> values = new ArrayList<Object>( typedElements.size() );
+		for ( Object element : typedElements ) {
+			values.add( propertyHelper.convertToBackendType( entityType, propertyPath, element ) );
+		}
+		return new Neo4jInPredicate( columnName, values, parameters.add( values ) );
+	}
+
+	@Override
+	public IsNullPredicate<String> getIsNullPredicate(String entityType, List<String> propertyPath) {
+		String columnName = propertyHelper.getColumnName( entityType, propertyPath );
+		return new Neo4jIsNullPredicate( columnName );
+	}
+
+	@Override
+	public LikePredicate<String> getLikePredicate(String entityType, List<String> propertyPath, String patternValue, Character escapeCharacter) {
+		String columnName = propertyHelper.getColumnName( entityType, propertyPath );
+		return new Neo4jLikePredicate( columnName, patternValue, escapeCharacter, parameters );
+	}
+}
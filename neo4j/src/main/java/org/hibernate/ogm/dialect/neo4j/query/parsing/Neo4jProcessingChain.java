@@ -0,0 +1,67 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.dialect.neo4j.query.parsing;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.hql.ast.spi.AstProcessingChain;
+import org.hibernate.hql.ast.spi.AstProcessor;
+import org.hibernate.hql.ast.spi.EntityNamesResolver;
+import org.hibernate.hql.ast.spi.QueryRendererProcessor;
+import org.hibernate.hql.ast.spi.QueryResolverProcessor;
+
+/**
+ * AST processing chain for creating Cypher queries from HQL queries.
+ */
+public class Neo4jProcessingChain implements AstProcessingChain<Neo4jQueryParsingResult> {
+
+	private final QueryResolverProcessor resolverProcessor;
+	private final QueryRendererProcessor rendererProcessor;
+	private final Neo4jQueryRendererDelegate rendererDelegate;
+
+	public Neo4jProcessingChain(SessionFactoryImplementor sessionFactory, EntityNamesResolver entityNames, String nodesIndexName,
+			Map<String, Object> namedParameters) {
+		this.resolverProcessor = new QueryResolverProcessor( new Neo4jQueryResolverDelegate() );
+
+		Neo4jPropertyHelper propertyHelper = new Neo4jPropertyHelper( sessionFactory, entityNames );
+		Neo4jQueryRendererDelegate rendererDelegate = new Neo4jQueryRendererDelegate(
+				entityNames,
+				propertyHelper,
+				new Neo4jQueryParameters(),
+				nodesIndexName,
+				namedParameters );
+		this.rendererProcessor = new QueryRendererProcessor( rendererDelegate );
+		this.rendererDelegate = rendererDelegate;
+	}
+
+	@Override
+	public Iterator<AstProcessor> iterator() {
+		return Arrays.asList( resolverProcessor, rendererProcessor ).iterator();
+	}
+
+	@Override
+	public Neo4jQueryParsingResult getResult() {
+		return rendererDelegate.getResult();
+	}
+}
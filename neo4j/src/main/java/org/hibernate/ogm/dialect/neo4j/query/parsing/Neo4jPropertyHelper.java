@@ -0,0 +1,155 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.dialect.neo4j.query.parsing;
+
+import java.util.List;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.hql.ast.spi.EntityNamesResolver;
+import org.hibernate.hql.ast.spi.PropertyHelper;
+import org.hibernate.ogm.datastore.spi.Tuple;
+import org.hibernate.ogm.persister.OgmEntityPersister;
+import org.hibernate.ogm.type.GridType;
+import org.hibernate.ogm.type.TypeTranslator;
+import org.hibernate.type.AbstractStandardBasicType;
+import org.hibernate.type.Type;
+
+/**
+ * Property helper dealing with Neo4j.
+ * <p>
+ * Only the properties of the queried entity which are stored in a single column are supported; the other ones cause an
+ * {@link UnsupportedQueryException}.
+ */
+public class Neo4jPropertyHelper implements PropertyHelper {
+
+	private final SessionFactoryImplementor sessionFactory;
+	private final EntityNamesResolver entityNames;
+	private final TypeTranslator typeTranslator;
+
+	public Neo4jPropertyHelper(SessionFactoryImplementor sessionFactory, EntityNamesResolver entityNames) {
+		this.sessionFactory = sessionFactory;
+		this.entityNames = entityNames;
+		this.typeTranslator = sessionFactory.getServiceRegistry().getService( TypeTranslator.class );
+	}
+
+	@Override
+	public Object convertToPropertyType(String entityType, List<String> propertyPath, String value) {
+		Type propertyType = getPropertyType( entityType, propertyPath );
+
+		if ( propertyType instanceof AbstractStandardBasicType ) {
+			return ( (AbstractStandardBasicType<?>) propertyType ).fromString( value );
+		}
+		else {
+			return value;
+		}
+	}
+
+	/**
+	 * Converts the given property value into the value stored in the node, e.g. a date into its string
+	 * representation.
+	 *
+	 * @param entityType the queried entity type
+	 * @param propertyPath the path of the property
+	 * @param value the value of the property
+	 * @return the value as stored in Neo4j
+	 */
+	public Object convertToBackendType(String entityType, List<String> propertyPath, Object value) {
+		if ( value == null ) {
+			return null;
+		}
+		String columnName = getColumnName( entityType, propertyPath );
+		GridType gridType = typeTranslator.getType( getPropertyType( entityType, propertyPath ) );
+		Tuple tuple = new Tuple();
+		gridType.nullSafeSet( tuple, value, new String[] { columnName }, null );
+		return tuple.get( columnName );
+	}
+
+	/**
+	 * Returns the name of the node property storing the given entity property.
+	 *
+	 * @param entityType the queried entity type
+	 * @param propertyPath the path of the property
+	 * @return the name of the node property
+	 */
+	public String getColumnName(String entityType, List<String> propertyPath) {
+		OgmEntityPersister persister = getPersister( entityType );
+		String propertyName = getPropertyName( propertyPath );
+
+		String[] columnNames;
+		if ( propertyName.equals( persister.getIdentifierPropertyName() ) ) {
+			columnNames = persister.getIdentifierColumnNames();
+		}
+		else {
+			getPropertyType( entityType, propertyPath );
+			columnNames = persister.getPropertyColumnNames( propertyName );
+		}
+
+		if ( columnNames.length != 1 ) {
+			throw new UnsupportedQueryException( "Queries on properties mapped to several columns are not supported yet." );
+		}
+		return columnNames[0];
+	}
+
+	/**
+	 * Returns the table of the nodes representing the given entity type. Entity types which are part of an
+	 * inheritance hierarchy are not supported, as the nodes of a table may then represent other types as well.
+	 *
+	 * @param entityType the queried entity type
+	 * @return the table of the nodes
+	 */
+	public String getTable(String entityType) {
+		OgmEntityPersister persister = getPersister( entityType );
+		if ( persister.isInherited() || persister.hasSubclasses() ) {
+			throw new UnsupportedQueryException( "Queries on entity types with super or sub types are not supported yet: " + entityType );
+		}
+		return persister.getTableName();
+	}
+
+	private Type getPropertyType(String entityType, List<String> propertyPath) {
+		Type propertyType = getPersister( entityType ).getPropertyType( getPropertyName( propertyPath ) );
+		if ( propertyType.isAssociationType() || propertyType.isComponentType() ) {
+			throw new UnsupportedQueryException( "Queries on embedded/associated entities are not supported yet." );
+		}
+		return propertyType;
+	}
+
+	private String getPropertyName(List<String> propertyPath) {
+		if ( propertyPath.size() > 1 ) {
+			throw new UnsupportedQueryException( "Queries on embedded/associated entities are not supported yet." );
+		}
+		return propertyPath.get( 0 );
+	}
+
+	private OgmEntityPersister getPersister(String entityType) {
+		Class<?> targetedType = entityNames.getClassFromName( entityType );
+		if ( targetedType == null ) {
+			throw new IllegalStateException( "Unknown entity name " + entityType );
+		}
+
+		try {
+			return (OgmEntityPersister) sessionFactory.getEntityPersister( targetedType.getName() );
+		}
+		catch (MappingException e) {
+			throw new UnsupportedQueryException( "Queries on types which are not entities are not supported yet: " + entityType );
+		}
+	}
+}
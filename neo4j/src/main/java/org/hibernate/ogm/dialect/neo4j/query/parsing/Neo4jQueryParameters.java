@@ -0,0 +1,50 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.dialect.neo4j.query.parsing;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Collects the values used by a Cypher query; they are passed as parameters rather than inlined in the query, so they
+ * need no escaping and the query plan can be reused by Neo4j.
+ */
+public class Neo4jQueryParameters {
+
+	private final Map<String, Object> parameters = new HashMap<String, Object>();
+
+	/**
+	 * Adds a parameter with the given value.
+	 *
+	 * @param value the value of the parameter
+	 * @return the reference to the parameter to be used in the query
+	 */
+	public String add(Object value) {
+		String name = "p" + parameters.size();
+		parameters.put( name, value );
+		return "{" + name + "}";
+	}
+
+	public Map<String, Object> getParameters() {
+		return Collections.unmodifiableMap( parameters );
+	}
+}
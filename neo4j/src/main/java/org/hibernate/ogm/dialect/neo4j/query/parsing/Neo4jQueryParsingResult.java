@@ -0,0 +1,76 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.dialect.neo4j.query.parsing;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The result of walking a query parse tree using a {@link Neo4jQueryRendererDelegate}.
+ */
+public class Neo4jQueryParsingResult {
+
+	private final Class<?> entityType;
+	private final String query;
+	private final Map<String, Object> parameters;
+	private final List<String> projections;
+
+	public Neo4jQueryParsingResult(Class<?> entityType, String query, Map<String, Object> parameters, List<String> projections) {
+		this.entityType = entityType;
+		this.query = query;
+		this.parameters = parameters;
+		this.projections = projections;
+	}
+
+	/**
+	 * @return the Cypher query
+	 */
+	public String getQuery() {
+		return query;
+	}
+
+	/**
+	 * @return the parameters of the Cypher query
+	 */
+	public Map<String, Object> getParameters() {
+		return parameters;
+	}
+
+	/**
+	 * @return the entityType
+	 */
+	public Class<?> getEntityType() {
+		return entityType;
+	}
+
+	/**
+	 * @return the names of the projected properties, empty if the entities are selected
+	 */
+	public List<String> getProjections() {
+		return projections;
+	}
+
+	@Override
+	public String toString() {
+		return "Neo4jQueryParsingResult [entityType=" + entityType.getSimpleName() + ", query=" + query + ", parameters=" + parameters
+				+ ", projections=" + projections + "]";
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.dialect.neo4j.query.parsing;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.hibernate.hql.ast.origin.hql.resolve.path.PropertyPath;
+import org.hibernate.hql.ast.spi.EntityNamesResolver;
+import org.hibernate.hql.ast.spi.SingleEntityQueryBuilder;
+import org.hibernate.hql.ast.spi.SingleEntityQueryRendererDelegate;
+
+/**
+ * Parser delegate which creates Cypher queries matching the nodes indexed under the table of the queried entity.
+ */
+public class Neo4jQueryRendererDelegate extends SingleEntityQueryRendererDelegate<String, Neo4jQueryParsingResult> {
+
+	private final Neo4jPropertyHelper propertyHelper;
+	private final Neo4jQueryParameters parameters;
+	private final String nodesIndexName;
+
+	public Neo4jQueryRendererDelegate(EntityNamesResolver entityNames, Neo4jPropertyHelper propertyHelper, Neo4jQueryParameters parameters,
+			String nodesIndexName, Map<String, Object> namedParameters) {
+		super(
+				entityNames,
+				SingleEntityQueryBuilder.getInstance( new Neo4jPredicateFactory( propertyHelper, parameters ), propertyHelper ),
+				namedParameters );
+
+		this.propertyHelper = propertyHelper;
+		this.parameters = parameters;
+		this.nodesIndexName = nodesIndexName;
+	}
+
+	@Override
+	public Neo4jQueryParsingResult getResult() {
+		String where = builder.build();
+		String table = parameters.add( propertyHelper.getTable( targetTypeName ) );
+		String query = CypherHelper.start( nodesIndexName, table, where );
+		return new Neo4jQueryParsingResult( targetType, query, parameters.getParameters(), Collections.unmodifiableList( projections ) );
+	}
+
+	@Override
+	public void setPropertyPath(PropertyPath propertyPath) {
+		if ( status == Status.DEFINING_SELECT ) {
+			//currently only support selecting non-nested properties (either qualified or unqualified)
+			if ( ( propertyPath.getNodes().size() == 1 && !propertyPath.getLastNode().isAlias() )
+					|| ( propertyPath.getNodes().size() == 2 && propertyPath.getNodes().get( 0 ).isAlias() ) ) {
+				projections.add( propertyHelper.getColumnName( targetTypeName, Collections.singletonList( propertyPath.asStringPathWithoutAlias() ) ) );
+			}
+			else {
+				throw new UnsupportedQueryException( "Selecting complete entities or nested/associated properties not yet implemented." );
+			}
+		}
+		else {
+			this.propertyPath = propertyPath;
+		}
+	}
+}
@@ -0,0 +1,65 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.dialect.neo4j.query.parsing.predicate;
+
+import static org.hibernate.ogm.dialect.neo4j.query.parsing.CypherHelper.property;
+
+import org.hibernate.hql.ast.spi.predicate.ComparisonPredicate;
+
+/**
+ * Neo4j-based implementation of {@link ComparisonPredicate}.
+ */
+public class Neo4jComparisonPredicate extends ComparisonPredicate<String> {
+
+	/**
+	 * @param propertyName the name of the compared node property
+	 * @param comparisonType the type of comparison
+	 * @param parameter the reference to the query parameter holding the compared value
+	 */
+	public Neo4jComparisonPredicate(String propertyName, ComparisonPredicate.Type comparisonType, String parameter) {
+		super( propertyName, comparisonType, parameter );
+	}
+
+	@Override
+	protected String getStrictlyLessQuery() {
+		return property( propertyName ) + " < " + value;
+	}
+
+	@Override
+	protected String getLessOrEqualsQuery() {
+		return property( propertyName ) + " <= " + value;
+	}
+
+	@Override
+	protected String getEqualsQuery() {
+		return property( propertyName ) + " = " + value;
+	}
+
+	@Override
+	protected String getGreaterOrEqualsQuery() {
+		return property( propertyName ) + " >= " + value;
+	}
+
+	@Override
+	protected String getStrictlyGreaterQuery() {
+		return property( propertyName ) + " > " + value;
+	}
+}
@@ -0,0 +1,50 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.dialect.neo4j.query.parsing.predicate;
+
+import static org.hibernate.ogm.dialect.neo4j.query.parsing.CypherHelper.property;
+
+import java.util.List;
+
+import org.hibernate.hql.ast.spi.predicate.InPredicate;
+
+/**
+ * Neo4j-based implementation of {@link InPredicate}.
+ */
+public class Neo4jInPredicate extends InPredicate<String> {
+
+	private final String parameter;
+
+	/**
+	 * @param propertyName the name of the node property
+	 * @param values the values to match
+	 * @param parameter the reference to the query parameter holding the values
+	 */
+	public Neo4jInPredicate(String propertyName, List<Object> values, String parameter) {
+		super( propertyName, values );
+		this.parameter = parameter;
+	}
+
+	@Override
+	public String getQuery() {
+		return property( propertyName ) + " IN " + parameter;
+	}
+}
@@ -0,0 +1,41 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.dialect.neo4j.query.parsing.predicate;
+
+import static org.hibernate.ogm.dialect.neo4j.query.parsing.CypherHelper.has;
+
+import org.hibernate.hql.ast.spi.predicate.IsNullPredicate;
+
+/**
+ * Neo4j-based implementation of {@link IsNullPredicate}; null values are not stored, so a node matches if it does not
+ * have the property.
+ */
+public class Neo4jIsNullPredicate extends IsNullPredicate<String> {
+
+	public Neo4jIsNullPredicate(String propertyName) {
+		super( propertyName );
+	}
+
+	@Override
+	public String getQuery() {
+		return "NOT(" + has( propertyName ) + ")";
+	}
+}
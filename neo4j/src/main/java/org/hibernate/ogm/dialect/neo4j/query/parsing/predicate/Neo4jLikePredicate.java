@@ -0,0 +1,50 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.dialect.neo4j.query.parsing.predicate;
+
+import static org.hibernate.ogm.dialect.neo4j.query.parsing.CypherHelper.property;
+
+import java.util.regex.Pattern;
+
+import org.hibernate.hql.ast.spi.predicate.LikePredicate;
+import org.hibernate.ogm.dialect.neo4j.query.parsing.Neo4jQueryParameters;
+import org.hibernate.ogm.util.impl.LikeExpressionToRegExpConverter;
+
+/**
+ * Neo4j-based implementation of {@link LikePredicate}, using the regular expression operator {@code =~}.
+ */
+public class Neo4jLikePredicate extends LikePredicate<String> {
+
+	private final String parameter;
+
+	public Neo4jLikePredicate(String propertyName, String patternValue, Character escapeCharacter, Neo4jQueryParameters parameters) {
+		super( propertyName, patternValue, escapeCharacter );
+		LikeExpressionToRegExpConverter converter = new LikeExpressionToRegExpConverter( escapeCharacter );
+		Pattern pattern = converter.getRegExpFromLikeExpression( patternValue );
+		// the flags of the pattern are lost when passing it as string
+		this.parameter = parameters.add( "(?s)" + pattern.pattern() );
+	}
+
+	@Override
+	public String getQuery() {
+		return property( propertyName ) + " =~ " + parameter;
+	}
+}
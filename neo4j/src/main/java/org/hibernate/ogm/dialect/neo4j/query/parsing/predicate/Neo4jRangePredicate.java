@@ -0,0 +1,45 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.dialect.neo4j.query.parsing.predicate;
+
+import static org.hibernate.ogm.dialect.neo4j.query.parsing.CypherHelper.property;
+
+import org.hibernate.hql.ast.spi.predicate.RangePredicate;
+
+/**
+ * Neo4j-based implementation of {@link RangePredicate}.
+ */
+public class Neo4jRangePredicate extends RangePredicate<String> {
+
+	/**
+	 * @param propertyName the name of the node property
+	 * @param lowerParameter the reference to the query parameter holding the lower bound
+	 * @param upperParameter the reference to the query parameter holding the upper bound
+	 */
+	public Neo4jRangePredicate(String propertyName, String lowerParameter, String upperParameter) {
+		super( propertyName, lowerParameter, upperParameter );
+	}
+
+	@Override
+	public String getQuery() {
+		return "(" + property( propertyName ) + " >= " + lower + " AND " + property( propertyName ) + " <= " + upper + ")";
+	}
+}
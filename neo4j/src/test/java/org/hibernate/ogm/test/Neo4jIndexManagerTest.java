@@ -0,0 +1,213 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.util.Properties;
+
+import org.fest.util.Files;
+import org.hibernate.boot.registry.classloading.internal.ClassLoaderServiceImpl;
+import org.hibernate.boot.registry.classloading.spi.ClassLoaderService;
+import org.hibernate.ogm.datastore.neo4j.Neo4jProperties;
+import org.hibernate.ogm.datastore.neo4j.impl.Neo4jDatastoreProvider;
+import org.hibernate.ogm.dialect.neo4j.Neo4jIndexManager;
+import org.hibernate.ogm.grid.EntityKey;
+import org.hibernate.ogm.grid.EntityKeyMetadata;
+import org.hibernate.ogm.grid.RowKey;
+import org.hibernate.ogm.test.utils.Neo4jTestHelper;
+import org.hibernate.service.spi.ServiceRegistryImplementor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.graphdb.DynamicRelationshipType;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.index.IndexHits;
+
+/**
+ * Test the lookups of the {@link Neo4jIndexManager}, in particular of the nodes and relationships indexed without the
+ * key property.
+ */
+public class Neo4jIndexManagerTest {
+
+	private String dbLocation;
+
+	private Neo4jDatastoreProvider provider;
+
+	private Neo4jIndexManager indexManager;
+
+	@Before
+	public void setUp() {
+		dbLocation = Neo4jTestHelper.dbLocation();
+	}
+
+	@After
+	public void tearDown() {
+		if ( provider != null ) {
+			provider.stop();
+		}
+		Files.delete( new File( dbLocation ) );
+	}
+
+	@Test
+	public void testNodeIndexedWithoutKeyPropertyIsNotFoundByDefault() {
+		startProvider( false );
+		EntityKey key = new EntityKey( new EntityKeyMetadata( "Cloud", new String[] { "id" } ), new Object[] { "cloud-1" } );
+		indexWithoutKeyProperty( "Cloud", "cloud-1" );
+
+		Transaction tx = provider.getDataBase().beginTx();
+		try {
+			assertThat( indexManager.findNode( key ) ).isNull();
+			tx.success();
+		}
+		finally {
+			tx.finish();
+		}
+	}
+
+	@Test
+	public void testNodeIndexedWithoutKeyPropertyIsFoundWithLegacyLookup() {
+		startProvider( true );
+		EntityKey key = new EntityKey( new EntityKeyMetadata( "Cloud", new String[] { "id" } ), new Object[] { "cloud-1" } );
+		Node node = indexWithoutKeyProperty( "Cloud", "cloud-1" );
+
+		Transaction tx = provider.getDataBase().beginTx();
+		try {
+			assertThat( indexManager.findNode( key ) ).isEqualTo( node );
+			tx.success();
+		}
+		finally {
+			tx.finish();
+		}
+
+		// the lookup doesn't write to the index
+		assertThat( provider.getNodesIndex().get( "_key", "5:Cloud2:id7:cloud-1" ).getSingle() ).isNull();
+	}
+
+	@Test
+	public void testNodesWithQuotesInTheirIdAreFound() {
+		startProvider( true );
+		EntityKey legacyKey = new EntityKey( new EntityKeyMetadata( "Cloud", new String[] { "id" } ), new Object[] { "the \\\"big\\\" one" } );
+		Node legacyNode = indexWithoutKeyProperty( "Cloud", "the \\\"big\\\" one" );
+		EntityKey key = new EntityKey( new EntityKeyMetadata( "Cloud", new String[] { "id" } ), new Object[] { "the \"small\" one" } );
+
+		Transaction tx = provider.getDataBase().beginTx();
+		Node node;
+		try {
+			node = provider.createNode();
+			indexManager.index( node, key );
+			tx.success();
+		}
+		finally {
+			tx.finish();
+		}
+
+		tx = provider.getDataBase().beginTx();
+		try {
+			assertThat( indexManager.findNode( legacyKey ) ).isEqualTo( legacyNode );
+			assertThat( indexManager.findNode( key ) ).isEqualTo( node );
+
+			IndexHits<Node> hits = indexManager.findNodes( new EntityKey[] { legacyKey, key } );
+			try {
+				assertThat( hits.size() ).isEqualTo( 2 );
+			}
+			finally {
+				hits.close();
+			}
+			tx.success();
+		}
+		finally {
+			tx.finish();
+		}
+	}
+
+	@Test
+	public void testRelationshipIndexedWithoutKeyPropertyIsFoundWithLegacyLookup() {
+		startProvider( true );
+		RelationshipType type = DynamicRelationshipType.withName( "Cloud_snowflakes" );
+		RowKey rowKey = new RowKey( "Cloud_snowflakes", new String[] { "cloud_id", "snowflake_id" }, new Object[] { "cloud-1", "snowflake-1" } );
+
+		Transaction tx = provider.getDataBase().beginTx();
+		Relationship relationship;
+		try {
+			relationship = provider.createNode().createRelationshipTo( provider.createNode(), type );
+			relationship.setProperty( "cloud_id", "cloud-1" );
+			relationship.setProperty( "snowflake_id", "snowflake-1" );
+			provider.getRelationshipsIndex().add( relationship, "_relationship_type", type.name() );
+			provider.getRelationshipsIndex().add( relationship, "cloud_id", "cloud-1" );
+			provider.getRelationshipsIndex().add( relationship, "snowflake_id", "snowflake-1" );
+			tx.success();
+		}
+		finally {
+			tx.finish();
+		}
+
+		tx = provider.getDataBase().beginTx();
+		try {
+			// the columns of the row key are not listed in the order of the properties
+			RowKey reversed = new RowKey( "Cloud_snowflakes", new String[] { "snowflake_id", "cloud_id" }, new Object[] { "snowflake-1", "cloud-1" } );
+			assertThat( indexManager.findRelationship( type, rowKey ) ).isEqualTo( relationship );
+			assertThat( indexManager.findRelationship( type, reversed ) ).isEqualTo( relationship );
+			tx.success();
+		}
+		finally {
+			tx.finish();
+		}
+	}
+
+	private void startProvider(boolean legacyIndexLookup) {
+		Properties configurationValues = new Properties();
+		configurationValues.put( Neo4jProperties.DATABASE_PATH, dbLocation );
+		configurationValues.put( Neo4jProperties.LEGACY_INDEX_LOOKUP, String.valueOf( legacyIndexLookup ) );
+		provider = new Neo4jDatastoreProvider();
+
+		ServiceRegistryImplementor serviceRegistry = mock( ServiceRegistryImplementor.class );
+		when( serviceRegistry.getService( ClassLoaderService.class ) ).thenReturn( new ClassLoaderServiceImpl() );
+		provider.injectServices( serviceRegistry );
+
+		provider.configure( configurationValues );
+		provider.start();
+		indexManager = new Neo4jIndexManager( provider );
+	}
+
+	/**
+	 * Indexes a new node the way it was done before the key property was introduced.
+	 */
+	private Node indexWithoutKeyProperty(String table, String id) {
+		Transaction tx = provider.getDataBase().beginTx();
+		try {
+			Node node = provider.createNode();
+			provider.getNodesIndex().add( node, "_table", table );
+			provider.getNodesIndex().add( node, "id", id );
+			tx.success();
+			return node;
+		}
+		finally {
+			tx.finish();
+		}
+	}
+}
@@ -0,0 +1,172 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.neo4j.query.nativequery;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.List;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.ogm.test.utils.OgmTestCase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test the execution of native Cypher queries and of JP-QL queries translated into Cypher.
+ */
+public class Neo4jSessionCypherQueryTest extends OgmTestCase {
+
+	private final Poem portia = new Poem( 1L, "Portia", "Oscar Wilde", 1881 );
+	private final Poem athanasia = new Poem( 2L, "Athanasia", "Oscar Wilde", 1879 );
+	private final Poem ulysses = new Poem( 3L, "Ulysses", "Alfred Tennyson", 1842 );
+
+	@Before
+	public void init() {
+		Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		session.persist( portia );
+		session.persist( athanasia );
+		session.persist( ulysses );
+		transaction.commit();
+		session.close();
+	}
+
+	@After
+	public void tearDown() {
+		Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		for ( Poem poem : new Poem[] { portia, athanasia, ulysses } ) {
+			Object entity = session.get( Poem.class, poem.getId() );
+			if ( entity != null ) {
+				session.delete( entity );
+			}
+		}
+		transaction.commit();
+		session.close();
+	}
+
+	@Test
+	public void testNativeCypherQuery() throws Exception {
+		Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+
+		String nativeQuery = "MATCH (n) WHERE n._table! = 'Poem' AND n.author! = 'Oscar Wilde' RETURN n ORDER BY n.name";
+		@SuppressWarnings("unchecked")
+		List<Poem> result = session.createSQLQuery( nativeQuery ).addEntity( Poem.class ).list();
+
+		assertThat( result ).onProperty( "name" ).containsExactly( "Athanasia", "Portia" );
+
+		transaction.commit();
+		session.close();
+	}
+
+	@Test
+	public void testJpqlQueryTranslatedIntoCypher() throws Exception {
+		Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+
+		List<?> result = session.createQuery( "from Poem p where p.author = :author and p.year > 1880" )
+				.setString( "author", "Oscar Wilde" )
+				.list();
+		assertThat( result ).onProperty( "name" ).containsOnly( "Portia" );
+
+		result = session.createQuery( "from Poem p where p.name like '%a' and not p.author = 'Oscar Wilde'" ).list();
+		assertThat( result ).isEmpty();
+
+		transaction.commit();
+		session.close();
+	}
+
+	@Test
+	public void testProjectionQueryTranslatedIntoCypher() throws Exception {
+		Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+
+		List<?> result = session.createQuery( "select p.name, p.year from Poem p where p.author = 'Alfred Tennyson'" ).list();
+		assertThat( result ).hasSize( 1 );
+		assertThat( (Object[]) result.get( 0 ) ).containsOnly( "Ulysses", 1842 );
+
+		transaction.commit();
+		session.close();
+	}
+
+	@Test
+	public void testJpqlQueryWithRowSelection() throws Exception {
+		Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+
+		assertThat( session.createQuery( "from Poem" ).setMaxResults( 2 ).list() ).hasSize( 2 );
+		assertThat( session.createQuery( "from Poem" ).setFirstResult( 1 ).list() ).hasSize( 2 );
+		assertThat( session.createQuery( "from Poem" ).setFirstResult( 2 ).setMaxResults( 2 ).list() ).hasSize( 1 );
+
+		transaction.commit();
+		session.close();
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class<?>[] { Poem.class };
+	}
+
+	@Entity(name = "Poem")
+	public static class Poem {
+
+		@Id
+		private Long id;
+
+		private String name;
+
+		private String author;
+
+		private int year;
+
+		public Poem() {
+		}
+
+		public Poem(Long id, String name, String author, int year) {
+			this.id = id;
+			this.name = name;
+			this.author = author;
+			this.year = year;
+		}
+
+		public Long getId() {
+			return id;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public String getAuthor() {
+			return author;
+		}
+
+		public int getYear() {
+			return year;
+		}
+	}
+}
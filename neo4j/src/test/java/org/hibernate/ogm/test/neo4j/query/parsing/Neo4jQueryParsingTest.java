@@ -0,0 +1,175 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.neo4j.query.parsing;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.fest.assertions.MapAssert.entry;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.ManyToOne;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.hql.QueryParser;
+import org.hibernate.hql.ast.spi.EntityNamesResolver;
+import org.hibernate.ogm.dialect.neo4j.query.parsing.Neo4jProcessingChain;
+import org.hibernate.ogm.dialect.neo4j.query.parsing.Neo4jQueryParsingResult;
+import org.hibernate.ogm.dialect.neo4j.query.parsing.UnsupportedQueryException;
+import org.hibernate.ogm.service.impl.SessionFactoryEntityNamesResolver;
+import org.hibernate.ogm.test.utils.OgmTestCase;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Integration test for {@link org.hibernate.ogm.dialect.neo4j.query.parsing.Neo4jQueryResolverDelegate} and
+ * {@link org.hibernate.ogm.dialect.neo4j.query.parsing.Neo4jQueryRendererDelegate}.
+ */
+public class Neo4jQueryParsingTest extends OgmTestCase {
+
+	private QueryParser queryParser;
+
+	@Before
+	public void setupParser() {
+		queryParser = new QueryParser();
+	}
+
+	@Test
+	public void shouldCreateUnrestrictedQuery() {
+		Neo4jQueryParsingResult parsingResult = parseQuery( "from Poem" );
+
+		assertThat( parsingResult.getEntityType() ).isSameAs( Poem.class );
+		assertThat( parsingResult.getQuery() ).isEqualTo( "START n=node:`_nodes_ogm_index`(`_table`={p0}) RETURN n" );
+		assertThat( parsingResult.getParameters() ).hasSize( 1 ).includes( entry( "p0", "Poem" ) );
+	}
+
+	@Test
+	public void shouldUseColumnNamesAndParameters() {
+		Neo4jQueryParsingResult parsingResult = parseQuery( "from Poem p where p.name = 'Portia' and p.year > 1880" );
+
+		assertThat( parsingResult.getQuery() ).isEqualTo(
+				"START n=node:`_nodes_ogm_index`(`_table`={p2}) WHERE (n.`poem_name`! = {p0} AND n.`year`! > {p1}) RETURN n" );
+		assertThat( parsingResult.getParameters() ).includes( entry( "p0", "Portia" ), entry( "p1", 1880 ), entry( "p2", "Poem" ) );
+	}
+
+	@Test
+	public void shouldCreateNegatedAndNullQueries() {
+		Neo4jQueryParsingResult parsingResult = parseQuery( "from Poem p where not p.id = '1' or p.name is null" );
+
+		assertThat( parsingResult.getQuery() ).isEqualTo(
+				"START n=node:`_nodes_ogm_index`(`_table`={p1}) WHERE (NOT(n.`id`! = {p0}) OR NOT(has(n.`poem_name`))) RETURN n" );
+	}
+
+	@Test
+	public void shouldPassNamedParametersAndCollectionsAsParameters() {
+		Map<String, Object> namedParameters = new HashMap<String, Object>();
+		namedParameters.put( "start", 1880 );
+		namedParameters.put( "end", 1890 );
+
+		Neo4jQueryParsingResult parsingResult = parseQuery(
+				"from Poem p where p.year between :start and :end and p.id in ('1', '2')", namedParameters );
+
+		assertThat( parsingResult.getQuery() ).isEqualTo(
+				"START n=node:`_nodes_ogm_index`(`_table`={p3}) WHERE ((n.`year`! >= {p0} AND n.`year`! <= {p1}) AND n.`id`! IN {p2}) RETURN n" );
+		assertThat( parsingResult.getParameters() ).includes( entry( "p0", 1880 ), entry( "p1", 1890 ), entry( "p2", Arrays.asList( "1", "2" ) ) );
+	}
+
+	@Test
+	public void shouldConvertLikeExpressionIntoRegularExpression() {
+		Neo4jQueryParsingResult parsingResult = parseQuery( "from Poem p where p.name like 'Port%'" );
+
+		assertThat( parsingResult.getQuery() ).isEqualTo( "START n=node:`_nodes_ogm_index`(`_table`={p1}) WHERE n.`poem_name`! =~ {p0} RETURN n" );
+		assertThat( parsingResult.getParameters() ).includes( entry( "p0", "(?s)^\\QPort\\E.*$" ) );
+	}
+
+	@Test
+	public void shouldCreateProjectionQuery() {
+		Neo4jQueryParsingResult parsingResult = parseQuery( "select p.id, p.name from Poem p" );
+
+		assertThat( parsingResult.getQuery() ).isEqualTo( "START n=node:`_nodes_ogm_index`(`_table`={p0}) RETURN n" );
+		assertThat( parsingResult.getProjections() ).containsExactly( "id", "poem_name" );
+	}
+
+	@Test(expected = UnsupportedQueryException.class)
+	public void shouldNotSupportRestrictionsOnAssociatedEntities() {
+		parseQuery( "from Poem p where p.previous.name = 'Portia'" );
+	}
+
+	@Test(expected = UnsupportedQueryException.class)
+	public void shouldNotSupportQueriesOnSubTypes() {
+		parseQuery( "from Sonnet" );
+	}
+
+	@Test(expected = UnsupportedQueryException.class)
+	public void shouldNotSupportQueriesOnTypesWithSubTypes() {
+		parseQuery( "from Verse" );
+	}
+
+	private Neo4jQueryParsingResult parseQuery(String queryString) {
+		return parseQuery( queryString, Collections.<String, Object>emptyMap() );
+	}
+
+	private Neo4jQueryParsingResult parseQuery(String queryString, Map<String, Object> namedParameters) {
+		EntityNamesResolver nameResolver = new SessionFactoryEntityNamesResolver( sessions );
+
+		return queryParser.parseQuery(
+				queryString,
+				new Neo4jProcessingChain( (SessionFactoryImplementor) sessions, nameResolver, "_nodes_ogm_index", namedParameters ) );
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class<?>[] { Poem.class, Verse.class, Sonnet.class };
+	}
+
+	@Entity(name = "Poem")
+	public static class Poem {
+
+		@Id
+		private String id;
+
+		@Column(name = "poem_name")
+		private String name;
+
+		private int year;
+
+		@ManyToOne
+		private Poem previous;
+	}
+
+	@Entity(name = "Verse")
+	public static class Verse {
+
+		@Id
+		private String id;
+	}
+
+	@Entity(name = "Sonnet")
+	public static class Sonnet extends Verse {
+
+		private String rhymeScheme;
+	}
+}
@@ -0,0 +1,92 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.perf;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.ogm.cfg.OgmConfiguration;
+import org.hibernate.ogm.cfg.OgmProperties;
+import org.hibernate.ogm.perf.dialect.BatchingGridDialect;
+import org.hibernate.ogm.perf.model.Author;
+import org.hibernate.ogm.perf.model.Blog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures flushes going through {@code BatchOperationsDelegator}: each invocation persists {@code batchSize} entities
+ * with a collection in one session and commits, so that all the tuple and association updates are queued and executed
+ * as one batch.
+ * <p>
+ * The embedded datastores have no batchable dialect, so the session factory is configured with
+ * {@link BatchingGridDialect}; comparing the results with {@code -p batching=false} shows the overhead of the
+ * delegator and of the operations queue.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class BatchFlushBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BatchingDatastoreState extends DatastoreState {
+
+		@Param({ "true", "false" })
+		public boolean batching;
+
+		@Override
+		protected void configure(OgmConfiguration configuration) {
+			if ( batching ) {
+				configuration.setProperty( OgmProperties.GRID_DIALECT, BatchingGridDialect.class.getName() );
+			}
+		}
+	}
+
+	@Param({ "1", "10", "100" })
+	public int batchSize;
+
+	@Benchmark
+	public void flush(BatchingDatastoreState state) {
+		Session session = state.getSessionFactory().openSession();
+		Transaction transaction = session.beginTransaction();
+		for ( int i = 0; i < batchSize; i++ ) {
+			Long id = state.nextId();
+			session.persist( new Author( id, "Batched #" + id, "Inserted by the batch benchmark" ) );
+
+			Blog blog = new Blog( id, "Batched #" + id );
+			blog.getTags().add( "batch" );
+			session.persist( blog );
+		}
+		transaction.commit();
+		session.close();
+	}
+}
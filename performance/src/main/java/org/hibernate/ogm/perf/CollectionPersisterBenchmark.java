@@ -0,0 +1,90 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.perf;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.ogm.perf.model.Blog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the insertion of rows into a collection by {@code OgmCollectionPersister}.
+ * <p>
+ * Each invocation loads the owner of the collection, adds one element and commits; every iteration starts with a new,
+ * empty collection (created by its first invocation) so that the size of the association stays bounded.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class CollectionPersisterBenchmark {
+
+	@State(Scope.Thread)
+	public static class BlogState {
+
+		private Long blogId;
+
+		private int tagCount;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			blogId = null;
+			tagCount = 0;
+		}
+
+		Long getBlogId(DatastoreState state) {
+			if ( blogId == null ) {
+				blogId = state.nextId();
+
+				Session session = state.getSessionFactory().openSession();
+				Transaction transaction = session.beginTransaction();
+				session.persist( new Blog( blogId, "Blog #" + blogId ) );
+				transaction.commit();
+				session.close();
+			}
+			return blogId;
+		}
+	}
+
+	@Benchmark
+	public Blog insertRow(DatastoreState state, BlogState blogState) {
+		Session session = state.getSessionFactory().openSession();
+		Transaction transaction = session.beginTransaction();
+		Blog blog = (Blog) session.get( Blog.class, blogState.getBlogId( state ) );
+		blog.getTags().add( "tag #" + blogState.tagCount++ );
+		transaction.commit();
+		session.close();
+		return blog;
+	}
+}
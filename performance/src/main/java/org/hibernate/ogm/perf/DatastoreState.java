@@ -0,0 +1,161 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.perf;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.ogm.cfg.OgmConfiguration;
+import org.hibernate.ogm.cfg.OgmProperties;
+import org.hibernate.ogm.datastore.impl.AvailableDatastoreProvider;
+import org.hibernate.ogm.datastore.infinispan.InfinispanProperties;
+import org.hibernate.ogm.datastore.neo4j.Neo4jProperties;
+import org.hibernate.ogm.perf.model.Author;
+import org.hibernate.ogm.perf.model.Blog;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Bootstraps a session factory against the datastore given by the {@code datastore} parameter, one of the
+ * {@link AvailableDatastoreProvider} short names of the datastores which can be run embedded.
+ * <p>
+ * Select the datastores to run against with {@code -p datastore=MAP,NEO4J_EMBEDDED}.
+ */
+@State(Scope.Benchmark)
+public class DatastoreState {
+
+	/**
+	 * Number of {@link Author}s persisted before the measurements start.
+	 */
+	public static final int PRELOADED_AUTHORS = 1000;
+
+	static {
+		// JBoss Transactions takes the name of its configuration file from the manifest of its own JAR, which is
+		// not part of the benchmarks JAR
+		System.setProperty( "com.arjuna.ats.arjuna.common.propertiesFile", "jbossts-properties.xml" );
+	}
+
+	@Param({ "MAP", "INFINISPAN", "EHCACHE", "NEO4J_EMBEDDED" })
+	public String datastore;
+
+	private final AtomicLong nextId = new AtomicLong();
+
+	private SessionFactory sessionFactory;
+
+	private File neo4jDirectory;
+
+	@Setup
+	public void setUp() throws Exception {
+		OgmConfiguration configuration = new OgmConfiguration();
+		configuration.addAnnotatedClass( Author.class );
+		configuration.addAnnotatedClass( Blog.class );
+		configuration.setProperty( OgmProperties.DATASTORE_PROVIDER, datastore );
+
+		AvailableDatastoreProvider provider = AvailableDatastoreProvider.byShortName( datastore );
+		if ( provider == AvailableDatastoreProvider.INFINISPAN ) {
+			configuration.setProperty( InfinispanProperties.CONFIGURATION_RESOURCENAME, "infinispan-local.xml" );
+		}
+		else if ( provider == AvailableDatastoreProvider.NEO4J_EMBEDDED ) {
+			neo4jDirectory = createTemporaryDirectory();
+			configuration.setProperty( Neo4jProperties.DATABASE_PATH, neo4jDirectory.getAbsolutePath() );
+		}
+		configure( configuration );
+
+		sessionFactory = configuration.buildSessionFactory();
+		preload();
+	}
+
+	@TearDown
+	public void tearDown() {
+		if ( sessionFactory != null ) {
+			sessionFactory.close();
+		}
+		if ( neo4jDirectory != null ) {
+			delete( neo4jDirectory );
+		}
+	}
+
+	/**
+	 * Callback for benchmarks which need to tweak the configuration before the session factory is built.
+	 *
+	 * @param configuration the configuration of the session factory
+	 */
+	protected void configure(OgmConfiguration configuration) {
+	}
+
+	public SessionFactory getSessionFactory() {
+		return sessionFactory;
+	}
+
+	/**
+	 * Returns the id of one of the preloaded {@link Author}s.
+	 *
+	 * @param index any number, used to pick the author
+	 * @return the id of a preloaded author
+	 */
+	public Long getPreloadedId(long index) {
+		return Long.valueOf( index % PRELOADED_AUTHORS );
+	}
+
+	/**
+	 * Returns an id which hasn't been used by any {@link Author} so far.
+	 *
+	 * @return a new id
+	 */
+	public Long nextId() {
+		return Long.valueOf( nextId.getAndIncrement() );
+	}
+
+	private void preload() {
+		Session session = sessionFactory.openSession();
+		Transaction transaction = session.beginTransaction();
+		for ( int i = 0; i < PRELOADED_AUTHORS; i++ ) {
+			session.persist( new Author( nextId(), "Author #" + i, "Preloaded" ) );
+		}
+		transaction.commit();
+		session.close();
+	}
+
+	static File createTemporaryDirectory() throws IOException {
+		File directory = File.createTempFile( "ogm-benchmark-neo4j", "" );
+		if ( !directory.delete() || !directory.mkdir() ) {
+			throw new IOException( "Could not create directory " + directory );
+		}
+		return directory;
+	}
+
+	static void delete(File file) {
+		File[] children = file.listFiles();
+		if ( children != null ) {
+			for ( File child : children ) {
+				delete( child );
+			}
+		}
+		file.delete();
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.perf;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.ogm.perf.model.Author;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the round trips of {@code OgmEntityPersister}: inserting, updating and loading a single entity, each in
+ * its own session and transaction.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class EntityPersisterBenchmark {
+
+	@Benchmark
+	public Author insert(DatastoreState state) {
+		Session session = state.getSessionFactory().openSession();
+		Transaction transaction = session.beginTransaction();
+		Author author = new Author( state.nextId(), "Inserted", "Inserted by the benchmark" );
+		session.persist( author );
+		transaction.commit();
+		session.close();
+		return author;
+	}
+
+	@Benchmark
+	public Author update(DatastoreState state, ThreadCounter counter) {
+		Session session = state.getSessionFactory().openSession();
+		Transaction transaction = session.beginTransaction();
+		Long id = state.getPreloadedId( counter.next() );
+		Author author = new Author( id, "Author #" + id, "Updated #" + counter.current() );
+		session.update( author );
+		transaction.commit();
+		session.close();
+		return author;
+	}
+
+	@Benchmark
+	public Author load(DatastoreState state, ThreadCounter counter) {
+		Session session = state.getSessionFactory().openSession();
+		Transaction transaction = session.beginTransaction();
+		Author author = (Author) session.get( Author.class, state.getPreloadedId( counter.next() ) );
+		transaction.commit();
+		session.close();
+		return author;
+	}
+}
@@ -0,0 +1,199 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.perf;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.ogm.cfg.OgmConfiguration;
+import org.hibernate.ogm.cfg.OgmProperties;
+import org.hibernate.ogm.datastore.infinispan.InfinispanProperties;
+import org.hibernate.ogm.datastore.infinispan.impl.InfinispanDatastoreProvider;
+import org.hibernate.ogm.datastore.spi.DatastoreProvider;
+import org.hibernate.ogm.datastore.spi.DefaultDatastoreNames;
+import org.hibernate.ogm.grid.EntityKey;
+import org.hibernate.ogm.grid.EntityKeyMetadata;
+import org.hibernate.ogm.perf.model.Blog;
+import org.infinispan.Cache;
+import org.infinispan.distribution.DistributionManager;
+import org.infinispan.remoting.transport.Address;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the latency of loading an aggregate, a {@link Blog} together with its tags, from a cluster of Infinispan
+ * nodes started in this JVM, with and without {@link InfinispanProperties#COLOCATE_ASSOCIATIONS}.
+ * <p>
+ * Each blog is loaded from the node owning its entity, as a client with key affinity would do: with colocation the
+ * tags are found on the same node, without it they are on another node most of the time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+// all the nodes run in the forked JVM and talk over the loopback interface
+@Fork(value = 1, jvmArgsAppend = { "-Djgroups.bind_addr=127.0.0.1", "-Djava.net.preferIPv4Stack=true" })
+public class InfinispanColocationBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class ClusterState {
+
+		/**
+		 * Number of {@link Blog}s persisted before the measurements start.
+		 */
+		public static final int PRELOADED_BLOGS = 1000;
+
+		/**
+		 * Number of tags of each preloaded {@link Blog}.
+		 */
+		public static final int TAGS_PER_BLOG = 5;
+
+		private static final long JOIN_TIMEOUT_MS = 30000;
+
+		static {
+			// see DatastoreState
+			System.setProperty( "com.arjuna.ats.arjuna.common.propertiesFile", "jbossts-properties.xml" );
+		}
+
+		@Param({ "false", "true" })
+		public boolean colocate;
+
+		@Param({ "3" })
+		public int nodes;
+
+		private final EntityKeyMetadata keyMetadata = new EntityKeyMetadata( "Blog", new String[] { "id" } );
+
+		private SessionFactory[] sessionFactories;
+
+		/**
+		 * The session factory of the node owning each blog, by id.
+		 */
+		private SessionFactory[] owners;
+
+		@Setup
+		public void setUp() throws Exception {
+			sessionFactories = new SessionFactory[nodes];
+			for ( int i = 0; i < nodes; i++ ) {
+				OgmConfiguration configuration = new OgmConfiguration();
+				configuration.addAnnotatedClass( Blog.class );
+				configuration.setProperty( OgmProperties.DATASTORE_PROVIDER, "INFINISPAN" );
+				configuration.setProperty( InfinispanProperties.CONFIGURATION_RESOURCENAME, "infinispan-dist.xml" );
+				configuration.setProperty( InfinispanProperties.COLOCATE_ASSOCIATIONS, String.valueOf( colocate ) );
+				sessionFactories[i] = configuration.buildSessionFactory();
+			}
+			for ( SessionFactory sessionFactory : sessionFactories ) {
+				awaitMembers( getCache( sessionFactory, DefaultDatastoreNames.ENTITY_STORE ) );
+				awaitMembers( getCache( sessionFactory, DefaultDatastoreNames.ASSOCIATION_STORE ) );
+			}
+
+			preload();
+			locateOwners();
+		}
+
+		@TearDown
+		public void tearDown() {
+			if ( sessionFactories != null ) {
+				for ( SessionFactory sessionFactory : sessionFactories ) {
+					if ( sessionFactory != null ) {
+						sessionFactory.close();
+					}
+				}
+			}
+		}
+
+		public SessionFactory getOwner(long id) {
+			return owners[(int) id];
+		}
+
+		private void preload() {
+			Session session = sessionFactories[0].openSession();
+			Transaction transaction = session.beginTransaction();
+			for ( long id = 0; id < PRELOADED_BLOGS; id++ ) {
+				Blog blog = new Blog( id, "Blog #" + id );
+				for ( int i = 0; i < TAGS_PER_BLOG; i++ ) {
+					blog.getTags().add( "tag #" + i );
+				}
+				session.persist( blog );
+			}
+			transaction.commit();
+			session.close();
+		}
+
+		private void locateOwners() {
+			owners = new SessionFactory[PRELOADED_BLOGS];
+			DistributionManager distributionManager = getCache( sessionFactories[0], DefaultDatastoreNames.ENTITY_STORE )
+					.getAdvancedCache().getDistributionManager();
+			for ( int id = 0; id < PRELOADED_BLOGS; id++ ) {
+				Address owner = distributionManager.getPrimaryLocation( new EntityKey( keyMetadata, new Object[] { Long.valueOf( id ) } ) );
+				for ( SessionFactory sessionFactory : sessionFactories ) {
+					if ( owner.equals( getProvider( sessionFactory ).getEmbeddedCacheManager().getAddress() ) ) {
+						owners[id] = sessionFactory;
+					}
+				}
+			}
+		}
+
+		private void awaitMembers(Cache<?, ?> cache) throws InterruptedException {
+			long deadline = System.currentTimeMillis() + JOIN_TIMEOUT_MS;
+			while ( cache.getAdvancedCache().getDistributionManager().getReadConsistentHash().getMembers().size() < nodes ) {
+				if ( System.currentTimeMillis() > deadline ) {
+					throw new IllegalStateException( "The cluster did not form within " + JOIN_TIMEOUT_MS + " ms" );
+				}
+				Thread.sleep( 100 );
+			}
+		}
+
+		private static Cache<?, ?> getCache(SessionFactory sessionFactory, String name) {
+			return getProvider( sessionFactory ).getCache( name );
+		}
+
+		private static InfinispanDatastoreProvider getProvider(SessionFactory sessionFactory) {
+			return (InfinispanDatastoreProvider) ( (SessionFactoryImplementor) sessionFactory ).getServiceRegistry()
+					.getService( DatastoreProvider.class );
+		}
+	}
+
+	@Benchmark
+	public Blog loadAggregate(ClusterState state, ThreadCounter counter) {
+		long id = counter.next() % ClusterState.PRELOADED_BLOGS;
+		Session session = state.getOwner( id ).openSession();
+		Transaction transaction = session.beginTransaction();
+		Blog blog = (Blog) session.get( Blog.class, id );
+		Hibernate.initialize( blog.getTags() );
+		transaction.commit();
+		session.close();
+		return blog;
+	}
+}
@@ -0,0 +1,139 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.perf;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.ogm.grid.AssociationKey;
+import org.hibernate.ogm.grid.AssociationKeyMetadata;
+import org.hibernate.ogm.grid.AssociationKind;
+import org.hibernate.ogm.grid.EntityKey;
+import org.hibernate.ogm.grid.EntityKeyMetadata;
+import org.hibernate.ogm.grid.RowKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the creation, hashing and equality of the grid keys, which are used as map keys throughout OGM and by the
+ * key/value datastores.
+ * <p>
+ * The lookups use a key equal to, but not the same instance as, the one stored in the map so that
+ * {@code equals()} is exercised as well; the column values are created upfront so that mostly the keys are measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class KeyHashingBenchmark {
+
+	private static final int KEY_COUNT = 1024;
+
+	private final EntityKeyMetadata entityKeyMetadata = new EntityKeyMetadata( "Author", new String[] { "id" } );
+
+	private final EntityKeyMetadata compositeEntityKeyMetadata = new EntityKeyMetadata( "Book", new String[] { "isbn", "edition" } );
+
+	private final AssociationKeyMetadata associationKeyMetadata = new AssociationKeyMetadata( "Blog_tags", new String[] { "Blog_id" } );
+
+	private final String[] rowKeyColumns = { "Blog_id", "tags" };
+
+	private final Map<EntityKey, Object> entityKeys = new HashMap<EntityKey, Object>();
+
+	private final Map<EntityKey, Object> compositeEntityKeys = new HashMap<EntityKey, Object>();
+
+	private final Map<AssociationKey, Object> associationKeys = new HashMap<AssociationKey, Object>();
+
+	private final Map<RowKey, Object> rowKeys = new HashMap<RowKey, Object>();
+
+	private final String[] isbns = new String[KEY_COUNT];
+
+	private final String[] tags = new String[KEY_COUNT];
+
+	private int next;
+
+	@Setup
+	public void setUp() {
+		for ( int i = 0; i < KEY_COUNT; i++ ) {
+			isbns[i] = "978-0-" + i;
+			tags[i] = "tag_" + i;
+		}
+		for ( int i = 0; i < KEY_COUNT; i++ ) {
+			entityKeys.put( entityKey( i ), Boolean.TRUE );
+			compositeEntityKeys.put( compositeEntityKey( i ), Boolean.TRUE );
+			associationKeys.put( associationKey( i ), Boolean.TRUE );
+			rowKeys.put( rowKey( i ), Boolean.TRUE );
+		}
+	}
+
+	@Benchmark
+	public Object entityKeyLookup() {
+		return entityKeys.get( entityKey( nextIndex() ) );
+	}
+
+	@Benchmark
+	public Object compositeEntityKeyLookup() {
+		return compositeEntityKeys.get( compositeEntityKey( nextIndex() ) );
+	}
+
+	@Benchmark
+	public Object associationKeyLookup() {
+		return associationKeys.get( associationKey( nextIndex() ) );
+	}
+
+	@Benchmark
+	public Object rowKeyLookup() {
+		return rowKeys.get( rowKey( nextIndex() ) );
+	}
+
+	private int nextIndex() {
+		next = ( next + 1 ) % KEY_COUNT;
+		return next;
+	}
+
+	private EntityKey entityKey(int i) {
+		return new EntityKey( entityKeyMetadata, new Object[] { Long.valueOf( i ) } );
+	}
+
+	private EntityKey compositeEntityKey(int i) {
+		return new EntityKey( compositeEntityKeyMetadata, new Object[] { isbns[i], Integer.valueOf( i % 3 ) } );
+	}
+
+	private AssociationKey associationKey(int i) {
+		Object[] columnValues = new Object[] { Long.valueOf( i ) };
+		EntityKey owner = new EntityKey( entityKeyMetadata, columnValues );
+		return new AssociationKey( associationKeyMetadata, columnValues, "Blog.tags", owner, AssociationKind.EMBEDDED_COLLECTION );
+	}
+
+	private RowKey rowKey(int i) {
+		return new RowKey( "Blog_tags", rowKeyColumns, new Object[] { Long.valueOf( i / 8 ), tags[i] } );
+	}
+}
@@ -0,0 +1,136 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.perf;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.ogm.cfg.OgmConfiguration;
+import org.hibernate.ogm.cfg.OgmProperties;
+import org.hibernate.ogm.datastore.impl.AvailableDatastoreProvider;
+import org.hibernate.ogm.datastore.neo4j.Neo4jProperties;
+import org.hibernate.ogm.datastore.neo4j.impl.Neo4jDatastoreProvider;
+import org.hibernate.ogm.datastore.spi.DatastoreProvider;
+import org.hibernate.ogm.dialect.neo4j.Neo4jIndexManager;
+import org.hibernate.ogm.grid.EntityKey;
+import org.hibernate.ogm.grid.EntityKeyMetadata;
+import org.hibernate.ogm.perf.model.Author;
+import org.neo4j.graphdb.Node;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the lookup of a single entity node in the Neo4j index by a Lucene query string, as done by the former
+ * {@link Neo4jIndexManager#findNode(EntityKey)}, with the exact-match lookup on the key property it uses now.
+ * <p>
+ * The nodes are created by persisting {@link Author}s through OGM, so that they are indexed both ways.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class Neo4jIndexLookupBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class Neo4jState {
+
+		static {
+			// see DatastoreState
+			System.setProperty( "com.arjuna.ats.arjuna.common.propertiesFile", "jbossts-properties.xml" );
+		}
+
+		private final EntityKeyMetadata keyMetadata = new EntityKeyMetadata( "Author", new String[] { "id" } );
+
+		private SessionFactory sessionFactory;
+
+		private File neo4jDirectory;
+
+		private Neo4jDatastoreProvider provider;
+
+		private Neo4jIndexManager indexManager;
+
+		@Setup
+		public void setUp() throws Exception {
+			neo4jDirectory = DatastoreState.createTemporaryDirectory();
+
+			OgmConfiguration configuration = new OgmConfiguration();
+			configuration.addAnnotatedClass( Author.class );
+			configuration.setProperty( OgmProperties.DATASTORE_PROVIDER, AvailableDatastoreProvider.NEO4J_EMBEDDED.name() );
+			configuration.setProperty( Neo4jProperties.DATABASE_PATH, neo4jDirectory.getAbsolutePath() );
+			sessionFactory = configuration.buildSessionFactory();
+
+			Session session = sessionFactory.openSession();
+			Transaction transaction = session.beginTransaction();
+			for ( int i = 0; i < DatastoreState.PRELOADED_AUTHORS; i++ ) {
+				session.persist( new Author( Long.valueOf( i ), "Author #" + i, "Preloaded" ) );
+			}
+			transaction.commit();
+			session.close();
+
+			provider = (Neo4jDatastoreProvider) ( (SessionFactoryImplementor) sessionFactory ).getServiceRegistry()
+					.getService( DatastoreProvider.class );
+			indexManager = new Neo4jIndexManager( provider );
+		}
+
+		@TearDown
+		public void tearDown() {
+			if ( sessionFactory != null ) {
+				sessionFactory.close();
+			}
+			if ( neo4jDirectory != null ) {
+				DatastoreState.delete( neo4jDirectory );
+			}
+		}
+
+		EntityKey entityKey(long index) {
+			return new EntityKey( keyMetadata, new Object[] { Long.valueOf( index % DatastoreState.PRELOADED_AUTHORS ) } );
+		}
+	}
+
+	@Benchmark
+	public Node queryLookup(Neo4jState state, ThreadCounter counter) {
+		EntityKey key = state.entityKey( counter.next() );
+		StringBuilder query = new StringBuilder( "_table: \"" ).append( key.getTable() ).append( "\"" );
+		for ( int i = 0; i < key.getColumnNames().length; i++ ) {
+			query.append( " AND " ).append( key.getColumnNames()[i] ).append( ": \"" ).append( key.getColumnValues()[i] ).append( "\"" );
+		}
+		return state.provider.getNodesIndex().query( query.toString() ).getSingle();
+	}
+
+	@Benchmark
+	public Node exactMatchLookup(Neo4jState state, ThreadCounter counter) {
+		return state.indexManager.findNode( state.entityKey( counter.next() ) );
+	}
+}
@@ -0,0 +1,179 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.perf;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.ogm.datastore.impl.MapTupleSnapshot;
+import org.hibernate.ogm.datastore.map.impl.MapAssociationSnapshot;
+import org.hibernate.ogm.datastore.spi.Association;
+import org.hibernate.ogm.datastore.spi.AssociationOperation;
+import org.hibernate.ogm.datastore.spi.ColumnIndex;
+import org.hibernate.ogm.datastore.spi.Tuple;
+import org.hibernate.ogm.datastore.spi.TupleOperation;
+import org.hibernate.ogm.grid.RowKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the in-memory change tracking of {@link Tuple} and {@link Association}, i.e. what the persisters do with
+ * the data between reading it from and writing it to the datastore.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class TupleBenchmark {
+
+	private static final String TABLE = "Blog_tags";
+
+	private static final String[] ROW_KEY_COLUMNS = { "Blog_id", "tags" };
+
+	/**
+	 * Number of columns of the tuple and number of rows of the association.
+	 */
+	@Param({ "10", "100" })
+	public int size;
+
+	private String[] columns;
+
+	private ColumnIndex columnIndex;
+
+	private Map<String, Object> tupleData;
+
+	private RowKey[] rowKeys;
+
+	private RowKey[] replacementRowKeys;
+
+	private Map<RowKey, Map<String, Object>> associationData;
+
+	@Setup
+	public void setUp() {
+		columns = new String[size];
+		tupleData = new HashMap<String, Object>();
+		for ( int i = 0; i < size; i++ ) {
+			columns[i] = "column_" + i;
+			tupleData.put( columns[i], "value_" + i );
+		}
+		columnIndex = new ColumnIndex( Arrays.asList( columns ) );
+
+		rowKeys = new RowKey[size];
+		replacementRowKeys = new RowKey[size];
+		associationData = new HashMap<RowKey, Map<String, Object>>();
+		for ( int i = 0; i < size; i++ ) {
+			Object[] values = { 1L, "tag_" + i };
+			rowKeys[i] = new RowKey( TABLE, ROW_KEY_COLUMNS, values );
+			replacementRowKeys[i] = new RowKey( TABLE, ROW_KEY_COLUMNS, new Object[] { 2L, "tag_" + i } );
+
+			Map<String, Object> row = new HashMap<String, Object>();
+			row.put( ROW_KEY_COLUMNS[0], values[0] );
+			row.put( ROW_KEY_COLUMNS[1], values[1] );
+			associationData.put( rowKeys[i], row );
+		}
+	}
+
+	/**
+	 * Reads all the columns of a tuple, as done when hydrating an entity.
+	 */
+	@Benchmark
+	public void tupleGet(Blackhole blackhole) {
+		Tuple tuple = new Tuple( new MapTupleSnapshot( tupleData ) );
+		for ( String column : columns ) {
+			blackhole.consume( tuple.get( column ) );
+		}
+	}
+
+	/**
+	 * Writes all the columns of a tuple and collects the resulting operations, as done when dehydrating an entity.
+	 */
+	@Benchmark
+	public Set<TupleOperation> tuplePutAndGetOperations() {
+		Tuple tuple = new Tuple( new MapTupleSnapshot( tupleData ) );
+		for ( int i = 0; i < columns.length; i++ ) {
+			tuple.put( columns[i], i );
+		}
+		return tuple.getOperations();
+	}
+
+	/**
+	 * Same as {@link #tuplePutAndGetOperations()} but with a tuple created with the column index of its persister.
+	 */
+	@Benchmark
+	public Set<TupleOperation> compactTuplePutAndGetOperations() {
+		Tuple tuple = new Tuple( new MapTupleSnapshot( tupleData ), columnIndex );
+		for ( int i = 0; i < columns.length; i++ ) {
+			tuple.put( columns[i], i );
+		}
+		return tuple.getOperations();
+	}
+
+	/**
+	 * Reads all the rows of an association through its keys, as done when initializing a collection.
+	 */
+	@Benchmark
+	public void associationGet(Blackhole blackhole) {
+		Association association = new Association( new MapAssociationSnapshot( associationData ) );
+		for ( RowKey rowKey : association.getKeys() ) {
+			blackhole.consume( association.get( rowKey ) );
+		}
+	}
+
+	/**
+	 * Replaces half of the rows of an association and collects the resulting operations.
+	 */
+	@Benchmark
+	public List<AssociationOperation> associationPutRemoveAndGetOperations() {
+		Association association = new Association( new MapAssociationSnapshot( associationData ) );
+		for ( int i = 0; i < rowKeys.length; i += 2 ) {
+			association.remove( rowKeys[i] );
+			association.put( replacementRowKeys[i], new Tuple() );
+		}
+		return association.getOperations();
+	}
+
+	/**
+	 * Computes the size of a modified association, as done by {@code PersistentCollection#size()}.
+	 */
+	@Benchmark
+	public int associationSize() {
+		Association association = new Association( new MapAssociationSnapshot( associationData ) );
+		association.remove( rowKeys[0] );
+		association.put( replacementRowKeys[0], new Tuple() );
+		return association.size();
+	}
+}
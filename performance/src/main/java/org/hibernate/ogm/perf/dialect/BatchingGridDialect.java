@@ -0,0 +1,226 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.perf.dialect;
+
+import java.lang.reflect.Constructor;
+import java.util.Iterator;
+import java.util.List;
+
+import org.hibernate.HibernateException;
+import org.hibernate.LockMode;
+import org.hibernate.dialect.lock.LockingStrategy;
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.loader.custom.CustomQuery;
+import org.hibernate.ogm.datastore.spi.Association;
+import org.hibernate.ogm.datastore.spi.AssociationContext;
+import org.hibernate.ogm.datastore.spi.DatastoreProvider;
+import org.hibernate.ogm.datastore.spi.Tuple;
+import org.hibernate.ogm.datastore.spi.TupleContext;
+import org.hibernate.ogm.datastore.spi.TupleSnapshot;
+import org.hibernate.ogm.dialect.BatchableGridDialect;
+import org.hibernate.ogm.dialect.DeltaUpdateGridDialect;
+import org.hibernate.ogm.dialect.DuplicateInsertAwareGridDialect;
+import org.hibernate.ogm.dialect.GridDialect;
+import org.hibernate.ogm.dialect.MultigetGridDialect;
+import org.hibernate.ogm.dialect.OptimisticLockingAwareGridDialect;
+import org.hibernate.ogm.dialect.batch.Operation;
+import org.hibernate.ogm.dialect.batch.OperationsQueue;
+import org.hibernate.ogm.dialect.batch.RemoveAssociationOperation;
+import org.hibernate.ogm.dialect.batch.RemoveTupleOperation;
+import org.hibernate.ogm.dialect.batch.UpdateAssociationOperation;
+import org.hibernate.ogm.dialect.batch.UpdateTupleOperation;
+import org.hibernate.ogm.dialect.impl.GridDialects;
+import org.hibernate.ogm.grid.AssociationKey;
+import org.hibernate.ogm.grid.EntityKey;
+import org.hibernate.ogm.grid.EntityKeyMetadata;
+import org.hibernate.ogm.grid.RowKey;
+import org.hibernate.ogm.massindex.batchindexing.Consumer;
+import org.hibernate.ogm.type.GridType;
+import org.hibernate.ogm.util.impl.Log;
+import org.hibernate.ogm.util.impl.LoggerFactory;
+import org.hibernate.persister.entity.Lockable;
+import org.hibernate.type.Type;
+
+/**
+ * Makes the default dialect of any datastore batchable, so that the {@code BatchOperationsDelegator} flushes can be
+ * measured against the embedded datastores; the queued operations are applied one by one when the batch is executed.
+ * <p>
+ * Pending operations are applied before an association is read, as the wrapped dialect can't see them otherwise.
+ */
+public class BatchingGridDialect implements BatchableGridDialect, MultigetGridDialect, DeltaUpdateGridDialect, DuplicateInsertAwareGridDialect, OptimisticLockingAwareGridDialect {
+
+	private static final Log log = LoggerFactory.make();
+
+	private final GridDialect delegate;
+
+	public BatchingGridDialect(DatastoreProvider provider) {
+		this.delegate = createDefaultDialect( provider );
+	}
+
+	private static GridDialect createDefaultDialect(DatastoreProvider provider) {
+		for ( Constructor<?> constructor : provider.getDefaultDialect().getConstructors() ) {
+			Class<?>[] parameterTypes = constructor.getParameterTypes();
+			if ( parameterTypes.length == 1 && parameterTypes[0].isInstance( provider ) ) {
+				try {
+					return (GridDialect) constructor.newInstance( provider );
+				}
+				catch (Exception e) {
+					throw new HibernateException( "Could not create the default dialect of " + provider, e );
+				}
+			}
+		}
+		throw new HibernateException( "No constructor accepting " + provider + " in " + provider.getDefaultDialect() );
+	}
+
+	@Override
+	public void executeBatch(OperationsQueue queue) {
+		if ( !queue.isClosed() ) {
+			applyPendingOperations( queue );
+			queue.close();
+		}
+	}
+
+	private void applyPendingOperations(OperationsQueue queue) {
+		if ( queue == null || queue.isClosed() ) {
+			return;
+		}
+		Operation operation = queue.poll();
+		while ( operation != null ) {
+			if ( operation instanceof UpdateTupleOperation ) {
+				UpdateTupleOperation update = (UpdateTupleOperation) operation;
+				if ( update.getOldLockState() == null ) {
+					delegate.updateTuple( update.getTuple(), update.getEntityKey() );
+				}
+				else if ( !GridDialects.updateTupleWithOptimisticLock( delegate, update.getEntityKey(), update.getOldLockState(), update.getTuple(), update.getTupleContext() ) ) {
+					throw log.staleBatchedUpdate( update.getEntityKey() );
+				}
+			}
+			else if ( operation instanceof RemoveTupleOperation ) {
+				RemoveTupleOperation remove = (RemoveTupleOperation) operation;
+				delegate.removeTuple( remove.getEntityKey() );
+			}
+			else if ( operation instanceof UpdateAssociationOperation ) {
+				UpdateAssociationOperation update = (UpdateAssociationOperation) operation;
+				delegate.updateAssociation( update.getAssociation(), update.getAssociationKey(), update.getContext() );
+			}
+			else if ( operation instanceof RemoveAssociationOperation ) {
+				RemoveAssociationOperation remove = (RemoveAssociationOperation) operation;
+				delegate.removeAssociation( remove.getAssociationKey(), remove.getContext() );
+			}
+			else {
+				throw new UnsupportedOperationException( "Operation not supported: " + operation.getClass().getName() );
+			}
+			operation = queue.poll();
+		}
+	}
+
+	@Override
+	public LockingStrategy getLockingStrategy(Lockable lockable, LockMode lockMode) {
+		return delegate.getLockingStrategy( lockable, lockMode );
+	}
+
+	@Override
+	public Tuple getTuple(EntityKey key, TupleContext tupleContext) {
+		return delegate.getTuple( key, tupleContext );
+	}
+
+	@Override
+	public List<Tuple> getTuples(EntityKey[] keys, TupleContext tupleContext) {
+		return GridDialects.getTuples( delegate, keys, tupleContext );
+	}
+
+	@Override
+	public Tuple createTuple(EntityKey key) {
+		return delegate.createTuple( key );
+	}
+
+	@Override
+	public Tuple createTupleForInsert(EntityKey key, TupleContext tupleContext) {
+		return GridDialects.createTupleForInsert( delegate, key, tupleContext );
+	}
+
+	@Override
+	public Tuple createTupleForUpdate(EntityKey key, TupleSnapshot loadedState, TupleContext tupleContext) {
+		return GridDialects.createTupleForUpdate( delegate, key, loadedState, tupleContext );
+	}
+
+	@Override
+	public void updateTuple(Tuple tuple, EntityKey key) {
+		delegate.updateTuple( tuple, key );
+	}
+
+	@Override
+	public boolean updateTupleWithOptimisticLock(EntityKey key, Tuple oldLockState, Tuple tuple, TupleContext tupleContext) {
+		applyPendingOperations( tupleContext.getOperationsQueue() );
+		return GridDialects.updateTupleWithOptimisticLock( delegate, key, oldLockState, tuple, tupleContext );
+	}
+
+	@Override
+	public void removeTuple(EntityKey key) {
+		delegate.removeTuple( key );
+	}
+
+	@Override
+	public Association getAssociation(AssociationKey key, AssociationContext associationContext) {
+		applyPendingOperations( associationContext.getOperationsQueue() );
+		return delegate.getAssociation( key, associationContext );
+	}
+
+	@Override
+	public Association createAssociation(AssociationKey key, AssociationContext associationContext) {
+		return delegate.createAssociation( key, associationContext );
+	}
+
+	@Override
+	public void updateAssociation(Association association, AssociationKey key, AssociationContext associationContext) {
+		delegate.updateAssociation( association, key, associationContext );
+	}
+
+	@Override
+	public void removeAssociation(AssociationKey key, AssociationContext associationContext) {
+		delegate.removeAssociation( key, associationContext );
+	}
+
+	@Override
+	public Tuple createTupleAssociation(AssociationKey associationKey, RowKey rowKey) {
+		return delegate.createTupleAssociation( associationKey, rowKey );
+	}
+
+	@Override
+	public void nextValue(RowKey key, IntegralDataTypeHolder value, int increment, int initialValue) {
+		delegate.nextValue( key, value, increment, initialValue );
+	}
+
+	@Override
+	public GridType overrideType(Type type) {
+		return delegate.overrideType( type );
+	}
+
+	@Override
+	public void forEachTuple(Consumer consumer, EntityKeyMetadata... entityKeyMetadatas) {
+		delegate.forEachTuple( consumer, entityKeyMetadatas );
+	}
+
+	@Override
+	public Iterator<Tuple> executeBackendQuery(CustomQuery customQuery, EntityKeyMetadata[] metadatas) {
+		return delegate.executeBackendQuery( customQuery, metadatas );
+	}
+}